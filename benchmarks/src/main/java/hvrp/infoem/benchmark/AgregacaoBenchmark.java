@@ -0,0 +1,108 @@
+package hvrp.infoem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Peca;
+
+/**
+ *  Mede calcularPesoTotal, calcularVolumeTotal e calcularConsumoTinta de 1e3 a 1e7 peças.
+ *
+ *  Os totais da estrutura são mantidos à medida que as peças são adicionadas, portanto são medidos três casos: o cálculo completo (uma
+ *  cópia recém-anexada da estrutura, com todos os blocos de totais a recalcular), a consulta depois de modificar uma única peça e a
+ *  consulta com os totais já válidos.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AgregacaoBenchmark {
+	/**
+	 *  Quantidade de peças da estrutura.
+	 */
+	@Param({"1000", "100000", "10000000"})
+	public int pecas;
+
+	/**
+	 *  Número de threads utilizadas no recálculo dos totais.
+	 */
+	@Param({"1", "4"})
+	public int paralelismo;
+
+	/**
+	 *  Estrutura preenchida uma única vez e a cópia cujos totais serão recalculados.
+	 */
+	private EstruturaMetalica original, copia;
+
+	/**
+	 *  Peça modificada no caso de uma única modificação e a sua quantidade original.
+	 */
+	private Peca peca;
+	private int quantidade;
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		original = new EstruturaMetalica();
+		original.setParalelismo(paralelismo);
+		GeradorEstrutura.preencher(original, pecas, GeradorEstrutura.SEMENTE);
+		original.obterResumo();
+
+		peca = original.obterPeca(pecas / 2);
+		quantidade = peca.getQuantidade();
+	}
+
+	/**
+	 *  Cria, antes de cada chamada, uma cópia da estrutura com todos os totais a recalcular.
+	 */
+	@Setup(Level.Invocation)
+	public void copiar() {
+		copia = new EstruturaMetalica();
+		copia.setParalelismo(paralelismo);
+		copia.anexar(original);
+	}
+
+	@Benchmark
+	public double calcularPesoTotal() {
+		return copia.calcularPesoTotal();
+	}
+
+	@Benchmark
+	public double calcularVolumeTotal() {
+		return copia.calcularVolumeTotal();
+	}
+
+	@Benchmark
+	public int[] calcularConsumoTinta() {
+		return copia.calcularConsumoTinta();
+	}
+
+	@Benchmark
+	public double modificarUmaPeca() {
+		peca.setQuantidade(peca.getQuantidade() == quantidade ? quantidade + 1 : quantidade);
+		return original.calcularPesoTotal();
+	}
+
+	@Benchmark
+	public double totaisValidos() {
+		return original.calcularPesoTotal() + original.calcularVolumeTotal();
+	}
+} // class AgregacaoBenchmark
@@ -0,0 +1,97 @@
+package hvrp.infoem.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hvrp.infoem.Estrutura;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.MedidaPeca;
+import hvrp.infoem.Peca;
+import hvrp.infoem.TipoDimensao;
+
+/**
+ *  Mede as consultas por faixa de valores e das maiores peças de EstruturaMetalica, comparando o índice ordenado com a varredura das
+ *  peças do tipo e o índice da medida com o heap limitado (utilizado enquanto a medida não possui um índice atualizado).
+ *
+ *  Os índices do raio e do peso são construídos na preparação; os litros de tinta nunca são consultados por faixa, portanto as maiores
+ *  peças dessa medida são sempre obtidas pelo heap.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class ConsultaBenchmark {
+	/**
+	 *  Faixa do raio consultada, em metros (m), e número de maiores peças obtidas.
+	 */
+	private final static double RAIO_MINIMO = 2.0, RAIO_MAXIMO = 2.5;
+	private final static int MAIORES = 100;
+
+	/**
+	 *  Quantidade de peças da estrutura.
+	 */
+	@Param({"1000", "100000", "10000000"})
+	public int pecas;
+
+	/**
+	 *  Estrutura preenchida uma única vez.
+	 */
+	private EstruturaMetalica estrutura;
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		estrutura = new EstruturaMetalica();
+		GeradorEstrutura.preencher(estrutura, pecas, GeradorEstrutura.SEMENTE);
+
+		estrutura.obterPecasNaFaixa(Estrutura.CILINDRO, TipoDimensao.RAIO, RAIO_MINIMO, RAIO_MAXIMO);
+		estrutura.obterPecasNaFaixa(MedidaPeca.PESO, 0, 0);
+	}
+
+	@Benchmark
+	public int faixaIndice() {
+		return estrutura.obterPecasNaFaixa(Estrutura.CILINDRO, TipoDimensao.RAIO, RAIO_MINIMO, RAIO_MAXIMO).size();
+	}
+
+	@Benchmark
+	public int faixaVarredura() {
+		int encontradas = 0;
+
+		for(Peca peca : estrutura.obterPecasDoTipo(Estrutura.CILINDRO)) {
+			double raio = peca.getDimensao(TipoDimensao.RAIO);
+
+			if(raio >= RAIO_MINIMO && raio <= RAIO_MAXIMO) {
+				encontradas++;
+			}
+		}
+		return encontradas;
+	}
+
+	@Benchmark
+	public List<Peca> maioresIndice() {
+		return estrutura.obterMaiores(MedidaPeca.PESO, MAIORES);
+	}
+
+	@Benchmark
+	public List<Peca> maioresHeap() {
+		return estrutura.obterMaiores(MedidaPeca.LITROS_TINTA, MAIORES);
+	}
+} // class ConsultaBenchmark
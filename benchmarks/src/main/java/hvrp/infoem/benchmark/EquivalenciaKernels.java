@@ -0,0 +1,249 @@
+package hvrp.infoem.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32C;
+
+import hvrp.infoem.Cilindro;
+import hvrp.infoem.Cubo;
+import hvrp.infoem.Estrutura;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.GeometriaPecas;
+import hvrp.infoem.Paralelepipedo;
+import hvrp.infoem.Peca;
+import hvrp.infoem.Peca.Material;
+
+/**
+ *  Verifica se calcularGeometria produz exatamente os mesmos valores com o kernel escalar (-Dhvrp.infoem.escalar=true) e com o vetorial
+ *  (-Dhvrp.infoem.escalar=false). Como o kernel é escolhido uma única vez por JVM, cada kernel é executado em uma JVM própria, com o mesmo
+ *  classpath, que calcula a geometria dos três tipos de peça em estruturas pseudoaleatórias e escreve a soma de verificação (CRC-32C dos
+ *  bits de cada área, volume, peso e litros de tinta) de cada caso; as duas listas de somas devem ser iguais.
+ *
+ *  Cada caso sorteia o número de peças (incluindo estruturas vazias e tamanhos que não são múltiplos do vetor), a proporção de cada tipo,
+ *  portanto as partições têm linhas intercaladas, as dimensões (de 2^-20 a 2^20 metros), as quantidades e os materiais. Depois, parte das
+ *  peças é modificada pelos setters e um trecho é substituído por substituirPecas. Um em cada quatro casos utiliza uma estrutura fora do
+ *  heap, que o kernel vetorial calcula pelo escalar.
+ *
+ *  Execução, após mvn -B package: java -cp target/benchmarks.jar hvrp.infoem.benchmark.EquivalenciaKernels [casos]. O código de saída é
+ *  0 quando os valores são iguais e 1 caso contrário, ou caso o kernel vetorial não esteja disponível.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class EquivalenciaKernels {
+	/**
+	 *  Número padrão de casos e maior número de peças de um caso.
+	 */
+	private final static int CASOS_PADRAO = 300, MAXIMO_PECAS = 5000;
+
+	/**
+	 *  Argumento que executa a JVM filha, que calcula as somas de verificação com o kernel escolhido pela propriedade.
+	 */
+	private final static String ARGUMENTO_CALCULAR = "--calcular";
+
+	/**
+	 *  Propriedade que escolhe o kernel, módulo da Vector API e prefixo da linha com a descrição do kernel.
+	 */
+	private final static String PROPRIEDADE_ESCALAR = "hvrp.infoem.escalar", MODULO_VETORIAL = "jdk.incubator.vector",
+			KERNEL = "kernel: ";
+
+	/**
+	 *  Tipos de peça verificados.
+	 */
+	private final static int[] TIPOS = {Estrutura.CILINDRO, Estrutura.CUBO, Estrutura.PARALELEPIPEDO};
+
+	private EquivalenciaKernels() {}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if(args.length > 1 && args[0].equals(ARGUMENTO_CALCULAR)) {
+			calcular(Integer.parseInt(args[1]));
+			return;
+		}
+
+		int casos = args.length > 0 ? Integer.parseInt(args[0]) : CASOS_PADRAO;
+		List<String> escalar = executar(true, casos), vetorial = executar(false, casos);
+
+		System.out.println(escalar.get(0));
+		System.out.println(vetorial.get(0));
+
+		if(!vetorial.get(0).startsWith(KERNEL + "vetorial")) {
+			System.out.println("O kernel vetorial não está disponível: não há o que comparar.");
+			System.exit(1);
+		}
+
+		int diferentes = 0;
+		for(int i = 1; i < Math.max(escalar.size(), vetorial.size()); i++) {
+			String a = i < escalar.size() ? escalar.get(i) : "", b = i < vetorial.size() ? vetorial.get(i) : "";
+
+			if(!a.equals(b)) {
+				System.out.printf("Diferença: escalar [%s], vetorial [%s]%n", a, b);
+				diferentes++;
+			}
+		}
+
+		System.out.printf("%d caso(s), %d partição(ões): %s%n", casos, escalar.size() - 1,
+				diferentes == 0 ? "valores idênticos" : diferentes + " diferença(s)");
+		System.exit(diferentes == 0 ? 0 : 1);
+	} // main(String[] args)
+
+	/**
+	 *  Função auxiliar que executa a JVM filha com o kernel fornecido e obtém as linhas escritas por ela: a descrição do kernel e a soma
+	 *  de verificação de cada partição.
+	 *
+	 *  @param escalar - true para o kernel escalar, false para o vetorial
+	 *  @param casos - o número de casos
+	 *
+	 *  @return as linhas escritas pela JVM filha
+	 *
+	 *  @throws IOException caso a JVM filha não possa ser executada ou termine com erro
+	 *  @throws InterruptedException caso a espera pela JVM filha seja interrompida
+	 */
+	private static List<String> executar(boolean escalar, int casos) throws IOException, InterruptedException {
+		List<String> comando = new ArrayList<>();
+
+		comando.add(ProcessHandle.current().info().command().orElse("java"));
+		for(String argumento : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			if(!argumento.startsWith("-D" + PROPRIEDADE_ESCALAR))
+				comando.add(argumento);
+		}
+		comando.add("--add-modules");
+		comando.add(MODULO_VETORIAL);
+		comando.add("-D" + PROPRIEDADE_ESCALAR + "=" + escalar);
+		comando.add("-cp");
+		comando.add(System.getProperty("java.class.path"));
+		comando.add(EquivalenciaKernels.class.getName());
+		comando.add(ARGUMENTO_CALCULAR);
+		comando.add(Integer.toString(casos));
+
+		Process processo = new ProcessBuilder(comando).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		List<String> linhas = new ArrayList<>();
+
+		try(BufferedReader entrada = new BufferedReader(new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8))) {
+			for(String linha; (linha = entrada.readLine()) != null;) {
+				linhas.add(linha);
+			}
+		}
+		if(processo.waitFor() != 0 || linhas.isEmpty())
+			throw new IOException("A JVM filha (" + PROPRIEDADE_ESCALAR + "=" + escalar + ") terminou com erro.");
+		return linhas;
+	} // executar(boolean escalar, int casos)
+
+	/**
+	 *  Função auxiliar executada pela JVM filha: escreve a descrição do kernel e, para cada caso e tipo de peça, o número de peças e a
+	 *  soma de verificação da geometria.
+	 *
+	 *  @param casos - o número de casos
+	 */
+	private static void calcular(int casos) {
+		System.out.println(KERNEL + EstruturaMetalica.getKernelGeometria());
+
+		for(int caso = 0; caso < casos; caso++) {
+			SplittableRandom aleatorio = new SplittableRandom(GeradorEstrutura.SEMENTE + caso);
+			EstruturaMetalica estrutura = aleatorio.nextInt(4) == 0 ? EstruturaMetalica.foraDoHeap() : new EstruturaMetalica();
+
+			try {
+				preencher(estrutura, aleatorio);
+				modificar(estrutura, aleatorio);
+
+				for(int tipo : TIPOS) {
+					GeometriaPecas geometria = estrutura.calcularGeometria(tipo);
+					System.out.printf("%d %d %d %08x%n", caso, tipo, geometria.getTamanho(), soma(geometria));
+				}
+			}
+			finally {
+				if(estrutura.isForaDoHeap()) {
+					estrutura.liberar();
+				}
+			}
+		}
+	} // calcular(int casos)
+
+	/**
+	 *  Função auxiliar que adiciona na estrutura um número sorteado de peças, com uma proporção sorteada de cada tipo.
+	 */
+	private static void preencher(EstruturaMetalica estrutura, SplittableRandom aleatorio) {
+		int pecas = aleatorio.nextInt(MAXIMO_PECAS + 1);
+		double cilindros = aleatorio.nextDouble(), cubos = cilindros + (1 - cilindros) * aleatorio.nextDouble();
+
+		for(int i = 0; i < pecas; i++) {
+			double sorteio = aleatorio.nextDouble();
+			int quantidade = 1 + aleatorio.nextInt(1000);
+			Material material = material(aleatorio);
+
+			if(sorteio < cilindros)
+				estrutura.adicionarCilindro(quantidade, material, dimensao(aleatorio), dimensao(aleatorio));
+			else if(sorteio < cubos)
+				estrutura.adicionarCubo(quantidade, material, dimensao(aleatorio));
+			else
+				estrutura.adicionarParalelepipedo(quantidade, material, dimensao(aleatorio), dimensao(aleatorio), dimensao(aleatorio));
+		}
+	} // preencher(EstruturaMetalica estrutura, SplittableRandom aleatorio)
+
+	/**
+	 *  Função auxiliar que modifica parte das peças da estrutura pelos setters e substitui um trecho por outras peças.
+	 */
+	private static void modificar(EstruturaMetalica estrutura, SplittableRandom aleatorio) {
+		List<Peca> pecas = estrutura.getPecasList();
+		int total = pecas.size();
+
+		if(total == 0)
+			return;
+
+		for(int i = 0, n = aleatorio.nextInt(total); i < n; i++) {
+			Peca peca = pecas.get(aleatorio.nextInt(total));
+
+			switch(peca) {
+				case Cilindro cilindro -> cilindro.setRaio(dimensao(aleatorio));
+				case Cubo cubo -> cubo.setAresta(dimensao(aleatorio));
+				case Paralelepipedo paralelepipedo -> paralelepipedo.setLargura(dimensao(aleatorio));
+				default -> throw new IllegalStateException();
+			}
+			peca.setQuantidade(1 + aleatorio.nextInt(1000)).setMaterial(material(aleatorio));
+		}
+
+		int inicio = aleatorio.nextInt(total);
+		EstruturaMetalica novas = new EstruturaMetalica();
+
+		preencher(novas, aleatorio);
+		estrutura.substituirPecas(inicio, aleatorio.nextInt(total - inicio + 1), novas);
+	} // modificar(EstruturaMetalica estrutura, SplittableRandom aleatorio)
+
+	/**
+	 *  Função auxiliar que calcula o CRC-32C dos bits de todos os valores de uma geometria.
+	 */
+	private static long soma(GeometriaPecas geometria) {
+		ByteBuffer bits = ByteBuffer.allocate(4 * Double.BYTES);
+		CRC32C crc = new CRC32C();
+
+		for(int i = 0; i < geometria.getTamanho(); i++) {
+			bits.clear();
+			bits.putDouble(geometria.getArea(i)).putDouble(geometria.getVolume(i)).putDouble(geometria.getPeso(i))
+				.putDouble(geometria.getLitrosTinta(i)).flip();
+			crc.update(bits);
+		}
+		return crc.getValue();
+	} // soma(GeometriaPecas geometria)
+
+	/**
+	 *  Função auxiliar que sorteia um material.
+	 */
+	private static Material material(SplittableRandom aleatorio) {
+		Material[] materiais = Material.values();
+		return materiais[aleatorio.nextInt(materiais.length)];
+	}
+
+	/**
+	 *  Função auxiliar que sorteia uma dimensão entre 2^-20 e 2^20 metros, com a mantissa e o expoente aleatórios.
+	 */
+	private static double dimensao(SplittableRandom aleatorio) {
+		return Math.scalb(1 + aleatorio.nextDouble(), aleatorio.nextInt(-20, 20));
+	}
+} // class EquivalenciaKernels
@@ -0,0 +1,27 @@
+package hvrp.infoem.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Executa os benchmarks sempre com o profiler de GC, para que a taxa de alocação (gc.alloc.rate.norm, em bytes/op) apareça nos
+ *  resultados. Aceita as mesmas opções de linha de comando do JMH (por exemplo, o nome de um benchmark ou -p pecas=1000).
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class ExecutarBenchmarks {
+	private ExecutarBenchmarks() {}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		new Runner(new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+} // class ExecutarBenchmarks
@@ -0,0 +1,81 @@
+package hvrp.infoem.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hvrp.infoem.Peca;
+
+/**
+ *  Mede area() e volume() de Cilindro, Cubo e Paralelepipedo percorrendo uma lista de peças. A lista monomórfica contém apenas
+ *  cilindros; a lista bimórfica, cilindros e cubos; a lista megamórfica mistura os três tipos, de forma que a chamada deixa de ser
+ *  resolvida por inline cache.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometriaBenchmark {
+	/**
+	 *  Quantidade de peças da lista.
+	 */
+	@Param({"1000", "100000"})
+	public int pecas;
+
+	/**
+	 *  Número de tipos de peças presentes na lista: 1 (monomórfica), 2 (bimórfica) ou 3 (megamórfica).
+	 */
+	@Param({"1", "2", "3"})
+	public int tiposDiferentes;
+
+	private List<Peca> lista;
+
+	@Setup
+	public void preparar() {
+		lista = GeradorEstrutura.lista(pecas, tiposDiferentes, GeradorEstrutura.SEMENTE);
+	}
+
+	@Benchmark
+	public double area() {
+		double total = 0;
+		for(Peca p : lista) {
+			total += p.area();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double volume() {
+		double total = 0;
+		for(Peca p : lista) {
+			total += p.volume();
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double areaEVolume() {
+		double total = 0;
+		for(Peca p : lista) {
+			total += p.area() + p.volume();
+		}
+		return total;
+	}
+} // class GeometriaBenchmark
@@ -0,0 +1,146 @@
+package hvrp.infoem.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import hvrp.infoem.Cilindro;
+import hvrp.infoem.Cubo;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Paralelepipedo;
+import hvrp.infoem.Peca;
+import hvrp.infoem.Peca.Material;
+
+/**
+ *  Gera estruturas metálicas, listas de peças e arquivos .csv pseudoaleatórios (a partir de uma semente fixa) para os benchmarks.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class GeradorEstrutura {
+	/**
+	 *  Semente utilizada por todos os benchmarks, para que as execuções sejam comparáveis.
+	 */
+	final static long SEMENTE = 20240501L;
+
+	/**
+	 *  Cabeçalho do arquivo .csv.
+	 */
+	final static String CABECALHO = "Peça;Quantidade;Material;Raio;Altura;Largura;Profundidade;Aresta";
+
+	private GeradorEstrutura() {}
+
+	/**
+	 *  Adiciona na estrutura a quantidade de peças fornecida, alternando aleatoriamente entre cilindros, cubos e paralelepípedos.
+	 *
+	 *  @param estruturaMetalica - a estrutura que receberá as peças
+	 *  @param pecas - a quantidade de peças
+	 *  @param semente - a semente do gerador pseudoaleatório
+	 */
+	static void preencher(EstruturaMetalica estruturaMetalica, int pecas, long semente) {
+		SplittableRandom aleatorio = new SplittableRandom(semente);
+
+		for(int i = 0; i < pecas; i++) {
+			int quantidade = 1 + aleatorio.nextInt(9);
+			Material material = material(aleatorio);
+
+			switch(aleatorio.nextInt(3)) {
+				case 0 -> estruturaMetalica.adicionarCilindro(quantidade, material, dimensao(aleatorio), dimensao(aleatorio));
+				case 1 -> estruturaMetalica.adicionarCubo(quantidade, material, dimensao(aleatorio));
+				default -> estruturaMetalica.adicionarParalelepipedo(quantidade, material, dimensao(aleatorio), dimensao(aleatorio),
+						dimensao(aleatorio));
+			}
+		}
+	} // preencher(EstruturaMetalica estruturaMetalica, int pecas, long semente)
+
+	/**
+	 *  Cria uma lista de peças. Com tiposDiferentes igual a 1 a lista contém apenas cilindros; com 3 ela mistura os três tipos de peças.
+	 *
+	 *  @param pecas - a quantidade de peças
+	 *  @param tiposDiferentes - o número de tipos de peças presentes na lista (de 1 a 3)
+	 *  @param semente - a semente do gerador pseudoaleatório
+	 *
+	 *  @return a lista de peças
+	 */
+	static List<Peca> lista(int pecas, int tiposDiferentes, long semente) {
+		SplittableRandom aleatorio = new SplittableRandom(semente);
+		List<Peca> lista = new ArrayList<>(pecas);
+
+		for(int i = 0; i < pecas; i++) {
+			int quantidade = 1 + aleatorio.nextInt(9);
+			Material material = material(aleatorio);
+
+			lista.add(switch(aleatorio.nextInt(tiposDiferentes)) {
+				case 0 -> new Cilindro(quantidade, material, dimensao(aleatorio), dimensao(aleatorio));
+				case 1 -> new Cubo(quantidade, material, dimensao(aleatorio));
+				default -> new Paralelepipedo(quantidade, material, dimensao(aleatorio), dimensao(aleatorio), dimensao(aleatorio));
+			});
+		}
+		return lista;
+	} // lista(int pecas, int tiposDiferentes, long semente)
+
+	/**
+	 *  Grava um arquivo .csv com a quantidade de linhas de peças fornecida, no mesmo formato de csv/MetalStructure.csv.
+	 *
+	 *  @param arquivo - o arquivo a ser gravado
+	 *  @param linhas - a quantidade de linhas de peças (sem contar o cabeçalho)
+	 *  @param semente - a semente do gerador pseudoaleatório
+	 *
+	 *  @throws IOException caso ocorra algum problema na gravação do arquivo
+	 */
+	static void gravarCsv(Path arquivo, int linhas, long semente) throws IOException {
+		SplittableRandom aleatorio = new SplittableRandom(semente);
+
+		try(BufferedWriter saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8)) {
+			saida.write(CABECALHO);
+			saida.newLine();
+
+			for(int i = 0; i < linhas; i++) {
+				saida.write(linhaCsv(aleatorio));
+				saida.newLine();
+			}
+		}
+	} // gravarCsv(Path arquivo, int linhas, long semente)
+
+	/**
+	 *  Cria uma linha de peça do arquivo .csv, no mesmo formato de csv/MetalStructure.csv.
+	 *
+	 *  @param aleatorio - o gerador pseudoaleatório
+	 *
+	 *  @return a linha de peça, sem o fim de linha
+	 */
+	static String linhaCsv(SplittableRandom aleatorio) {
+		int quantidade = 1 + aleatorio.nextInt(9);
+		String material = material(aleatorio).getNome();
+
+		return switch(aleatorio.nextInt(3)) {
+			case 0 -> String.format(Locale.ROOT, "%s;%d;%s;%.2f;%.2f;-;-;-", Cilindro.CILINDRO, quantidade, material, dimensao(aleatorio),
+					dimensao(aleatorio));
+			case 1 -> String.format(Locale.ROOT, "%s;%d;%s;-;-;-;-;%.2f", Cubo.CUBO, quantidade, material, dimensao(aleatorio));
+			default -> String.format(Locale.ROOT, "%s;%d;%s;-;%.2f;%.2f;%.2f;-", Paralelepipedo.PARALELEPIPEDO, quantidade, material,
+					dimensao(aleatorio), dimensao(aleatorio), dimensao(aleatorio));
+		};
+	} // linhaCsv(SplittableRandom aleatorio)
+
+	/**
+	 *  Função auxiliar que sorteia um material.
+	 */
+	private static Material material(SplittableRandom aleatorio) {
+		Material[] materiais = Material.values();
+		return materiais[aleatorio.nextInt(materiais.length)];
+	}
+
+	/**
+	 *  Função auxiliar que sorteia uma dimensão entre 0,1 e 10 centímetros.
+	 */
+	private static double dimensao(SplittableRandom aleatorio) {
+		return 0.1 + aleatorio.nextDouble() * 9.9;
+	}
+} // class GeradorEstrutura
@@ -0,0 +1,86 @@
+package hvrp.infoem.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.importacao.ImportadorCSV;
+
+/**
+ *  Mede a importação de arquivos .csv gerados no formato de csv/MetalStructure.csv. EM.importarPecas apenas delega para o ImportadorCSV,
+ *  que é medido diretamente para não abrir a interface gráfica. Mede também o carregamento da cópia binária da mesma estrutura
+ *  (EstruturaMetalica.carregar), utilizada por EM.importarPecas quando o arquivo .csv não mudou.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ImportacaoBenchmark {
+	/**
+	 *  Quantidade de linhas de peças do arquivo.
+	 */
+	@Param({"1000", "100000", "1000000"})
+	public int linhas;
+
+	/**
+	 *  Número de threads utilizadas na leitura (arquivos pequenos são sempre lidos na thread atual).
+	 */
+	@Param({"1", "4"})
+	public int paralelismo;
+
+	private Path arquivo, copia;
+	private ForkJoinPool pool;
+
+	@Setup
+	public void preparar() throws IOException {
+		arquivo = Files.createTempFile("MetalStructure", ".csv");
+		GeradorEstrutura.gravarCsv(arquivo, linhas, GeradorEstrutura.SEMENTE);
+		pool = new ForkJoinPool(paralelismo);
+
+		copia = Files.createTempFile("MetalStructure", ".emb");
+		importar().salvar(copia);
+	}
+
+	@TearDown
+	public void finalizar() throws IOException {
+		pool.shutdown();
+		Files.deleteIfExists(arquivo);
+		Files.deleteIfExists(copia);
+	}
+
+	@Benchmark
+	public EstruturaMetalica importar() throws IOException {
+		EstruturaMetalica estruturaMetalica = new EstruturaMetalica();
+		new ImportadorCSV(estruturaMetalica, pool).importar(arquivo);
+		return estruturaMetalica;
+	}
+
+	@Benchmark
+	public EstruturaMetalica carregarBinario() throws IOException {
+		EstruturaMetalica estruturaMetalica = new EstruturaMetalica();
+		estruturaMetalica.carregar(copia);
+		return estruturaMetalica;
+	}
+} // class ImportacaoBenchmark
@@ -0,0 +1,78 @@
+package hvrp.infoem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hvrp.infoem.Estrutura;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.GeometriaPecas;
+
+/**
+ *  Mede calcularGeometria (área, volume, peso e litros de tinta de cada peça de um tipo) com o kernel vetorial e com o kernel escalar.
+ *
+ *  O kernel é escolhido uma única vez por JVM, portanto cada valor do parâmetro escalar é executado em um fork próprio, e a propriedade
+ *  hvrp.infoem.escalar é definida antes do primeiro cálculo.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class KernelGeometriaBenchmark {
+	/**
+	 *  Quantidade de peças da estrutura.
+	 */
+	@Param({"1000", "100000", "10000000"})
+	public int pecas;
+
+	/**
+	 *  Indica se o kernel escalar é utilizado mesmo com a Vector API disponível.
+	 */
+	@Param({"false", "true"})
+	public boolean escalar;
+
+	/**
+	 *  Estrutura preenchida uma única vez.
+	 */
+	private EstruturaMetalica estrutura;
+
+	@Setup(Level.Trial)
+	public void preparar() {
+		System.setProperty("hvrp.infoem.escalar", Boolean.toString(escalar));
+
+		estrutura = new EstruturaMetalica();
+		GeradorEstrutura.preencher(estrutura, pecas, GeradorEstrutura.SEMENTE);
+	}
+
+	@Benchmark
+	public GeometriaPecas cilindros() {
+		return estrutura.calcularGeometria(Estrutura.CILINDRO);
+	}
+
+	@Benchmark
+	public GeometriaPecas cubos() {
+		return estrutura.calcularGeometria(Estrutura.CUBO);
+	}
+
+	@Benchmark
+	public GeometriaPecas paralelepipedos() {
+		return estrutura.calcularGeometria(Estrutura.PARALELEPIPEDO);
+	}
+} // class KernelGeometriaBenchmark
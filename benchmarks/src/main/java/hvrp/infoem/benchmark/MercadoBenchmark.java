@@ -0,0 +1,83 @@
+package hvrp.infoem.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hvrp.infoem.mercado.Mercado;
+
+/**
+ *  Mede Mercado.calculaLatasDeTinta e Mercado.calcularLatas (com o catálogo padrão) para consumos pequenos, médios e grandes, e o cálculo
+ *  em lote de CONSUMOS_LOTE consumos próximos ao consumo do parâmetro, escrevendo em um vetor reutilizado.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MercadoBenchmark {
+	/**
+	 *  Número de consumos do cálculo em lote.
+	 */
+	private static final int CONSUMOS_LOTE = 1024;
+
+	/**
+	 *  Consumo de tinta, em litros (L).
+	 */
+	@Param({"0.3", "7.75", "1234.56"})
+	public double consumo;
+
+	/**
+	 *  Mercado com as combinações calculadas antecipadamente.
+	 */
+	private Mercado mercado;
+
+	/**
+	 *  Consumos do cálculo em lote e o vetor que recebe as quantidades.
+	 */
+	private double[] consumos;
+	private int[] latas;
+
+	@Setup
+	public void preparar() {
+		mercado = new Mercado();
+		consumos = new double[CONSUMOS_LOTE];
+		latas = new int[CONSUMOS_LOTE * Mercado.TAMANHOS_LATA];
+		for(int i = 0; i < CONSUMOS_LOTE; i++) {
+			consumos[i] = consumo + i * 0.01;
+		}
+	}
+
+	@Benchmark
+	public int[] calculaLatasDeTinta() {
+		return Mercado.calculaLatasDeTinta(consumo);
+	}
+
+	@Benchmark
+	public int[] calcularLatas() {
+		return mercado.calcularLatas(consumo);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CONSUMOS_LOTE)
+	public int[] calculaLatasDeTintaLote() {
+		Mercado.calculaLatasDeTinta(consumos, latas);
+		return latas;
+	}
+} // class MercadoBenchmark
@@ -0,0 +1,113 @@
+package hvrp.infoem.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hvrp.infoem.Dimensao;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Peca;
+import hvrp.infoem.RelatorioPecas;
+import hvrp.infoem.TipoDimensao;
+
+/**
+ *  Mede a leitura das dimensões das peças (obterDimensoes(), que cria um vetor de Dimensao por peça, e o esquema de dimensões, que não
+ *  cria objetos) e a escrita do relatório de área e dimensões em um Writer que descarta o texto. O gc.alloc.rate.norm do relatório não
+ *  deve crescer com o número de peças além do próprio texto.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RelatorioBenchmark {
+	/**
+	 *  Quantidade de peças da estrutura.
+	 */
+	@Param({"1000", "100000"})
+	public int pecas;
+
+	private List<Peca> lista;
+	private EstruturaMetalica estruturaMetalica;
+	private RelatorioPecas relatorio;
+
+	@Setup
+	public void preparar() {
+		lista = GeradorEstrutura.lista(pecas, 3, GeradorEstrutura.SEMENTE);
+		estruturaMetalica = new EstruturaMetalica();
+		GeradorEstrutura.preencher(estruturaMetalica, pecas, GeradorEstrutura.SEMENTE);
+		relatorio = new RelatorioPecas();
+	}
+
+	@Benchmark
+	public double obterDimensoes() {
+		double total = 0;
+		for(Peca p : lista) {
+			for(Dimensao d : p.obterDimensoes()) {
+				total += d.getValor();
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	public double esquemaDimensoes() {
+		double total = 0;
+		for(Peca p : lista) {
+			List<TipoDimensao> tipos = p.getTiposDimensao();
+			for(int i = 0; i < tipos.size(); i++) {
+				total += p.getDimensao(tipos.get(i));
+			}
+		}
+		return total;
+	}
+
+	@Benchmark
+	public void relatorioAreaEDimensoes(Blackhole blackhole) throws IOException {
+		relatorio.escreverAreaEDimensoes(estruturaMetalica, new Descarte(blackhole));
+	}
+
+	/**
+	 *  Writer que entrega o texto recebido ao Blackhole.
+	 */
+	private static final class Descarte extends Writer {
+		private final Blackhole blackhole;
+
+		Descarte(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public void write(char[] caracteres, int inicio, int tamanho) {
+			blackhole.consume(caracteres[inicio]);
+			blackhole.consume(tamanho);
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	} // class Descarte
+} // class RelatorioBenchmark
@@ -0,0 +1,153 @@
+package hvrp.infoem.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import hvrp.infoem.Cilindro;
+import hvrp.infoem.Cubo;
+import hvrp.infoem.Estrutura;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Peca;
+import hvrp.infoem.Peca.Material;
+
+/**
+ *  Verifica a deduplicação de EstruturaMetalica contra um modelo por força bruta: cada peça recebida é comparada com todas as peças
+ *  distintas já guardadas, na ordem da estrutura, e é incorporada à primeira com o mesmo tipo, o mesmo material e todas as dimensões dentro
+ *  da tolerância (ou exatamente iguais, com tolerância zero). As peças distintas, o tipo e a quantidade de cada uma, o número de peças
+ *  recebidas e a taxa de compressão devem ser os do modelo.
+ *
+ *  Cada caso sorteia a tolerância (zero em um terço dos casos, até 2 centímetros nos demais) e peças com dimensões próximas umas das
+ *  outras, de modo que muitas caiam nas bordas da tolerância. Metade dos casos adiciona as peças uma a uma e a outra metade as anexa a
+ *  partir de estruturas sem deduplicação, como na importação.
+ *
+ *  Execução, após mvn -B package: java -cp target/benchmarks.jar hvrp.infoem.benchmark.VerificacaoDeduplicacao [casos]. O código de saída
+ *  é 0 quando a estrutura confere com o modelo e 1 caso contrário.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class VerificacaoDeduplicacao {
+	/**
+	 *  Número padrão de casos e número de peças recebidas em cada caso.
+	 */
+	private final static int CASOS_PADRAO = 300, PECAS = 400;
+
+	/**
+	 *  Maior tolerância sorteada e passo entre as dimensões sorteadas, em metros (m).
+	 */
+	private final static double TOLERANCIA_MAXIMA = 0.02, PASSO = 0.004;
+
+	private VerificacaoDeduplicacao() {}
+
+	public static void main(String[] args) {
+		int casos = args.length > 0 ? Integer.parseInt(args[0]) : CASOS_PADRAO;
+		int erros = 0;
+		double maiorTaxa = 1;
+
+		for(int caso = 0; caso < casos; caso++) {
+			SplittableRandom aleatorio = new SplittableRandom(GeradorEstrutura.SEMENTE + caso);
+			double tolerancia = aleatorio.nextInt(3) == 0 ? 0 : aleatorio.nextDouble() * TOLERANCIA_MAXIMA;
+			boolean anexar = caso % 2 == 1;
+			EstruturaMetalica estrutura = new EstruturaMetalica(), parte = new EstruturaMetalica();
+			List<double[]> distintas = new ArrayList<>();
+			List<Integer> quantidades = new ArrayList<>();
+			long totalPecas = 0;
+
+			estrutura.setDeduplicacao(tolerancia);
+
+			for(int i = 0; i < PECAS; i++) {
+				int tipo = Estrutura.CILINDRO + aleatorio.nextInt(3), quantidade = 1 + aleatorio.nextInt(3);
+				Material material = Material.values()[aleatorio.nextInt(Material.values().length)];
+				double[] dimensoes = new double[3];
+
+				for(int d = 0; d < dimensoes.length; d++) {
+					dimensoes[d] = PASSO * (1 + aleatorio.nextInt(6)) + (aleatorio.nextBoolean() ? aleatorio.nextDouble() * 2.5 * PASSO : 0);
+				}
+
+				adicionar(anexar ? parte : estrutura, tipo, quantidade, material, dimensoes);
+				if(anexar && (aleatorio.nextInt(50) == 0 || i == PECAS - 1)) {
+					estrutura.anexar(parte);
+					parte = new EstruturaMetalica();
+				}
+
+				incorporar(distintas, quantidades, tipo, material, dimensoes, quantidade, tolerancia);
+				totalPecas += quantidade;
+			}
+
+			String diferenca = comparar(estrutura, distintas, quantidades, totalPecas);
+			if(diferenca != null) {
+				System.out.printf("Caso %d (tolerância %s m, %s): %s%n", caso, tolerancia, anexar ? "anexar" : "adicionar", diferenca);
+				erros++;
+			}
+			maiorTaxa = Math.max(maiorTaxa, estrutura.obterTaxaCompressao());
+		}
+
+		System.out.printf("%d caso(s), maior taxa de compressão %.2f: %s%n", casos, maiorTaxa,
+				erros == 0 ? "estruturas iguais ao modelo" : erros + " diferença(s)");
+		System.exit(erros == 0 ? 0 : 1);
+	} // main(String[] args)
+
+	/**
+	 *  Função auxiliar que adiciona uma peça na estrutura a partir das suas informações.
+	 */
+	private static void adicionar(EstruturaMetalica estrutura, int tipo, int quantidade, Material material, double[] dimensoes) {
+		switch(tipo) {
+			case Estrutura.CILINDRO -> estrutura.adicionarCilindro(quantidade, material, dimensoes[0], dimensoes[1]);
+			case Estrutura.CUBO -> estrutura.adicionarCubo(quantidade, material, dimensoes[0]);
+			default -> estrutura.adicionarParalelepipedo(quantidade, material, dimensoes[0], dimensoes[1], dimensoes[2]);
+		}
+	} // adicionar(EstruturaMetalica estrutura, int tipo, int quantidade, Material material, double[] dimensoes)
+
+	/**
+	 *  Função auxiliar que aplica o modelo por força bruta: incorpora a peça à primeira peça distinta equivalente ou a guarda como uma nova
+	 *  peça distinta. Cada peça distinta é guardada como {tipo, id do material, dimensões...}.
+	 */
+	private static void incorporar(List<double[]> distintas, List<Integer> quantidades, int tipo, Material material, double[] dimensoes,
+			int quantidade, double tolerancia) {
+		int usadas = tipo == Estrutura.CILINDRO ? 2 : tipo == Estrutura.CUBO ? 1 : 3;
+
+		for(int i = 0; i < distintas.size(); i++) {
+			double[] distinta = distintas.get(i);
+			boolean equivalente = distinta[0] == tipo && distinta[1] == material.getId();
+
+			for(int d = 0; d < usadas && equivalente; d++) {
+				equivalente = tolerancia > 0 ? Math.abs(distinta[2 + d] - dimensoes[d]) <= tolerancia : distinta[2 + d] == dimensoes[d];
+			}
+			if(equivalente) {
+				quantidades.set(i, quantidades.get(i) + quantidade);
+				return;
+			}
+		}
+		distintas.add(new double[] {tipo, material.getId(), dimensoes[0], dimensoes[1], dimensoes[2]});
+		quantidades.add(quantidade);
+	} // incorporar(List<double[]> distintas, List<Integer> quantidades, int tipo, Material material, double[] dimensoes, ...)
+
+	/**
+	 *  Função auxiliar que compara a estrutura com o modelo.
+	 *
+	 *  @return a descrição da primeira diferença, ou null caso a estrutura confira com o modelo
+	 */
+	private static String comparar(EstruturaMetalica estrutura, List<double[]> distintas, List<Integer> quantidades, long totalPecas) {
+		List<Peca> pecas = estrutura.getPecasList();
+
+		if(pecas.size() != distintas.size())
+			return String.format("%d peças distintas, esperadas %d", pecas.size(), distintas.size());
+
+		for(int i = 0; i < pecas.size(); i++) {
+			Peca peca = pecas.get(i);
+			int tipo = peca instanceof Cilindro ? Estrutura.CILINDRO : peca instanceof Cubo ? Estrutura.CUBO : Estrutura.PARALELEPIPEDO;
+
+			if(tipo != distintas.get(i)[0] || peca.getMaterial().getId() != distintas.get(i)[1] || peca.getQuantidade() != quantidades.get(i))
+				return String.format("peça %d: tipo %d, quantidade %d; esperados tipo %.0f, quantidade %d", i, tipo, peca.getQuantidade(),
+						distintas.get(i)[0], quantidades.get(i));
+		}
+
+		double taxa = (double) PECAS / distintas.size();
+		if(estrutura.obterDefinicoesRecebidas() != PECAS || estrutura.obterTaxaCompressao() != taxa || estrutura.obterTotalPecas() != totalPecas)
+			return String.format("%d peças recebidas, taxa %s, %d unidades; esperadas %d, %s, %d", estrutura.obterDefinicoesRecebidas(),
+					estrutura.obterTaxaCompressao(), estrutura.obterTotalPecas(), PECAS, taxa, totalPecas);
+		return null;
+	} // comparar(EstruturaMetalica estrutura, List<double[]> distintas, List<Integer> quantidades, long totalPecas)
+} // class VerificacaoDeduplicacao
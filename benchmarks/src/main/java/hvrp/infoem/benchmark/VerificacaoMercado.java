@@ -0,0 +1,203 @@
+package hvrp.infoem.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import hvrp.infoem.mercado.Mercado;
+import hvrp.infoem.mercado.Mercado.Criterio;
+import hvrp.infoem.mercado.Mercado.Lata;
+
+/**
+ *  Verifica as combinações de latas de Mercado (programação dinâmica com grupos de estoque) contra uma busca exaustiva em catálogos
+ *  pequenos. A busca percorre todas as quantidades possíveis de cada lata, dentro do estoque, e guarda para cada total exato de tinta o
+ *  menor custo e, no mesmo custo, o menor número de latas; para cada consumo, a combinação esperada é a melhor entre os totais que o cobrem,
+ *  na ordem do critério: custo, desperdício e número de latas (MENOR_CUSTO) ou desperdício, custo e número de latas (MENOR_DESPERDICIO).
+ *
+ *  Cada caso sorteia de 1 a 4 latas (capacidades múltiplas de 250 mL, preços múltiplos de 0,25, inclusive zero, e estoques limitados ou
+ *  ilimitados) e o consumo máximo, e verifica todos os consumos até ele, exatos e entre dois passos, nos dois critérios. A combinação
+ *  obtida deve respeitar o estoque e ter o mesmo total, o mesmo custo e o mesmo número de latas da esperada (combinações empatadas nos três
+ *  podem diferir); sem combinação possível, o mercado deve lançar IllegalArgumentException.
+ *
+ *  Execução, após mvn -B package: java -cp target/benchmarks.jar hvrp.infoem.benchmark.VerificacaoMercado [casos]. O código de saída é 0
+ *  quando todas as combinações conferem e 1 caso contrário.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class VerificacaoMercado {
+	/**
+	 *  Número padrão de casos, maior número de latas, maior capacidade (em passos de 250 mL) e maior estoque limitado de uma lata.
+	 */
+	private final static int CASOS_PADRAO = 500, MAXIMO_LATAS = 4, MAIOR_CAPACIDADE = 8, MAIOR_ESTOQUE = 4;
+
+	/**
+	 *  Passo das capacidades sorteadas, em mililitros, e maior consumo máximo sorteado, em litros.
+	 */
+	private final static int PASSO_MILILITROS = 250;
+	private final static double MAIOR_CONSUMO = 6.0;
+
+	private VerificacaoMercado() {}
+
+	public static void main(String[] args) {
+		int casos = args.length > 0 ? Integer.parseInt(args[0]) : CASOS_PADRAO;
+		int erros = 0, consultas = 0;
+
+		for(int caso = 0; caso < casos; caso++) {
+			SplittableRandom aleatorio = new SplittableRandom(GeradorEstrutura.SEMENTE + caso);
+			Lata[] latas = new Lata[1 + aleatorio.nextInt(MAXIMO_LATAS)];
+			int[] mililitros = new int[latas.length];
+			int passo = 0;
+
+			for(int i = 0; i < latas.length; i++) {
+				mililitros[i] = PASSO_MILILITROS * (1 + aleatorio.nextInt(MAIOR_CAPACIDADE));
+				latas[i] = new Lata(mililitros[i] / 1000.0, 0.25 * aleatorio.nextInt(21),
+						aleatorio.nextBoolean() ? Mercado.ESTOQUE_ILIMITADO : aleatorio.nextInt(MAIOR_ESTOQUE + 1));
+				passo = mdc(passo, mililitros[i]);
+			}
+			double consumoMaximo = Math.floor(aleatorio.nextDouble() * MAIOR_CONSUMO * 4) / 4;
+
+			for(Criterio criterio : Criterio.values()) {
+				Mercado mercado = new Mercado(latas, criterio, consumoMaximo);
+				int passosMaximos = (int) Math.round(mercado.getConsumoMaximo() * 1000 / passo);
+				Exaustiva exaustiva = new Exaustiva(latas, mililitros, passo, passosMaximos);
+
+				for(int passos = 0; passos <= passosMaximos; passos++) {
+					for(double consumo : passos == 0 ? new double[] {0} : new double[] {passos * passo / 1000.0, (passos - 0.5) * passo / 1000.0}) {
+						String diferenca = comparar(mercado, exaustiva, latas, criterio, consumo, passos);
+
+						consultas++;
+						if(diferenca != null) {
+							System.out.printf("Caso %d (%s, %s, consumo %s L): %s%n", caso, criterio, descrever(latas), consumo, diferenca);
+							erros++;
+						}
+					}
+				}
+			}
+		}
+
+		System.out.printf("%d caso(s), %d consulta(s): %s%n", casos, consultas,
+				erros == 0 ? "combinações iguais às da busca exaustiva" : erros + " diferença(s)");
+		System.exit(erros == 0 ? 0 : 1);
+	} // main(String[] args)
+
+	/**
+	 *  Função auxiliar que compara a combinação do mercado para um consumo com a esperada pela busca exaustiva.
+	 *
+	 *  @return a descrição da diferença, ou null caso a combinação confira
+	 */
+	private static String comparar(Mercado mercado, Exaustiva exaustiva, Lata[] latas, Criterio criterio, double consumo, int passos) {
+		int esperado = exaustiva.escolher(passos, criterio);
+		int[] obtidas;
+
+		try {
+			obtidas = mercado.calcularLatas(consumo);
+		}
+		catch(IllegalArgumentException e) {
+			return esperado < 0 ? null : "sem combinação, esperado o total de " + esperado + " passos";
+		}
+		if(esperado < 0)
+			return "combinação " + Arrays.toString(obtidas) + ", esperada nenhuma";
+
+		int total = 0, numero = 0;
+		for(int i = 0; i < latas.length; i++) {
+			if(obtidas[i] < 0 || obtidas[i] > latas[i].getEstoque())
+				return "combinação " + Arrays.toString(obtidas) + " fora do estoque";
+			total += obtidas[i] * exaustiva.passosLata[i];
+			numero += obtidas[i];
+		}
+		if(total != esperado || mercado.calcularCusto(obtidas) != exaustiva.custos[esperado] || numero != exaustiva.numeroLatas[esperado])
+			return String.format("combinação %s (total %d, custo %s, %d latas), esperados total %d, custo %s, %d latas", Arrays.toString(obtidas),
+					total, mercado.calcularCusto(obtidas), numero, esperado, exaustiva.custos[esperado], exaustiva.numeroLatas[esperado]);
+		return null;
+	} // comparar(Mercado mercado, Exaustiva exaustiva, Lata[] latas, Criterio criterio, double consumo, int passos)
+
+	/**
+	 *  Função auxiliar que descreve o catálogo de latas.
+	 */
+	private static String descrever(Lata[] latas) {
+		StringBuilder descricao = new StringBuilder();
+
+		for(Lata lata : latas) {
+			descricao.append(descricao.isEmpty() ? "" : ", ").append(lata.getCapacidade()).append(" L por ").append(lata.getPreco())
+				.append(lata.getEstoque() == Mercado.ESTOQUE_ILIMITADO ? "" : " (estoque " + lata.getEstoque() + ")");
+		}
+		return descricao.toString();
+	} // descrever(Lata[] latas)
+
+	/**
+	 *  Função auxiliar que calcula o maior divisor comum de dois números.
+	 */
+	private static int mdc(int a, int b) {
+		return b == 0 ? a : mdc(b, a % b);
+	}
+
+	/**
+	 *  Busca exaustiva: o menor custo e, no mesmo custo, o menor número de latas de cada total exato de passos, até o consumo máximo mais a
+	 *  maior lata (uma combinação com total maior sempre possui uma lata que pode ser retirada sem deixar de cobrir o consumo).
+	 */
+	private static final class Exaustiva {
+		private final Lata[] latas;
+		private final int[] passosLata;
+		private final double[] custos;
+		private final int[] numeroLatas;
+
+		Exaustiva(Lata[] latas, int[] mililitros, int passo, int passosMaximos) {
+			this.latas = latas;
+			passosLata = new int[latas.length];
+
+			int maiorLata = 0;
+			for(int i = 0; i < latas.length; i++) {
+				passosLata[i] = mililitros[i] / passo;
+				maiorLata = Math.max(maiorLata, passosLata[i]);
+			}
+
+			custos = new double[passosMaximos + maiorLata];
+			numeroLatas = new int[custos.length];
+			Arrays.fill(custos, Double.POSITIVE_INFINITY);
+			percorrer(0, 0, 0, 0);
+		}
+
+		/**
+		 *  Percorre todas as quantidades das latas a partir da lata fornecida.
+		 */
+		private void percorrer(int lata, int total, double custo, int numero) {
+			if(lata == latas.length) {
+				if(custo < custos[total] || (custo == custos[total] && numero < numeroLatas[total])) {
+					custos[total] = custo;
+					numeroLatas[total] = numero;
+				}
+				return;
+			}
+			for(int quantidade = 0; quantidade <= latas[lata].getEstoque() && total + quantidade * passosLata[lata] < custos.length; quantidade++) {
+				percorrer(lata + 1, total + quantidade * passosLata[lata], custo + quantidade * latas[lata].getPreco(), numero + quantidade);
+			}
+		}
+
+		/**
+		 *  Escolhe, entre os totais que cobrem o consumo, o melhor no critério fornecido.
+		 *
+		 *  @return o total escolhido, ou -1 caso nenhum total cubra o consumo
+		 */
+		int escolher(int passos, Criterio criterio) {
+			int melhor = -1;
+
+			for(int total = passos; total < custos.length; total++) {
+				if(custos[total] != Double.POSITIVE_INFINITY && (melhor < 0 || comparar(total, melhor, criterio) < 0)) {
+					melhor = total;
+				}
+			}
+			return melhor;
+		} // escolher(int passos, Criterio criterio)
+
+		/**
+		 *  Compara dois totais na ordem do critério: custo, desperdício e número de latas ou desperdício, custo e número de latas.
+		 */
+		private int comparar(int a, int b, Criterio criterio) {
+			int custo = Double.compare(custos[a], custos[b]), desperdicio = Integer.compare(a, b);
+			int primeiro = criterio == Criterio.MENOR_CUSTO ? custo : desperdicio, segundo = criterio == Criterio.MENOR_CUSTO ? desperdicio : custo;
+
+			return primeiro != 0 ? primeiro : segundo != 0 ? segundo : Integer.compare(numeroLatas[a], numeroLatas[b]);
+		}
+	} // class Exaustiva
+} // class VerificacaoMercado
@@ -0,0 +1,148 @@
+package hvrp.infoem.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Peca;
+import hvrp.infoem.importacao.ImportadorCSV;
+
+/**
+ *  Verifica ImportadorCSV.reimportar(Path) depois de modificações de uma linha do arquivo .csv. Em cada passo, uma linha é alterada,
+ *  inserida ou removida (ou a estrutura é modificada diretamente, por uma peça obtida dela, ou nada muda), o arquivo é reimportado e a
+ *  estrutura deve ter as mesmas peças de uma importação completa do arquivo, na mesma ordem. O número de peças convertidas também é
+ *  verificado: 1 para uma linha alterada ou inserida, 0 para uma linha removida ou um arquivo sem mudanças e todas as peças do arquivo
+ *  quando a estrutura foi modificada diretamente, pois a reimportação deve voltar à importação completa.
+ *
+ *  Execução, após mvn -B package: java -cp target/benchmarks.jar hvrp.infoem.benchmark.VerificacaoReimportacao [casos]. O código de saída
+ *  é 0 quando todas as reimportações conferem e 1 caso contrário.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class VerificacaoReimportacao {
+	/**
+	 *  Número padrão de casos, maior número de linhas de peças de um caso e número de passos de cada caso.
+	 */
+	private final static int CASOS_PADRAO = 40, MAXIMO_LINHAS = 3000, PASSOS = 12;
+
+	/**
+	 *  Modificações aplicadas em cada passo.
+	 */
+	private final static int ALTERAR = 0, INSERIR = 1, REMOVER = 2, MODIFICAR_ESTRUTURA = 3, MANTER = 4;
+
+	private VerificacaoReimportacao() {}
+
+	public static void main(String[] args) throws IOException {
+		int casos = args.length > 0 ? Integer.parseInt(args[0]) : CASOS_PADRAO;
+		int erros = 0, reimportacoes = 0;
+		Path arquivo = Files.createTempFile("reimportacao", ".csv");
+
+		try {
+			for(int caso = 0; caso < casos; caso++) {
+				SplittableRandom aleatorio = new SplittableRandom(GeradorEstrutura.SEMENTE + caso);
+				List<String> linhas = new ArrayList<>();
+				EstruturaMetalica estrutura = new EstruturaMetalica();
+				ImportadorCSV importador = new ImportadorCSV(estrutura);
+
+				for(int i = 0, n = aleatorio.nextInt(MAXIMO_LINHAS + 1); i < n; i++) {
+					linhas.add(GeradorEstrutura.linhaCsv(aleatorio));
+				}
+				gravar(arquivo, linhas);
+				importador.reimportar(arquivo);
+
+				for(int passo = 0; passo < PASSOS; passo++) {
+					int modificacao = aleatorio.nextInt(MANTER + 1), esperadas;
+
+					if(linhas.isEmpty() && modificacao != MANTER) {
+						modificacao = INSERIR;
+					}
+					switch(modificacao) {
+						case ALTERAR -> {
+							int posicao = aleatorio.nextInt(linhas.size());
+							String nova;
+							do {
+								nova = GeradorEstrutura.linhaCsv(aleatorio);
+							} while(nova.equals(linhas.get(posicao)));
+							linhas.set(posicao, nova);
+							esperadas = 1;
+						}
+						case INSERIR -> {
+							linhas.add(aleatorio.nextInt(linhas.size() + 1), GeradorEstrutura.linhaCsv(aleatorio));
+							esperadas = 1;
+						}
+						case REMOVER -> {
+							linhas.remove(aleatorio.nextInt(linhas.size()));
+							esperadas = 0;
+						}
+						case MODIFICAR_ESTRUTURA -> {
+							Peca peca = estrutura.obterPeca(aleatorio.nextInt(linhas.size()));
+							peca.setQuantidade(peca.getQuantidade() + 1);
+							esperadas = linhas.size();
+						}
+						default -> esperadas = 0;
+					}
+					gravar(arquivo, linhas);
+
+					int convertidas = importador.reimportar(arquivo);
+					String esperado = descrever(importarCompleto(arquivo)), obtido = descrever(estrutura);
+
+					reimportacoes++;
+					if(convertidas != esperadas || !esperado.equals(obtido)) {
+						System.out.printf("Caso %d, passo %d (modificação %d): %d peça(s) convertida(s), esperadas %d; estrutura %s à importação completa%n",
+								caso, passo, modificacao, convertidas, esperadas, esperado.equals(obtido) ? "igual" : "diferente");
+						erros++;
+					}
+				}
+			}
+		}
+		finally {
+			Files.deleteIfExists(arquivo);
+		}
+
+		System.out.printf("%d caso(s), %d reimportação(ões): %s%n", casos, reimportacoes,
+				erros == 0 ? "estruturas iguais à importação completa" : erros + " diferença(s)");
+		System.exit(erros == 0 ? 0 : 1);
+	} // main(String[] args)
+
+	/**
+	 *  Função auxiliar que grava o arquivo .csv com o cabeçalho e as linhas de peças fornecidas.
+	 */
+	private static void gravar(Path arquivo, List<String> linhas) throws IOException {
+		List<String> conteudo = new ArrayList<>(linhas.size() + 1);
+
+		conteudo.add(GeradorEstrutura.CABECALHO);
+		conteudo.addAll(linhas);
+		Files.write(arquivo, conteudo, StandardCharsets.UTF_8);
+	} // gravar(Path arquivo, List<String> linhas)
+
+	/**
+	 *  Função auxiliar que importa o arquivo por completo em uma nova estrutura.
+	 */
+	private static EstruturaMetalica importarCompleto(Path arquivo) throws IOException {
+		EstruturaMetalica estrutura = new EstruturaMetalica();
+
+		new ImportadorCSV(estrutura).importar(arquivo);
+		return estrutura;
+	} // importarCompleto(Path arquivo)
+
+	/**
+	 *  Função auxiliar que descreve as peças da estrutura, na ordem da lista, e o seu peso total.
+	 */
+	private static String descrever(EstruturaMetalica estrutura) {
+		StringBuilder descricao = new StringBuilder();
+
+		for(Peca peca : estrutura.getPecasList()) {
+			descricao.append(peca.getClass().getSimpleName()).append(' ').append(peca.getQuantidade()).append(' ')
+				.append(peca.getMaterial().getId()).append(' ').append(Double.doubleToLongBits(peca.area())).append(' ')
+				.append(Double.doubleToLongBits(peca.volume())).append('\n');
+		}
+		return descricao.append(Double.doubleToLongBits(estrutura.calcularPesoTotal())).toString();
+	} // descrever(EstruturaMetalica estrutura)
+} // class VerificacaoReimportacao
@@ -0,0 +1,220 @@
+package hvrp.infoem.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import hvrp.infoem.Cilindro;
+import hvrp.infoem.Cubo;
+import hvrp.infoem.Estrutura;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Paralelepipedo;
+import hvrp.infoem.Peca;
+import hvrp.infoem.Peca.Material;
+import hvrp.infoem.ResumoEstrutura;
+
+/**
+ *  Verifica os totais de EstruturaMetalica nas duas formas de agregação:<br>
+ *  <strong>- Soma sequencial (padrão):</strong> o peso total, o peso de cada material e o volume de cada tipo de peça devem ser, bit a bit,
+ *  a soma das peças uma a uma, na ordem de getPecasList(), como nas versões anteriores a TotaisEstrutura.<br>
+ *  <strong>- Agregação paralela:</strong> com setParalelismo(1), setParalelismo(2) e setParalelismo(N), os totais devem ser idênticos entre
+ *  si, bit a bit.
+ *  <br><br>
+ *
+ *  Cada caso sorteia o número de peças (de estruturas vazias a alguns blocos de totais), adiciona as peças consultando os totais no meio do
+ *  caminho, modifica parte delas pelos setters, substitui um trecho por substituirPecas e anexa outras peças, consultando os totais depois
+ *  de cada etapa. Metade dos casos ativa a agregação paralela antes de adicionar as peças e a outra metade somente no fim.
+ *
+ *  Execução, após mvn -B package: java -cp target/benchmarks.jar hvrp.infoem.benchmark.VerificacaoTotais [casos] [threads]. O código de
+ *  saída é 0 quando todos os totais conferem e 1 caso contrário.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class VerificacaoTotais {
+	/**
+	 *  Número padrão de casos e maior número de peças de um caso.
+	 */
+	private final static int CASOS_PADRAO = 60, MAXIMO_PECAS = 20000;
+
+	/**
+	 *  Constantes da conversão para quilogramas, as mesmas de EstruturaMetalica.
+	 */
+	private final static double CEM = 100.0, MIL = 1000.0;
+
+	/**
+	 *  Tipos de peça verificados.
+	 */
+	private final static int[] TIPOS = {Estrutura.CILINDRO, Estrutura.CUBO, Estrutura.PARALELEPIPEDO};
+
+	private VerificacaoTotais() {}
+
+	public static void main(String[] args) {
+		int casos = args.length > 0 ? Integer.parseInt(args[0]) : CASOS_PADRAO;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Math.max(Runtime.getRuntime().availableProcessors(), 3);
+		int erros = 0;
+
+		for(int caso = 0; caso < casos; caso++) {
+			long semente = GeradorEstrutura.SEMENTE + caso;
+			EstruturaMetalica sequencial = new EstruturaMetalica();
+
+			montar(sequencial, semente, 0);
+			String esperado = somaSequencial(sequencial), obtido = totais(sequencial);
+
+			if(sequencial.isAgregacaoParalela() || !esperado.equals(obtido)) {
+				System.out.printf("Caso %d, soma sequencial: esperado [%s], obtido [%s]%n", caso, esperado, obtido);
+				erros++;
+			}
+
+			String paralelo = null;
+			for(int paralelismo : new int[] {1, 2, threads}) {
+				EstruturaMetalica estrutura = new EstruturaMetalica();
+
+				try {
+					montar(estrutura, semente, caso % 2 == 0 ? paralelismo : 0);
+					estrutura.setParalelismo(paralelismo);
+					obtido = totais(estrutura);
+				}
+				finally {
+					estrutura.setParalelismo(1);
+				}
+
+				if(paralelo == null) {
+					paralelo = obtido;
+				}
+				else if(!paralelo.equals(obtido)) {
+					System.out.printf("Caso %d, agregação paralela com %d threads: esperado [%s], obtido [%s]%n", caso, paralelismo, paralelo, obtido);
+					erros++;
+				}
+			}
+		}
+
+		System.out.printf("%d caso(s), agregação paralela com 1, 2 e %d threads: %s%n", casos, threads,
+				erros == 0 ? "totais idênticos" : erros + " diferença(s)");
+		System.exit(erros == 0 ? 0 : 1);
+	} // main(String[] args)
+
+	/**
+	 *  Função auxiliar que preenche e modifica a estrutura, sempre com as mesmas operações para a mesma semente, consultando os totais
+	 *  depois de cada etapa.
+	 *
+	 *  @param estrutura - a estrutura a ser montada
+	 *  @param semente - a semente do gerador pseudoaleatório
+	 *  @param paralelismo - o paralelismo ativado antes de adicionar as peças, ou 0 para manter a soma sequencial durante a montagem
+	 */
+	private static void montar(EstruturaMetalica estrutura, long semente, int paralelismo) {
+		SplittableRandom aleatorio = new SplittableRandom(semente);
+		int pecas = aleatorio.nextInt(MAXIMO_PECAS + 1);
+
+		if(paralelismo > 0) {
+			estrutura.setParalelismo(paralelismo);
+		}
+
+		List<Peca> lista = GeradorEstrutura.lista(pecas, 3, aleatorio.nextLong());
+		for(int i = 0; i < lista.size(); i++) {
+			estrutura.adicionarPeca(lista.get(i));
+			if(i == lista.size() / 2) {
+				estrutura.obterResumo();
+			}
+		}
+		estrutura.obterResumo();
+
+		List<Peca> adicionadas = estrutura.getPecasList();
+		if(pecas > 0) {
+			for(int i = 0, n = aleatorio.nextInt(Math.min(pecas, 50) + 1); i < n; i++) {
+				Peca peca = adicionadas.get(aleatorio.nextInt(pecas));
+
+				switch(peca) {
+					case Cilindro cilindro -> cilindro.setAltura(0.1 + aleatorio.nextDouble() * 9.9);
+					case Cubo cubo -> cubo.setAresta(0.1 + aleatorio.nextDouble() * 9.9);
+					case Paralelepipedo paralelepipedo -> paralelepipedo.setProfundidade(0.1 + aleatorio.nextDouble() * 9.9);
+					default -> throw new IllegalStateException();
+				}
+				peca.setQuantidade(1 + aleatorio.nextInt(9)).setMaterial(Material.values()[aleatorio.nextInt(Material.values().length)]);
+			}
+			estrutura.obterResumo();
+
+			int inicio = aleatorio.nextInt(pecas);
+			EstruturaMetalica novas = new EstruturaMetalica();
+
+			GeradorEstrutura.preencher(novas, aleatorio.nextInt(MAXIMO_PECAS / 4 + 1), aleatorio.nextLong());
+			estrutura.substituirPecas(inicio, aleatorio.nextInt(pecas - inicio + 1), novas);
+			estrutura.obterResumo();
+		}
+
+		EstruturaMetalica anexadas = new EstruturaMetalica();
+		GeradorEstrutura.preencher(anexadas, aleatorio.nextInt(MAXIMO_PECAS / 4 + 1), aleatorio.nextLong());
+		estrutura.anexar(anexadas);
+	} // montar(EstruturaMetalica estrutura, long semente, int paralelismo)
+
+	/**
+	 *  Função auxiliar que descreve os totais da estrutura pelos bits do peso total, do peso de cada material, do volume total e de cada
+	 *  tipo de peça e do consumo de tinta.
+	 *
+	 *  @param estrutura - a estrutura
+	 *
+	 *  @return a descrição dos totais
+	 */
+	private static String totais(EstruturaMetalica estrutura) {
+		ResumoEstrutura resumo = estrutura.obterResumo();
+		StringBuilder descricao = new StringBuilder(bits(resumo.getPesoTotal()));
+
+		for(Material material : Material.values()) {
+			descricao.append(' ').append(bits(resumo.getPesoTotal(material)));
+		}
+		descricao.append(' ').append(bits(resumo.getVolumeTotal()));
+		for(int tipo : TIPOS) {
+			descricao.append(' ').append(bits(resumo.getVolumeTotal(tipo)));
+		}
+		return descricao.append(' ').append(bits(resumo.getConsumoTinta())).append(' ').append(resumo.getTotalPecas()).toString();
+	} // totais(EstruturaMetalica estrutura)
+
+	/**
+	 *  Função auxiliar que descreve, no mesmo formato de totais(EstruturaMetalica), a soma das peças uma a uma, na ordem da lista. O consumo
+	 *  de tinta, que não faz parte da verificação, é copiado do resumo da estrutura.
+	 *
+	 *  @param estrutura - a estrutura
+	 *
+	 *  @return a descrição dos totais esperados
+	 */
+	private static String somaSequencial(EstruturaMetalica estrutura) {
+		Material[] materiais = Material.values();
+		double pesoTotal = 0, volumeTotal = 0;
+		double[] pesoPorMaterial = new double[materiais.length], volumePorTipo = new double[Estrutura.PARALELEPIPEDO + 1];
+		int totalPecas = 0;
+
+		for(Peca peca : estrutura.getPecasList()) {
+			double volume = peca.getQuantidade() * peca.volume();
+			double densidade = estrutura.getCatalogoMateriais().getPesoEspecifico(peca.getMaterial());
+			double peso = Math.round((densidade * volume) / MIL * CEM) / CEM;
+			int tipo = switch(peca) {
+				case Cilindro cilindro -> Estrutura.CILINDRO;
+				case Cubo cubo -> Estrutura.CUBO;
+				default -> Estrutura.PARALELEPIPEDO;
+			};
+
+			pesoTotal += peso;
+			pesoPorMaterial[peca.getMaterial().getId()] += peso;
+			volumeTotal += volume;
+			volumePorTipo[tipo] += volume;
+			totalPecas += peca.getQuantidade();
+		}
+
+		StringBuilder descricao = new StringBuilder(bits(pesoTotal));
+		for(double peso : pesoPorMaterial) {
+			descricao.append(' ').append(bits(peso));
+		}
+		descricao.append(' ').append(bits(Math.round(volumeTotal * CEM) / CEM));
+		for(int tipo : TIPOS) {
+			descricao.append(' ').append(bits(Math.round(volumePorTipo[tipo] * CEM) / CEM));
+		}
+		return descricao.append(' ').append(bits(estrutura.obterResumo().getConsumoTinta())).append(' ').append(totalPecas).toString();
+	} // somaSequencial(EstruturaMetalica estrutura)
+
+	/**
+	 *  Função auxiliar que descreve os bits de um valor.
+	 */
+	private static String bits(double valor) {
+		return Long.toHexString(Double.doubleToLongBits(valor));
+	}
+} // class VerificacaoTotais
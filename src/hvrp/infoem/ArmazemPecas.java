@@ -0,0 +1,710 @@
+package hvrp.infoem;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import hvrp.infoem.Peca.Material;
+
+/**
+ *  Armazenamento colunar (struct-of-arrays) das peças de uma estrutura metálica.
+ *
+ *  Cada peça ocupa uma linha, distribuída em colunas: quantidade, tipo da peça, material e as dimensões (raio, altura, largura,
+ *  profundidade e aresta). Os objetos Peca só são criados sob demanda, quando alguém pede uma peça específica. As colunas ficam, por
+ *  padrão, em vetores primitivos no heap (ColunasVetores), ou fora do heap, na memória nativa ou mapeadas em um arquivo
+ *  (ColunasSegmentos).
+ *
+ *  O tipo da peça segue os códigos definidos na interface Estrutura (CILINDRO, CUBO e PARALELEPIPEDO). O material é armazenado como o seu
+ *  identificador no catálogo de materiais + 1, sendo o código 0 reservado para peças sem material, o que permite indexar tabelas de
+ *  densidade sem testes adicionais.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class ArmazemPecas {
+	/**
+	 *  Códigos dos tipos de peças, iguais aos definidos na interface Estrutura.
+	 */
+	final static byte CILINDRO = Estrutura.CILINDRO, CUBO = Estrutura.CUBO, PARALELEPIPEDO = Estrutura.PARALELEPIPEDO;
+
+	/**
+	 *  Código utilizado para peças sem material.
+	 */
+	final static byte SEM_MATERIAL = 0;
+
+	/**
+	 *  Número de colunas e a posição de cada coluna na ordem em que elas são gravadas em um arquivo binário (ArquivoBinario): as colunas
+	 *  de 8 bytes vêm primeiro, de forma que cada coluna começa alinhada ao tamanho dos seus valores.
+	 */
+	final static int COLUNAS = 8, COLUNA_RAIO = 0, COLUNA_ALTURA = 1, COLUNA_LARGURA = 2, COLUNA_PROFUNDIDADE = 3, COLUNA_ARESTA = 4,
+			COLUNA_QUANTIDADE = 5, COLUNA_TIPO = 6, COLUNA_MATERIAL = 7;
+
+	/**
+	 *  Código utilizado para o nome da peça ao atualizar uma única informação de uma linha, pois o nome não é guardado em uma coluna.
+	 */
+	final static int COLUNA_NOME = -1;
+
+	/**
+	 *  Tipo da dimensão de cada coluna de dimensão (COLUNA_RAIO até COLUNA_ARESTA).
+	 */
+	private final static TipoDimensao[] DIMENSOES_COLUNAS = {TipoDimensao.RAIO, TipoDimensao.ALTURA, TipoDimensao.LARGURA,
+			TipoDimensao.PROFUNDIDADE, TipoDimensao.ARESTA};
+
+	/**
+	 *  Capacidade inicial das colunas.
+	 */
+	private final static int CAPACIDADE_INICIAL = 16;
+
+	/**
+	 *  Número de linhas ocupadas.
+	 */
+	private int tamanho;
+
+	/**
+	 *  Colunas do armazenamento.
+	 */
+	private final ColunasPecas colunas;
+
+	/**
+	 *  Nomes das peças que não utilizam o nome padrão do seu tipo, indexados pela linha.
+	 */
+	private final Map<Integer, String> nomes;
+
+	/**
+	 *  Construtor default.
+	 *  Inicializa um armazenamento vazio no heap com a capacidade inicial.
+	 */
+	ArmazemPecas() {
+		this(new ColunasVetores(CAPACIDADE_INICIAL));
+	}
+
+	/**
+	 *  Inicializa um armazenamento vazio com as colunas fornecidas.
+	 *
+	 *  @param colunas - as colunas, ainda sem linhas ocupadas
+	 */
+	ArmazemPecas(ColunasPecas colunas) {
+		this.colunas = Objects.requireNonNull(colunas);
+		nomes = new HashMap<>();
+	}
+
+	/**
+	 *  Cria um armazenamento vazio com as colunas na memória nativa, fora do heap.
+	 *
+	 *  @return o armazenamento
+	 */
+	static ArmazemPecas foraDoHeap() {
+		return new ArmazemPecas(ColunasSegmentos.nativas(CAPACIDADE_INICIAL));
+	}
+
+	/**
+	 *  Cria um armazenamento vazio com as colunas mapeadas em um arquivo, que é apagado quando o armazenamento é liberado.
+	 *
+	 *  @param arquivo - caminho do arquivo
+	 *
+	 *  @return o armazenamento
+	 *
+	 *  @throws IOException caso o arquivo não possa ser criado ou mapeado
+	 */
+	static ArmazemPecas mapeado(Path arquivo) throws IOException {
+		return new ArmazemPecas(ColunasSegmentos.mapeadas(arquivo, CAPACIDADE_INICIAL));
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém o número de linhas ocupadas.
+	 *
+	 *  @return o número de linhas ocupadas
+	 */
+	int tamanho() {
+		return tamanho;
+	}
+
+	int quantidade(int linha) {
+		return colunas.quantidade(linha);
+	}
+
+	byte tipo(int linha) {
+		return colunas.tipo(linha);
+	}
+
+	int material(int linha) {
+		return colunas.material(linha) & 0xFF;
+	}
+
+	double raio(int linha) {
+		return colunas.raio(linha);
+	}
+
+	double altura(int linha) {
+		return colunas.altura(linha);
+	}
+
+	double largura(int linha) {
+		return colunas.largura(linha);
+	}
+
+	double profundidade(int linha) {
+		return colunas.profundidade(linha);
+	}
+
+	double aresta(int linha) {
+		return colunas.aresta(linha);
+	}
+
+	/**
+	 *  Verifica se as colunas estão no heap, em vetores primitivos que podem ser obtidos por colunaQuantidade(), colunaMaterial() e
+	 *  colunaDimensao(TipoDimensao).
+	 *
+	 *  @return true se as colunas estiverem no heap
+	 */
+	boolean isNoHeap() {
+		return colunas instanceof ColunasVetores;
+	}
+
+	/**
+	 *  Obtém a coluna de quantidades, sem cópia. Utilizada pelos kernels de geometria (KernelGeometria), que leem várias linhas de uma vez;
+	 *  as posições a partir de tamanho() não são utilizadas, e a coluna é substituída quando o armazenamento cresce.
+	 *
+	 *  @return a coluna de quantidades, ou null caso as colunas estejam fora do heap
+	 */
+	int[] colunaQuantidade() {
+		return colunas instanceof ColunasVetores vetores ? vetores.quantidade : null;
+	}
+
+	/**
+	 *  Obtém a coluna de códigos de material, sem cópia, como em colunaQuantidade().
+	 *
+	 *  @return a coluna de códigos de material, ou null caso as colunas estejam fora do heap
+	 */
+	byte[] colunaMaterial() {
+		return colunas instanceof ColunasVetores vetores ? vetores.material : null;
+	}
+
+	/**
+	 *  Obtém a coluna de uma dimensão, sem cópia, como em colunaQuantidade().
+	 *
+	 *  @param dimensao - o tipo da dimensão
+	 *
+	 *  @return a coluna da dimensão, ou null caso as colunas estejam fora do heap
+	 */
+	double[] colunaDimensao(TipoDimensao dimensao) {
+		if (!(colunas instanceof ColunasVetores vetores))
+			return null;
+
+		return switch (dimensao) {
+			case RAIO -> vetores.raio;
+			case ALTURA -> vetores.altura;
+			case LARGURA -> vetores.largura;
+			case PROFUNDIDADE -> vetores.profundidade;
+			case ARESTA -> vetores.aresta;
+		};
+	} // colunaDimensao(TipoDimensao dimensao)
+
+	/**
+	 *  Obtém o nome da peça de uma determinada linha.
+	 *
+	 *  @param linha - linha da peça
+	 *
+	 *  @return o nome da peça
+	 */
+	String nome(int linha) {
+		String nome = nomeProprio(linha);
+		return nome != null ? nome : nomePadrao(colunas.tipo(linha));
+	}
+
+	/**
+	 *  Obtém o nome de uma linha somente quando ele é diferente do nome padrão do seu tipo.
+	 *
+	 *  @param linha - linha da peça
+	 *
+	 *  @return o nome da peça, ou null caso a peça utilize o nome padrão
+	 */
+	String nomeProprio(int linha) {
+		// Evita converter a linha em Integer quando nenhuma peça possui nome próprio
+		return nomes.isEmpty() ? null : nomes.get(linha);
+	}
+
+	/**
+	 *  Obtém os nomes das peças que não utilizam o nome padrão do seu tipo.
+	 *
+	 *  @return os nomes indexados pela linha (somente leitura)
+	 */
+	Map<Integer, String> nomesProprios() {
+		return Collections.unmodifiableMap(nomes);
+	}
+
+	/**
+	 *  Obtém o valor de uma dimensão de uma peça diretamente da coluna da dimensão.
+	 *
+	 *  @param linha - linha da peça
+	 *  @param dimensao - o tipo da dimensão
+	 *
+	 *  @return o valor da dimensão
+	 */
+	double dimensao(int linha, TipoDimensao dimensao) {
+		return switch (dimensao) {
+			case RAIO -> colunas.raio(linha);
+			case ALTURA -> colunas.altura(linha);
+			case LARGURA -> colunas.largura(linha);
+			case PROFUNDIDADE -> colunas.profundidade(linha);
+			case ARESTA -> colunas.aresta(linha);
+		};
+	} // dimensao(int linha, TipoDimensao dimensao)
+
+	/**
+	 *  Calcula a área de uma peça (sem considerar a quantidade) diretamente a partir das colunas.
+	 *
+	 *  @param linha - linha da peça
+	 *
+	 *  @return a área da peça
+	 */
+	double area(int linha) {
+		return switch (colunas.tipo(linha)) {
+			case CILINDRO -> Cilindro.area(colunas.raio(linha), colunas.altura(linha));
+			case CUBO -> Cubo.area(colunas.aresta(linha));
+			default -> Paralelepipedo.area(colunas.altura(linha), colunas.largura(linha), colunas.profundidade(linha));
+		};
+	} // area(int linha)
+
+	/**
+	 *  Calcula o volume de uma peça (sem considerar a quantidade) diretamente a partir das colunas.
+	 *
+	 *  @param linha - linha da peça
+	 *
+	 *  @return o volume da peça
+	 */
+	double volume(int linha) {
+		return switch (colunas.tipo(linha)) {
+			case CILINDRO -> Cilindro.volume(colunas.raio(linha), colunas.altura(linha));
+			case CUBO -> Cubo.volume(colunas.aresta(linha));
+			default -> Paralelepipedo.volume(colunas.altura(linha), colunas.largura(linha), colunas.profundidade(linha));
+		};
+	} // volume(int linha)
+
+	/**
+	 *  Adiciona uma peça ao final do armazenamento, copiando suas informações para as colunas.
+	 *
+	 *  @param peca - a peça a ser adicionada
+	 */
+	void adicionar(Peca peca) {
+		Objects.requireNonNull(peca);
+
+		if (tamanho == colunas.capacidade()) {
+			crescer();
+		}
+		gravar(tamanho++, peca);
+	} // adicionar(Peca peca)
+
+	/**
+	 *  Adiciona uma linha ao final do armazenamento. As dimensões que não pertencem ao tipo da peça devem ser fornecidas como zero.
+	 *
+	 *  @param tipoPeca - código do tipo da peça
+	 *  @param quantidade - número de unidades
+	 *  @param material - material da peça
+	 *  @param raio - raio da peça
+	 *  @param altura - altura da peça
+	 *  @param largura - largura da peça
+	 *  @param profundidade - profundidade da peça
+	 *  @param aresta - aresta da peça
+	 */
+	void adicionar(byte tipoPeca, int quantidade, Material material, double raio, double altura, double largura, double profundidade, double aresta) {
+		if (tamanho == colunas.capacidade()) {
+			crescer();
+		}
+		gravar(tamanho++, tipoPeca, quantidade, material, raio, altura, largura, profundidade, aresta);
+	} // adicionar(byte tipoPeca, ...)
+
+	/**
+	 *  Anexa todas as linhas de outro armazenamento ao final deste, mantendo a ordem das linhas.
+	 *
+	 *  @param outro - o armazenamento cujas linhas serão anexadas
+	 */
+	void anexar(ArmazemPecas outro) {
+		int inicio = tamanho, quantidadeLinhas = outro.tamanho;
+
+		if (tamanho + quantidadeLinhas > colunas.capacidade()) {
+			crescer(tamanho + quantidadeLinhas);
+		}
+
+		for (int coluna = 0; coluna < COLUNAS; coluna++) {
+			int bytes = bytesPorValor(coluna);
+			MemorySegment.copy(outro.colunas.coluna(coluna), 0, colunas.coluna(coluna), (long) inicio * bytes, (long) quantidadeLinhas * bytes);
+		}
+
+		for (Map.Entry<Integer, String> nome : outro.nomes.entrySet()) {
+			nomes.put(inicio + nome.getKey(), nome.getValue());
+		}
+		tamanho += quantidadeLinhas;
+	} // anexar(ArmazemPecas outro)
+
+	/**
+	 *  Copia uma linha de outro armazenamento para o final deste, incluindo o nome da peça.
+	 *
+	 *  @param outro - o armazenamento de origem
+	 *  @param linha - a linha copiada
+	 */
+	void copiar(ArmazemPecas outro, int linha) {
+		if (tamanho == colunas.capacidade()) {
+			crescer();
+		}
+		sobrescrever(tamanho++, outro, linha);
+	}
+
+	/**
+	 *  Substitui as informações de uma linha pelas informações de uma linha de outro armazenamento, incluindo o nome da peça.
+	 *
+	 *  @param linha - a linha a ser substituída
+	 *  @param outro - o armazenamento de origem
+	 *  @param linhaOutro - a linha copiada
+	 */
+	void sobrescrever(int linha, ArmazemPecas outro, int linhaOutro) {
+		Objects.checkIndex(linha, tamanho);
+
+		ColunasPecas origem = outro.colunas;
+		colunas.gravar(linha, origem.tipo(linhaOutro), origem.quantidade(linhaOutro), origem.material(linhaOutro), origem.raio(linhaOutro),
+				origem.altura(linhaOutro), origem.largura(linhaOutro), origem.profundidade(linhaOutro), origem.aresta(linhaOutro));
+
+		String nome = outro.nomeProprio(linhaOutro);
+		if (nome != null) {
+			nomes.put(linha, nome);
+		}
+		else if (!nomes.isEmpty()) {
+			nomes.remove(linha);
+		}
+	} // sobrescrever(int linha, ArmazemPecas outro, int linhaOutro)
+
+	/**
+	 *  Substitui um intervalo de linhas por todas as linhas de outro armazenamento, deslocando as linhas seguintes ao intervalo.
+	 *
+	 *  @param inicio - a primeira linha substituída
+	 *  @param removidas - o número de linhas substituídas
+	 *  @param outro - o armazenamento com as novas linhas
+	 */
+	void substituir(int inicio, int removidas, ArmazemPecas outro) {
+		Objects.checkFromIndexSize(inicio, removidas, tamanho);
+
+		int inseridas = outro.tamanho, fimRemovidas = inicio + removidas, novoTamanho = tamanho - removidas + inseridas;
+
+		if (novoTamanho > colunas.capacidade()) {
+			crescer(novoTamanho);
+		}
+
+		for (int coluna = 0; coluna < COLUNAS; coluna++) {
+			substituir(colunas.coluna(coluna), outro.colunas.coluna(coluna), bytesPorValor(coluna), inicio, fimRemovidas, inseridas);
+		}
+
+		if (!nomes.isEmpty() || !outro.nomes.isEmpty()) {
+			Map<Integer, String> anteriores = new HashMap<>(nomes);
+
+			nomes.clear();
+			for (Map.Entry<Integer, String> nome : anteriores.entrySet()) {
+				int linha = nome.getKey();
+
+				if (linha < inicio) {
+					nomes.put(linha, nome.getValue());
+				}
+				else if (linha >= fimRemovidas) {
+					nomes.put(linha - removidas + inseridas, nome.getValue());
+				}
+			}
+			for (Map.Entry<Integer, String> nome : outro.nomes.entrySet()) {
+				nomes.put(inicio + nome.getKey(), nome.getValue());
+			}
+		}
+		tamanho = novoTamanho;
+	} // substituir(int inicio, int removidas, ArmazemPecas outro)
+
+	/**
+	 *  Soma unidades à quantidade de uma linha.
+	 *
+	 *  @param linha - a linha da peça
+	 *  @param unidades - o número de unidades somadas
+	 */
+	void somarQuantidade(int linha, int unidades) {
+		Objects.checkIndex(linha, tamanho);
+		colunas.setQuantidade(linha, colunas.quantidade(linha) + unidades);
+	}
+
+	/**
+	 *  Remove a última linha do armazenamento.
+	 */
+	void removerUltima() {
+		tamanho--;
+		if (!nomes.isEmpty()) {
+			nomes.remove(tamanho);
+		}
+	}
+
+	/**
+	 *  Substitui uma única informação de uma linha pela informação correspondente da peça fornecida, mantendo as demais informações da
+	 *  linha.
+	 *
+	 *  @param linha - a linha a ser atualizada
+	 *  @param peca - a peça com a nova informação
+	 *  @param coluna - a coluna da informação (uma coluna de dimensão, COLUNA_MATERIAL ou COLUNA_NOME)
+	 */
+	void atualizar(int linha, Peca peca, int coluna) {
+		Objects.checkIndex(linha, tamanho);
+
+		switch (coluna) {
+			case COLUNA_MATERIAL -> colunas.setMaterial(linha, codigo(peca.getMaterial()));
+			case COLUNA_NOME -> gravarNome(linha, peca.getNome());
+			default -> colunas.setDimensao(linha, coluna, peca.getDimensao(DIMENSOES_COLUNAS[coluna]));
+		}
+	} // atualizar(int linha, Peca peca, int coluna)
+
+	/**
+	 *  Cria um objeto Peca com as informações de uma determinada linha.
+	 *
+	 *  @param linha - linha da peça
+	 *
+	 *  @return a peça materializada
+	 */
+	Peca obter(int linha) {
+		Objects.checkIndex(linha, tamanho);
+		Material material = materialDoCodigo(material(linha));
+
+		int quantidade = colunas.quantidade(linha);
+
+		Peca peca = switch (colunas.tipo(linha)) {
+			case CILINDRO -> new Cilindro(quantidade, material, colunas.raio(linha), colunas.altura(linha));
+			case CUBO -> new Cubo(quantidade, material, colunas.aresta(linha));
+			default -> new Paralelepipedo(quantidade, material, colunas.altura(linha), colunas.largura(linha), colunas.profundidade(linha));
+		};
+
+		String nome = nomeProprio(linha);
+		if (nome != null) {
+			peca.setNome(nome);
+		}
+		return peca;
+	} // obter(int linha)
+
+	/**
+	 *  Remove todas as linhas do armazenamento, mantendo a capacidade atual.
+	 */
+	void limpar() {
+		tamanho = 0;
+		nomes.clear();
+	}
+
+	/**
+	 *  Libera a memória das colunas. Colunas fora do heap deixam de poder ser utilizadas; colunas no heap não são afetadas.
+	 */
+	void liberar() {
+		colunas.liberar();
+	}
+
+	/**
+	 *  Remove todas as linhas e passa a ocupar o número de linhas fornecido, cujos valores devem ser preenchidos em seguida por
+	 *  lerColuna(int, ByteBuffer) para todas as colunas.
+	 *
+	 *  @param linhas - o número de linhas
+	 */
+	void reservar(int linhas) {
+		limpar();
+		if (linhas > colunas.capacidade()) {
+			crescer(linhas);
+		}
+		tamanho = linhas;
+	}
+
+	/**
+	 *  Obtém o número de bytes de cada valor de uma coluna.
+	 *
+	 *  @param coluna - a posição da coluna
+	 *
+	 *  @return o número de bytes de cada valor
+	 */
+	static int bytesPorValor(int coluna) {
+		return coluna < COLUNA_QUANTIDADE ? Double.BYTES : coluna == COLUNA_QUANTIDADE ? Integer.BYTES : Byte.BYTES;
+	}
+
+	/**
+	 *  Copia os valores de uma faixa de linhas de uma coluna para um buffer, na ordem de bytes do buffer. A posição do buffer não é
+	 *  alterada.
+	 *
+	 *  @param coluna - a posição da coluna
+	 *  @param destino - o buffer, a partir da sua posição atual
+	 *  @param inicio - a primeira linha copiada
+	 *  @param linhas - o número de linhas copiadas
+	 */
+	void escreverColuna(int coluna, ByteBuffer destino, int inicio, int linhas) {
+		MemorySegment.copy(colunas.coluna(coluna), ColunasPecas.formato(coluna), (long) inicio * bytesPorValor(coluna), MemorySegment.ofBuffer(destino),
+				ColunasPecas.formato(coluna).withOrder(destino.order()), 0, linhas);
+	} // escreverColuna(int coluna, ByteBuffer destino, int inicio, int linhas)
+
+	/**
+	 *  Copia os valores de todas as linhas de uma coluna a partir de um buffer, na ordem de bytes do buffer. A posição do buffer não é
+	 *  alterada.
+	 *
+	 *  @param coluna - a posição da coluna
+	 *  @param origem - o buffer, a partir da sua posição atual
+	 */
+	void lerColuna(int coluna, ByteBuffer origem) {
+		MemorySegment.copy(MemorySegment.ofBuffer(origem), ColunasPecas.formato(coluna).withOrder(origem.order()), 0, colunas.coluna(coluna),
+				ColunasPecas.formato(coluna), 0, tamanho);
+	} // lerColuna(int coluna, ByteBuffer origem)
+
+	/**
+	 *  Define o nome de uma linha que não utiliza o nome padrão do seu tipo.
+	 *
+	 *  @param linha - a linha da peça
+	 *  @param nome - o nome da peça
+	 */
+	void nomear(int linha, String nome) {
+		Objects.checkIndex(linha, tamanho);
+		nomes.put(linha, nome);
+	}
+
+	/**
+	 *  Substitui o código de material de todas as linhas pelo código correspondente da tabela fornecida, verificando também se o tipo de
+	 *  cada linha é válido.
+	 *
+	 *  @param codigos - os novos códigos, indexados pelos códigos atuais
+	 *
+	 *  @return false caso alguma linha possua um tipo inválido ou um código de material fora da tabela
+	 */
+	boolean recodificarMateriais(byte[] codigos) {
+		for (int linha = 0; linha < tamanho; linha++) {
+			int codigo = colunas.material(linha) & 0xFF;
+			byte tipo = colunas.tipo(linha);
+
+			if (tipo < CILINDRO || tipo > PARALELEPIPEDO || codigo >= codigos.length)
+				return false;
+
+			colunas.setMaterial(linha, codigos[codigo]);
+		}
+		return true;
+	} // recodificarMateriais(byte[] codigos)
+
+	/**
+	 *  Obtém o código de um material para a coluna de materiais.
+	 *
+	 *  @param material - o material
+	 *
+	 *  @return o código do material
+	 */
+	static byte codigo(Material material) {
+		return material == null ? SEM_MATERIAL : (byte) (material.getId() + 1);
+	}
+
+	/**
+	 *  Obtém o material correspondente a um código da coluna de materiais.
+	 *
+	 *  @param codigo - código do material
+	 *
+	 *  @return o material, ou null para peças sem material
+	 */
+	static Material materialDoCodigo(int codigo) {
+		return codigo == SEM_MATERIAL ? null : CatalogoMateriais.atual().getMaterial(codigo - 1);
+	}
+
+	/**
+	 *  Obtém o esquema das dimensões de um tipo de peça.
+	 *
+	 *  @param tipoPeca - código do tipo da peça
+	 *
+	 *  @return os tipos das dimensões do tipo de peça
+	 */
+	static List<TipoDimensao> tiposDimensao(byte tipoPeca) {
+		return switch (tipoPeca) {
+			case CILINDRO -> Cilindro.DIMENSOES;
+			case CUBO -> Cubo.DIMENSOES;
+			default -> Paralelepipedo.DIMENSOES;
+		};
+	}
+
+	/**
+	 *  Obtém o nome padrão de um tipo de peça.
+	 *
+	 *  @param tipoPeca - código do tipo da peça
+	 *
+	 *  @return o nome padrão do tipo
+	 */
+	static String nomePadrao(byte tipoPeca) {
+		return switch (tipoPeca) {
+			case CILINDRO -> Cilindro.CILINDRO;
+			case CUBO -> Cubo.CUBO;
+			default -> Paralelepipedo.PARALELEPIPEDO;
+		};
+	}
+
+	/**
+	 *  Função auxiliar que copia as informações de uma peça para uma linha das colunas.
+	 *
+	 *  @param linha - a linha a ser gravada
+	 *  @param peca - a peça
+	 */
+	private void gravar(int linha, Peca peca) {
+		switch (peca) {
+			case Cilindro c -> gravar(linha, CILINDRO, c.getQuantidade(), c.getMaterial(), c.getRaio(), c.getAltura(), 0, 0, 0);
+			case Cubo c -> gravar(linha, CUBO, c.getQuantidade(), c.getMaterial(), 0, 0, 0, 0, c.getAresta());
+			case Paralelepipedo p -> gravar(linha, PARALELEPIPEDO, p.getQuantidade(), p.getMaterial(), 0, p.getAltura(), p.getLargura(), p.getProfundidade(), 0);
+		}
+
+		gravarNome(linha, peca.getNome());
+	} // gravar(int linha, Peca peca)
+
+	/**
+	 *  Função auxiliar que grava o nome de uma linha, que só é guardado quando é diferente do nome padrão do tipo da peça.
+	 *
+	 *  @param linha - a linha
+	 *  @param nome - o nome da peça
+	 */
+	private void gravarNome(int linha, String nome) {
+		if (Objects.equals(nome, nomePadrao(colunas.tipo(linha)))) {
+			nomes.remove(linha);
+		}
+		else {
+			nomes.put(linha, nome);
+		}
+	} // gravarNome(int linha, String nome)
+
+	/**
+	 *  Função auxiliar que grava as informações de uma peça em uma linha das colunas.
+	 */
+	private void gravar(int linha, byte tipoPeca, int quantidade, Material material, double raio, double altura, double largura, double profundidade,
+			double aresta) {
+		colunas.gravar(linha, tipoPeca, quantidade, codigo(material), raio, altura, largura, profundidade, aresta);
+	} // gravar(int linha, byte tipoPeca, ...)
+
+	/**
+	 *  Função auxiliar que desloca o final de uma coluna e copia as novas linhas para o intervalo substituído.
+	 *
+	 *  @param coluna - a coluna
+	 *  @param novas - a coluna de outro armazenamento com as novas linhas
+	 *  @param bytes - o número de bytes de cada valor da coluna
+	 *  @param inicio - a primeira linha substituída
+	 *  @param fimRemovidas - a linha seguinte à última linha substituída
+	 *  @param inseridas - o número de novas linhas
+	 */
+	private void substituir(MemorySegment coluna, MemorySegment novas, int bytes, int inicio, int fimRemovidas, int inseridas) {
+		MemorySegment.copy(coluna, (long) fimRemovidas * bytes, coluna, (long) (inicio + inseridas) * bytes, (long) (tamanho - fimRemovidas) * bytes);
+		MemorySegment.copy(novas, 0, coluna, (long) inicio * bytes, (long) inseridas * bytes);
+	}
+
+	/**
+	 *  Função auxiliar que aumenta a capacidade de todas as colunas.
+	 */
+	private void crescer() {
+		crescer(colunas.capacidade() + (colunas.capacidade() >> 1));
+	}
+
+	/**
+	 *  Função auxiliar que aumenta a capacidade de todas as colunas para, no mínimo, a capacidade fornecida.
+	 *
+	 *  @param capacidadeMinima - a capacidade mínima desejada
+	 */
+	private void crescer(int capacidadeMinima) {
+		colunas.crescer(Math.max(capacidadeMinima, colunas.capacidade() + (colunas.capacidade() >> 1)), tamanho);
+	} // crescer(int capacidadeMinima)
+} // class ArmazemPecas
@@ -0,0 +1,392 @@
+package hvrp.infoem;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ *  Arquivo binário com uma cópia do armazenamento colunar das peças de uma estrutura metálica, que pode ser carregado sem interpretar
+ *  nenhuma linha de texto.
+ *
+ *  O arquivo começa com um cabeçalho de 64 bytes: identificador, versão do formato, número de linhas, número de materiais, número de
+ *  nomes, número de peças recebidas pela estrutura, tamanho do conteúdo, o CRC-32C do conteúdo e o tamanho e a data de modificação (em
+ *  nanossegundos) do arquivo de origem das peças, ou -1 quando a cópia não foi gravada a partir de um arquivo. O conteúdo é formado pelas colunas do
+ *  armazenamento, uma após a outra e na ordem de ArmazemPecas.COLUNAS (dimensões, quantidades, tipos e códigos de material), seguidas
+ *  pelos nomes dos materiais de cada código e pelos nomes próprios das peças. Todos os valores utilizam a ordem de bytes little-endian.
+ *
+ *  Cada coluna é mapeada em memória e copiada de uma só vez para o vetor correspondente do armazenamento. Os códigos de material são
+ *  convertidos pelos nomes dos materiais para os códigos do catálogo atual, portanto o arquivo continua válido em outra execução do
+ *  programa, com os materiais carregados em outra ordem.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class ArquivoBinario {
+	/**
+	 *  Identificador do formato ("EMBS") e a versão atual do formato.
+	 */
+	private final static int IDENTIFICADOR = 0x454D4253, VERSAO = 2;
+
+	/**
+	 *  Tamanho do cabeçalho, em bytes, e a posição do tamanho e da data de modificação do arquivo de origem no cabeçalho.
+	 */
+	private final static int TAMANHO_CABECALHO = 64, POSICAO_ORIGEM = 48;
+
+	/**
+	 *  Tamanho e data de modificação gravados quando a cópia não possui um arquivo de origem.
+	 */
+	private final static long SEM_ORIGEM = -1;
+
+	/**
+	 *  Número de linhas de uma coluna escritas de cada vez na gravação.
+	 */
+	private final static int LINHAS_POR_ESCRITA = 1 << 17;
+
+	/**
+	 *  Extensão do arquivo temporário utilizado durante a gravação.
+	 */
+	private final static String TEMPORARIO = ".tmp";
+
+	/**
+	 *  Mensagens de erro da leitura do arquivo.
+	 */
+	private final static String FORMATO_INVALIDO = "O arquivo não é uma cópia binária de uma estrutura metálica!";
+	private final static String VERSAO_INVALIDA = "Versão do arquivo binário não suportada: %d";
+	private final static String ARQUIVO_CORROMPIDO = "O arquivo binário está corrompido!";
+	private final static String MATERIAL_DESCONHECIDO = "Material do arquivo binário não existe no catálogo: %s";
+
+	/**
+	 *  Construtor privado, pois a classe possui apenas métodos estáticos.
+	 */
+	private ArquivoBinario() {
+	}
+
+	/**
+	 *  Grava as linhas de um armazenamento em um arquivo binário. O arquivo é escrito com outro nome e só então substitui o arquivo
+	 *  anterior, portanto uma gravação interrompida não deixa um arquivo incompleto. As colunas são escritas por partes a partir de um
+	 *  buffer fora do heap (e não mapeadas), pois um arquivo mapeado não pode ser renomeado em alguns sistemas.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param definicoes - o número de peças recebidas pela estrutura
+	 *  @param fonte - caminho do arquivo de origem das peças, cujo tamanho e data de modificação são gravados no cabeçalho, ou null
+	 *  @param arquivo - caminho do arquivo
+	 *
+	 *  @throws IOException caso ocorra algum problema na gravação do arquivo ou na leitura dos atributos do arquivo de origem
+	 */
+	static void gravar(ArmazemPecas armazem, long definicoes, Path fonte, Path arquivo) throws IOException {
+		long[] atributos = fonte == null ? new long[] {SEM_ORIGEM, SEM_ORIGEM} : atributos(fonte);
+		Path temporario = arquivo.resolveSibling(arquivo.getFileName() + TEMPORARIO);
+		Peca.Material[] materiais = CatalogoMateriais.atual().getMateriais();
+		Map<Integer, String> nomes = armazem.nomesProprios();
+		ByteBuffer complemento = complemento(materiais, nomes);
+		int linhas = armazem.tamanho();
+		long posicao = TAMANHO_CABECALHO;
+		CRC32C crc = new CRC32C();
+
+		try(FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(LINHAS_POR_ESCRITA * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+			for(int coluna = 0; coluna < ArmazemPecas.COLUNAS; coluna++) {
+				for(int inicio = 0; inicio < linhas; inicio += LINHAS_POR_ESCRITA) {
+					int parte = Math.min(LINHAS_POR_ESCRITA, linhas - inicio);
+
+					buffer.clear().limit(parte * ArmazemPecas.bytesPorValor(coluna));
+					armazem.escreverColuna(coluna, buffer, inicio, parte);
+					crc.update(buffer.duplicate());
+					escreverTudo(canal, buffer, posicao);
+					posicao += buffer.limit();
+				}
+			}
+
+			crc.update(complemento.duplicate());
+			escreverTudo(canal, complemento, posicao);
+			posicao += complemento.limit();
+
+			ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+			cabecalho.putInt(IDENTIFICADOR).putInt(VERSAO).putInt(linhas).putInt(materiais.length).putInt(nomes.size()).putInt(0)
+				.putLong(definicoes).putLong(posicao - TAMANHO_CABECALHO).putLong(crc.getValue()).putLong(atributos[0]).putLong(atributos[1])
+				.flip();
+			escreverTudo(canal, cabecalho, 0);
+		}
+		catch(IOException e) {
+			Files.deleteIfExists(temporario);
+			throw e;
+		}
+		Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	} // gravar(ArmazemPecas armazem, long definicoes, Path fonte, Path arquivo)
+
+	/**
+	 *  Verifica se um arquivo binário, na versão atual do formato, foi gravado a partir do arquivo de origem fornecido no estado em que ele
+	 *  se encontra, ou seja, se o tamanho e a data de modificação gravados no cabeçalho são iguais aos atuais. A comparação é por igualdade
+	 *  (e não pela ordem das datas), portanto um arquivo de origem substituído por outro com uma data anterior também invalida a cópia.
+	 *  Apenas o cabeçalho é lido; o conteúdo é verificado no carregamento.
+	 *
+	 *  @param arquivo - caminho do arquivo binário
+	 *  @param fonte - caminho do arquivo de origem das peças
+	 *
+	 *  @return true caso o arquivo binário exista e corresponda ao arquivo de origem; false caso contrário
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura dos atributos do arquivo de origem
+	 */
+	static boolean corresponde(Path arquivo, Path fonte) throws IOException {
+		long[] atributos = atributos(fonte);
+		ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+
+		try(FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			while(cabecalho.hasRemaining()) {
+				if(canal.read(cabecalho) < 0)
+					break;
+			}
+		}
+		catch(IOException e) {
+			return false;
+		}
+
+		return !cabecalho.hasRemaining() && cabecalho.getInt(0) == IDENTIFICADOR && cabecalho.getInt(Integer.BYTES) == VERSAO
+			&& cabecalho.getLong(POSICAO_ORIGEM) == atributos[0] && cabecalho.getLong(POSICAO_ORIGEM + Long.BYTES) == atributos[1];
+	} // corresponde(Path arquivo, Path fonte)
+
+	/**
+	 *  Lê um arquivo binário, substituindo as linhas do armazenamento. Cada coluna é mapeada em memória e copiada de uma só vez. Caso ocorra
+	 *  algum problema, o conteúdo do armazenamento é indefinido e deve ser descartado.
+	 *
+	 *  @param arquivo - caminho do arquivo
+	 *  @param armazem - o armazenamento das peças
+	 *
+	 *  @return o número de peças recebidas pela estrutura gravada
+	 *
+	 *  @throws IOException caso o arquivo não possa ser lido, não esteja no formato esperado ou esteja corrompido
+	 *  @throws IllegalArgumentException caso algum material do arquivo não exista no catálogo atual
+	 */
+	static long ler(Path arquivo, ArmazemPecas armazem) throws IOException, IllegalArgumentException {
+		try(FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			return ler((posicao, tamanho) -> canal.map(MapMode.READ_ONLY, posicao, tamanho), canal.size(), armazem);
+		}
+	}
+
+	/**
+	 *  Lê o conteúdo de um arquivo binário já carregado em um buffer (da posição até o limite), substituindo as linhas do armazenamento. A
+	 *  posição do buffer não é alterada. Caso ocorra algum problema, o conteúdo do armazenamento é indefinido e deve ser descartado.
+	 *
+	 *  @param conteudo - o conteúdo do arquivo
+	 *  @param armazem - o armazenamento das peças
+	 *
+	 *  @return o número de peças recebidas pela estrutura gravada
+	 *
+	 *  @throws IOException caso o conteúdo não esteja no formato esperado ou esteja corrompido
+	 *  @throws IllegalArgumentException caso algum material do arquivo não exista no catálogo atual
+	 */
+	static long ler(ByteBuffer conteudo, ArmazemPecas armazem) throws IOException, IllegalArgumentException {
+		ByteBuffer bytes = conteudo.slice();
+
+		return ler((posicao, tamanho) -> bytes.slice((int) posicao, (int) tamanho), bytes.remaining(), armazem);
+	}
+
+	/**
+	 *  Função auxiliar que lê uma cópia binária a partir da sua origem, conferindo o cabeçalho e a soma de verificação.
+	 *
+	 *  @param origem - a origem dos trechos da cópia
+	 *  @param tamanhoTotal - o tamanho total da cópia, em bytes
+	 *  @param armazem - o armazenamento das peças
+	 *
+	 *  @return o número de peças recebidas pela estrutura gravada
+	 *
+	 *  @throws IOException caso a cópia não possa ser lida, não esteja no formato esperado ou esteja corrompida
+	 *  @throws IllegalArgumentException caso algum material da cópia não exista no catálogo atual
+	 */
+	private static long ler(Origem origem, long tamanhoTotal, ArmazemPecas armazem) throws IOException, IllegalArgumentException {
+		if(tamanhoTotal < TAMANHO_CABECALHO)
+			throw new IOException(FORMATO_INVALIDO);
+
+		ByteBuffer cabecalho = origem.trecho(0, TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+
+		if(cabecalho.getInt() != IDENTIFICADOR)
+			throw new IOException(FORMATO_INVALIDO);
+
+		int versao = cabecalho.getInt();
+		if(versao != VERSAO)
+			throw new IOException(String.format(VERSAO_INVALIDA, versao));
+
+		int linhas = cabecalho.getInt(), quantidadeMateriais = cabecalho.getInt(), quantidadeNomes = cabecalho.getInt();
+		cabecalho.getInt();
+		long definicoes = cabecalho.getLong(), tamanhoConteudo = cabecalho.getLong(), crcGravado = cabecalho.getLong();
+
+		long tamanhoColunas = (long) linhas * (5 * Double.BYTES + Integer.BYTES + 2 * Byte.BYTES);
+		if(linhas < 0 || quantidadeMateriais < 0 || quantidadeNomes < 0 || tamanhoConteudo < tamanhoColunas
+				|| tamanhoConteudo - tamanhoColunas > Integer.MAX_VALUE || tamanhoTotal != TAMANHO_CABECALHO + tamanhoConteudo)
+			throw new IOException(ARQUIVO_CORROMPIDO);
+
+		CRC32C crc = new CRC32C();
+		long posicao = TAMANHO_CABECALHO;
+
+		armazem.reservar(linhas);
+		for(int coluna = 0; coluna < ArmazemPecas.COLUNAS; coluna++) {
+			long tamanho = (long) linhas * ArmazemPecas.bytesPorValor(coluna);
+			ByteBuffer buffer = origem.trecho(posicao, tamanho);
+
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			crc.update(buffer.duplicate());
+			armazem.lerColuna(coluna, buffer);
+			posicao += tamanho;
+		}
+
+		ByteBuffer complemento = origem.trecho(posicao, tamanhoConteudo - tamanhoColunas).order(ByteOrder.LITTLE_ENDIAN);
+		crc.update(complemento.duplicate());
+
+		if(crc.getValue() != crcGravado)
+			throw new IOException(ARQUIVO_CORROMPIDO);
+
+		try {
+			byte[] codigos = codigosMateriais(complemento, quantidadeMateriais);
+
+			for(int i = 0; i < quantidadeNomes; i++) {
+				int linha = complemento.getInt();
+				armazem.nomear(linha, texto(complemento));
+			}
+
+			if(!armazem.recodificarMateriais(codigos))
+				throw new IOException(ARQUIVO_CORROMPIDO);
+		}
+		catch(BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IOException(ARQUIVO_CORROMPIDO, e);
+		}
+		return definicoes;
+	} // ler(Origem origem, long tamanhoTotal, ArmazemPecas armazem)
+
+	/**
+	 *  Função auxiliar que monta o trecho final do conteúdo: o nome do material de cada código e os nomes próprios das peças.
+	 *
+	 *  @param materiais - os materiais do catálogo atual, indexados pelo identificador
+	 *  @param nomes - os nomes próprios das peças, indexados pela linha
+	 *
+	 *  @return o trecho, pronto para ser lido
+	 */
+	private static ByteBuffer complemento(Peca.Material[] materiais, Map<Integer, String> nomes) {
+		byte[][] textos = new byte[materiais.length + nomes.size()][];
+		int tamanho = nomes.size() * Integer.BYTES, i = 0;
+
+		for(Peca.Material material : materiais) {
+			textos[i] = material.getNome().getBytes(StandardCharsets.UTF_8);
+			tamanho += Integer.BYTES + textos[i++].length;
+		}
+		for(String nome : nomes.values()) {
+			textos[i] = nome.getBytes(StandardCharsets.UTF_8);
+			tamanho += Integer.BYTES + textos[i++].length;
+		}
+
+		ByteBuffer complemento = ByteBuffer.allocate(tamanho).order(ByteOrder.LITTLE_ENDIAN);
+		i = 0;
+
+		for(; i < materiais.length; i++) {
+			complemento.putInt(textos[i].length).put(textos[i]);
+		}
+		for(int linha : nomes.keySet()) {
+			complemento.putInt(linha).putInt(textos[i].length).put(textos[i++]);
+		}
+		return complemento.flip();
+	} // complemento(Peca.Material[] materiais, Map<Integer, String> nomes)
+
+	/**
+	 *  Função auxiliar que lê os nomes dos materiais gravados e monta a tabela de conversão dos códigos de material do arquivo para os
+	 *  códigos do catálogo atual.
+	 *
+	 *  @param complemento - o trecho final do conteúdo, posicionado nos nomes dos materiais
+	 *  @param quantidadeMateriais - o número de materiais gravados
+	 *
+	 *  @return os códigos do catálogo atual, indexados pelos códigos do arquivo
+	 *
+	 *  @throws IllegalArgumentException caso algum material não exista no catálogo atual
+	 */
+	private static byte[] codigosMateriais(ByteBuffer complemento, int quantidadeMateriais) throws IllegalArgumentException {
+		CatalogoMateriais catalogo = CatalogoMateriais.atual();
+		byte[] codigos = new byte[quantidadeMateriais + ArmazemPecas.SEM_MATERIAL + 1];
+
+		codigos[ArmazemPecas.SEM_MATERIAL] = ArmazemPecas.SEM_MATERIAL;
+		for(int id = 0; id < quantidadeMateriais; id++) {
+			String nome = texto(complemento);
+			Peca.Material material = catalogo.getMaterial(nome);
+
+			if(material == null)
+				throw new IllegalArgumentException(String.format(MATERIAL_DESCONHECIDO, nome));
+
+			codigos[id + ArmazemPecas.SEM_MATERIAL + 1] = ArmazemPecas.codigo(material);
+		}
+		return codigos;
+	} // codigosMateriais(ByteBuffer complemento, int quantidadeMateriais)
+
+	/**
+	 *  Função auxiliar que lê um texto em UTF-8 precedido pelo seu tamanho em bytes.
+	 *
+	 *  @param origem - o buffer, posicionado no tamanho do texto
+	 *
+	 *  @return o texto lido
+	 */
+	private static String texto(ByteBuffer origem) {
+		byte[] bytes = new byte[origem.getInt()];
+
+		origem.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 *  Função auxiliar que obtém o tamanho e a data de modificação, em nanossegundos, de um arquivo.
+	 *
+	 *  @param arquivo - caminho do arquivo
+	 *
+	 *  @return o tamanho e a data de modificação do arquivo
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura dos atributos
+	 */
+	private static long[] atributos(Path arquivo) throws IOException {
+		BasicFileAttributes atributos = Files.readAttributes(arquivo, BasicFileAttributes.class);
+
+		return new long[] {atributos.size(), atributos.lastModifiedTime().to(TimeUnit.NANOSECONDS)};
+	}
+
+	/**
+	 *  Função auxiliar que escreve todo o conteúdo de um buffer no canal, a partir da posição fornecida.
+	 *
+	 *  @param canal - o canal do arquivo
+	 *  @param origem - o buffer
+	 *  @param posicao - a posição no arquivo
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	private static void escreverTudo(FileChannel canal, ByteBuffer origem, long posicao) throws IOException {
+		while(origem.hasRemaining()) {
+			posicao += canal.write(origem, posicao);
+		}
+	}
+
+	/**
+	 *  Origem dos bytes de uma cópia binária: um arquivo mapeado em memória ou um buffer.
+	 */
+	@FunctionalInterface
+	private interface Origem {
+		/**
+		 *  Obtém um trecho da cópia, com a posição em 0 e o limite no fim do trecho.
+		 *
+		 *  @param posicao - a posição do primeiro byte do trecho
+		 *  @param tamanho - o tamanho do trecho, em bytes
+		 *
+		 *  @return o trecho
+		 *
+		 *  @throws IOException caso ocorra algum problema na leitura
+		 */
+		ByteBuffer trecho(long posicao, long tamanho) throws IOException;
+	} // interface Origem
+} // class ArquivoBinario
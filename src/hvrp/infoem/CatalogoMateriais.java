@@ -0,0 +1,321 @@
+package hvrp.infoem;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import hvrp.infoem.Peca.Material;
+
+/**
+ *  Essa classe representa o catálogo dos materiais das peças, com o peso específico e o consumo de tinta de cada material.
+ *
+ *  Cada catálogo é imutável e possui uma versão. Modificar um material ou carregar materiais de um arquivo publica uma nova versão do
+ *  catálogo, de forma que um cálculo que obteve o catálogo atual utiliza sempre os mesmos valores, mesmo que outra versão seja publicada
+ *  durante o cálculo. Os valores são guardados em vetores indexados pelo identificador do material (Material.getId()), sem comparações
+ *  de nomes.
+ *
+ *  Materiais nunca são removidos do catálogo e o identificador de um material não muda entre as versões; novos materiais recebem o próximo
+ *  identificador livre.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class CatalogoMateriais {
+	/**
+	 *  Número máximo de materiais do catálogo.
+	 */
+	public final static int MAXIMO_MATERIAIS = 255;
+
+	/**
+	 *  Representa o caractere separador das colunas do arquivo de materiais.
+	 */
+	public final static String SEPARADOR = ";";
+
+	/**
+	 *  Mensagens de erro do catálogo.
+	 */
+	private final static String MATERIAL_INVALIDO = "Material fornecido é inválido!";
+	private final static String VALOR_INVALIDO = "Peso específico ou consumo de tinta inválido!";
+	private final static String CATALOGO_CHEIO = "O catálogo já possui o número máximo de materiais!";
+	private final static String FORMATO_ERRO = "%s (linha %d)";
+
+	/**
+	 *  Catálogo atual e o contador de versões publicadas.
+	 */
+	private static volatile CatalogoMateriais atual = new CatalogoMateriais(1, new Material[] {Material.ALUMINIO, Material.FERRO},
+			new double[] {Peca.PESO_ALUMINIO, Peca.PESO_FERRO}, new double[] {Peca.CONSUMO_ALUMINIO, Peca.CONSUMO_FERRO});
+	private static long ultimaVersao = 1;
+
+	/**
+	 *  Versão do catálogo.
+	 */
+	private final long versao;
+
+	/**
+	 *  Materiais, pesos específicos e consumos de tinta, indexados pelo identificador do material.
+	 */
+	private final Material[] materiais;
+	private final double[] pesosEspecificos, consumosTinta;
+
+	/**
+	 *  Materiais indexados pelo nome em letras minúsculas.
+	 */
+	private final Map<String, Material> porNome;
+
+	/**
+	 *  Inicializa um objeto recém-criado para que ele represente uma versão do catálogo.
+	 *
+	 *  @param versao - versão do catálogo
+	 *  @param materiais - materiais indexados pelo identificador
+	 *  @param pesosEspecificos - pesos específicos indexados pelo identificador
+	 *  @param consumosTinta - consumos de tinta indexados pelo identificador
+	 */
+	private CatalogoMateriais(long versao, Material[] materiais, double[] pesosEspecificos, double[] consumosTinta) {
+		this.versao = versao;
+		this.materiais = materiais;
+		this.pesosEspecificos = pesosEspecificos;
+		this.consumosTinta = consumosTinta;
+
+		porNome = new HashMap<>();
+		for(Material m : materiais) {
+			porNome.put(chave(m.getNome()), m);
+		}
+	}
+
+	/**
+	 *  Obtém a versão atual do catálogo.
+	 *
+	 *  @return o catálogo atual
+	 */
+	public static CatalogoMateriais atual() {
+		return atual;
+	}
+
+	/**
+	 *  Define o peso específico e o consumo de tinta de um material, publicando uma nova versão do catálogo. Caso o material ainda não
+	 *  exista, ele é adicionado ao catálogo.
+	 *
+	 *  @param nome - nome do material (sem diferenciar letras maiúsculas e minúsculas)
+	 *  @param pesoEspecifico - peso específico do material
+	 *  @param consumoTinta - consumo de tinta do material
+	 *
+	 *  @return a nova versão do catálogo
+	 *
+	 *  @throws IllegalArgumentException caso o nome seja vazio, algum valor seja negativo ou o catálogo esteja cheio
+	 */
+	public static synchronized CatalogoMateriais definir(String nome, double pesoEspecifico, double consumoTinta) throws IllegalArgumentException {
+		Edicao edicao = new Edicao(atual);
+		edicao.definir(nome, pesoEspecifico, consumoTinta);
+
+		return publicar(edicao);
+	} // definir(String nome, double pesoEspecifico, double consumoTinta)
+
+	/**
+	 *  Carrega os materiais de um arquivo .csv separado por ponto e vírgula, com as colunas: Material;PesoEspecifico;ConsumoTinta. A
+	 *  primeira linha do arquivo (cabeçalho) e as linhas em branco são ignoradas. Materiais já existentes têm os seus valores substituídos e
+	 *  os demais são adicionados, tudo em uma única nova versão do catálogo.
+	 *
+	 *  @param arquivo - caminho do arquivo .csv
+	 *
+	 *  @return a nova versão do catálogo
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 *  @throws IllegalArgumentException caso seja encontrado um material inválido ou o catálogo fique cheio
+	 *  @throws NumberFormatException caso seja encontrado um valor numérico inválido
+	 */
+	public static synchronized CatalogoMateriais carregar(Path arquivo) throws IOException, IllegalArgumentException, NumberFormatException {
+		List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+		Edicao edicao = new Edicao(atual);
+
+		for(int i = 1; i < linhas.size(); i++) {
+			String linha = linhas.get(i).strip();
+			if(linha.isEmpty())
+				continue;
+
+			String[] colunas = linha.split(SEPARADOR, -1);
+			if(colunas.length < 3)
+				throw new IllegalArgumentException(String.format(FORMATO_ERRO, MATERIAL_INVALIDO, i + 1));
+
+			try {
+				edicao.definir(colunas[0].strip(), Double.parseDouble(colunas[1].strip()), Double.parseDouble(colunas[2].strip()));
+			}
+			catch(NumberFormatException e) {
+				throw new NumberFormatException(String.format(FORMATO_ERRO, VALOR_INVALIDO, i + 1));
+			}
+			catch(IllegalArgumentException e) {
+				throw new IllegalArgumentException(String.format(FORMATO_ERRO, e.getMessage(), i + 1));
+			}
+		}
+		return publicar(edicao);
+	} // carregar(Path arquivo)
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém a versão do catálogo. Versões publicadas depois possuem números maiores.
+	 *
+	 *  @return a versão do catálogo
+	 */
+	public long getVersao() {
+		return versao;
+	}
+
+	/**
+	 *  Obtém o número de materiais do catálogo.
+	 *
+	 *  @return o número de materiais
+	 */
+	public int getQuantidadeMateriais() {
+		return materiais.length;
+	}
+
+	/**
+	 *  Obtém os materiais do catálogo, ordenados pelo identificador.
+	 *
+	 *  @return uma cópia do vetor de materiais
+	 */
+	public Material[] getMateriais() {
+		return materiais.clone();
+	}
+
+	/**
+	 *  Obtém o material com o identificador fornecido.
+	 *
+	 *  @param id - identificador do material
+	 *
+	 *  @return o material
+	 */
+	public Material getMaterial(int id) {
+		return materiais[id];
+	}
+
+	/**
+	 *  Obtém o material com o nome fornecido, sem diferenciar letras maiúsculas e minúsculas.
+	 *
+	 *  @param nome - nome do material
+	 *
+	 *  @return o material, ou null caso não exista no catálogo
+	 */
+	public Material getMaterial(String nome) {
+		return porNome.get(chave(nome));
+	}
+
+	/**
+	 *  Obtém o peso específico de um material nesta versão do catálogo.
+	 *
+	 *  @param material - o material
+	 *
+	 *  @return o peso específico do material
+	 */
+	public double getPesoEspecifico(Material material) {
+		return pesosEspecificos[material.getId()];
+	}
+
+	/**
+	 *  Obtém o consumo de tinta de um material nesta versão do catálogo.
+	 *
+	 *  @param material - o material
+	 *
+	 *  @return o consumo de tinta do material
+	 */
+	public double getConsumoTinta(Material material) {
+		return consumosTinta[material.getId()];
+	}
+
+	/**
+	 *  Monta uma tabela com os pesos específicos ou os consumos de tinta, indexada pelo identificador do material somado ao deslocamento
+	 *  fornecido. As posições anteriores ao deslocamento ficam com o valor zero.
+	 *
+	 *  @param pesoEspecifico - true para os pesos específicos, false para os consumos de tinta
+	 *  @param deslocamento - posição da tabela correspondente ao material de identificador 0
+	 *
+	 *  @return a tabela de valores
+	 */
+	double[] tabela(boolean pesoEspecifico, int deslocamento) {
+		double[] tabela = new double[materiais.length + deslocamento];
+		System.arraycopy(pesoEspecifico ? pesosEspecificos : consumosTinta, 0, tabela, deslocamento, materiais.length);
+
+		return tabela;
+	}
+
+	/**
+	 *  Função auxiliar que publica uma nova versão do catálogo a partir de uma edição.
+	 *
+	 *  @param edicao - a edição do catálogo atual
+	 *
+	 *  @return a nova versão do catálogo
+	 */
+	private static CatalogoMateriais publicar(Edicao edicao) {
+		atual = new CatalogoMateriais(++ultimaVersao, edicao.materiais, edicao.pesosEspecificos, edicao.consumosTinta);
+		return atual;
+	}
+
+	/**
+	 *  Função auxiliar que obtém a chave de busca de um nome de material.
+	 *
+	 *  @param nome - nome do material
+	 *
+	 *  @return o nome em letras minúsculas
+	 */
+	private static String chave(String nome) {
+		return nome.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 *  Edição de uma cópia do catálogo, utilizada para montar a próxima versão.
+	 */
+	private static final class Edicao {
+		private final CatalogoMateriais base;
+		private Material[] materiais;
+		private double[] pesosEspecificos, consumosTinta;
+
+		Edicao(CatalogoMateriais base) {
+			this.base = base;
+			materiais = base.materiais.clone();
+			pesosEspecificos = base.pesosEspecificos.clone();
+			consumosTinta = base.consumosTinta.clone();
+		}
+
+		void definir(String nome, double pesoEspecifico, double consumoTinta) throws IllegalArgumentException {
+			if(nome == null || nome.isBlank())
+				throw new IllegalArgumentException(MATERIAL_INVALIDO);
+			if(!(pesoEspecifico >= 0) || !(consumoTinta >= 0))
+				throw new IllegalArgumentException(VALOR_INVALIDO);
+
+			Material material = procurar(nome);
+
+			if(material == null) {
+				if(materiais.length == MAXIMO_MATERIAIS)
+					throw new IllegalArgumentException(CATALOGO_CHEIO);
+
+				material = new Material(materiais.length, nome);
+				materiais = Arrays.copyOf(materiais, materiais.length + 1);
+				pesosEspecificos = Arrays.copyOf(pesosEspecificos, materiais.length);
+				consumosTinta = Arrays.copyOf(consumosTinta, materiais.length);
+				materiais[material.getId()] = material;
+			}
+
+			pesosEspecificos[material.getId()] = pesoEspecifico;
+			consumosTinta[material.getId()] = consumoTinta;
+		} // definir(String nome, double pesoEspecifico, double consumoTinta)
+
+		private Material procurar(String nome) {
+			Material material = base.getMaterial(nome);
+			if(material != null)
+				return material;
+
+			for(int id = base.materiais.length; id < materiais.length; id++) {
+				if(materiais[id].getNome().equalsIgnoreCase(nome))
+					return materiais[id];
+			}
+			return null;
+		}
+	} // class Edicao
+} // class CatalogoMateriais
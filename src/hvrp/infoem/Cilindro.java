@@ -1,5 +1,9 @@
 package hvrp.infoem;
 
+import java.util.List;
+
+import static mos.io.InputOutput.SPACE;
+
 /**
  *  Esta classe representa o Cilindro, um tipo válido de peça que pode ser adicionado à estrutura metálica.
  *  
@@ -11,13 +15,18 @@ public final class Cilindro extends Peca {
 	/**
 	 * Dimensões do Cilindro.
 	 */
-	public double raio, altura;
+	private double raio, altura;
 	
 	/**
      *  Representa o nome do Cilindro.
      */
 	public final static String CILINDRO = "Cilindro";
 	
+	/**
+	 *  Representa o esquema das dimensões do Cilindro.
+	 */
+	final static List<TipoDimensao> DIMENSOES = List.of(TipoDimensao.RAIO, TipoDimensao.ALTURA);
+	
 	/**
 	 *  Construtor default.
 	 *  Inicializa um objeto recém-criado para que ele represente um Cilindro sem suas informações.
@@ -70,6 +79,7 @@ public final class Cilindro extends Peca {
      */
 	public Cilindro setRaio(double raio) {
 		this.raio = raio;
+		notificarAlteracao(ArmazemPecas.COLUNA_RAIO);
 		return this;
 	}
 
@@ -80,6 +90,7 @@ public final class Cilindro extends Peca {
      */
 	public Cilindro setAltura(double altura) {
 		this.altura = altura;
+		notificarAlteracao(ArmazemPecas.COLUNA_ALTURA);
 		return this;
 	}
 
@@ -93,7 +104,7 @@ public final class Cilindro extends Peca {
      */
 	@Override
 	public String toString() {
-		return String.format("\n%s\tRaio: %s %4$s Altura: %s %4$s", super.toString(), raio, altura, getUnidade());
+		return "\n" + super.toString() + "\tRaio: " + raio + SPACE + getUnidade() + " Altura: " + altura + SPACE + getUnidade();
 	}
 
 	/**
@@ -103,7 +114,7 @@ public final class Cilindro extends Peca {
 	 */
 	@Override
 	public double area() {
-		return DOIS * Math.PI * raio * (raio + altura);
+		return area(raio, altura);
 	}
 	
 	/**
@@ -113,16 +124,58 @@ public final class Cilindro extends Peca {
 	 */
 	@Override
 	public double volume() {
+		return volume(raio, altura);
+	}
+	
+	/**
+	 *  Calcula a área de um cilindro com as dimensões fornecidas.
+	 *  
+	 *  @param raio - raio do cilindro
+	 *  @param altura - altura do cilindro
+	 * 
+	 *  @return a área do cilindro
+	 */
+	static double area(double raio, double altura) {
+		return DOIS * Math.PI * raio * (raio + altura);
+	}
+	
+	/**
+	 *  Calcula o volume de um cilindro com as dimensões fornecidas.
+	 *  
+	 *  @param raio - raio do cilindro
+	 *  @param altura - altura do cilindro
+	 * 
+	 *  @return o volume do cilindro
+	 */
+	static double volume(double raio, double altura) {
 		return Math.PI * (raio * raio) * altura;
 	}
 
 	/**
-	 *  Método que armazena e retorna as dimensões do cilindro em um vetor de Dimensões.
+	 *  Obtém o esquema das dimensões do cilindro, o mesmo para todos os objetos Cilindro.
+	 * 
+	 *  @return os tipos das dimensões do cilindro
+	 */
+	@Override
+	public List<TipoDimensao> getTiposDimensao() {
+		return DIMENSOES;
+	}
+	
+	/**
+	 *  Obtém o valor de uma dimensão do cilindro.
+	 * 
+	 *  @param tipo - o tipo da dimensão
+	 * 
+	 *  @return o valor da dimensão
 	 * 
-	 *  @return as dimensões do cilindro
+	 *  @throws IllegalArgumentException caso o cilindro não possua a dimensão fornecida
 	 */
 	@Override
-	public Dimensao[] obterDimensoes() {
-		return new Dimensao[] {new Dimensao("Raio", raio), new Dimensao("Altura", altura)};
+	public double getDimensao(TipoDimensao tipo) throws IllegalArgumentException {
+		return switch(tipo) {
+			case RAIO -> raio;
+			case ALTURA -> altura;
+			default -> throw new IllegalArgumentException(DIMENSAO_INVALIDA);
+		};
 	}
 } // class Cilindro
\ No newline at end of file
@@ -0,0 +1,114 @@
+package hvrp.infoem;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ *  Memória das colunas do armazenamento das peças (ArmazemPecas): guarda os valores de cada linha, na capacidade atual, sem controlar
+ *  quantas linhas estão ocupadas. As colunas podem estar em vetores primitivos no heap (ColunasVetores) ou em segmentos de memória fora
+ *  do heap, opcionalmente mapeados em um arquivo (ColunasSegmentos).
+ *
+ *  As colunas seguem a ordem e os tamanhos definidos em ArmazemPecas (COLUNA_RAIO até COLUNA_MATERIAL), e o material é guardado pelo seu
+ *  código no armazenamento.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+abstract class ColunasPecas {
+	/**
+	 *  Formato dos valores de cada coluna, sem exigência de alinhamento, utilizado nas cópias entre colunas e buffers.
+	 */
+	private final static ValueLayout[] FORMATOS = {ValueLayout.JAVA_DOUBLE_UNALIGNED, ValueLayout.JAVA_DOUBLE_UNALIGNED,
+			ValueLayout.JAVA_DOUBLE_UNALIGNED, ValueLayout.JAVA_DOUBLE_UNALIGNED, ValueLayout.JAVA_DOUBLE_UNALIGNED, ValueLayout.JAVA_INT_UNALIGNED,
+			ValueLayout.JAVA_BYTE, ValueLayout.JAVA_BYTE};
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém o número de linhas que cabem nas colunas.
+	 *
+	 *  @return a capacidade das colunas
+	 */
+	abstract int capacidade();
+
+	abstract int quantidade(int linha);
+
+	abstract byte tipo(int linha);
+
+	abstract byte material(int linha);
+
+	abstract double raio(int linha);
+
+	abstract double altura(int linha);
+
+	abstract double largura(int linha);
+
+	abstract double profundidade(int linha);
+
+	abstract double aresta(int linha);
+
+	/**
+	 *  Obtém uma coluna inteira, na capacidade atual, como um segmento de memória. O segmento deixa de ser válido quando as colunas crescem.
+	 *
+	 *  @param coluna - a posição da coluna
+	 *
+	 *  @return o segmento da coluna
+	 */
+	abstract MemorySegment coluna(int coluna);
+
+	/**
+	 *  Grava todas as informações de uma linha.
+	 *
+	 *  @param linha - a linha
+	 *  @param tipo - o código do tipo da peça
+	 *  @param quantidade - o número de unidades
+	 *  @param material - o código do material
+	 *  @param raio - o raio da peça
+	 *  @param altura - a altura da peça
+	 *  @param largura - a largura da peça
+	 *  @param profundidade - a profundidade da peça
+	 *  @param aresta - a aresta da peça
+	 */
+	abstract void gravar(int linha, byte tipo, int quantidade, byte material, double raio, double altura, double largura, double profundidade,
+			double aresta);
+
+	abstract void setQuantidade(int linha, int quantidade);
+
+	abstract void setMaterial(int linha, byte material);
+
+	/**
+	 *  Grava o valor de uma dimensão de uma linha.
+	 *
+	 *  @param linha - a linha
+	 *  @param coluna - a coluna da dimensão (COLUNA_RAIO até COLUNA_ARESTA)
+	 *  @param valor - o valor da dimensão
+	 */
+	abstract void setDimensao(int linha, int coluna, double valor);
+
+	/**
+	 *  Aumenta a capacidade das colunas, mantendo os valores das linhas ocupadas.
+	 *
+	 *  @param capacidade - a nova capacidade
+	 *  @param ocupadas - o número de linhas ocupadas
+	 */
+	abstract void crescer(int capacidade, int ocupadas);
+
+	/**
+	 *  Libera a memória das colunas. Depois de liberadas, as colunas não podem mais ser utilizadas. Colunas no heap são liberadas pelo
+	 *  coletor de lixo, portanto esta implementação não faz nada.
+	 */
+	void liberar() {
+	}
+
+	/**
+	 *  Obtém o formato dos valores de uma coluna, sem exigência de alinhamento.
+	 *
+	 *  @param coluna - a posição da coluna
+	 *
+	 *  @return o formato dos valores da coluna
+	 */
+	static ValueLayout formato(int coluna) {
+		return FORMATOS[coluna];
+	}
+} // class ColunasPecas
@@ -0,0 +1,289 @@
+package hvrp.infoem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *  Colunas do armazenamento das peças fora do heap, em um único segmento de memória (Foreign Function & Memory API), com as colunas uma
+ *  após a outra na ordem de ArmazemPecas: as colunas de 8 bytes vêm primeiro, portanto cada coluna começa alinhada ao tamanho dos seus
+ *  valores.
+ *
+ *  O segmento pode ser alocado na memória nativa ou mapeado em um arquivo. Mapeadas, as colunas podem ser maiores que a memória física,
+ *  pois o sistema operacional grava e lê as páginas do arquivo conforme necessário. O arquivo é criado (ou tem o seu conteúdo descartado)
+ *  ao abrir as colunas e é apagado ao liberá-las (em sistemas Unix, ele já deixa de aparecer no diretório ao ser aberto, mas o espaço
+ *  só é devolvido ao liberá-las); ele não é uma cópia da estrutura (para isso, utilize EstruturaMetalica.salvar(Path)).
+ *
+ *  O segmento pertence a uma arena compartilhada, para que os totais possam ser recalculados em paralelo, e a memória (ou o mapeamento)
+ *  só é liberada em liberar(). Ao crescer, as colunas passam para um novo segmento, de uma nova arena, e a arena anterior é fechada.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class ColunasSegmentos extends ColunasPecas {
+	/**
+	 *  Canal do arquivo mapeado, ou null para colunas na memória nativa.
+	 */
+	private final FileChannel canal;
+
+	/**
+	 *  Arena e segmento atuais e o número de linhas que cabem no segmento.
+	 */
+	private Arena arena;
+	private MemorySegment segmento;
+	private int capacidade;
+
+	/**
+	 *  Posição, no segmento, do início de cada coluna (a coluna do raio começa na posição 0).
+	 */
+	private long inicioAltura, inicioLargura, inicioProfundidade, inicioAresta, inicioQuantidade, inicioTipo, inicioMaterial;
+
+	/**
+	 *  Função auxiliar que inicializa as colunas com a capacidade fornecida.
+	 *
+	 *  @param canal - o canal do arquivo mapeado, ou null para colunas na memória nativa
+	 *  @param capacidade - a capacidade inicial
+	 *
+	 *  @throws IOException caso o arquivo não possa ser mapeado
+	 */
+	private ColunasSegmentos(FileChannel canal, int capacidade) throws IOException {
+		this.canal = canal;
+		arena = Arena.ofShared();
+		segmento = alocar(arena, capacidade);
+		definirCapacidade(capacidade);
+	}
+
+	/**
+	 *  Cria colunas vazias na memória nativa.
+	 *
+	 *  @param capacidade - a capacidade inicial
+	 *
+	 *  @return as colunas
+	 */
+	static ColunasSegmentos nativas(int capacidade) {
+		try {
+			return new ColunasSegmentos(null, capacidade);
+		}
+		catch(IOException e) {
+			// Somente o mapeamento de um arquivo lança IOException
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 *  Cria colunas vazias mapeadas em um arquivo. O arquivo é criado caso não exista, e o seu conteúdo é descartado caso exista.
+	 *
+	 *  @param arquivo - caminho do arquivo
+	 *  @param capacidade - a capacidade inicial
+	 *
+	 *  @return as colunas
+	 *
+	 *  @throws IOException caso o arquivo não possa ser criado ou mapeado
+	 */
+	static ColunasSegmentos mapeadas(Path arquivo, int capacidade) throws IOException {
+		FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+
+		try {
+			return new ColunasSegmentos(canal, capacidade);
+		}
+		catch(IOException | RuntimeException e) {
+			canal.close();
+			throw e;
+		}
+	} // mapeadas(Path arquivo, int capacidade)
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	@Override
+	int capacidade() {
+		return capacidade;
+	}
+
+	@Override
+	int quantidade(int linha) {
+		return segmento.get(ValueLayout.JAVA_INT, inicioQuantidade + (long) linha * Integer.BYTES);
+	}
+
+	@Override
+	byte tipo(int linha) {
+		return segmento.get(ValueLayout.JAVA_BYTE, inicioTipo + linha);
+	}
+
+	@Override
+	byte material(int linha) {
+		return segmento.get(ValueLayout.JAVA_BYTE, inicioMaterial + linha);
+	}
+
+	@Override
+	double raio(int linha) {
+		return segmento.get(ValueLayout.JAVA_DOUBLE, (long) linha * Double.BYTES);
+	}
+
+	@Override
+	double altura(int linha) {
+		return segmento.get(ValueLayout.JAVA_DOUBLE, inicioAltura + (long) linha * Double.BYTES);
+	}
+
+	@Override
+	double largura(int linha) {
+		return segmento.get(ValueLayout.JAVA_DOUBLE, inicioLargura + (long) linha * Double.BYTES);
+	}
+
+	@Override
+	double profundidade(int linha) {
+		return segmento.get(ValueLayout.JAVA_DOUBLE, inicioProfundidade + (long) linha * Double.BYTES);
+	}
+
+	@Override
+	double aresta(int linha) {
+		return segmento.get(ValueLayout.JAVA_DOUBLE, inicioAresta + (long) linha * Double.BYTES);
+	}
+
+	@Override
+	MemorySegment coluna(int coluna) {
+		return segmento.asSlice(inicio(coluna, capacidade), (long) capacidade * ArmazemPecas.bytesPorValor(coluna));
+	}
+
+	@Override
+	void gravar(int linha, byte tipo, int quantidade, byte material, double raio, double altura, double largura, double profundidade,
+			double aresta) {
+		long deslocamento = (long) linha * Double.BYTES;
+
+		segmento.set(ValueLayout.JAVA_INT, inicioQuantidade + (long) linha * Integer.BYTES, quantidade);
+		segmento.set(ValueLayout.JAVA_BYTE, inicioTipo + linha, tipo);
+		segmento.set(ValueLayout.JAVA_BYTE, inicioMaterial + linha, material);
+		segmento.set(ValueLayout.JAVA_DOUBLE, deslocamento, raio);
+		segmento.set(ValueLayout.JAVA_DOUBLE, inicioAltura + deslocamento, altura);
+		segmento.set(ValueLayout.JAVA_DOUBLE, inicioLargura + deslocamento, largura);
+		segmento.set(ValueLayout.JAVA_DOUBLE, inicioProfundidade + deslocamento, profundidade);
+		segmento.set(ValueLayout.JAVA_DOUBLE, inicioAresta + deslocamento, aresta);
+	} // gravar(int linha, byte tipo, ...)
+
+	@Override
+	void setQuantidade(int linha, int quantidade) {
+		segmento.set(ValueLayout.JAVA_INT, inicioQuantidade + (long) linha * Integer.BYTES, quantidade);
+	}
+
+	@Override
+	void setMaterial(int linha, byte material) {
+		segmento.set(ValueLayout.JAVA_BYTE, inicioMaterial + linha, material);
+	}
+
+	@Override
+	void setDimensao(int linha, int coluna, double valor) {
+		segmento.set(ValueLayout.JAVA_DOUBLE, inicio(coluna, capacidade) + (long) linha * Double.BYTES, valor);
+	}
+
+	/**
+	 *  Aumenta a capacidade das colunas. Na memória nativa, as linhas ocupadas são copiadas para um novo segmento; mapeadas, o arquivo é
+	 *  aumentado, mapeado novamente e as colunas são deslocadas dentro dele, da última para a primeira, para que nenhuma coluna sobrescreva
+	 *  uma coluna que ainda não foi deslocada.
+	 *
+	 *  @param capacidade - a nova capacidade
+	 *  @param ocupadas - o número de linhas ocupadas
+	 *
+	 *  @throws UncheckedIOException caso o arquivo não possa ser mapeado novamente
+	 */
+	@Override
+	void crescer(int capacidade, int ocupadas) throws UncheckedIOException {
+		Arena novaArena = Arena.ofShared();
+		MemorySegment novoSegmento;
+
+		try {
+			novoSegmento = alocar(novaArena, capacidade);
+		}
+		catch(IOException e) {
+			novaArena.close();
+			throw new UncheckedIOException(e);
+		}
+
+		// Mapeado, o novo segmento já contém as colunas nas posições anteriores
+		MemorySegment origem = canal == null ? segmento : novoSegmento;
+		for(int coluna = ArmazemPecas.COLUNAS - 1; coluna >= 0; coluna--) {
+			MemorySegment.copy(origem, inicio(coluna, this.capacidade), novoSegmento, inicio(coluna, capacidade),
+					(long) ocupadas * ArmazemPecas.bytesPorValor(coluna));
+		}
+
+		arena.close();
+		arena = novaArena;
+		segmento = novoSegmento;
+		definirCapacidade(capacidade);
+	} // crescer(int capacidade, int ocupadas)
+
+	/**
+	 *  Libera a memória nativa, ou desfaz o mapeamento e apaga o arquivo.
+	 *
+	 *  @throws UncheckedIOException caso o arquivo não possa ser fechado
+	 */
+	@Override
+	void liberar() throws UncheckedIOException {
+		if(arena.scope().isAlive()) {
+			arena.close();
+		}
+
+		if(canal != null) {
+			try {
+				canal.close();
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	} // liberar()
+
+	/**
+	 *  Função auxiliar que aloca (ou mapeia) um segmento para a capacidade fornecida.
+	 *
+	 *  @param arena - a arena do segmento
+	 *  @param capacidade - a capacidade do segmento
+	 *
+	 *  @return o segmento
+	 *
+	 *  @throws IOException caso o arquivo não possa ser mapeado
+	 */
+	private MemorySegment alocar(Arena arena, int capacidade) throws IOException {
+		long tamanho = inicio(ArmazemPecas.COLUNAS, capacidade);
+
+		return canal == null ? arena.allocate(tamanho, Double.BYTES) : canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho, arena);
+	}
+
+	/**
+	 *  Função auxiliar que atualiza a capacidade e a posição do início de cada coluna.
+	 *
+	 *  @param capacidade - a capacidade atual
+	 */
+	private void definirCapacidade(int capacidade) {
+		this.capacidade = capacidade;
+		inicioAltura = inicio(ArmazemPecas.COLUNA_ALTURA, capacidade);
+		inicioLargura = inicio(ArmazemPecas.COLUNA_LARGURA, capacidade);
+		inicioProfundidade = inicio(ArmazemPecas.COLUNA_PROFUNDIDADE, capacidade);
+		inicioAresta = inicio(ArmazemPecas.COLUNA_ARESTA, capacidade);
+		inicioQuantidade = inicio(ArmazemPecas.COLUNA_QUANTIDADE, capacidade);
+		inicioTipo = inicio(ArmazemPecas.COLUNA_TIPO, capacidade);
+		inicioMaterial = inicio(ArmazemPecas.COLUNA_MATERIAL, capacidade);
+	} // definirCapacidade(int capacidade)
+
+	/**
+	 *  Função auxiliar que calcula a posição do início de uma coluna, que é a soma dos tamanhos das colunas anteriores.
+	 *
+	 *  @param coluna - a posição da coluna (ou COLUNAS, para obter o tamanho de todas as colunas)
+	 *  @param capacidade - a capacidade das colunas
+	 *
+	 *  @return a posição do início da coluna, em bytes
+	 */
+	private static long inicio(int coluna, int capacidade) {
+		long posicao = 0;
+
+		for(int anterior = 0; anterior < coluna; anterior++) {
+			posicao += (long) capacidade * ArmazemPecas.bytesPorValor(anterior);
+		}
+		return posicao;
+	}
+} // class ColunasSegmentos
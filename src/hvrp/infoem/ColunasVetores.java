@@ -0,0 +1,144 @@
+package hvrp.infoem;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+/**
+ *  Colunas do armazenamento das peças em vetores primitivos no heap. É a memória utilizada por padrão pelas estruturas, e a única cujas
+ *  colunas podem ser lidas diretamente pelo kernel vetorial de geometria (KernelVetorial).
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class ColunasVetores extends ColunasPecas {
+	/**
+	 *  Colunas do armazenamento.
+	 */
+	int[] quantidade;
+	byte[] tipo, material;
+	double[] raio, altura, largura, profundidade, aresta;
+
+	/**
+	 *  Inicializa colunas vazias com a capacidade fornecida.
+	 *
+	 *  @param capacidade - a capacidade inicial
+	 */
+	ColunasVetores(int capacidade) {
+		quantidade = new int[capacidade];
+		tipo = new byte[capacidade];
+		material = new byte[capacidade];
+		raio = new double[capacidade];
+		altura = new double[capacidade];
+		largura = new double[capacidade];
+		profundidade = new double[capacidade];
+		aresta = new double[capacidade];
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	@Override
+	int capacidade() {
+		return quantidade.length;
+	}
+
+	@Override
+	int quantidade(int linha) {
+		return quantidade[linha];
+	}
+
+	@Override
+	byte tipo(int linha) {
+		return tipo[linha];
+	}
+
+	@Override
+	byte material(int linha) {
+		return material[linha];
+	}
+
+	@Override
+	double raio(int linha) {
+		return raio[linha];
+	}
+
+	@Override
+	double altura(int linha) {
+		return altura[linha];
+	}
+
+	@Override
+	double largura(int linha) {
+		return largura[linha];
+	}
+
+	@Override
+	double profundidade(int linha) {
+		return profundidade[linha];
+	}
+
+	@Override
+	double aresta(int linha) {
+		return aresta[linha];
+	}
+
+	@Override
+	MemorySegment coluna(int coluna) {
+		return switch (coluna) {
+			case ArmazemPecas.COLUNA_RAIO -> MemorySegment.ofArray(raio);
+			case ArmazemPecas.COLUNA_ALTURA -> MemorySegment.ofArray(altura);
+			case ArmazemPecas.COLUNA_LARGURA -> MemorySegment.ofArray(largura);
+			case ArmazemPecas.COLUNA_PROFUNDIDADE -> MemorySegment.ofArray(profundidade);
+			case ArmazemPecas.COLUNA_ARESTA -> MemorySegment.ofArray(aresta);
+			case ArmazemPecas.COLUNA_QUANTIDADE -> MemorySegment.ofArray(quantidade);
+			case ArmazemPecas.COLUNA_TIPO -> MemorySegment.ofArray(tipo);
+			default -> MemorySegment.ofArray(material);
+		};
+	} // coluna(int coluna)
+
+	@Override
+	void gravar(int linha, byte tipo, int quantidade, byte material, double raio, double altura, double largura, double profundidade,
+			double aresta) {
+		this.quantidade[linha] = quantidade;
+		this.tipo[linha] = tipo;
+		this.material[linha] = material;
+		this.raio[linha] = raio;
+		this.altura[linha] = altura;
+		this.largura[linha] = largura;
+		this.profundidade[linha] = profundidade;
+		this.aresta[linha] = aresta;
+	} // gravar(int linha, byte tipo, ...)
+
+	@Override
+	void setQuantidade(int linha, int quantidade) {
+		this.quantidade[linha] = quantidade;
+	}
+
+	@Override
+	void setMaterial(int linha, byte material) {
+		this.material[linha] = material;
+	}
+
+	@Override
+	void setDimensao(int linha, int coluna, double valor) {
+		switch (coluna) {
+			case ArmazemPecas.COLUNA_RAIO -> raio[linha] = valor;
+			case ArmazemPecas.COLUNA_ALTURA -> altura[linha] = valor;
+			case ArmazemPecas.COLUNA_LARGURA -> largura[linha] = valor;
+			case ArmazemPecas.COLUNA_PROFUNDIDADE -> profundidade[linha] = valor;
+			default -> aresta[linha] = valor;
+		}
+	} // setDimensao(int linha, int coluna, double valor)
+
+	@Override
+	void crescer(int capacidade, int ocupadas) {
+		quantidade = Arrays.copyOf(quantidade, capacidade);
+		tipo = Arrays.copyOf(tipo, capacidade);
+		material = Arrays.copyOf(material, capacidade);
+		raio = Arrays.copyOf(raio, capacidade);
+		altura = Arrays.copyOf(altura, capacidade);
+		largura = Arrays.copyOf(largura, capacidade);
+		profundidade = Arrays.copyOf(profundidade, capacidade);
+		aresta = Arrays.copyOf(aresta, capacidade);
+	} // crescer(int capacidade, int ocupadas)
+} // class ColunasVetores
@@ -1,5 +1,9 @@
 package hvrp.infoem;
 
+import java.util.List;
+
+import static mos.io.InputOutput.SPACE;
+
 /**
  *  Esta classe representa o Cubo, um tipo válido de peça que pode ser adicionado à estrutura metálica.
  *  
@@ -11,13 +15,18 @@ public final class Cubo extends Peca {
 	/**
 	 * Dimensões do Cubo.
 	 */
-	public double aresta;
+	private double aresta;
 
 	/**
      *  Representa o nome do Cubo.
      */
 	public final static String CUBO = "Cubo";
 	
+	/**
+	 *  Representa o esquema das dimensões do Cubo.
+	 */
+	final static List<TipoDimensao> DIMENSOES = List.of(TipoDimensao.ARESTA);
+	
 	/**
 	 *  Construtor default.
 	 *  Inicializa um objeto recém-criado para que ele represente um Cubo sem suas informações.
@@ -59,6 +68,7 @@ public final class Cubo extends Peca {
      */
 	public Cubo setAresta(double aresta) {
 		this.aresta = aresta;
+		notificarAlteracao(ArmazemPecas.COLUNA_ARESTA);
 		return this;
 	}
 
@@ -72,7 +82,7 @@ public final class Cubo extends Peca {
      */
 	@Override
 	public String toString() {
-		return String.format("\n%s\tAresta: %s %s", super.toString(), aresta, getUnidade());
+		return "\n" + super.toString() + "\tAresta: " + aresta + SPACE + getUnidade();
 	}
 	
 	/**
@@ -82,7 +92,7 @@ public final class Cubo extends Peca {
 	 */
 	@Override
 	public double area() {
-		return SEIS * (aresta * aresta);
+		return area(aresta);
 	}
 	
 	/**
@@ -92,16 +102,55 @@ public final class Cubo extends Peca {
 	 */
 	@Override
 	public double volume() {
+		return volume(aresta);
+	}
+	
+	/**
+	 *  Calcula a área de um cubo com a aresta fornecida.
+	 *  
+	 *  @param aresta - aresta do cubo
+	 * 
+	 *  @return a área do cubo
+	 */
+	static double area(double aresta) {
+		return SEIS * (aresta * aresta);
+	}
+	
+	/**
+	 *  Calcula o volume de um cubo com a aresta fornecida.
+	 *  
+	 *  @param aresta - aresta do cubo
+	 * 
+	 *  @return o volume do cubo
+	 */
+	static double volume(double aresta) {
 		return aresta * aresta * aresta;
 	}
 	
 	/**
-	 *  Método que armazena e retorna as dimensões do cubo em um vetor de Dimensões.
+	 *  Obtém o esquema das dimensões do cubo, o mesmo para todos os objetos Cubo.
+	 * 
+	 *  @return os tipos das dimensões do cubo
+	 */
+	@Override
+	public List<TipoDimensao> getTiposDimensao() {
+		return DIMENSOES;
+	}
+	
+	/**
+	 *  Obtém o valor de uma dimensão do cubo.
+	 * 
+	 *  @param tipo - o tipo da dimensão
+	 * 
+	 *  @return o valor da dimensão
 	 * 
-	 *  @return as dimensões do cubo
+	 *  @throws IllegalArgumentException caso o cubo não possua a dimensão fornecida
 	 */
 	@Override
-	public Dimensao[] obterDimensoes() {
-		return new Dimensao[] {new Dimensao("Aresta", aresta)};
+	public double getDimensao(TipoDimensao tipo) throws IllegalArgumentException {
+		return switch(tipo) {
+			case ARESTA -> aresta;
+			default -> throw new IllegalArgumentException(DIMENSAO_INVALIDA);
+		};
 	}
 } // class Cubo
\ No newline at end of file
@@ -1,13 +1,21 @@
 package hvrp.infoem;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
 
 import hvrp.infoem.mercado.Mercado;
 
-import static mos.io.InputOutput.NEW_LINE;
-import static mos.io.InputOutput.SPACE;
-
 /**
  *  Essa classe representa uma estrutura metálica que pode conter uma certa quantidade de peças. 
  *  
@@ -17,9 +25,77 @@ import static mos.io.InputOutput.SPACE;
  */
 public class EstruturaMetalica {
 	/**
-	 *  Lista de peças da estrutura.
+	 *  Armazenamento colunar das peças da estrutura.
+	 */
+	private final ArmazemPecas armazem;
+	
+	/**
+	 *  Visão das peças da estrutura como uma lista, materializada sob demanda.
+	 */
+	private final List<Peca> pecasList;
+	
+	/**
+	 *  Totais da estrutura, mantidos à medida que as peças são adicionadas ou modificadas.
+	 */
+	private final TotaisEstrutura totais;
+	
+	/**
+	 *  Linhas do armazenamento particionadas pelo tipo da peça e pelo material, mantidas à medida que as peças são adicionadas.
+	 */
+	private final ParticoesPecas particoes;
+	
+	/**
+	 *  Linhas do armazenamento em ordem alfabética de nome, mantidas à medida que as peças são adicionadas ou renomeadas.
+	 */
+	private final IndiceNomes indiceNomes;
+	
+	/**
+	 *  Índice das definições distintas de peças, utilizado somente quando a deduplicação está ativa (null caso contrário).
+	 */
+	private IndiceDuplicatas duplicatas;
+	
+	/**
+	 *  Índices ordenados das dimensões de cada tipo de peça (indexados pelo tipo e pela dimensão) e das medidas calculadas das peças,
+	 *  construídos na primeira consulta por faixa de valores depois de cada modificação da estrutura.
+	 */
+	private final IndiceValores[][] indicesDimensoes;
+	private final IndiceValores[] indicesMedidas;
+	
+	/**
+	 *  Número de peças (definições) recebidas pela estrutura, incluindo as que foram incorporadas a uma linha existente.
+	 */
+	private long definicoesRecebidas;
+	
+	/**
+	 *  Versão do catálogo de materiais utilizada nos totais e os pesos específicos e consumos de tinta dessa versão, indexados pelo código
+	 *  de material do armazenamento.
+	 */
+	private CatalogoMateriais catalogo;
+	private double[] densidades, consumos;
+	
+	/**
+	 *  Último resumo criado a partir dos totais e a versão das peças utilizada nesse resumo.
+	 */
+	private ResumoEstrutura resumo;
+	private long versaoResumo;
+	
+	/**
+	 *  Versão das peças da estrutura, incrementada a cada modificação.
+	 */
+	private long versao;
+	
+	/**
+	 *  Geração da lista de peças, incrementada sempre que a lista inteira é substituída. Peças vinculadas a uma geração anterior deixam de
+	 *  modificar a estrutura.
+	 */
+	private long geracao;
+	
+	/**
+	 *  Pool utilizado para recalcular os totais em paralelo, ou null quando os totais são recalculados na thread atual, e se o pool foi
+	 *  fornecido por setPool(ForkJoinPool) (e, portanto, não é encerrado pela estrutura).
 	 */
-	private List<Peca> pecasList;
+	private ForkJoinPool pool;
+	private boolean poolCompartilhado;
 	
 	/**
 	 *  Representam os tipos de peças válidos.
@@ -31,18 +107,87 @@ public class EstruturaMetalica {
 	 */
 	private final static double CEM = 100.0, MIL = 1000.0;
 	
+	/**
+	 *  Mensagem de erro para um número de threads inválido.
+	 */
+	private final static String PARALELISMO_INVALIDO = "O número de threads deve ser maior ou igual a 1!";
+	
+	/**
+	 *  Mensagem de erro para uma tolerância de deduplicação inválida.
+	 */
+	private final static String TOLERANCIA_INVALIDA = "A tolerância das dimensões deve ser maior ou igual a 0!";
+	
+	/**
+	 *  Mensagens de erro para uma faixa de valores e para um número de peças inválidos.
+	 */
+	private final static String FAIXA_INVALIDA = "O valor mínimo da faixa deve ser menor ou igual ao valor máximo!";
+	private final static String QUANTIDADE_INVALIDA = "O número de peças deve ser maior ou igual a 0!";
+	
 	/**
 	 *  Construtor default.
 	 *  Inicializa um objeto recém-criado para que ele represente uma EstruturaMetalica com uma lista de peças.
 	 */
 	public EstruturaMetalica() {
-		pecasList = new ArrayList<Peca>();
+		this(new ArmazemPecas());
+	}
+	
+	/**
+	 *  Função auxiliar que inicializa uma estrutura vazia com o armazenamento fornecido.
+	 *  
+	 *  @param armazem - o armazenamento das peças
+	 */
+	private EstruturaMetalica(ArmazemPecas armazem) {
+		this.armazem = armazem;
+		pecasList = new ListaPecas();
+		catalogo = CatalogoMateriais.atual();
+		densidades = catalogo.tabela(true, ArmazemPecas.SEM_MATERIAL + 1);
+		consumos = catalogo.tabela(false, ArmazemPecas.SEM_MATERIAL + 1);
+		totais = new TotaisEstrutura(densidades.length);
+		particoes = new ParticoesPecas(densidades.length);
+		indiceNomes = new IndiceNomes();
+		indicesDimensoes = new IndiceValores[PARALELEPIPEDO + 1][TipoDimensao.values().length];
+		indicesMedidas = new IndiceValores[MedidaPeca.values().length];
+	}
+	
+	/**
+	 *  Cria uma estrutura vazia cujas peças ficam fora do heap, na memória nativa, para estruturas muito grandes: as colunas das peças não
+	 *  são percorridas pelo coletor de lixo. A estrutura é utilizada como qualquer outra, e a memória só é devolvida em liberar().
+	 *  
+	 *  @return a estrutura
+	 */
+	public static EstruturaMetalica foraDoHeap() {
+		return new EstruturaMetalica(ArmazemPecas.foraDoHeap());
+	}
+	
+	/**
+	 *  Cria uma estrutura vazia cujas peças ficam fora do heap, mapeadas em um arquivo, para estruturas maiores que a memória disponível: o
+	 *  sistema operacional grava e lê as partes do arquivo conforme necessário. O arquivo é criado, ou tem o seu conteúdo descartado caso
+	 *  exista, e é apagado em liberar(). Ele não é uma cópia da estrutura; para gravar as peças, utilize salvar(Path).
+	 *  
+	 *  @param arquivo - caminho do arquivo
+	 *  
+	 *  @return a estrutura
+	 *  
+	 *  @throws IOException caso o arquivo não possa ser criado ou mapeado
+	 */
+	public static EstruturaMetalica mapeada(Path arquivo) throws IOException {
+		return new EstruturaMetalica(ArmazemPecas.mapeado(arquivo));
 	}
 	
 	/* Métodos Getters (Métodos de Acesso) */
 	
 	/**
-     *  Obtém a lista de peças da estrutura.
+     *  Verifica se as peças da estrutura ficam fora do heap (foraDoHeap() ou mapeada(Path)).
+     *
+     *  @return true se as peças ficarem fora do heap
+     */
+	public boolean isForaDoHeap() {
+		return !armazem.isNoHeap();
+	}
+	
+	/**
+     *  Obtém a lista de peças da estrutura. A lista é uma visão do armazenamento colunar da estrutura: cada peça é criada no momento
+     *  em que é obtida e novas peças só podem ser adicionadas ao final da lista.
      *
      *  @return a lista de peças da estrutura
      */
@@ -50,49 +195,638 @@ public class EstruturaMetalica {
 		return pecasList;
 	}
 
+	/**
+     *  Obtém o número de threads utilizadas para recalcular os totais da estrutura.
+     *
+     *  @return o número de threads utilizadas nos cálculos
+     */
+	public int getParalelismo() {
+		return pool == null ? 1 : pool.getParallelism();
+	}
+	
+	/**
+     *  Informa se a estrutura está no modo de agregação paralela, ativado por setParalelismo(int) ou setPool(ForkJoinPool).
+     *
+     *  @return true se os totais são somados por blocos com soma compensada, false se são somados em sequência, na ordem das peças
+     */
+	public boolean isAgregacaoParalela() {
+		return totais.isCompensado();
+	}
+	
+	/**
+     *  Obtém a versão do catálogo de materiais utilizada no último cálculo dos totais da estrutura.
+     *
+     *  @return o catálogo de materiais utilizado nos cálculos
+     */
+	public CatalogoMateriais getCatalogoMateriais() {
+		return catalogo;
+	}
+	
+	/**
+     *  Obtém a versão das peças da estrutura, incrementada a cada modificação (peças adicionadas, substituídas ou modificadas pelos seus
+     *  métodos Setters, lista de peças definida ou carregada, catálogo de materiais atualizado). Duas consultas com a mesma versão
+     *  observam as mesmas peças.
+     *
+     *  @return a versão das peças da estrutura
+     */
+	public long getVersao() {
+		return versao;
+	}
+	
+	/**
+     *  Obtém a descrição do kernel utilizado por calcularGeometria(int): escalar ou vetorial, com o tamanho dos vetores.
+     *
+     *  @return a descrição do kernel de geometria
+     */
+	public static String getKernelGeometria() {
+		return KernelGeometria.obter().getDescricao();
+	}
+	
+	/**
+     *  Verifica se a deduplicação das peças está ativa.
+     *
+     *  @return true se peças idênticas forem incorporadas em uma única peça
+     */
+	public boolean isDeduplicacao() {
+		return duplicatas != null;
+	}
+	
+	/**
+     *  Obtém a tolerância das dimensões utilizada na deduplicação.
+     *
+     *  @return a tolerância das dimensões, em metros (m), ou 0 caso a deduplicação esteja desativada
+     */
+	public double getToleranciaDeduplicacao() {
+		return duplicatas == null ? 0 : duplicatas.getTolerancia();
+	}
+	
 	/* Métodos Setters (Métodos Modificadores) */
 	
 	/**
-     *  Define a lista de peças da estrutura.
+     *  Define a lista de peças da estrutura. As peças fornecidas são copiadas para o armazenamento da estrutura e passam a ser vinculadas
+     *  a ela, enquanto as peças obtidas da lista anterior deixam de modificar a estrutura. A lista fornecida pode ser a própria lista
+     *  obtida por getPecasList().
+     *
+     *  Como em adicionarPeca(Peca), uma peça que aparece mais de uma vez na lista ou que pertence a outra estrutura é copiada, e apenas a
+     *  sua primeira posição livre fica vinculada a ela.
      *
      *  @param pecasList - a lista de peças da estrutura
      */
 	public void setPecasList(List<Peca> pecasList) {
-		this.pecasList = pecasList;
+		// A lista é copiada antes de o armazenamento ser limpo, pois ela pode ser uma visão do próprio armazenamento; as peças desta
+		// estrutura deixam de estar vinculadas a ela ao limpar a lista, portanto voltam a ser vinculadas às novas posições
+		List<Peca> pecas = new ArrayList<>(pecasList);
+		
+		geracao++;
+		armazem.limpar();
+		totais.limpar();
+		particoes.limpar();
+		indiceNomes.limpar();
+		definicoesRecebidas = 0;
+		
+		if(duplicatas != null) {
+			duplicatas.limpar();
+		}
+		
+		for(Peca p : pecas) {
+			adicionarPeca(p);
+		}
+		versao++;
+	}
+	
+	/**
+     *  Define o número de threads utilizadas para recalcular os totais da estrutura (por exemplo, depois de anexar muitas peças ou de mudar
+     *  o peso específico de um material) e ativa o modo de agregação paralela.
+     *  <br><br>
+     *  
+     *  Por padrão, os totais são somados em sequência, na ordem das peças, exatamente como a soma das peças uma a uma. No modo de agregação
+     *  paralela, eles são somados por blocos de peças com soma compensada e os blocos são sempre combinados na mesma ordem, portanto os
+     *  resultados são idênticos, bit a bit, para qualquer número de threads (inclusive 1), mas podem diferir da soma sequencial nos últimos
+     *  dígitos. Ao ativar o modo, os totais são recalculados na próxima consulta.
+     *
+     *  @param paralelismo - o número de threads, sendo 1 para calcular na thread atual
+     *
+     *  @throws IllegalArgumentException caso o número de threads seja menor que 1
+     */
+	public void setParalelismo(int paralelismo) throws IllegalArgumentException {
+		if(paralelismo < 1)
+			throw new IllegalArgumentException(PARALELISMO_INVALIDO);
+		
+		usarAgregacaoParalela();
+		if(paralelismo == getParalelismo())
+			return;
+		
+		if(pool != null && !poolCompartilhado) {
+			pool.shutdown();
+		}
+		pool = paralelismo == 1 ? null : new ForkJoinPool(paralelismo);
+		poolCompartilhado = false;
+	} // setParalelismo(int paralelismo)
+	
+	/**
+     *  Define o pool utilizado para recalcular os totais da estrutura em paralelo. Ao contrário do pool criado por setParalelismo(int), o
+     *  pool fornecido não é encerrado pela estrutura e pode ser compartilhado por várias estruturas (por exemplo, no processamento de vários
+     *  arquivos ao mesmo tempo). Assim como setParalelismo(int), ativa o modo de agregação paralela.
+     *
+     *  @param pool - o pool utilizado nos cálculos, ou null para calcular na thread atual
+     */
+	public void setPool(ForkJoinPool pool) {
+		usarAgregacaoParalela();
+		if(this.pool != null && !poolCompartilhado) {
+			this.pool.shutdown();
+		}
+		this.pool = pool;
+		poolCompartilhado = pool != null;
+	} // setPool(ForkJoinPool pool)
+	
+	/**
+	 *  Função auxiliar que ativa o modo de agregação paralela, descartando o resumo calculado com a soma sequencial.
+	 */
+	private void usarAgregacaoParalela() {
+		if(!totais.isCompensado()) {
+			totais.setCompensado(true);
+			resumo = null;
+		}
+	} // usarAgregacaoParalela()
+	
+	/**
+     *  Libera a memória das peças de uma estrutura criada por foraDoHeap() ou mapeada(Path) (e, no segundo caso, apaga o arquivo). Depois
+     *  de liberada, a estrutura e as peças obtidas dela não podem mais ser utilizadas: o acesso às peças lança IllegalStateException. Para
+     *  as demais estruturas, cujas peças ficam no heap, este método não faz nada.
+     *
+     *  @throws UncheckedIOException caso o arquivo mapeado não possa ser fechado
+     */
+	public void liberar() throws UncheckedIOException {
+		armazem.liberar();
+	}
+	
+	/**
+     *  Ativa a deduplicação das peças: uma peça com o mesmo tipo, material, nome e dimensões de uma peça já existente na estrutura não
+     *  ocupa uma nova posição, e a sua quantidade é somada à da peça existente. Assim, a memória utilizada e o cálculo dos totais dependem
+     *  apenas do número de peças distintas. A deduplicação vale para adicionarPeca(Peca), para os métodos que adicionam peças diretamente
+     *  a partir das suas informações, para anexar(EstruturaMetalica) e, portanto, para a importação.
+     *
+     *  Com uma tolerância maior que zero, duas dimensões são iguais quando a diferença entre elas é de no máximo a tolerância, e a peça é
+     *  incorporada à primeira peça existente com todas as dimensões dentro da tolerância (a peça existente mantém as suas dimensões); com
+     *  tolerância zero, as dimensões devem ser exatamente iguais. A tolerância está em metros, como as dimensões das peças:
+     *  setDeduplicacao(0.001) incorpora peças cujas dimensões diferem em até 1 milímetro. As peças que já estão na estrutura não são
+     *  combinadas entre si, apenas passam a receber as novas peças idênticas. Como o peso de cada peça é arredondado para quilogramas com
+     *  duas casas decimais, o peso total pode diferir ligeiramente do peso calculado com as peças separadas.
+     *
+     *  @param tolerancia - a tolerância das dimensões, em metros (m)
+     *
+     *  @throws IllegalArgumentException caso a tolerância seja negativa ou não seja um número
+     */
+	public void setDeduplicacao(double tolerancia) throws IllegalArgumentException {
+		if(!(tolerancia >= 0) || Double.isInfinite(tolerancia))
+			throw new IllegalArgumentException(TOLERANCIA_INVALIDA);
+		
+		duplicatas = new IndiceDuplicatas(tolerancia);
+	} // setDeduplicacao(double tolerancia)
+	
+	/**
+     *  Desativa a deduplicação das peças. As peças adicionadas a partir de então sempre ocupam uma nova posição.
+     */
+	public void desativarDeduplicacao() {
+		duplicatas = null;
 	}
 	
 	/**
-	 *  Adiciona uma peça na estrutura metálica.
+	 *  Adiciona uma peça na estrutura metálica. Uma peça ainda não vinculada passa a ser vinculada à estrutura: modificações feitas através
+	 *  dos seus métodos Setters são repassadas para a estrutura e para os seus totais.
+	 *  
+	 *  Com a deduplicação ativa, uma peça idêntica a uma peça existente apenas soma a sua quantidade à da peça existente e não é
+	 *  vinculada à estrutura.
+	 *  
+	 *  As informações da peça são sempre copiadas para o armazenamento. Uma peça que já está vinculada a uma estrutura (adicionada antes,
+	 *  nesta ou em outra estrutura, ou obtida por obterPeca(int)) é adicionada como uma cópia: ela continua vinculada apenas à sua posição
+	 *  original, e a nova posição não recebe as suas modificações. Assim, estrutura.adicionarPeca(outra.obterPeca(i)) copia a peça de outra
+	 *  estrutura, e adicionar a mesma peça duas vezes cria duas posições com as mesmas informações.
 	 *  
 	 *  @param peca - a peça a ser adiciona na estrutura
 	 */
 	public void adicionarPeca(Peca peca) {
-		pecasList.add(peca);
+		int linha = armazem.tamanho();
+		boolean vinculada = peca.getEstrutura() != null;
+		
+		conhecerMaterial(peca.getMaterial());
+		armazem.adicionar(peca);
+		definicoesRecebidas++;
+		
+		if(incorporar(linha))
+			return;
+		
+		if(!vinculada) {
+			peca.vincular(this, linha, geracao);
+		}
+		totais.acumular(armazem, linha, densidades);
+		particoes.adicionar(linha, armazem.tipo(linha), armazem.material(linha));
+		indiceNomes.adicionar(armazem, linha);
+		versao++;
 	} // adicionarPeca(Peca peca)
 	
 	/**
-	 *  Obtém uma determinada peça com base no índice fornecido.
+	 *  Adiciona um cilindro na estrutura metálica diretamente a partir das suas informações, sem criar um objeto Cilindro.
+	 *  
+	 *  @param quantidade - número de unidades
+	 *  @param material - material do cilindro
+	 *  @param raio - raio do cilindro
+	 *  @param altura - altura do cilindro
+	 */
+	public void adicionarCilindro(int quantidade, Peca.Material material, double raio, double altura) {
+		adicionarLinha(ArmazemPecas.CILINDRO, quantidade, material, raio, altura, 0, 0, 0);
+	} // adicionarCilindro(int quantidade, Peca.Material material, double raio, double altura)
+	
+	/**
+	 *  Adiciona um cubo na estrutura metálica diretamente a partir das suas informações, sem criar um objeto Cubo.
+	 *  
+	 *  @param quantidade - número de unidades
+	 *  @param material - material do cubo
+	 *  @param aresta - aresta do cubo
+	 */
+	public void adicionarCubo(int quantidade, Peca.Material material, double aresta) {
+		adicionarLinha(ArmazemPecas.CUBO, quantidade, material, 0, 0, 0, 0, aresta);
+	} // adicionarCubo(int quantidade, Peca.Material material, double aresta)
+	
+	/**
+	 *  Adiciona um paralelepipedo na estrutura metálica diretamente a partir das suas informações, sem criar um objeto Paralelepipedo.
+	 *  
+	 *  @param quantidade - número de unidades
+	 *  @param material - material do paralelepipedo
+	 *  @param altura - altura do paralelepipedo
+	 *  @param largura - largura do paralelepipedo
+	 *  @param profundidade - profundidade do paralelepipedo
+	 */
+	public void adicionarParalelepipedo(int quantidade, Peca.Material material, double altura, double largura, double profundidade) {
+		adicionarLinha(ArmazemPecas.PARALELEPIPEDO, quantidade, material, 0, altura, largura, profundidade, 0);
+	} // adicionarParalelepipedo(int quantidade, Peca.Material material, double altura, double largura, double profundidade)
+	
+	/**
+	 *  Anexa todas as peças de outra estrutura metálica ao final desta estrutura, mantendo a ordem das peças. As peças são copiadas
+	 *  diretamente entre os armazenamentos, sem criar objetos Peca. Com a deduplicação ativa, as peças idênticas a peças desta estrutura
+	 *  são incorporadas a elas.
+	 *  
+	 *  @param outra - a estrutura cujas peças serão anexadas
+	 */
+	public void anexar(EstruturaMetalica outra) {
+		int inicio = armazem.tamanho();
+		
+		atualizarTabelasMateriais();
+		definicoesRecebidas += outra.definicoesRecebidas;
+		
+		if(duplicatas != null) {
+			for(int i = 0, n = outra.armazem.tamanho(); i < n; i++) {
+				int linha = armazem.tamanho();
+				
+				armazem.copiar(outra.armazem, i);
+				if(!incorporar(linha)) {
+					totais.acumular(armazem, linha, densidades);
+					particoes.adicionar(linha, armazem.tipo(linha), armazem.material(linha));
+					indiceNomes.adicionar(armazem, linha);
+				}
+			}
+			versao++;
+			return;
+		}
+		
+		armazem.anexar(outra.armazem);
+		totais.acumularLinhas(armazem, inicio);
+		
+		for(int linha = inicio, n = armazem.tamanho(); linha < n; linha++) {
+			particoes.adicionar(linha, armazem.tipo(linha), armazem.material(linha));
+		}
+		indiceNomes.adicionarLinhas(armazem, inicio);
+		versao++;
+	} // anexar(EstruturaMetalica outra)
+	
+	/**
+	 *  Substitui um intervalo de peças da estrutura por todas as peças de outra estrutura, deslocando as peças seguintes ao intervalo, e
+	 *  ajusta os totais e os índices da estrutura. Quando o número de peças não muda, apenas as peças do intervalo são atualizadas; caso
+	 *  contrário, as peças a partir do início do intervalo são reindexadas. As peças obtidas antes da substituição deixam de modificar a
+	 *  estrutura.
+	 *  
+	 *  @param inicio - o índice da primeira peça substituída
+	 *  @param quantidade - o número de peças substituídas
+	 *  @param novas - a estrutura com as novas peças
+	 *  
+	 *  @throws IndexOutOfBoundsException caso o intervalo não esteja dentro da lista de peças
+	 */
+	public void substituirPecas(int inicio, int quantidade, EstruturaMetalica novas) throws IndexOutOfBoundsException {
+		Objects.checkFromIndexSize(inicio, quantidade, armazem.tamanho());
+		
+		atualizarTabelasMateriais();
+		geracao++;
+		
+		if(duplicatas != null) {
+			duplicatas.invalidar();
+		}
+		
+		if(novas.armazem.tamanho() == quantidade) {
+			for(int i = 0; i < quantidade; i++) {
+				int linha = inicio + i, tipoAnterior = armazem.tipo(linha), materialAnterior = armazem.material(linha);
+				String nomeAnterior = armazem.nomeProprio(linha);
+				
+				totais.descontar(armazem, linha);
+				armazem.sobrescrever(linha, novas.armazem, i);
+				totais.acumular(armazem, linha, densidades);
+				particoes.mudarTipo(linha, tipoAnterior, armazem.tipo(linha));
+				particoes.mudarMaterial(linha, materialAnterior, armazem.material(linha));
+				
+				if(tipoAnterior != armazem.tipo(linha) || !Objects.equals(nomeAnterior, armazem.nomeProprio(linha))) {
+					indiceNomes.renomear(linha, tipoAnterior, nomeAnterior, armazem.tipo(linha), armazem.nomeProprio(linha));
+				}
+			}
+		}
+		else {
+			totais.descontarLinhas(armazem, inicio);
+			armazem.substituir(inicio, quantidade, novas.armazem);
+			totais.acumularLinhas(armazem, inicio);
+			particoes.truncar(inicio);
+			indiceNomes.truncar(inicio);
+			
+			for(int linha = inicio, n = armazem.tamanho(); linha < n; linha++) {
+				particoes.adicionar(linha, armazem.tipo(linha), armazem.material(linha));
+			}
+			indiceNomes.adicionarLinhas(armazem, inicio);
+		}
+		
+		definicoesRecebidas += novas.definicoesRecebidas - quantidade;
+		versao++;
+	} // substituirPecas(int inicio, int quantidade, EstruturaMetalica novas)
+	
+	/**
+	 *  Grava as peças da estrutura em um arquivo binário colunar (versionado e com soma de verificação), que pode ser carregado por
+	 *  carregar(Path) sem interpretar o arquivo .csv novamente.
+	 *  
+	 *  @param arquivo - caminho do arquivo binário
+	 *  
+	 *  @throws IOException caso ocorra algum problema na gravação do arquivo
+	 */
+	public void salvar(Path arquivo) throws IOException {
+		ArquivoBinario.gravar(armazem, definicoesRecebidas, null, arquivo);
+	}
+	
+	/**
+	 *  Grava as peças da estrutura em um arquivo binário colunar, como salvar(Path), registrando no cabeçalho o tamanho e a data de
+	 *  modificação do arquivo de origem das peças (por exemplo, o arquivo .csv importado). Com isso, isCopiaAtual(Path, Path) indica se a
+	 *  cópia ainda corresponde ao arquivo de origem.
+	 *  
+	 *  @param arquivo - caminho do arquivo binário
+	 *  @param origem - caminho do arquivo de origem das peças
+	 *  
+	 *  @throws IOException caso ocorra algum problema na gravação do arquivo ou na leitura dos atributos do arquivo de origem
+	 */
+	public void salvar(Path arquivo, Path origem) throws IOException {
+		ArquivoBinario.gravar(armazem, definicoesRecebidas, origem, arquivo);
+	}
+	
+	/**
+	 *  Verifica se um arquivo binário gravado por salvar(Path, Path) ainda corresponde ao arquivo de origem, ou seja, se o tamanho e a data
+	 *  de modificação registrados são iguais aos atuais do arquivo de origem. Qualquer diferença (inclusive uma data anterior, de um arquivo
+	 *  restaurado ou copiado de outro computador) invalida a cópia. Apenas o cabeçalho da cópia é lido.
+	 *  
+	 *  @param arquivo - caminho do arquivo binário
+	 *  @param origem - caminho do arquivo de origem das peças
+	 *  
+	 *  @return true caso a cópia exista, esteja na versão atual do formato e corresponda ao arquivo de origem; false caso contrário
+	 *  
+	 *  @throws IOException caso ocorra algum problema na leitura dos atributos do arquivo de origem
+	 */
+	public static boolean isCopiaAtual(Path arquivo, Path origem) throws IOException {
+		return ArquivoBinario.corresponde(arquivo, origem);
+	}
+	
+	/**
+	 *  Substitui as peças da estrutura pelas peças de um arquivo binário gravado por salvar(Path). O arquivo é mapeado em memória e cada
+	 *  coluna é copiada de uma só vez para o armazenamento da estrutura, sem interpretar as linhas; os totais reais são recalculados
+	 *  (em paralelo, conforme getParalelismo()) na primeira consulta. As peças obtidas antes do carregamento deixam de modificar a estrutura
+	 *  e, caso o arquivo não possa ser carregado, a estrutura fica vazia.
+	 *  
+	 *  @param arquivo - caminho do arquivo binário
+	 *  
+	 *  @throws IOException caso o arquivo não possa ser lido, não esteja no formato esperado ou esteja corrompido
+	 *  @throws IllegalArgumentException caso algum material do arquivo não exista no catálogo de materiais atual
+	 */
+	public void carregar(Path arquivo) throws IOException, IllegalArgumentException {
+		prepararCarregamento();
+		
+		try {
+			definicoesRecebidas = ArquivoBinario.ler(arquivo, armazem);
+		}
+		catch(IOException | RuntimeException e) {
+			armazem.limpar();
+			definicoesRecebidas = 0;
+			throw e;
+		}
+		
+		concluirCarregamento();
+	} // carregar(Path arquivo)
+	
+	/**
+	 *  Substitui as peças da estrutura pelas peças de um arquivo binário gravado por salvar(Path) cujo conteúdo já está em memória (por
+	 *  exemplo, recebido pela rede), da posição até o limite do buffer. A posição do buffer não é alterada e, caso o conteúdo não possa
+	 *  ser carregado, a estrutura fica vazia.
+	 *  
+	 *  @param conteudo - o conteúdo do arquivo binário
+	 *  
+	 *  @throws IOException caso o conteúdo não esteja no formato esperado ou esteja corrompido
+	 *  @throws IllegalArgumentException caso algum material do arquivo não exista no catálogo de materiais atual
+	 */
+	public void carregar(ByteBuffer conteudo) throws IOException, IllegalArgumentException {
+		prepararCarregamento();
+		
+		try {
+			definicoesRecebidas = ArquivoBinario.ler(conteudo, armazem);
+		}
+		catch(IOException | RuntimeException e) {
+			armazem.limpar();
+			definicoesRecebidas = 0;
+			throw e;
+		}
+		
+		concluirCarregamento();
+	} // carregar(ByteBuffer conteudo)
+	
+	/**
+	 *  Função auxiliar que desvincula as peças obtidas e descarta os totais e os índices antes de carregar um arquivo binário.
+	 */
+	private void prepararCarregamento() {
+		geracao++;
+		totais.limpar();
+		particoes.limpar();
+		indiceNomes.limpar();
+		versao++;
+		
+		if(duplicatas != null) {
+			duplicatas.invalidar();
+		}
+	}
+	
+	/**
+	 *  Função auxiliar que obtém o índice ordenado de uma medida, construindo-o caso a estrutura tenha sido modificada depois da sua
+	 *  construção.
+	 *  
+	 *  @param medida - a medida
+	 *  
+	 *  @return o índice atualizado da medida
+	 */
+	private IndiceValores indiceMedida(MedidaPeca medida) {
+		// As tabelas dos materiais são atualizadas antes de verificar a versão, pois uma mudança no catálogo muda os pesos e os litros
+		atualizarTabelasMateriais();
+		
+		IndiceValores indice = indicesMedidas[medida.ordinal()];
+		if(indice == null || !indice.isAtual(versao)) {
+			int tamanho = armazem.tamanho();
+			indice = indicesMedidas[medida.ordinal()] = new IndiceValores(linhasEmOrdem(tamanho), valoresMedida(medida, tamanho), versao);
+		}
+		return indice;
+	} // indiceMedida(MedidaPeca medida)
+	
+	/**
+	 *  Função auxiliar que calcula uma medida de todas as linhas, pelo kernel de geometria de cada tipo de peça.
+	 *  
+	 *  @param medida - a medida
+	 *  @param tamanho - o número de linhas
+	 *  
+	 *  @return o valor da medida de cada linha, indexado pela linha
+	 */
+	private double[] valoresMedida(MedidaPeca medida, int tamanho) {
+		double[] valores = new double[tamanho];
+		
+		for(int tipo = CILINDRO; tipo <= PARALELEPIPEDO; tipo++) {
+			GeometriaPecas geometria = calcularGeometria(tipo);
+			int[] linhas = particoes.tipo(tipo).linhas();
+			
+			for(int i = 0, n = geometria.getTamanho(); i < n; i++) {
+				valores[linhas[i]] = medida.valor(geometria, i);
+			}
+		}
+		return valores;
+	} // valoresMedida(MedidaPeca medida, int tamanho)
+	
+	/**
+	 *  Função auxiliar que cria o vetor das linhas 0 até tamanho - 1.
+	 */
+	private static int[] linhasEmOrdem(int tamanho) {
+		int[] linhas = new int[tamanho];
+		
+		for(int linha = 0; linha < tamanho; linha++) {
+			linhas[linha] = linha;
+		}
+		return linhas;
+	}
+	
+	/**
+	 *  Função auxiliar que verifica se uma faixa de valores é válida.
+	 *  
+	 *  @throws IllegalArgumentException caso o valor mínimo seja maior que o máximo ou algum deles não seja um número
+	 */
+	private static void validarFaixa(double minimo, double maximo) throws IllegalArgumentException {
+		if(!(minimo <= maximo))
+			throw new IllegalArgumentException(FAIXA_INVALIDA);
+	}
+	
+	/**
+	 *  Função auxiliar que reconstrói os totais e os índices a partir das linhas carregadas de um arquivo binário.
+	 */
+	private void concluirCarregamento() {
+		atualizarTabelasMateriais();
+		totais.acumularLinhas(armazem, 0);
+		
+		for(int linha = 0, n = armazem.tamanho(); linha < n; linha++) {
+			particoes.adicionar(linha, armazem.tipo(linha), armazem.material(linha));
+		}
+		indiceNomes.adicionarLinhas(armazem, 0);
+	} // concluirCarregamento()
+	
+	/**
+	 *  Função auxiliar que adiciona uma linha ao armazenamento e acumula a linha nos totais da estrutura.
+	 */
+	private void adicionarLinha(byte tipoPeca, int quantidade, Peca.Material material, double raio, double altura, double largura, 
+			double profundidade, double aresta) {
+		int linha = armazem.tamanho();
+		
+		conhecerMaterial(material);
+		armazem.adicionar(tipoPeca, quantidade, material, raio, altura, largura, profundidade, aresta);
+		definicoesRecebidas++;
+		
+		if(incorporar(linha))
+			return;
+		
+		totais.acumular(armazem, linha, densidades);
+		particoes.adicionar(linha, tipoPeca, armazem.material(linha));
+		indiceNomes.adicionar(armazem, linha);
+		versao++;
+	} // adicionarLinha(byte tipoPeca, ...)
+	
+	/**
+	 *  Função auxiliar que, com a deduplicação ativa, procura uma peça idêntica à da última linha do armazenamento. Caso ela exista, a
+	 *  quantidade da última linha é somada à dessa peça e a última linha é removida.
+	 *  
+	 *  @param linha - a última linha do armazenamento, ainda não acumulada nos totais
+	 *  
+	 *  @return true se a linha foi incorporada a uma peça existente
+	 */
+	private boolean incorporar(int linha) {
+		if(duplicatas == null)
+			return false;
+		
+		int existente = duplicatas.procurar(armazem, linha);
+		
+		// Uma soma que não cabe em um int mantém a peça em uma nova linha
+		if(existente < 0 || (long) armazem.quantidade(existente) + armazem.quantidade(linha) > Integer.MAX_VALUE)
+			return false;
+		
+		totais.descontar(armazem, existente);
+		armazem.somarQuantidade(existente, armazem.quantidade(linha));
+		armazem.removerUltima();
+		totais.acumular(armazem, existente, densidades);
+		versao++;
+		return true;
+	} // incorporar(int linha)
+	
+	/**
+	 *  Obtém uma determinada peça com base no índice fornecido. A peça é criada a partir do armazenamento da estrutura e vinculada a ela,
+	 *  de forma que modificações feitas na peça são repassadas para a estrutura.
 	 *  
 	 *  @param indice - a peça a ser adiciona na estrutura
 	 *  
 	 *  @return a peça no indice fornecido
 	 */
 	public Peca obterPeca(int indice) {
-		return pecasList.get(indice);
+		Peca peca = armazem.obter(indice);
+		peca.vincular(this, indice, geracao);
+		
+		return peca;
 	} // obterPeca(int indice)
 	
+	/**
+	 *  Obtém o número de peças (definições) recebidas pela estrutura desde a última vez que a lista de peças foi definida, incluindo as
+	 *  peças que a deduplicação incorporou a uma peça existente.
+	 *  
+	 *  @return o número de peças recebidas
+	 */
+	public long obterDefinicoesRecebidas() {
+		return definicoesRecebidas;
+	}
+	
+	/**
+	 *  Calcula a taxa de compressão da deduplicação: o número de peças recebidas dividido pelo número de peças distintas guardadas na
+	 *  estrutura. Sem a deduplicação (ou sem peças repetidas), a taxa é 1.
+	 *  
+	 *  @return a taxa de compressão das peças
+	 */
+	public double obterTaxaCompressao() {
+		return armazem.tamanho() == 0 ? 1 : (double) definicoesRecebidas / armazem.tamanho();
+	}
+	
 	/**
 	 *  Obtém o número total de peças na estrutura.
 	 *  
 	 *  @return o número total de peças na estrutura
 	 */
 	public int obterTotalPecas() {
-		int totalPecas = 0;
-		
-		for(Peca p : pecasList) {
-			totalPecas += p.getQuantidade();
-		}
-		return totalPecas;
+		return totais.getTotalPecas();
 	} // obterTotalPecas()
 	
 	/**
@@ -103,25 +837,198 @@ public class EstruturaMetalica {
 	 *  @return o número total de peças de um determinado tipo de peça fornecido
 	 */
 	public int obterTotalPecas(int tipoPeca) {
-	    int totalPecas = 0;
-
-	    if (tipoPeca >= CILINDRO && tipoPeca <= PARALELEPIPEDO) {
-	        for (Peca p : pecasList) {
-	            if (tipoPeca == CILINDRO && p instanceof Cilindro) {
-	                totalPecas += p.getQuantidade();
-	            }
-	            if (tipoPeca == CUBO && p instanceof Cubo) {
-	                totalPecas += p.getQuantidade();
-	            }
-	            if (tipoPeca == PARALELEPIPEDO && p instanceof Paralelepipedo) {
-	                totalPecas += p.getQuantidade();
-	            }
-	        }
-	    }
-	    return totalPecas; 
-	    
+		return totais.getTotalPecas(tipoPeca);
 	} // obterTotalPecas(int tipoPeca)
 	
+	/**
+	 *  Obtém o número total de peças de um determinado material.
+	 *  
+	 *  @param material - o material
+	 *  
+	 *  @return o número total de peças do material fornecido
+	 */
+	public int obterTotalPecas(Peca.Material material) {
+		return totais.getTotalPecasMaterial(ArmazemPecas.codigo(material) & 0xFF);
+	} // obterTotalPecas(Peca.Material material)
+	
+	/**
+	 *  Obtém as peças de um determinado tipo, na ordem em que estão na estrutura. A lista é uma visão da partição do tipo: apenas as peças
+	 *  do tipo são percorridas e cada peça é criada no momento em que é obtida.
+	 *  
+	 *  @param tipoPeca - tipo da peça, podendo ser Cilindro, Cubo ou Paralelepipedo
+	 *  
+	 *  @return as peças do tipo fornecido, ou uma lista vazia caso o tipo seja inválido
+	 */
+	public List<Peca> obterPecasDoTipo(int tipoPeca) {
+		ParticoesPecas.Particao particao = particoes.tipo(tipoPeca);
+		return particao == null ? List.of() : new ListaParticao(particao);
+	} // obterPecasDoTipo(int tipoPeca)
+	
+	/**
+	 *  Calcula a área, o volume, o peso e os litros de tinta de cada peça de um determinado tipo, na ordem de obterPecasDoTipo(int), sem
+	 *  criar os objetos Peca: as colunas da partição do tipo são lidas diretamente pelo kernel de geometria, que utiliza a Vector API
+	 *  apenas quando escolhida (-Dhvrp.infoem.escalar=false) e o módulo jdk.incubator.vector está presente (getKernelGeometria()).
+	 *  
+	 *  @param tipoPeca - tipo da peça, podendo ser Cilindro, Cubo ou Paralelepipedo
+	 *  
+	 *  @return a geometria das peças do tipo fornecido, ou uma geometria vazia caso o tipo seja inválido
+	 */
+	public GeometriaPecas calcularGeometria(int tipoPeca) {
+		ParticoesPecas.Particao particao = particoes.tipo(tipoPeca);
+		if(particao == null)
+			return new GeometriaPecas(tipoPeca, 0);
+		
+		atualizarTabelasMateriais();
+		
+		GeometriaPecas geometria = new GeometriaPecas(tipoPeca, particao.tamanho());
+		KernelGeometria.obter().calcular(armazem, (byte) tipoPeca, particao.linhas(), 0, particao.tamanho(), densidades, consumos, geometria);
+		return geometria;
+	} // calcularGeometria(int tipoPeca)
+	
+	/**
+	 *  Obtém as peças de um determinado material, na ordem em que estão na estrutura. A lista é uma visão da partição do material: apenas
+	 *  as peças do material são percorridas e cada peça é criada no momento em que é obtida.
+	 *  
+	 *  @param material - o material
+	 *  
+	 *  @return as peças do material fornecido
+	 */
+	public List<Peca> obterPecasDoMaterial(Peca.Material material) {
+		ParticoesPecas.Particao particao = particoes.material(ArmazemPecas.codigo(material) & 0xFF);
+		return particao == null ? List.of() : new ListaParticao(particao);
+	} // obterPecasDoMaterial(Peca.Material material)
+	
+	/**
+	 *  Obtém as peças de um tipo com uma dimensão dentro da faixa fornecida (incluindo os limites), em ordem crescente da dimensão e, entre
+	 *  valores iguais, na ordem da estrutura. Por exemplo, obterPecasNaFaixa(Estrutura.CILINDRO, TipoDimensao.RAIO, 0.2, 0.5) obtém os
+	 *  cilindros com raio entre 0.2 e 0.5 m.
+	 *  
+	 *  A consulta utiliza um índice ordenado da dimensão: depois de uma modificação, a primeira consulta constrói o índice, em O(n log n), e
+	 *  as seguintes encontram as peças por busca binária, em O(log n + k). A lista retornada contém as peças da faixa no momento da
+	 *  consulta, e cada peça é criada no momento em que é obtida.
+	 *  
+	 *  @param tipoPeca - tipo da peça, podendo ser Cilindro, Cubo ou Paralelepipedo
+	 *  @param dimensao - a dimensão
+	 *  @param minimo - o valor mínimo da dimensão, em metros (m)
+	 *  @param maximo - o valor máximo da dimensão, em metros (m)
+	 *  
+	 *  @return as peças na faixa, ou uma lista vazia caso o tipo seja inválido ou não possua a dimensão
+	 *  
+	 *  @throws IllegalArgumentException caso o valor mínimo seja maior que o máximo ou algum deles não seja um número
+	 */
+	public List<Peca> obterPecasNaFaixa(int tipoPeca, TipoDimensao dimensao, double minimo, double maximo) throws IllegalArgumentException {
+		validarFaixa(minimo, maximo);
+		
+		ParticoesPecas.Particao particao = particoes.tipo(tipoPeca);
+		if(particao == null || !ArmazemPecas.tiposDimensao((byte) tipoPeca).contains(dimensao))
+			return List.of();
+		
+		IndiceValores indice = indicesDimensoes[tipoPeca][dimensao.ordinal()];
+		if(indice == null || !indice.isAtual(versao)) {
+			int tamanho = particao.tamanho();
+			int[] linhas = Arrays.copyOf(particao.linhas(), tamanho);
+			double[] valores = new double[tamanho];
+			
+			for(int i = 0; i < tamanho; i++) {
+				valores[i] = armazem.dimensao(linhas[i], dimensao);
+			}
+			indice = indicesDimensoes[tipoPeca][dimensao.ordinal()] = new IndiceValores(linhas, valores, versao);
+		}
+		return new ListaLinhas(indice.linhas(), indice.inicio(minimo), indice.fim(maximo));
+	} // obterPecasNaFaixa(int tipoPeca, TipoDimensao dimensao, double minimo, double maximo)
+	
+	/**
+	 *  Obtém as peças com uma medida calculada (área, volume, peso ou litros de tinta, já multiplicados pela quantidade da peça, como em
+	 *  calcularGeometria(int)) dentro da faixa fornecida, incluindo os limites, em ordem crescente da medida e, entre valores iguais, na
+	 *  ordem da estrutura. Assim como em obterPecasNaFaixa(int, TipoDimensao, double, double), a consulta utiliza um índice ordenado da
+	 *  medida, construído na primeira consulta depois de uma modificação, e encontra as peças em O(log n + k).
+	 *  
+	 *  @param medida - a medida
+	 *  @param minimo - o valor mínimo da medida
+	 *  @param maximo - o valor máximo da medida
+	 *  
+	 *  @return as peças na faixa
+	 *  
+	 *  @throws IllegalArgumentException caso o valor mínimo seja maior que o máximo ou algum deles não seja um número
+	 */
+	public List<Peca> obterPecasNaFaixa(MedidaPeca medida, double minimo, double maximo) throws IllegalArgumentException {
+		validarFaixa(minimo, maximo);
+		
+		IndiceValores indice = indiceMedida(medida);
+		return new ListaLinhas(indice.linhas(), indice.inicio(minimo), indice.fim(maximo));
+	} // obterPecasNaFaixa(MedidaPeca medida, double minimo, double maximo)
+	
+	/**
+	 *  Obtém as peças com os maiores valores de uma medida calculada (por exemplo, as 100 peças mais pesadas ou que consomem mais tinta), em
+	 *  ordem decrescente da medida e, entre valores iguais, na ordem da estrutura. Caso o índice da medida esteja atualizado (por uma
+	 *  consulta por faixa), as peças são lidas do final do índice; caso contrário, as medidas são calculadas e as maiores são mantidas em
+	 *  um heap limitado ao número de peças pedido, em O(n log k), sem ordenar todas as peças.
+	 *  
+	 *  @param medida - a medida
+	 *  @param quantidade - o número de peças
+	 *  
+	 *  @return as peças de maior medida (no máximo o número de peças da estrutura)
+	 *  
+	 *  @throws IllegalArgumentException caso o número de peças seja negativo
+	 */
+	public List<Peca> obterMaiores(MedidaPeca medida, int quantidade) throws IllegalArgumentException {
+		if(quantidade < 0)
+			throw new IllegalArgumentException(QUANTIDADE_INVALIDA);
+		
+		atualizarTabelasMateriais();
+		
+		IndiceValores indice = indicesMedidas[medida.ordinal()];
+		int[] maiores;
+		
+		if(indice != null && indice.isAtual(versao)) {
+			maiores = indice.maiores(quantidade);
+		}
+		else {
+			int tamanho = armazem.tamanho();
+			maiores = IndiceValores.maiores(linhasEmOrdem(tamanho), valoresMedida(medida, tamanho), tamanho, quantidade);
+		}
+		return new ListaLinhas(maiores, 0, maiores.length);
+	} // obterMaiores(MedidaPeca medida, int quantidade)
+	
+	/**
+	 *  Obtém as peças da estrutura em ordem alfabética de nome, sem diferenciar letras maiúsculas e minúsculas. Peças com o mesmo nome
+	 *  ficam na ordem em que estão na estrutura. As peças são percorridas pelo índice de nomes da estrutura, sem ordenar a lista de peças,
+	 *  e cada peça é criada no momento em que é obtida.
+	 *  
+	 *  @return as peças da estrutura em ordem alfabética
+	 */
+	public Iterable<Peca> obterPecasPorNome() {
+		return () -> new Iterator<Peca>() {
+			private final PrimitiveIterator.OfInt linhas = indiceNomes.linhas();
+			
+			@Override
+			public boolean hasNext() {
+				return linhas.hasNext();
+			}
+
+			@Override
+			public Peca next() {
+				return obterPeca(linhas.nextInt());
+			}
+		};
+	} // obterPecasPorNome()
+	
+	/**
+	 *  Obtém os índices das peças da estrutura (as posições na lista de peças) em ordem alfabética de nome, como em obterPecasPorNome().
+	 *  Cada índice pode ser utilizado em obterPeca(int), o que permite obter apenas as peças de um trecho da ordem alfabética.
+	 *  
+	 *  @return os índices das peças em ordem alfabética
+	 */
+	public int[] obterIndicesPorNome() {
+		int[] indices = new int[armazem.tamanho()];
+		PrimitiveIterator.OfInt linhas = indiceNomes.linhas();
+		
+		for(int i = 0; i < indices.length; i++) {
+			indices[i] = linhas.nextInt();
+		}
+		return indices;
+	} // obterIndicesPorNome()
+	
 	/**
 	 *  Obtém a área total e as dimensões de cada peça da estrutura.
 	 *  
@@ -129,15 +1036,12 @@ public class EstruturaMetalica {
 	 */
 	public String obterAreaTotalEDimensoes() {
 		StringBuilder stringBuilder = new StringBuilder();
-		List<Peca> listaOrdenada = ordenaLista();
-		
-		for(Peca p : listaOrdenada) {
-			stringBuilder.append(String.format("%10c- %s | %s unidade(s).\n%20cÁrea: %,1.2f %s\n", SPACE, p.getNome(), p.getQuantidade(), SPACE, p.area(), Peca.getUnidadeArea()));
 		
-			for (Dimensao dimensao : p.obterDimensoes()) {
-				stringBuilder.append(String.format("%20c%s: %,1.2f %s\n", SPACE, dimensao.getNome(), dimensao.getValor(), Peca.getUnidade()));
-			}
-			stringBuilder.append(NEW_LINE);
+		try {
+			new RelatorioPecas().escreverAreaEDimensoes(this, stringBuilder);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
 		}
 		
 		return stringBuilder.toString();
@@ -150,24 +1054,21 @@ public class EstruturaMetalica {
 	 *  @return o peso total da estrutura
 	 */
 	public double calcularPesoTotal() {
-		double somaPesoTotal = 0;
-		
-		for(Peca p : pecasList) {
-			double densidade = 0;
-			if(p.getMaterial().getNome().equalsIgnoreCase(Peca.Material.ALUMINIO.getNome())) { 
-				densidade = p.getPesoAluminio();
-			}
-			else if(p.getMaterial().getNome().equalsIgnoreCase(Peca.Material.FERRO.getNome())) {
-				densidade = p.getPesoFerro();
-			}
-			
-			double volumeTotal = p.getQuantidade() * p.volume();
-	        somaPesoTotal += converterParaKG(densidade, volumeTotal);
-		}
-		
-		return somaPesoTotal;
+		return obterResumo().getPesoTotal();
 	} // calcularPesoTotal()
 	
+	/**
+	 *  Calcula o peso total das peças de um determinado material da estrutura. 
+	 *  O valor retornado corresponderá ao peso total das peças do material, convertido para quilogramas (Kg).
+	 *  
+	 *  @param material - o material
+	 *  
+	 *  @return o peso total das peças do material fornecido
+	 */
+	public double calcularPesoTotal(Peca.Material material) {
+		return obterResumo().getPesoTotal(material);
+	} // calcularPesoTotal(Peca.Material material)
+	
 	/**
 	 *  Calcula o volume total da estrutura. 
 	 *  O valor retornado corresponderá ao volume total da estrutura, convertido para metros cúbicos (m³).
@@ -175,12 +1076,7 @@ public class EstruturaMetalica {
 	 *  @return o volume total da estrutura
 	 */
 	public double calcularVolumeTotal() {
-		double somaVolumeTotal = 0;
-		
-		for(Peca p : pecasList) {
-			somaVolumeTotal += p.getQuantidade() * p.volume();
-		}
-		 return Math.round(somaVolumeTotal * CEM) / CEM;
+		return obterResumo().getVolumeTotal();
 	} // calcularVolumeTotal() 
 	
 	/**
@@ -192,23 +1088,7 @@ public class EstruturaMetalica {
 	 *  @return o volume total de um determinado tipo de peça da estrutura
 	 */
 	public double calcularVolumeTotal(int tipoPeca) {
-		double somaVolumeTotal = 0;
-		
-		if (tipoPeca >= CILINDRO && tipoPeca <= PARALELEPIPEDO) {
-	        for (Peca p : pecasList) {
-	            if (tipoPeca == CILINDRO && p instanceof Cilindro) {
-	                somaVolumeTotal += p.getQuantidade() * p.volume();
-	            }
-	            if (tipoPeca == CUBO && p instanceof Cubo) {
-	            	somaVolumeTotal += p.getQuantidade() * p.volume();
-	            }
-	            if (tipoPeca == PARALELEPIPEDO && p instanceof Paralelepipedo) {
-	            	somaVolumeTotal += p.getQuantidade() * p.volume();
-	            }
-	        }
-	    }
-
-		 return Math.round(somaVolumeTotal * CEM) / CEM;
+		return obterResumo().getVolumeTotal(tipoPeca);
 	} // calcularVolumeTotal(int tipoPeca) 
 	
 	/**
@@ -218,39 +1098,160 @@ public class EstruturaMetalica {
 	 *  @return o consumo de tinta total da estrutura
 	 */
 	public int[] calcularConsumoTinta() {
-		double somaConsumoTotal = 0;
-		int[] latasDeTinta = {0,0,0};
+		return obterResumo().getLatasDeTinta();
+	} // calcularConsumoTinta()
+	
+	/**
+	 *  Calcula as latas de tinta necessárias para pintar a estrutura, como em calcularConsumoTinta(), escrevendo as quantidades de latas
+	 *  de 0,5 litro, 2 litros e 5 litros (posições 0, 1 e 2) em um vetor já existente em vez de criar um novo.
+	 *  
+	 *  @param latas - o vetor que recebe as quantidades, com pelo menos Mercado.TAMANHOS_LATA posições
+	 *  
+	 *  @throws IndexOutOfBoundsException caso o vetor possua menos de Mercado.TAMANHOS_LATA posições
+	 */
+	public void calcularConsumoTinta(int[] latas) throws IndexOutOfBoundsException {
+		ResumoEstrutura resumo = obterResumo();
 		
-		for(Peca p : pecasList) {
-			double consumo = 0;
-			if(p.getMaterial().getNome().equalsIgnoreCase(Peca.Material.ALUMINIO.getNome())) {
-				consumo = p.getConsumoAluminio();
-			}
-			else if (p.getMaterial().getNome().equalsIgnoreCase(Peca.Material.FERRO.getNome())) {
-				consumo = p.getConsumoFerro();
-			}
-			
-			double areaTotal = p.getQuantidade() * p.area();
-			somaConsumoTotal += consumo * areaTotal;
+		Objects.checkFromIndexSize(0, Mercado.TAMANHOS_LATA, latas.length);
+		for(int i = 0; i < Mercado.TAMANHOS_LATA; i++) {
+			latas[i] = resumo.getLatasDeTinta(i);
 		}
+	} // calcularConsumoTinta(int[] latas)
 	
-		somaConsumoTotal = converterParaLitros(somaConsumoTotal);
-	    latasDeTinta = Mercado.calculaLatasDeTinta(somaConsumoTotal);
-	    
-	    return latasDeTinta;
-	} // calcularConsumoTinta()
+	/**
+	 *  Obtém o resumo da estrutura, com o peso total, o volume total, o consumo de tinta, as latas de tinta e o número de peças e o volume
+	 *  de cada tipo de peça. Os valores vêm dos totais mantidos pela estrutura, que só são recalculados (por blocos de peças, em paralelo
+	 *  caso o paralelismo seja maior que 1) depois que alguma peça já adicionada é modificada ou que peças são anexadas.
+	 *  
+	 *  @return o resumo da estrutura
+	 */
+	public ResumoEstrutura obterResumo() {
+		atualizarTabelasMateriais();
+		
+		if(!totais.isValido()) {
+			totais.recalcular(armazem, densidades, pool);
+		}
+		if(resumo == null || versaoResumo != versao) {
+			resumo = totais.resumo(consumos);
+			versaoResumo = versao;
+		}
+		return resumo;
+	} // obterResumo()
 	
 	/**
-	 *  Função auxiliar que ordena a lista de peças em ordem alfabética. 
+	 *  Obtém o armazenamento colunar das peças da estrutura.
 	 *  
-	 *  @return a lista de peças em ordem alfabética
+	 *  @return o armazenamento das peças
 	 */
-	private List<Peca> ordenaLista() {
-		List<Peca> lista = new ArrayList<>(pecasList);
-		lista.sort((p1, p2) -> p1.getNome().compareToIgnoreCase(p2.getNome()));
+	ArmazemPecas getArmazem() {
+		return armazem;
+	}
+	
+	/**
+	 *  Obtém as linhas do armazenamento em ordem alfabética de nome, como em obterPecasPorNome().
+	 *  
+	 *  @return o iterador das linhas
+	 */
+	PrimitiveIterator.OfInt linhasPorNome() {
+		return indiceNomes.linhas();
+	}
+	
+	/**
+	 *  Verifica se uma peça vinculada a esta estrutura ainda ocupa a linha do vínculo, ou seja, se a lista de peças não foi substituída
+	 *  desde que a peça foi vinculada.
+	 *  
+	 *  @param peca - uma peça vinculada a esta estrutura
+	 *  
+	 *  @return true se as modificações da peça forem repassadas para a estrutura
+	 */
+	boolean isVinculoAtual(Peca peca) {
+		return peca.getGeracao() == geracao && peca.getLinha() < armazem.tamanho();
+	}
+	
+	/**
+	 *  Avisa a estrutura que uma informação de uma peça vinculada a ela foi modificada. Apenas a informação modificada é copiada para a
+	 *  linha da peça no armazenamento, e uma nova quantidade soma à linha somente a diferença para a quantidade anterior da peça: com a
+	 *  deduplicação, a linha também contém as unidades das peças incorporadas a ela, que assim são preservadas. Os totais são ajustados.
+	 *  
+	 *  @param peca - a peça modificada
+	 *  @param coluna - a coluna da informação modificada (ArmazemPecas.COLUNA_RAIO até COLUNA_MATERIAL, ou ArmazemPecas.COLUNA_NOME)
+	 *  @param diferenca - a diferença entre a nova quantidade e a anterior, quando a coluna é a da quantidade
+	 */
+	void pecaAlterada(Peca peca, int coluna, int diferenca) {
+		int linha = peca.getLinha();
+		
+		if(!isVinculoAtual(peca)) {
+			return;
+		}
 		
-		return lista;
-	} // ordenaLista()
+		int materialAnterior = armazem.material(linha);
+		String nomeAnterior = armazem.nomeProprio(linha);
+		
+		conhecerMaterial(peca.getMaterial());
+		totais.descontar(armazem, linha);
+		
+		if(duplicatas != null) {
+			duplicatas.remover(armazem, linha);
+		}
+		if(coluna == ArmazemPecas.COLUNA_QUANTIDADE) {
+			armazem.somarQuantidade(linha, diferenca);
+		}
+		else {
+			armazem.atualizar(linha, peca, coluna);
+		}
+		totais.acumular(armazem, linha, densidades);
+		particoes.mudarMaterial(linha, materialAnterior, armazem.material(linha));
+		
+		if(!Objects.equals(nomeAnterior, armazem.nomeProprio(linha))) {
+			indiceNomes.renomear(linha, armazem.tipo(linha), nomeAnterior, armazem.nomeProprio(linha));
+		}
+		
+		// Peças modificadas não são combinadas com peças existentes; a linha volta a representar a sua definição, se ela for nova
+		if(duplicatas != null) {
+			duplicatas.registrar(armazem, linha);
+		}
+		versao++;
+	} // pecaAlterada(Peca peca, int coluna, int diferenca)
+	
+	/**
+	 *  Função auxiliar que passa a utilizar a versão atual do catálogo de materiais, caso ela seja diferente da utilizada nos totais. O
+	 *  catálogo é obtido uma única vez, portanto todo o cálculo utiliza os valores de uma mesma versão. Novos materiais apenas aumentam as
+	 *  tabelas; os totais só são invalidados quando o peso específico ou o consumo de tinta de um material já utilizado mudam.
+	 */
+	private void atualizarTabelasMateriais() {
+		CatalogoMateriais atual = CatalogoMateriais.atual();
+		
+		if(atual == catalogo) {
+			return;
+		}
+		
+		double[] novasDensidades = atual.tabela(true, ArmazemPecas.SEM_MATERIAL + 1), novosConsumos = atual.tabela(false, ArmazemPecas.SEM_MATERIAL + 1);
+		boolean mudou = !Arrays.equals(densidades, 0, densidades.length, novasDensidades, 0, densidades.length)
+				|| !Arrays.equals(consumos, 0, consumos.length, novosConsumos, 0, consumos.length);
+		
+		catalogo = atual;
+		densidades = novasDensidades;
+		consumos = novosConsumos;
+		totais.redimensionar(densidades.length);
+		particoes.redimensionar(densidades.length);
+		
+		if(mudou) {
+			totais.invalidar();
+		}
+		versao++;
+	} // atualizarTabelasMateriais()
+	
+	/**
+	 *  Função auxiliar que garante que as tabelas de materiais contêm o material fornecido, que pode ter sido adicionado ao catálogo
+	 *  depois da última atualização das tabelas.
+	 *  
+	 *  @param material - o material de uma peça
+	 */
+	private void conhecerMaterial(Peca.Material material) {
+		if(material != null && material.getId() + 1 >= densidades.length) {
+			atualizarTabelasMateriais();
+		}
+	}
 	
 	/**
 	 *  Função auxiliar para converter o peso total da estrutura para quilogramas (Kg). 
@@ -260,7 +1261,7 @@ public class EstruturaMetalica {
 	 * 
 	 *  @return o peso total da estrutura convertido em quilogramas (Kg)
 	 */
-	private double converterParaKG(double densidade, double volume) {
+	static double converterParaKG(double densidade, double volume) {
 	    double resultado = (densidade * volume) / MIL;
 	    return Math.round(resultado * CEM) / CEM;
 	} // converterParaKG(double densidade, double volume)
@@ -272,7 +1273,7 @@ public class EstruturaMetalica {
 	 * 
 	 *  @return o consumo total de tinta estrutura convertido em litros (L)
 	 */
-	private double converterParaLitros(double consumo) {		
+	static double converterParaLitros(double consumo) {		
 	    return Math.round(consumo * CEM) / CEM;
 	} // converterParaLitros(double consumo)
 	
@@ -287,13 +1288,85 @@ public class EstruturaMetalica {
      */
 	@Override
 	public String toString() {
-		StringBuilder stringBuilder = new StringBuilder("- Lista de peças utilizadas na estrutura:\n");
-		List<Peca> listaOrdenada = ordenaLista();
+		StringBuilder stringBuilder = new StringBuilder();
 		
-		for(Peca p : listaOrdenada) {
-			stringBuilder.append(p.toString() + NEW_LINE);
+		try {
+			new RelatorioPecas().escreverPecas(this, stringBuilder);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
 		}
 		
 		return stringBuilder.toString();
 	}
+	
+	/**
+	 *  Visão das peças da estrutura como uma lista. As peças são materializadas a partir do armazenamento colunar a cada acesso.
+	 */
+	private final class ListaPecas extends AbstractList<Peca> implements RandomAccess {
+		@Override
+		public Peca get(int indice) {
+			return obterPeca(indice);
+		}
+
+		@Override
+		public int size() {
+			return armazem.tamanho();
+		}
+
+		@Override
+		public void add(int indice, Peca peca) {
+			if (indice != armazem.tamanho()) {
+				throw new UnsupportedOperationException();
+			}
+			adicionarPeca(peca);
+			modCount++;
+		}
+	} // class ListaPecas
+	
+	/**
+	 *  Visão somente leitura das peças de uma partição do índice da estrutura.
+	 */
+	private final class ListaParticao extends AbstractList<Peca> implements RandomAccess {
+		private final ParticoesPecas.Particao particao;
+		
+		ListaParticao(ParticoesPecas.Particao particao) {
+			this.particao = particao;
+		}
+		
+		@Override
+		public Peca get(int indice) {
+			return obterPeca(particao.linha(indice));
+		}
+
+		@Override
+		public int size() {
+			return particao.tamanho();
+		}
+	} // class ListaParticao
+	
+	/**
+	 *  Visão somente leitura das peças de um trecho de um vetor de linhas (de um índice ordenado ou de uma consulta das maiores peças).
+	 */
+	private final class ListaLinhas extends AbstractList<Peca> implements RandomAccess {
+		private final int[] linhas;
+		private final int inicio, fim;
+		
+		ListaLinhas(int[] linhas, int inicio, int fim) {
+			this.linhas = linhas;
+			this.inicio = inicio;
+			this.fim = Math.max(inicio, fim);
+		}
+		
+		@Override
+		public Peca get(int indice) {
+			Objects.checkIndex(indice, fim - inicio);
+			return obterPeca(linhas[inicio + indice]);
+		}
+
+		@Override
+		public int size() {
+			return fim - inicio;
+		}
+	} // class ListaLinhas
 } // class EstruturaMetalica
\ No newline at end of file
@@ -0,0 +1,139 @@
+package hvrp.infoem;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ *  Formatador de números reais com duas casas decimais e separador de milhares, produzindo o mesmo texto que String.format com o padrão
+ *  "%,1.2f" no idioma fornecido, sem criar objetos a cada número.
+ *
+ *  Os separadores e o tamanho dos grupos do idioma são obtidos uma única vez, na criação do formatador. Os números são arredondados a
+ *  partir dos centésimos calculados diretamente; apenas os números muito próximos da metade de um centésimo que não são exatamente a
+ *  metade (em que o arredondamento depende da representação decimal do número), os números negativos ou muito grandes e os idiomas sem
+ *  representação decimal simples utilizam String.format.
+ *
+ *  Cada formatador utiliza um vetor auxiliar próprio e não deve ser compartilhado entre threads.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class FormatoDecimal {
+	/**
+	 *  Padrão de String.format equivalente ao formatador.
+	 */
+	private final static String PADRAO = "%,1.2f";
+
+	/**
+	 *  Maior número formatado sem String.format e a menor distância da metade de um centésimo abaixo da qual o arredondamento é delegado a
+	 *  String.format (para números grandes a distância cresce com a precisão do número).
+	 */
+	private final static double LIMITE = 1e11, TOLERANCIA = 1e-3;
+
+	private final static double CEM = 100.0;
+
+	/**
+	 *  Idioma da formatação.
+	 */
+	private final Locale locale;
+
+	/**
+	 *  Dígito zero, separador decimal e separador de milhares do idioma (o caractere nulo indica que o idioma não agrupa os dígitos).
+	 */
+	private final char zero, separadorDecimal, separadorGrupos;
+
+	/**
+	 *  Número de dígitos de cada grupo da parte inteira.
+	 */
+	private final int tamanhoGrupo;
+
+	/**
+	 *  Indica se o idioma pode ser formatado sem String.format.
+	 */
+	private final boolean direto;
+
+	/**
+	 *  Vetor auxiliar com os caracteres da parte inteira, em ordem inversa.
+	 */
+	private final char[] digitos = new char[32];
+
+	/**
+	 *  Inicializa um formatador para o idioma fornecido, obtendo os separadores da mesma forma que java.util.Formatter.
+	 *
+	 *  @param locale - o idioma da formatação
+	 */
+	FormatoDecimal(Locale locale) {
+		DecimalFormatSymbols simbolos = DecimalFormatSymbols.getInstance(locale);
+		NumberFormat formato = NumberFormat.getNumberInstance(locale);
+
+		this.locale = locale;
+		zero = simbolos.getZeroDigit();
+		separadorDecimal = simbolos.getDecimalSeparator();
+
+		if(locale.equals(Locale.US)) {
+			separadorGrupos = simbolos.getGroupingSeparator();
+			tamanhoGrupo = 3;
+			direto = true;
+		}
+		else if(formato instanceof DecimalFormat decimal) {
+			tamanhoGrupo = decimal.getGroupingSize();
+			separadorGrupos = decimal.isGroupingUsed() && tamanhoGrupo > 0 ? simbolos.getGroupingSeparator() : '\0';
+			direto = true;
+		}
+		else {
+			separadorGrupos = '\0';
+			tamanhoGrupo = 0;
+			direto = false;
+		}
+	} // FormatoDecimal(Locale locale)
+
+	/**
+	 *  Escreve um número com duas casas decimais e separador de milhares.
+	 *
+	 *  @param valor - o número
+	 *  @param destino - onde o número é escrito
+	 */
+	void escrever(double valor, StringBuilder destino) {
+		if(!direto || !(Double.compare(valor, 0.0) >= 0 && valor < LIMITE)) {
+			destino.append(String.format(locale, PADRAO, valor));
+			return;
+		}
+
+		double escalado = valor * CEM;
+		long centesimos = (long) escalado;
+		double fracao = escalado - centesimos;
+
+		if(Math.abs(fracao - 0.5) < Math.max(TOLERANCIA, Math.ulp(valor) * 2 * CEM)) {
+			// String.format arredonda a representação decimal mais curta do número: quando ela termina exatamente na metade de um centésimo
+			// (o número é o double mais próximo desse decimal), o arredondamento é para cima; nos demais casos o resultado é delegado
+			if((centesimos + 0.5) / CEM != valor) {
+				destino.append(String.format(locale, PADRAO, valor));
+				return;
+			}
+			centesimos++;
+		}
+		else if(fracao > 0.5) {
+			centesimos++;
+		}
+
+		long inteiro = centesimos / 100;
+		int decimais = (int) (centesimos % 100);
+		int tamanho = 0, posicao = 1;
+
+		do {
+			if(separadorGrupos != '\0' && posicao > 1 && posicao % tamanhoGrupo == 1) {
+				digitos[tamanho++] = separadorGrupos;
+			}
+			digitos[tamanho++] = (char) (zero + inteiro % 10);
+			inteiro /= 10;
+			posicao++;
+		} while(inteiro > 0);
+
+		while(tamanho > 0) {
+			destino.append(digitos[--tamanho]);
+		}
+		destino.append(separadorDecimal).append((char) (zero + decimais / 10)).append((char) (zero + decimais % 10));
+	} // escrever(double valor, StringBuilder destino)
+} // class FormatoDecimal
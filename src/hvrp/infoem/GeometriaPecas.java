@@ -0,0 +1,102 @@
+package hvrp.infoem;
+
+/**
+ *  Geometria de cada peça de um tipo: a área, o volume, o peso e os litros de tinta de cada peça da partição do tipo, já multiplicados pela
+ *  quantidade da peça. A posição i corresponde à peça i de EstruturaMetalica.obterPecasDoTipo(int) no momento do cálculo.
+ *
+ *  O peso é o peso específico do material vezes o volume, em Kg, sem o arredondamento aplicado em cada peça pelos totais da estrutura, e
+ *  os litros de tinta são o consumo de tinta do material vezes a área.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class GeometriaPecas {
+	/**
+	 *  Tipo das peças.
+	 */
+	private final int tipoPeca;
+
+	/**
+	 *  Área (m²), volume (m³), peso (Kg) e litros de tinta de cada peça.
+	 */
+	final double[] areas, volumes, pesos, litros;
+
+	/**
+	 *  Inicializa a geometria de uma partição com o número de peças fornecido.
+	 *
+	 *  @param tipoPeca - tipo das peças
+	 *  @param tamanho - o número de peças
+	 */
+	GeometriaPecas(int tipoPeca, int tamanho) {
+		this.tipoPeca = tipoPeca;
+		areas = new double[tamanho];
+		volumes = new double[tamanho];
+		pesos = new double[tamanho];
+		litros = new double[tamanho];
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém o tipo das peças.
+	 *
+	 *  @return o tipo das peças (Cilindro, Cubo ou Paralelepipedo)
+	 */
+	public int getTipoPeca() {
+		return tipoPeca;
+	}
+
+	/**
+	 *  Obtém o número de peças.
+	 *
+	 *  @return o número de peças
+	 */
+	public int getTamanho() {
+		return areas.length;
+	}
+
+	/**
+	 *  Obtém a área de uma peça, multiplicada pela quantidade.
+	 *
+	 *  @param posicao - a posição da peça
+	 *
+	 *  @return a área da peça, em m²
+	 */
+	public double getArea(int posicao) {
+		return areas[posicao];
+	}
+
+	/**
+	 *  Obtém o volume de uma peça, multiplicado pela quantidade.
+	 *
+	 *  @param posicao - a posição da peça
+	 *
+	 *  @return o volume da peça, em m³
+	 */
+	public double getVolume(int posicao) {
+		return volumes[posicao];
+	}
+
+	/**
+	 *  Obtém o peso de uma peça, multiplicado pela quantidade.
+	 *
+	 *  @param posicao - a posição da peça
+	 *
+	 *  @return o peso da peça, em Kg
+	 */
+	public double getPeso(int posicao) {
+		return pesos[posicao];
+	}
+
+	/**
+	 *  Obtém os litros de tinta necessários para pintar uma peça, multiplicados pela quantidade.
+	 *
+	 *  @param posicao - a posição da peça
+	 *
+	 *  @return os litros de tinta da peça
+	 */
+	public double getLitrosTinta(int posicao) {
+		return litros[posicao];
+	}
+} // class GeometriaPecas
@@ -0,0 +1,314 @@
+package hvrp.infoem;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ *  Índice das definições distintas de peças do armazenamento, utilizado para incorporar uma peça idêntica a uma já existente em vez de
+ *  ocupar uma nova linha.
+ *
+ *  Duas linhas possuem a mesma definição quando têm o mesmo tipo, o mesmo material, o mesmo nome e as mesmas dimensões. Com uma tolerância
+ *  maior que zero, duas dimensões são iguais quando a diferença entre elas é de no máximo a tolerância; como essa comparação não é
+ *  transitiva, uma linha é incorporada à primeira linha registrada (na ordem da estrutura) com todas as dimensões dentro da tolerância.
+ *  Com tolerância zero, as dimensões devem ser exatamente iguais.
+ *
+ *  O índice é uma tabela hash de endereçamento aberto que guarda apenas o número de cada linha: a definição é lida diretamente das colunas
+ *  do armazenamento, sem criar objetos por peça, e a memória utilizada depende do número de definições distintas. Com tolerância, o
+ *  código hash utiliza a faixa de cada dimensão, de largura igual ao dobro da tolerância: os valores dentro da tolerância de uma dimensão
+ *  ficam na sua faixa ou na faixa vizinha do lado mais próximo, portanto a busca percorre as combinações dessas duas faixas das dimensões
+ *  do tipo da peça (até 8, para um paralelepípedo).
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class IndiceDuplicatas {
+	/**
+	 *  Capacidade inicial da tabela (sempre uma potência de 2).
+	 */
+	private final static int CAPACIDADE_INICIAL = 64;
+
+	/**
+	 *  Constante multiplicativa utilizada para espalhar os códigos hash.
+	 */
+	private final static int ESPALHAMENTO = 0x9E3779B9;
+
+	/**
+	 *  Tolerância das dimensões e largura das faixas, em metros (m).
+	 */
+	private final double tolerancia, largura;
+
+	/**
+	 *  Faixas das dimensões da linha procurada e o deslocamento (-1 ou +1) até a faixa vizinha mais próxima, reutilizados em cada busca.
+	 */
+	private final long[] faixas = new long[TipoDimensao.values().length], vizinhas = new long[TipoDimensao.values().length];
+
+	/**
+	 *  Tabela das linhas registradas, guardadas como linha + 1 (0 representa uma posição vazia), e o número de posições ocupadas.
+	 */
+	private int[] tabela;
+	private int ocupadas;
+
+	/**
+	 *  Indica se a tabela corresponde às linhas do armazenamento. Quando falso, a tabela é reconstruída na próxima busca.
+	 */
+	private boolean valido;
+
+	/**
+	 *  Inicializa um índice que será construído a partir das linhas já existentes no armazenamento na primeira busca.
+	 *
+	 *  @param tolerancia - a tolerância das dimensões, em metros (m), maior ou igual a zero
+	 */
+	IndiceDuplicatas(double tolerancia) {
+		this.tolerancia = tolerancia;
+		largura = 2 * tolerancia;
+		tabela = new int[CAPACIDADE_INICIAL];
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém a tolerância das dimensões, em metros (m).
+	 *
+	 *  @return a tolerância das dimensões
+	 */
+	double getTolerancia() {
+		return tolerancia;
+	}
+
+	/**
+	 *  Procura a primeira linha registrada com a mesma definição da linha fornecida. Caso não exista, a linha fornecida é registrada como a
+	 *  representante da sua definição.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha procurada (caso o índice precise ser reconstruído, as linhas anteriores a ela são registradas)
+	 *
+	 *  @return a linha com a mesma definição, ou -1 caso a linha fornecida tenha sido registrada
+	 */
+	int procurar(ArmazemPecas armazem, int linha) {
+		if(!valido) {
+			reconstruir(armazem, linha);
+		}
+
+		List<TipoDimensao> dimensoes = ArmazemPecas.tiposDimensao(armazem.tipo(linha));
+		int mascara = tabela.length - 1, inicio = inicioHash(armazem, linha), encontrada = -1, combinacoes = 1;
+
+		for(int d = 0; d < dimensoes.size(); d++) {
+			double valor = armazem.dimensao(linha, dimensoes.get(d));
+
+			faixas[d] = faixa(valor);
+			if(tolerancia > 0) {
+				vizinhas[d] = valor / largura - faixas[d] < 0.5 ? -1 : 1;
+				combinacoes <<= 1;
+			}
+		}
+
+		// Cada bit da combinação indica se a faixa da dimensão correspondente é substituída pela sua faixa vizinha
+		for(int combinacao = 0; combinacao < combinacoes; combinacao++) {
+			int h = inicio;
+
+			for(int d = 0; d < dimensoes.size(); d++) {
+				h = h * 31 + Long.hashCode(faixas[d] + ((combinacao >>> d & 1) == 0 ? 0 : vizinhas[d]));
+			}
+			for(int i = espalhar(h) & mascara; tabela[i] != 0; i = (i + 1) & mascara) {
+				int registrada = tabela[i] - 1;
+
+				if((encontrada < 0 || registrada < encontrada) && iguais(armazem, registrada, linha)) {
+					encontrada = registrada;
+				}
+			}
+		}
+		if(encontrada >= 0)
+			return encontrada;
+
+		inserir(armazem, linha);
+		return -1;
+	} // procurar(ArmazemPecas armazem, int linha)
+
+	/**
+	 *  Registra uma linha modificada como a representante da sua definição, caso nenhuma outra linha possua a mesma definição.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha da peça
+	 */
+	void registrar(ArmazemPecas armazem, int linha) {
+		// Um índice inválido será reconstruído a partir das colunas, que já contêm a linha modificada
+		if(valido) {
+			procurar(armazem, linha);
+		}
+	}
+
+	/**
+	 *  Remove uma linha do índice, caso ela seja a representante da sua definição. Deve ser chamado antes de a linha ser modificada.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha da peça
+	 */
+	void remover(ArmazemPecas armazem, int linha) {
+		if(!valido)
+			return;
+
+		int mascara = tabela.length - 1, i = hash(armazem, linha) & mascara;
+
+		while(tabela[i] != linha + 1) {
+			if(tabela[i] == 0)
+				return;
+			i = (i + 1) & mascara;
+		}
+
+		// Desloca as linhas seguintes do mesmo agrupamento para que nenhuma busca seja interrompida pela posição esvaziada
+		for(int j = (i + 1) & mascara; tabela[j] != 0; j = (j + 1) & mascara) {
+			int ideal = hash(armazem, tabela[j] - 1) & mascara;
+
+			if(((j - ideal) & mascara) >= ((j - i) & mascara)) {
+				tabela[i] = tabela[j];
+				i = j;
+			}
+		}
+		tabela[i] = 0;
+		ocupadas--;
+	} // remover(ArmazemPecas armazem, int linha)
+
+	/**
+	 *  Remove todas as linhas do índice.
+	 */
+	void limpar() {
+		Arrays.fill(tabela, 0);
+		ocupadas = 0;
+		valido = true;
+	}
+
+	/**
+	 *  Descarta a tabela atual, que será reconstruída a partir das linhas do armazenamento na próxima busca.
+	 */
+	void invalidar() {
+		valido = false;
+	}
+
+	/**
+	 *  Função auxiliar que registra as linhas anteriores à linha fornecida, mantendo a primeira linha de cada definição.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param fim - a primeira linha que não é registrada
+	 */
+	private void reconstruir(ArmazemPecas armazem, int fim) {
+		limpar();
+		for(int linha = 0; linha < fim; linha++) {
+			procurar(armazem, linha);
+		}
+	}
+
+	/**
+	 *  Função auxiliar que registra uma linha na posição livre do agrupamento das suas próprias faixas.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha da peça
+	 */
+	private void inserir(ArmazemPecas armazem, int linha) {
+		int mascara = tabela.length - 1, i = hash(armazem, linha) & mascara;
+
+		while(tabela[i] != 0) {
+			i = (i + 1) & mascara;
+		}
+		tabela[i] = linha + 1;
+
+		if(++ocupadas > tabela.length >> 1) {
+			crescer(armazem);
+		}
+	} // inserir(ArmazemPecas armazem, int linha)
+
+	/**
+	 *  Função auxiliar que dobra a capacidade da tabela e registra novamente as linhas.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 */
+	private void crescer(ArmazemPecas armazem) {
+		int[] anterior = tabela;
+
+		tabela = new int[anterior.length << 1];
+		int mascara = tabela.length - 1;
+
+		for(int registrada : anterior) {
+			if(registrada != 0) {
+				int i = hash(armazem, registrada - 1) & mascara;
+				while(tabela[i] != 0) {
+					i = (i + 1) & mascara;
+				}
+				tabela[i] = registrada;
+			}
+		}
+	} // crescer(ArmazemPecas armazem)
+
+	/**
+	 *  Função auxiliar que calcula o código hash da definição de uma linha, a partir das faixas das suas próprias dimensões.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha da peça
+	 *
+	 *  @return o código hash da definição
+	 */
+	private int hash(ArmazemPecas armazem, int linha) {
+		int h = inicioHash(armazem, linha);
+
+		for(TipoDimensao dimensao : ArmazemPecas.tiposDimensao(armazem.tipo(linha))) {
+			h = h * 31 + Long.hashCode(faixa(armazem.dimensao(linha, dimensao)));
+		}
+		return espalhar(h);
+	} // hash(ArmazemPecas armazem, int linha)
+
+	/**
+	 *  Função auxiliar que calcula a parte do código hash que não depende das dimensões: o tipo, o material e o nome da linha.
+	 */
+	private static int inicioHash(ArmazemPecas armazem, int linha) {
+		int h = armazem.tipo(linha) * 31 + armazem.material(linha);
+		return h * 31 + Objects.hashCode(armazem.nomeProprio(linha));
+	}
+
+	/**
+	 *  Função auxiliar que espalha os bits de um código hash.
+	 */
+	private static int espalhar(int h) {
+		h *= ESPALHAMENTO;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 *  Função auxiliar que verifica se duas linhas possuem a mesma definição. As dimensões que não pertencem ao tipo da peça são sempre
+	 *  zero, portanto apenas as dimensões do tipo são comparadas.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param a - uma linha
+	 *  @param b - a outra linha
+	 *
+	 *  @return true se as linhas possuírem a mesma definição
+	 */
+	private boolean iguais(ArmazemPecas armazem, int a, int b) {
+		if(armazem.tipo(a) != armazem.tipo(b) || armazem.material(a) != armazem.material(b)
+				|| !Objects.equals(armazem.nomeProprio(a), armazem.nomeProprio(b)))
+			return false;
+
+		for(TipoDimensao dimensao : ArmazemPecas.tiposDimensao(armazem.tipo(a))) {
+			double valorA = armazem.dimensao(a, dimensao), valorB = armazem.dimensao(b, dimensao);
+
+			// Somar zero converte -0.0 em 0.0
+			if(tolerancia > 0 ? !(Math.abs(valorA - valorB) <= tolerancia)
+					: Double.doubleToLongBits(valorA + 0.0) != Double.doubleToLongBits(valorB + 0.0))
+				return false;
+		}
+		return true;
+	} // iguais(ArmazemPecas armazem, int a, int b)
+
+	/**
+	 *  Função auxiliar que converte uma dimensão no número da sua faixa de largura igual ao dobro da tolerância (ou nos seus bits, com
+	 *  tolerância zero).
+	 *
+	 *  @param valor - o valor da dimensão, em metros (m)
+	 *
+	 *  @return o número da faixa da dimensão
+	 */
+	private long faixa(double valor) {
+		// Somar zero converte -0.0 em 0.0
+		return tolerancia > 0 ? (long) Math.floor(valor / largura) : Double.doubleToLongBits(valor + 0.0);
+	}
+} // class IndiceDuplicatas
@@ -0,0 +1,206 @@
+package hvrp.infoem;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.TreeMap;
+
+import hvrp.infoem.ParticoesPecas.Particao;
+
+/**
+ *  Índice das linhas do armazenamento de peças em ordem alfabética de nome, sem diferenciar letras maiúsculas e minúsculas (a mesma ordem
+ *  de String.compareToIgnoreCase). Peças com nomes equivalentes ficam na ordem das suas linhas, como em uma ordenação estável.
+ *
+ *  Cada nome distinto é convertido uma única vez em uma chave de ordenação, cuja ordem natural é a ordem desejada, e as linhas com a mesma
+ *  chave ficam em uma partição em ordem crescente. Como a maioria das peças utiliza o nome padrão do seu tipo, as partições dos nomes
+ *  padrão são guardadas também por tipo, e adicionar uma dessas peças não realiza nenhuma operação com strings.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class IndiceNomes {
+	/**
+	 *  Partições indexadas pela chave de ordenação do nome.
+	 */
+	private final TreeMap<String, Particao> porChave;
+
+	/**
+	 *  Partições dos nomes padrão, indexadas pelo tipo da peça (a posição 0 não é utilizada).
+	 */
+	private final Particao[] padrao;
+
+	/**
+	 *  Construtor default.
+	 *  Inicializa um índice vazio.
+	 */
+	IndiceNomes() {
+		porChave = new TreeMap<>();
+		padrao = new Particao[Estrutura.PARALELEPIPEDO + 1];
+
+		for(byte tipo = Estrutura.CILINDRO; tipo <= Estrutura.PARALELEPIPEDO; tipo++) {
+			padrao[tipo] = particao(ArmazemPecas.nomePadrao(tipo));
+		}
+	}
+
+	/**
+	 *  Adiciona uma linha do armazenamento, que deve ser maior que todas as linhas já adicionadas.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha da peça
+	 */
+	void adicionar(ArmazemPecas armazem, int linha) {
+		String nome = armazem.nomeProprio(linha);
+		(nome == null ? padrao[armazem.tipo(linha)] : particao(nome)).anexar(linha);
+	}
+
+	/**
+	 *  Adiciona todas as linhas do armazenamento a partir da linha fornecida, que deve ser maior que todas as linhas já adicionadas. As
+	 *  linhas com nome próprio são marcadas antes, de forma que as demais não consultam os nomes do armazenamento.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param inicio - a primeira linha a ser adicionada
+	 */
+	void adicionarLinhas(ArmazemPecas armazem, int inicio) {
+		BitSet nomeadas = new BitSet();
+
+		for(int linha : armazem.nomesProprios().keySet()) {
+			if(linha >= inicio) {
+				nomeadas.set(linha);
+			}
+		}
+
+		for(int linha = inicio, n = armazem.tamanho(); linha < n; linha++) {
+			(nomeadas.get(linha) ? particao(armazem.nomeProprio(linha)) : padrao[armazem.tipo(linha)]).anexar(linha);
+		}
+	} // adicionarLinhas(ArmazemPecas armazem, int inicio)
+
+	/**
+	 *  Move uma linha para a posição do seu novo nome.
+	 *
+	 *  @param linha - a linha da peça
+	 *  @param tipo - o tipo da peça
+	 *  @param anterior - o nome anterior, ou null caso fosse o nome padrão
+	 *  @param novo - o novo nome, ou null caso seja o nome padrão
+	 */
+	void renomear(int linha, int tipo, String anterior, String novo) {
+		renomear(linha, tipo, anterior, tipo, novo);
+	}
+
+	/**
+	 *  Move uma linha para a posição do seu novo nome, quando o tipo da peça também pode ter mudado (o que muda o seu nome padrão).
+	 *
+	 *  @param linha - a linha da peça
+	 *  @param tipoAnterior - o tipo anterior da peça
+	 *  @param anterior - o nome anterior, ou null caso fosse o nome padrão
+	 *  @param tipo - o novo tipo da peça
+	 *  @param novo - o novo nome, ou null caso seja o nome padrão
+	 */
+	void renomear(int linha, int tipoAnterior, String anterior, int tipo, String novo) {
+		Particao origem = anterior == null ? padrao[tipoAnterior] : porChave.get(chave(anterior));
+		Particao destino = novo == null ? padrao[tipo] : particao(novo);
+
+		if(origem != destino) {
+			origem.remover(linha);
+			destino.inserir(linha);
+		}
+	} // renomear(int linha, int tipoAnterior, String anterior, int tipo, String novo)
+
+	/**
+	 *  Remove do índice todas as linhas a partir da linha fornecida. As partições que ficam vazias são mantidas.
+	 *
+	 *  @param inicio - a primeira linha removida
+	 */
+	void truncar(int inicio) {
+		for(Particao p : porChave.values()) {
+			p.truncar(inicio);
+		}
+	}
+
+	/**
+	 *  Remove todas as linhas do índice.
+	 */
+	void limpar() {
+		porChave.values().removeIf(p -> {
+			p.limpar();
+			return !ehPadrao(p);
+		});
+	}
+
+	/**
+	 *  Percorre as linhas em ordem de nome.
+	 *
+	 *  @return o iterador das linhas
+	 */
+	PrimitiveIterator.OfInt linhas() {
+		return new PrimitiveIterator.OfInt() {
+			private final Iterator<Particao> particoes = porChave.values().iterator();
+			private Particao atual;
+			private int posicao;
+
+			@Override
+			public boolean hasNext() {
+				while(atual == null || posicao == atual.tamanho()) {
+					if(!particoes.hasNext())
+						return false;
+
+					atual = particoes.next();
+					posicao = 0;
+				}
+				return true;
+			}
+
+			@Override
+			public int nextInt() {
+				if(!hasNext())
+					throw new NoSuchElementException();
+
+				return atual.linha(posicao++);
+			}
+		};
+	} // linhas()
+
+	/**
+	 *  Função auxiliar que obtém (criando, se necessário) a partição de um nome.
+	 *
+	 *  @param nome - o nome
+	 *
+	 *  @return a partição do nome
+	 */
+	private Particao particao(String nome) {
+		return porChave.computeIfAbsent(chave(nome), k -> new Particao());
+	}
+
+	/**
+	 *  Função auxiliar que verifica se uma partição é a de um nome padrão.
+	 *
+	 *  @param particao - a partição
+	 *
+	 *  @return true se a partição for de um nome padrão
+	 */
+	private boolean ehPadrao(Particao particao) {
+		for(Particao p : padrao) {
+			if(p == particao)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 *  Função auxiliar que calcula a chave de ordenação de um nome: cada caractere é convertido da mesma forma que em
+	 *  String.compareToIgnoreCase, de modo que a ordem natural das chaves é a ordem sem diferenciar letras maiúsculas e minúsculas.
+	 *
+	 *  @param nome - o nome
+	 *
+	 *  @return a chave de ordenação do nome
+	 */
+	static String chave(String nome) {
+		StringBuilder chave = new StringBuilder(nome.length());
+
+		for(int i = 0; i < nome.length(); i++) {
+			chave.append(Character.toLowerCase(Character.toUpperCase(nome.charAt(i))));
+		}
+		return chave.toString();
+	}
+} // class IndiceNomes
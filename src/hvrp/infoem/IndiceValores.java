@@ -0,0 +1,331 @@
+package hvrp.infoem;
+
+/**
+ *  Índice ordenado de linhas do armazenamento de peças por um valor (uma dimensão ou uma medida calculada de cada peça), em vetores
+ *  primitivos: as linhas ficam em ordem crescente de valor e, entre valores iguais, na ordem da estrutura.
+ *
+ *  Com o índice construído, as linhas com o valor em uma faixa são encontradas por busca binária, em O(log n + k), e as k linhas de maior
+ *  valor são lidas do final do índice. Sem um índice atualizado, maiores(int[], double[], int, int) obtém as k linhas de maior valor com um
+ *  heap limitado a k posições, em O(n log k), sem ordenar todas as linhas.
+ *
+ *  O índice guarda a versão da estrutura em que foi construído e deve ser construído novamente depois de qualquer modificação.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class IndiceValores {
+	/**
+	 *  Tamanho dos trechos ordenados por inserção antes das intercalações.
+	 */
+	private final static int TRECHO_INSERCAO = 32;
+
+	/**
+	 *  Linhas e valores do índice, na mesma ordem.
+	 */
+	private final int[] linhas;
+	private final double[] valores;
+
+	/**
+	 *  Versão da estrutura em que o índice foi construído.
+	 */
+	private final long versao;
+
+	/**
+	 *  Constrói o índice a partir das linhas e dos valores fornecidos, ordenando os dois vetores em conjunto. A ordenação é estável, portanto
+	 *  as linhas devem ser fornecidas em ordem crescente para que valores iguais fiquem na ordem da estrutura.
+	 *
+	 *  @param linhas - as linhas, em ordem crescente (o vetor passa a pertencer ao índice)
+	 *  @param valores - o valor de cada linha, na mesma posição (o vetor passa a pertencer ao índice)
+	 *  @param versao - a versão atual da estrutura
+	 */
+	IndiceValores(int[] linhas, double[] valores, long versao) {
+		this.linhas = linhas;
+		this.valores = valores;
+		this.versao = versao;
+		ordenar(linhas, valores);
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Verifica se o índice foi construído na versão fornecida da estrutura.
+	 *
+	 *  @param versaoAtual - a versão atual da estrutura
+	 *
+	 *  @return true se o índice estiver atualizado
+	 */
+	boolean isAtual(long versaoAtual) {
+		return versao == versaoAtual;
+	}
+
+	/**
+	 *  Obtém o vetor das linhas do índice, em ordem crescente de valor, sem cópia.
+	 *
+	 *  @return as linhas do índice
+	 */
+	int[] linhas() {
+		return linhas;
+	}
+
+	/**
+	 *  Obtém a primeira posição do índice com valor maior ou igual ao mínimo fornecido.
+	 *
+	 *  @param minimo - o valor mínimo
+	 *
+	 *  @return a posição, ou o tamanho do índice caso todos os valores sejam menores
+	 */
+	int inicio(double minimo) {
+		int inicio = 0, fim = linhas.length;
+
+		while(inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+
+			if(valores[meio] < minimo) {
+				inicio = meio + 1;
+			}
+			else {
+				fim = meio;
+			}
+		}
+		return inicio;
+	} // inicio(double minimo)
+
+	/**
+	 *  Obtém a posição seguinte à última posição do índice com valor menor ou igual ao máximo fornecido.
+	 *
+	 *  @param maximo - o valor máximo
+	 *
+	 *  @return a posição, ou 0 caso todos os valores sejam maiores
+	 */
+	int fim(double maximo) {
+		int inicio = 0, fim = linhas.length;
+
+		while(inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+
+			if(valores[meio] <= maximo) {
+				inicio = meio + 1;
+			}
+			else {
+				fim = meio;
+			}
+		}
+		return inicio;
+	} // fim(double maximo)
+
+	/**
+	 *  Obtém as linhas de maior valor a partir do final do índice, em ordem decrescente de valor e, entre valores iguais, na ordem da
+	 *  estrutura.
+	 *
+	 *  @param quantidade - o número de linhas
+	 *
+	 *  @return as linhas de maior valor (no máximo o tamanho do índice)
+	 */
+	int[] maiores(int quantidade) {
+		int[] maiores = new int[Math.min(quantidade, linhas.length)];
+		int preenchidas = 0, fim = linhas.length;
+
+		// Os valores iguais são lidos do início para o final do seu grupo, para manter a ordem da estrutura
+		while(preenchidas < maiores.length) {
+			int inicioGrupo = inicioGrupo(valores[fim - 1], fim);
+
+			for(int posicao = inicioGrupo; posicao < fim && preenchidas < maiores.length; posicao++) {
+				maiores[preenchidas++] = linhas[posicao];
+			}
+			fim = inicioGrupo;
+		}
+		return maiores;
+	} // maiores(int quantidade)
+
+	/**
+	 *  Obtém as linhas de maior valor sem construir um índice, mantendo as melhores linhas em um heap limitado à quantidade pedida. O
+	 *  resultado é o mesmo de maiores(int) em um índice construído com as mesmas linhas e valores.
+	 *
+	 *  @param linhas - as linhas, em ordem crescente
+	 *  @param valores - o valor de cada linha, na mesma posição
+	 *  @param tamanho - o número de linhas
+	 *  @param quantidade - o número de linhas de maior valor
+	 *
+	 *  @return as linhas de maior valor, em ordem decrescente de valor e, entre valores iguais, na ordem da estrutura
+	 */
+	static int[] maiores(int[] linhas, double[] valores, int tamanho, int quantidade) {
+		int limite = Math.min(quantidade, tamanho), ocupadas = 0;
+		int[] heapLinhas = new int[limite];
+		double[] heapValores = new double[limite];
+
+		// A raiz do heap é a pior linha mantida: a de menor valor ou, entre valores iguais, a que vem depois na estrutura
+		for(int i = 0; i < tamanho && limite > 0; i++) {
+			if(ocupadas < limite) {
+				heapLinhas[ocupadas] = linhas[i];
+				heapValores[ocupadas] = valores[i];
+				subir(heapLinhas, heapValores, ocupadas++);
+			}
+			else if(Double.compare(valores[i], heapValores[0]) > 0) {
+				heapLinhas[0] = linhas[i];
+				heapValores[0] = valores[i];
+				descer(heapLinhas, heapValores, ocupadas);
+			}
+		}
+
+		// Retirar sempre a pior linha preenche o resultado do final para o início
+		int[] maiores = new int[ocupadas];
+		while(ocupadas > 0) {
+			maiores[--ocupadas] = heapLinhas[0];
+			heapLinhas[0] = heapLinhas[ocupadas];
+			heapValores[0] = heapValores[ocupadas];
+			descer(heapLinhas, heapValores, ocupadas);
+		}
+		return maiores;
+	} // maiores(int[] linhas, double[] valores, int tamanho, int quantidade)
+
+	/**
+	 *  Função auxiliar que encontra a primeira posição, antes da posição fornecida, cujo valor é igual ao valor fornecido.
+	 *
+	 *  @param valor - o valor do grupo
+	 *  @param fim - a posição seguinte à última posição do grupo
+	 *
+	 *  @return a primeira posição do grupo
+	 */
+	private int inicioGrupo(double valor, int fim) {
+		int inicio = 0;
+
+		while(inicio < fim) {
+			int meio = (inicio + fim) >>> 1;
+
+			if(Double.compare(valores[meio], valor) < 0) {
+				inicio = meio + 1;
+			}
+			else {
+				fim = meio;
+			}
+		}
+		return inicio;
+	} // inicioGrupo(double valor, int fim)
+
+	/**
+	 *  Função auxiliar que verifica se uma linha do heap é pior que outra: tem menor valor ou, com valores iguais, vem depois na estrutura.
+	 */
+	private static boolean pior(int[] linhas, double[] valores, int a, int b) {
+		int comparacao = Double.compare(valores[a], valores[b]);
+		return comparacao < 0 || (comparacao == 0 && linhas[a] > linhas[b]);
+	}
+
+	/**
+	 *  Função auxiliar que sobe uma posição do heap até a sua posição correta.
+	 */
+	private static void subir(int[] linhas, double[] valores, int posicao) {
+		while(posicao > 0) {
+			int pai = (posicao - 1) >>> 1;
+
+			if(!pior(linhas, valores, posicao, pai))
+				return;
+
+			trocar(linhas, valores, posicao, pai);
+			posicao = pai;
+		}
+	} // subir(int[] linhas, double[] valores, int posicao)
+
+	/**
+	 *  Função auxiliar que desce a raiz do heap até a sua posição correta.
+	 */
+	private static void descer(int[] linhas, double[] valores, int tamanho) {
+		int posicao = 0;
+
+		while(true) {
+			int filho = 2 * posicao + 1;
+
+			if(filho >= tamanho)
+				return;
+			if(filho + 1 < tamanho && pior(linhas, valores, filho + 1, filho)) {
+				filho++;
+			}
+			if(!pior(linhas, valores, filho, posicao))
+				return;
+
+			trocar(linhas, valores, posicao, filho);
+			posicao = filho;
+		}
+	} // descer(int[] linhas, double[] valores, int tamanho)
+
+	/**
+	 *  Função auxiliar que troca duas posições dos vetores.
+	 */
+	private static void trocar(int[] linhas, double[] valores, int a, int b) {
+		int linha = linhas[a];
+		double valor = valores[a];
+
+		linhas[a] = linhas[b];
+		valores[a] = valores[b];
+		linhas[b] = linha;
+		valores[b] = valor;
+	}
+
+	/**
+	 *  Função auxiliar que ordena as linhas e os valores em conjunto, de forma estável e em ordem crescente de valor (na ordem de
+	 *  Double.compare): trechos pequenos são ordenados por inserção e depois intercalados, alternando entre os vetores e uma cópia.
+	 *
+	 *  @param linhas - as linhas
+	 *  @param valores - os valores
+	 */
+	private static void ordenar(int[] linhas, double[] valores) {
+		int tamanho = linhas.length;
+
+		for(int inicio = 0; inicio < tamanho; inicio += TRECHO_INSERCAO) {
+			int fim = Math.min(inicio + TRECHO_INSERCAO, tamanho);
+
+			for(int i = inicio + 1; i < fim; i++) {
+				int linha = linhas[i], j = i - 1;
+				double valor = valores[i];
+
+				while(j >= inicio && Double.compare(valores[j], valor) > 0) {
+					linhas[j + 1] = linhas[j];
+					valores[j + 1] = valores[j];
+					j--;
+				}
+				linhas[j + 1] = linha;
+				valores[j + 1] = valor;
+			}
+		}
+		if(tamanho <= TRECHO_INSERCAO)
+			return;
+
+		int[] origemLinhas = linhas, destinoLinhas = new int[tamanho];
+		double[] origemValores = valores, destinoValores = new double[tamanho];
+
+		for(int largura = TRECHO_INSERCAO; largura < tamanho; largura *= 2) {
+			for(int inicio = 0; inicio < tamanho; inicio += 2 * largura) {
+				int meio = Math.min(inicio + largura, tamanho), fim = Math.min(inicio + 2 * largura, tamanho);
+				int a = inicio, b = meio;
+
+				for(int i = inicio; i < fim; i++) {
+					// Com valores iguais, a linha do primeiro trecho vem antes, o que mantém a ordenação estável
+					if(b >= fim || (a < meio && Double.compare(origemValores[a], origemValores[b]) <= 0)) {
+						destinoLinhas[i] = origemLinhas[a];
+						destinoValores[i] = origemValores[a++];
+					}
+					else {
+						destinoLinhas[i] = origemLinhas[b];
+						destinoValores[i] = origemValores[b++];
+					}
+				}
+			}
+
+			int[] linhasTrocadas = origemLinhas;
+			double[] valoresTrocados = origemValores;
+			origemLinhas = destinoLinhas;
+			origemValores = destinoValores;
+			destinoLinhas = linhasTrocadas;
+			destinoValores = valoresTrocados;
+
+			// Evita que a largura ultrapasse Integer.MAX_VALUE
+			if(largura > tamanho / 2)
+				break;
+		}
+
+		if(origemLinhas != linhas) {
+			System.arraycopy(origemLinhas, 0, linhas, 0, tamanho);
+			System.arraycopy(origemValores, 0, valores, 0, tamanho);
+		}
+	} // ordenar(int[] linhas, double[] valores)
+} // class IndiceValores
@@ -0,0 +1,113 @@
+package hvrp.infoem;
+
+/**
+ *  Kernel que calcula a geometria (área, volume, peso e litros de tinta) das linhas de uma partição de tipo do armazenamento, lendo as
+ *  colunas diretamente. Esta classe calcula uma linha por vez, com as mesmas fórmulas de Cilindro, Cubo e Paralelepipedo; a subclasse
+ *  KernelVetorial calcula várias linhas de uma vez com a Vector API (jdk.incubator.vector).
+ *
+ *  O kernel utilizado é escolhido uma única vez (obter()). O escalar é o padrão: nas medições de KernelGeometriaBenchmark o kernel
+ *  vetorial apenas empata com ele, pois a cópia de cada grupo de linhas para vetores consecutivos custa tanto quanto o cálculo, então o
+ *  kernel vetorial é opcional e só é utilizado com -Dhvrp.infoem.escalar=false e o módulo jdk.incubator.vector presente (por exemplo, com
+ *  --add-modules jdk.incubator.vector). Os dois produzem exatamente os mesmos valores, pois cada linha é calculada com as mesmas operações,
+ *  na mesma ordem; a classe EquivalenciaKernels do módulo de benchmarks verifica essa igualdade.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+class KernelGeometria {
+	/**
+	 *  Propriedade que escolhe o kernel escalar (true, o padrão) ou o vetorial (false), o nome do módulo da Vector API e a classe do kernel vetorial.
+	 */
+	private final static String PROPRIEDADE_ESCALAR = "hvrp.infoem.escalar", MODULO_VETORIAL = "jdk.incubator.vector",
+			CLASSE_VETORIAL = "hvrp.infoem.KernelVetorial";
+
+	/**
+	 *  Constante auxiliar para a conversão do peso em Kg, a mesma de EstruturaMetalica.converterParaKG.
+	 */
+	final static double MIL = 1000.0;
+
+	/**
+	 *  Kernel escolhido.
+	 */
+	private final static KernelGeometria ATUAL = escolher();
+
+	/**
+	 *  Obtém o kernel utilizado pelas estruturas.
+	 *
+	 *  @return o kernel vetorial, caso escolhido e disponível, ou o escalar
+	 */
+	static KernelGeometria obter() {
+		return ATUAL;
+	}
+
+	/**
+	 *  Obtém a descrição do kernel.
+	 *
+	 *  @return a descrição do kernel
+	 */
+	String getDescricao() {
+		return "escalar";
+	}
+
+	/**
+	 *  Calcula a geometria das linhas linhas[inicio] até linhas[fim - 1], todas do mesmo tipo, escrevendo os valores de linhas[i] na
+	 *  posição i do destino.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param tipo - o tipo das linhas
+	 *  @param linhas - as linhas da partição
+	 *  @param inicio - a primeira posição calculada
+	 *  @param fim - a posição seguinte à última calculada
+	 *  @param densidades - os pesos específicos indexados pelo código de material
+	 *  @param consumos - os consumos de tinta indexados pelo código de material
+	 *  @param destino - onde os valores são escritos
+	 */
+	void calcular(ArmazemPecas armazem, byte tipo, int[] linhas, int inicio, int fim, double[] densidades, double[] consumos,
+			GeometriaPecas destino) {
+		for(int i = inicio; i < fim; i++) {
+			int linha = linhas[i], material = armazem.material(linha);
+			double quantidade = armazem.quantidade(linha), area, volume;
+
+			switch(tipo) {
+				case ArmazemPecas.CILINDRO -> {
+					area = Cilindro.area(armazem.raio(linha), armazem.altura(linha));
+					volume = Cilindro.volume(armazem.raio(linha), armazem.altura(linha));
+				}
+				case ArmazemPecas.CUBO -> {
+					area = Cubo.area(armazem.aresta(linha));
+					volume = Cubo.volume(armazem.aresta(linha));
+				}
+				default -> {
+					area = Paralelepipedo.area(armazem.altura(linha), armazem.largura(linha), armazem.profundidade(linha));
+					volume = Paralelepipedo.volume(armazem.altura(linha), armazem.largura(linha), armazem.profundidade(linha));
+				}
+			}
+
+			area *= quantidade;
+			volume *= quantidade;
+			destino.areas[i] = area;
+			destino.volumes[i] = volume;
+			destino.pesos[i] = densidades[material] * volume / MIL;
+			destino.litros[i] = consumos[material] * area;
+		}
+	} // calcular(ArmazemPecas armazem, byte tipo, int[] linhas, int inicio, int fim, ...)
+
+	/**
+	 *  Função auxiliar que escolhe o kernel. O kernel vetorial é carregado por reflexão, para que as suas classes (e as da Vector API) não
+	 *  sejam carregadas quando o módulo não está presente.
+	 *
+	 *  @return o kernel escolhido
+	 */
+	private static KernelGeometria escolher() {
+		if(!Boolean.parseBoolean(System.getProperty(PROPRIEDADE_ESCALAR, Boolean.TRUE.toString())) && ModuleLayer.boot().findModule(MODULO_VETORIAL).isPresent()) {
+			try {
+				return (KernelGeometria) Class.forName(CLASSE_VETORIAL).getDeclaredConstructor().newInstance();
+			}
+			catch(ReflectiveOperationException | LinkageError e) {
+				// Sem vetores de pelo menos duas posições (ou sem a Vector API), o kernel escalar é utilizado
+			}
+		}
+		return new KernelGeometria();
+	}
+} // class KernelGeometria
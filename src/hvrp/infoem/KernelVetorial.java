@@ -0,0 +1,127 @@
+package hvrp.infoem;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ *  Kernel de geometria que calcula várias linhas de uma vez com a Vector API (jdk.incubator.vector), no tamanho de vetor preferido do
+ *  processador. As dimensões, as quantidades, os pesos específicos e os consumos de tinta de cada grupo de linhas são copiados das colunas,
+ *  a partir das linhas da partição, para vetores de posições consecutivas antes de cada cálculo (as leituras indexadas da Vector API,
+ *  com índices de 256 bits e vetores de 512 bits, levaram a falhas de segmentação no código compilado pelo C2 em estruturas grandes), e
+ *  as linhas que sobram no final são calculadas pelo kernel escalar, assim como todas as linhas de um armazenamento com as colunas fora
+ *  do heap.
+ *
+ *  Cada posição do vetor executa as mesmas operações do kernel escalar, na mesma ordem e sem multiplicação-adição fundida, portanto os
+ *  valores são exatamente iguais aos de Cilindro, Cubo e Paralelepipedo.
+ *
+ *  Esta classe só é carregada por KernelGeometria.obter() quando o módulo jdk.incubator.vector está presente.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class KernelVetorial extends KernelGeometria {
+	/**
+	 *  Espécie dos vetores: reais no tamanho preferido.
+	 */
+	private final static VectorSpecies<Double> REAIS = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 *  Constantes das fórmulas, as mesmas de Peca (2π é calculado da mesma forma que em Cilindro.area).
+	 */
+	private final static double DOIS = 2.0, SEIS = 6.0, DOIS_PI = DOIS * Math.PI;
+
+	/**
+	 *  Inicializa o kernel vetorial.
+	 *
+	 *  @throws UnsupportedOperationException caso o vetor preferido tenha menos de duas posições
+	 */
+	KernelVetorial() throws UnsupportedOperationException {
+		if(REAIS.length() < 2)
+			throw new UnsupportedOperationException();
+	}
+
+	@Override
+	String getDescricao() {
+		return String.format("vetorial (%d posições de %d bits)", REAIS.length(), Double.SIZE);
+	}
+
+	@Override
+	void calcular(ArmazemPecas armazem, byte tipo, int[] linhas, int inicio, int fim, double[] densidades, double[] consumos,
+			GeometriaPecas destino) {
+		// As cópias dos grupos de linhas leem os vetores das colunas: fora do heap, as linhas são calculadas pelo kernel escalar
+		if(!armazem.isNoHeap()) {
+			super.calcular(armazem, tipo, linhas, inicio, fim, densidades, consumos, destino);
+			return;
+		}
+
+		int posicoes = REAIS.length(), limite = inicio + REAIS.loopBound(fim - inicio);
+		int[] quantidades = armazem.colunaQuantidade();
+		byte[] materiais = armazem.colunaMaterial();
+		double[] raio = armazem.colunaDimensao(TipoDimensao.RAIO), altura = armazem.colunaDimensao(TipoDimensao.ALTURA);
+		double[] largura = armazem.colunaDimensao(TipoDimensao.LARGURA);
+		double[] profundidade = armazem.colunaDimensao(TipoDimensao.PROFUNDIDADE), aresta = armazem.colunaDimensao(TipoDimensao.ARESTA);
+
+		// Valores do grupo de linhas atual, copiados das colunas para posições consecutivas
+		double[] primeira = new double[posicoes], segunda = new double[posicoes], terceira = new double[posicoes];
+		double[] multiplicadores = new double[posicoes], pesosEspecificos = new double[posicoes], tintas = new double[posicoes];
+
+		for(int i = inicio; i < limite; i += posicoes) {
+			for(int j = 0; j < posicoes; j++) {
+				int linha = linhas[i + j], material = materiais[linha] & 0xFF;
+
+				switch(tipo) {
+					case ArmazemPecas.CILINDRO -> {
+						primeira[j] = raio[linha];
+						segunda[j] = altura[linha];
+					}
+					case ArmazemPecas.CUBO -> primeira[j] = aresta[linha];
+					default -> {
+						primeira[j] = altura[linha];
+						segunda[j] = largura[linha];
+						terceira[j] = profundidade[linha];
+					}
+				}
+				multiplicadores[j] = quantidades[linha];
+				pesosEspecificos[j] = densidades[material];
+				tintas[j] = consumos[material];
+			}
+
+			DoubleVector area, volume;
+
+			switch(tipo) {
+				case ArmazemPecas.CILINDRO -> {
+					DoubleVector r = DoubleVector.fromArray(REAIS, primeira, 0), h = DoubleVector.fromArray(REAIS, segunda, 0);
+
+					area = r.mul(DOIS_PI).mul(r.add(h));
+					volume = r.mul(r).mul(Math.PI).mul(h);
+				}
+				case ArmazemPecas.CUBO -> {
+					DoubleVector a = DoubleVector.fromArray(REAIS, primeira, 0), quadrado = a.mul(a);
+
+					area = quadrado.mul(SEIS);
+					volume = quadrado.mul(a);
+				}
+				default -> {
+					DoubleVector h = DoubleVector.fromArray(REAIS, primeira, 0);
+					DoubleVector l = DoubleVector.fromArray(REAIS, segunda, 0);
+					DoubleVector p = DoubleVector.fromArray(REAIS, terceira, 0);
+
+					area = h.mul(l).add(h.mul(p)).add(l.mul(p)).mul(DOIS);
+					volume = h.mul(l).mul(p);
+				}
+			}
+
+			DoubleVector quantidade = DoubleVector.fromArray(REAIS, multiplicadores, 0);
+			area = quantidade.mul(area);
+			volume = quantidade.mul(volume);
+
+			area.intoArray(destino.areas, i);
+			volume.intoArray(destino.volumes, i);
+			DoubleVector.fromArray(REAIS, pesosEspecificos, 0).mul(volume).div(MIL).intoArray(destino.pesos, i);
+			DoubleVector.fromArray(REAIS, tintas, 0).mul(area).intoArray(destino.litros, i);
+		}
+
+		super.calcular(armazem, tipo, linhas, limite, fim, densidades, consumos, destino);
+	} // calcular(ArmazemPecas armazem, byte tipo, int[] linhas, int inicio, int fim, ...)
+} // class KernelVetorial
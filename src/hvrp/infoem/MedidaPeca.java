@@ -0,0 +1,63 @@
+package hvrp.infoem;
+
+/**
+ *  Enumeração que representa as medidas calculadas de cada peça da estrutura (área, volume, peso e litros de tinta), já multiplicadas
+ *  pela quantidade da peça, como em GeometriaPecas. Utilizada nas consultas por faixa de valores e das maiores peças de EstruturaMetalica.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public enum MedidaPeca {
+	AREA("Área"), VOLUME("Volume"), PESO("Peso"), LITROS_TINTA("Litros de tinta");
+
+	/**
+	 *  Nome da medida exibido nos relatórios.
+	 */
+	private final String nome;
+
+	/**
+	 *  Inicializa uma medida com o nome fornecido.
+	 *
+	 *  @param nome - nome da medida
+	 */
+	MedidaPeca(String nome) {
+		this.nome = nome;
+	}
+
+	/**
+	 *  Obtém o nome da medida exibido nos relatórios.
+	 *
+	 *  @return o nome da medida
+	 */
+	public String getNome() {
+		return nome;
+	}
+
+	/**
+	 *  Obtém o valor desta medida para uma peça de uma geometria calculada.
+	 *
+	 *  @param geometria - a geometria das peças de um tipo
+	 *  @param posicao - a posição da peça na geometria
+	 *
+	 *  @return o valor da medida
+	 */
+	double valor(GeometriaPecas geometria, int posicao) {
+		return switch (this) {
+			case AREA -> geometria.areas[posicao];
+			case VOLUME -> geometria.volumes[posicao];
+			case PESO -> geometria.pesos[posicao];
+			case LITROS_TINTA -> geometria.litros[posicao];
+		};
+	}
+
+	/**
+	 *  Retorna o nome da medida.
+	 *
+	 *  @return o nome da medida
+	 */
+	@Override
+	public String toString() {
+		return nome;
+	}
+} // enum MedidaPeca
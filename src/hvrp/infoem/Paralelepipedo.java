@@ -1,5 +1,9 @@
 package hvrp.infoem;
 
+import java.util.List;
+
+import static mos.io.InputOutput.SPACE;
+
 /**
  *  Esta classe representa o Paralelepipedo, um tipo válido de peça que pode ser adicionado à estrutura metálica.
  *  
@@ -11,13 +15,18 @@ public final class Paralelepipedo extends Peca {
 	/**
 	 * Dimensões do Paralelepipedo.
 	 */
-	public double altura, largura, profundidade;
+	private double altura, largura, profundidade;
 
 	/**
      *  Representa o nome do Paralelepipedo.
      */
 	public final static String PARALELEPIPEDO = "Paralelepipedo";
 	
+	/**
+	 *  Representa o esquema das dimensões do Paralelepipedo.
+	 */
+	final static List<TipoDimensao> DIMENSOES = List.of(TipoDimensao.ALTURA, TipoDimensao.LARGURA, TipoDimensao.PROFUNDIDADE);
+	
 	/**
 	 *  Construtor default.
 	 *  Inicializa um objeto recém-criado para que ele represente um Paralelepipedo sem suas informações.
@@ -81,6 +90,7 @@ public final class Paralelepipedo extends Peca {
      */
 	public Paralelepipedo setAltura(double altura) {
 		this.altura = altura;
+		notificarAlteracao(ArmazemPecas.COLUNA_ALTURA);
 		return this;
 	}
 
@@ -91,6 +101,7 @@ public final class Paralelepipedo extends Peca {
      */
 	public Paralelepipedo setLargura(double largura) {
 		this.largura = largura;
+		notificarAlteracao(ArmazemPecas.COLUNA_LARGURA);
 		return this;
 	}
 
@@ -101,6 +112,7 @@ public final class Paralelepipedo extends Peca {
      */
 	public Paralelepipedo setProfundidade(double profundidade) {
 		this.profundidade = profundidade;
+		notificarAlteracao(ArmazemPecas.COLUNA_PROFUNDIDADE);
 		return this;
 	}
 
@@ -114,7 +126,8 @@ public final class Paralelepipedo extends Peca {
      */
 	@Override
 	public String toString() {
-		return String.format("\n%s\tAltura: %s %5$s Largura: %s %5$s Profundidade: %s %5$s", super.toString(), altura, largura, profundidade, getUnidade());
+		return "\n" + super.toString() + "\tAltura: " + altura + SPACE + getUnidade() + " Largura: " + largura + SPACE + getUnidade() 
+				+ " Profundidade: " + profundidade + SPACE + getUnidade();
 	}
 	
 	/**
@@ -124,7 +137,7 @@ public final class Paralelepipedo extends Peca {
 	 */
 	@Override
 	public double area() {
-		return DOIS * (altura * largura + altura * profundidade + largura * profundidade);
+		return area(altura, largura, profundidade);
 	}
 
 	/**
@@ -134,16 +147,61 @@ public final class Paralelepipedo extends Peca {
 	 */
 	@Override
 	public double volume() {
+		return volume(altura, largura, profundidade);
+	}
+	
+	/**
+	 *  Calcula a área de um paralelepipedo com as dimensões fornecidas.
+	 *  
+	 *  @param altura - altura do paralelepipedo
+	 *  @param largura - largura do paralelepipedo
+	 *  @param profundidade - profundidade do paralelepipedo
+	 * 
+	 *  @return a área do paralelepipedo
+	 */
+	static double area(double altura, double largura, double profundidade) {
+		return DOIS * (altura * largura + altura * profundidade + largura * profundidade);
+	}
+	
+	/**
+	 *  Calcula o volume de um paralelepipedo com as dimensões fornecidas.
+	 *  
+	 *  @param altura - altura do paralelepipedo
+	 *  @param largura - largura do paralelepipedo
+	 *  @param profundidade - profundidade do paralelepipedo
+	 * 
+	 *  @return o volume do paralelepipedo
+	 */
+	static double volume(double altura, double largura, double profundidade) {
 		return altura * largura * profundidade;
 	}
 	
 	/**
-	 *  Método que armazena e retorna as dimensões do paralelepipedo em um vetor de Dimensões.
+	 *  Obtém o esquema das dimensões do paralelepipedo, o mesmo para todos os objetos Paralelepipedo.
+	 * 
+	 *  @return os tipos das dimensões do paralelepipedo
+	 */
+	@Override
+	public List<TipoDimensao> getTiposDimensao() {
+		return DIMENSOES;
+	}
+	
+	/**
+	 *  Obtém o valor de uma dimensão do paralelepipedo.
+	 * 
+	 *  @param tipo - o tipo da dimensão
+	 * 
+	 *  @return o valor da dimensão
 	 * 
-	 *  @return as dimensões do paralelepipedo
+	 *  @throws IllegalArgumentException caso o paralelepipedo não possua a dimensão fornecida
 	 */
 	@Override
-	public Dimensao[] obterDimensoes() {
-		return new Dimensao[] {new Dimensao("Altura", altura), new Dimensao("Largura", largura), new Dimensao("Profundidade", profundidade)};
+	public double getDimensao(TipoDimensao tipo) throws IllegalArgumentException {
+		return switch(tipo) {
+			case ALTURA -> altura;
+			case LARGURA -> largura;
+			case PROFUNDIDADE -> profundidade;
+			default -> throw new IllegalArgumentException(DIMENSAO_INVALIDA);
+		};
 	}
 } // class Paralelepipedo
\ No newline at end of file
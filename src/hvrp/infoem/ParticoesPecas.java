@@ -0,0 +1,237 @@
+package hvrp.infoem;
+
+import java.util.Arrays;
+
+/**
+ *  Índice das linhas do armazenamento de peças particionadas pelo tipo da peça e pelo material.
+ *
+ *  A partição de um tipo é indexada diretamente pelo código definido na interface Estrutura (CILINDRO, CUBO e PARALELEPIPEDO) e a de um
+ *  material pelo código de material do armazenamento. Cada partição guarda as suas linhas em ordem crescente, portanto percorrer uma
+ *  partição visita as peças na mesma ordem da estrutura, sem passar pelas peças das demais partições.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class ParticoesPecas {
+	/**
+	 *  Partições por tipo de peça (a posição 0 não é utilizada) e por código de material.
+	 */
+	private final Particao[] porTipo;
+	private Particao[] porMaterial;
+
+	/**
+	 *  Inicializa um índice vazio.
+	 *
+	 *  @param codigosMaterial - o número de códigos de material (incluindo o código reservado para peças sem material)
+	 */
+	ParticoesPecas(int codigosMaterial) {
+		porTipo = new Particao[Estrutura.PARALELEPIPEDO + 1];
+		for(int tipo = 0; tipo < porTipo.length; tipo++) {
+			porTipo[tipo] = new Particao();
+		}
+		porMaterial = new Particao[0];
+		redimensionar(codigosMaterial);
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém a partição de um tipo de peça.
+	 *
+	 *  @param tipoPeca - tipo da peça, podendo ser Cilindro, Cubo ou Paralelepipedo
+	 *
+	 *  @return a partição do tipo, ou null caso o tipo seja inválido
+	 */
+	Particao tipo(int tipoPeca) {
+		return tipoPeca >= Estrutura.CILINDRO && tipoPeca <= Estrutura.PARALELEPIPEDO ? porTipo[tipoPeca] : null;
+	}
+
+	/**
+	 *  Obtém a partição de um código de material.
+	 *
+	 *  @param codigo - código do material no armazenamento
+	 *
+	 *  @return a partição do material, ou null caso o código não exista
+	 */
+	Particao material(int codigo) {
+		return codigo >= 0 && codigo < porMaterial.length ? porMaterial[codigo] : null;
+	}
+
+	/**
+	 *  Aumenta o número de códigos de material do índice.
+	 *
+	 *  @param codigosMaterial - o novo número de códigos de material
+	 */
+	void redimensionar(int codigosMaterial) {
+		int anterior = porMaterial.length;
+
+		if(codigosMaterial > anterior) {
+			porMaterial = Arrays.copyOf(porMaterial, codigosMaterial);
+			for(int codigo = anterior; codigo < codigosMaterial; codigo++) {
+				porMaterial[codigo] = new Particao();
+			}
+		}
+	} // redimensionar(int codigosMaterial)
+
+	/**
+	 *  Adiciona uma linha, que deve ser maior que todas as linhas já adicionadas.
+	 *
+	 *  @param linha - a linha da peça
+	 *  @param tipo - o tipo da peça
+	 *  @param material - o código do material da peça
+	 */
+	void adicionar(int linha, int tipo, int material) {
+		porTipo[tipo].anexar(linha);
+		porMaterial[material].anexar(linha);
+	}
+
+	/**
+	 *  Move uma linha da partição de um material para a de outro.
+	 *
+	 *  @param linha - a linha da peça
+	 *  @param anterior - o código do material anterior
+	 *  @param novo - o código do novo material
+	 */
+	void mudarMaterial(int linha, int anterior, int novo) {
+		if(anterior != novo) {
+			porMaterial[anterior].remover(linha);
+			porMaterial[novo].inserir(linha);
+		}
+	}
+
+	/**
+	 *  Move uma linha da partição de um tipo de peça para a de outro.
+	 *
+	 *  @param linha - a linha da peça
+	 *  @param anterior - o tipo anterior
+	 *  @param novo - o novo tipo
+	 */
+	void mudarTipo(int linha, int anterior, int novo) {
+		if(anterior != novo) {
+			porTipo[anterior].remover(linha);
+			porTipo[novo].inserir(linha);
+		}
+	}
+
+	/**
+	 *  Remove do índice todas as linhas a partir da linha fornecida.
+	 *
+	 *  @param inicio - a primeira linha removida
+	 */
+	void truncar(int inicio) {
+		for(Particao p : porTipo) {
+			p.truncar(inicio);
+		}
+		for(Particao p : porMaterial) {
+			p.truncar(inicio);
+		}
+	}
+
+	/**
+	 *  Remove todas as linhas do índice.
+	 */
+	void limpar() {
+		for(Particao p : porTipo) {
+			p.limpar();
+		}
+		for(Particao p : porMaterial) {
+			p.limpar();
+		}
+	}
+
+	/**
+	 *  Linhas de uma partição, em ordem crescente. Também utilizada pelo índice de nomes da estrutura.
+	 */
+	static final class Particao {
+		private int[] linhas = new int[16];
+		private int tamanho;
+
+		/**
+		 *  Obtém o número de linhas da partição.
+		 *
+		 *  @return o número de linhas
+		 */
+		int tamanho() {
+			return tamanho;
+		}
+
+		/**
+		 *  Obtém uma linha da partição.
+		 *
+		 *  @param posicao - a posição na partição
+		 *
+		 *  @return a linha do armazenamento
+		 */
+		int linha(int posicao) {
+			if(posicao >= tamanho)
+				throw new IndexOutOfBoundsException(posicao);
+
+			return linhas[posicao];
+		}
+
+		/**
+		 *  Obtém o vetor das linhas da partição, sem cópia. Somente as primeiras tamanho() posições são utilizadas, e o vetor é substituído
+		 *  quando a partição cresce.
+		 *
+		 *  @return o vetor das linhas
+		 */
+		int[] linhas() {
+			return linhas;
+		}
+
+		/**
+		 *  Remove todas as linhas da partição.
+		 */
+		void limpar() {
+			tamanho = 0;
+		}
+
+		/**
+		 *  Remove da partição todas as linhas a partir da linha fornecida.
+		 *
+		 *  @param inicio - a primeira linha removida
+		 */
+		void truncar(int inicio) {
+			int posicao = Arrays.binarySearch(linhas, 0, tamanho, inicio);
+			tamanho = posicao >= 0 ? posicao : -posicao - 1;
+		}
+
+		/**
+		 *  Adiciona uma linha maior que todas as linhas da partição.
+		 *
+		 *  @param linha - a linha
+		 */
+		void anexar(int linha) {
+			if(tamanho == linhas.length) {
+				linhas = Arrays.copyOf(linhas, tamanho + (tamanho >> 1));
+			}
+			linhas[tamanho++] = linha;
+		}
+
+		/**
+		 *  Adiciona uma linha em qualquer posição, mantendo a ordem crescente.
+		 *
+		 *  @param linha - a linha
+		 */
+		void inserir(int linha) {
+			int posicao = -Arrays.binarySearch(linhas, 0, tamanho, linha) - 1;
+
+			anexar(linha);
+			System.arraycopy(linhas, posicao, linhas, posicao + 1, tamanho - 1 - posicao);
+			linhas[posicao] = linha;
+		}
+
+		/**
+		 *  Remove uma linha da partição.
+		 *
+		 *  @param linha - a linha
+		 */
+		void remover(int linha) {
+			int posicao = Arrays.binarySearch(linhas, 0, tamanho, linha);
+
+			System.arraycopy(linhas, posicao + 1, linhas, posicao, tamanho - 1 - posicao);
+			tamanho--;
+		}
+	} // class Particao
+} // class ParticoesPecas
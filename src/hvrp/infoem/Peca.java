@@ -1,5 +1,7 @@
 package hvrp.infoem;
 
+import java.util.List;
+
 import static mos.io.InputOutput.SPACE;
 
 /**
@@ -13,7 +15,7 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
 	/**
      *  Nome de determinada peça.
      */
-	public String nome;
+	private String nome;
 	
 	/**
      *  Quantidade de determinada peça.
@@ -25,6 +27,14 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
      */
 	protected Material material;
 	
+	/**
+	 *  Estrutura metálica à qual a peça está vinculada, a linha que a peça ocupa nessa estrutura e a geração da lista de peças da estrutura
+	 *  no momento do vínculo. Utilizados para avisar a estrutura quando a peça é modificada.
+	 */
+	private EstruturaMetalica estrutura;
+	private int linha;
+	private long geracao;
+	
 	/**
 	 * Constantes auxiliares para os cálculos realizados.
 	 */
@@ -62,24 +72,35 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
 	private final static String UNIDADE_CONSUMO_TINTA = "l/m²";
 	
 	/**
-     *  Representa o peso do alumínio.
+     *  Representa o recuo da primeira linha da representação textual de uma peça.
+     */
+	private final static String RECUO = String.valueOf(SPACE).repeat(10);
+	
+	/**
+     *  Representa uma mensagem que será vista se a exceção IllegalArgumentException for disparada na leitura de uma dimensão que não
+     *  pertence à peça.
      */
-	private final static double PESO_ALUMINIO = 2.7;
+	protected final static String DIMENSAO_INVALIDA = "Dimensão fornecida não pertence à peça!";
 	
 	/**
-     *  Representa o consumo de tinta do alumínio.
+     *  Representa o peso específico padrão do alumínio, utilizado no catálogo de materiais.
      */
-	private final static double CONSUMO_ALUMINIO = 0.5;
+	final static double PESO_ALUMINIO = 2.7;
 	
 	/**
-     *  Representa o peso do ferro.
+     *  Representa o consumo de tinta padrão do alumínio, utilizado no catálogo de materiais.
      */
-	private final static double PESO_FERRO = 7.8;
+	final static double CONSUMO_ALUMINIO = 0.5;
 	
 	/**
-     *  Representa o consumo de tinta do ferro.
+     *  Representa o peso específico padrão do ferro, utilizado no catálogo de materiais.
      */
-	private final static double CONSUMO_FERRO = 0.7;
+	final static double PESO_FERRO = 7.8;
+	
+	/**
+     *  Representa o consumo de tinta padrão do ferro, utilizado no catálogo de materiais.
+     */
+	final static double CONSUMO_FERRO = 0.7;
 	
 	/**
 	 *  Construtor default.
@@ -239,6 +260,7 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
      */
 	public final Peca setNome(String nome) {
 		this.nome = nome;
+		notificarAlteracao(ArmazemPecas.COLUNA_NOME);
 		return this;
 	}
 	
@@ -248,7 +270,10 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
      *  @param quantidade - a nova quantidade de peças
      */
 	public final Peca setQuantidade(int quantidade) {
+		int diferenca = quantidade - this.quantidade;
+		
 		this.quantidade = quantidade;
+		notificarAlteracao(ArmazemPecas.COLUNA_QUANTIDADE, diferenca);
 		return this;
 	}
 
@@ -259,9 +284,74 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
      */
 	public final Peca setMaterial(Material material) {
 		this.material = material;
+		notificarAlteracao(ArmazemPecas.COLUNA_MATERIAL);
 		return this;
 	}
 	
+	/**
+	 *  Vincula a peça a uma linha de uma estrutura metálica. A partir desse momento, toda modificação feita na peça através dos seus
+	 *  métodos Setters é repassada para a estrutura. A estrutura só vincula peças que não estão vinculadas a uma linha atual (veja
+	 *  getEstrutura()), portanto uma peça nunca representa mais de uma linha.
+	 *  
+	 *  @param estrutura - a estrutura que contém a peça
+	 *  @param linha - a linha ocupada pela peça na estrutura
+	 *  @param geracao - a geração da lista de peças da estrutura
+	 */
+	final void vincular(EstruturaMetalica estrutura, int linha, long geracao) {
+		this.estrutura = estrutura;
+		this.linha = linha;
+		this.geracao = geracao;
+	}
+	
+	/**
+	 *  Obtém a estrutura à qual a peça está vinculada, caso o vínculo ainda seja válido (a lista de peças da estrutura não foi substituída
+	 *  desde o vínculo).
+	 *  
+	 *  @return a estrutura da peça, ou null caso a peça não esteja vinculada
+	 */
+	final EstruturaMetalica getEstrutura() {
+		return estrutura != null && estrutura.isVinculoAtual(this) ? estrutura : null;
+	}
+	
+	/**
+	 *  Obtém a linha ocupada pela peça na estrutura à qual está vinculada.
+	 *  
+	 *  @return a linha da peça
+	 */
+	final int getLinha() {
+		return linha;
+	}
+	
+	/**
+	 *  Obtém a geração da lista de peças da estrutura no momento em que a peça foi vinculada.
+	 *  
+	 *  @return a geração do vínculo
+	 */
+	final long getGeracao() {
+		return geracao;
+	}
+	
+	/**
+	 *  Avisa a estrutura à qual a peça está vinculada (se houver) que uma informação da peça, exceto a quantidade, foi modificada.
+	 *  
+	 *  @param coluna - a coluna do armazenamento com a informação modificada (ou ArmazemPecas.COLUNA_NOME, para o nome)
+	 */
+	final void notificarAlteracao(int coluna) {
+		notificarAlteracao(coluna, 0);
+	}
+	
+	/**
+	 *  Função auxiliar que avisa a estrutura à qual a peça está vinculada (se houver) que uma informação da peça foi modificada.
+	 *  
+	 *  @param coluna - a coluna do armazenamento com a informação modificada
+	 *  @param diferenca - a diferença entre a nova quantidade e a anterior, quando a coluna é a da quantidade
+	 */
+	private void notificarAlteracao(int coluna, int diferenca) {
+		if(estrutura != null) {
+			estrutura.pecaAlterada(this, coluna, diferenca);
+		}
+	}
+	
 	/**
      *  Retorna uma representação textual das informações de uma peça:<br>
      *  <strong>'SS' | 'DD' Material: 'MM'</strong><br><br>
@@ -272,7 +362,7 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
      */
 	@Override
 	public String toString() {
-		return String.format("%10c%s | %s unidade(s).\n\tMaterial: %s\n", SPACE, nome, quantidade, material);
+		return RECUO + nome + " | " + quantidade + " unidade(s).\n\tMaterial: " + material + "\n";
 	}
 
 	/**
@@ -290,99 +380,159 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
 	public abstract double volume();
 	
 	/**
-	 *  Método que armazena e retorna as dimensões de uma peça em um vetor de Dimensões.
+	 *  Obtém o esquema das dimensões da peça: os tipos das dimensões, na ordem em que aparecem nos relatórios. O esquema é o mesmo para
+	 *  todas as peças do mesmo tipo e não pode ser modificado.
+	 * 
+	 *  @return os tipos das dimensões da peça
+	 */
+	public abstract List<TipoDimensao> getTiposDimensao();
+	
+	/**
+	 *  Obtém o valor de uma dimensão da peça.
+	 * 
+	 *  @param tipo - o tipo da dimensão, que deve pertencer ao esquema da peça
+	 * 
+	 *  @return o valor da dimensão
+	 * 
+	 *  @throws IllegalArgumentException caso a peça não possua a dimensão fornecida
+	 */
+	public abstract double getDimensao(TipoDimensao tipo) throws IllegalArgumentException;
+	
+	/**
+	 *  Percorre as dimensões da peça na ordem do seu esquema, sem criar objetos.
+	 * 
+	 *  @param consumidor - a função chamada com o tipo e o valor de cada dimensão
+	 */
+	public final void percorrerDimensoes(ConsumidorDimensao consumidor) {
+		List<TipoDimensao> tipos = getTiposDimensao();
+		
+		for(int i = 0; i < tipos.size(); i++) {
+			TipoDimensao tipo = tipos.get(i);
+			consumidor.aceitar(tipo, getDimensao(tipo));
+		}
+	} // percorrerDimensoes(ConsumidorDimensao consumidor)
+	
+	/**
+	 *  Método que armazena e retorna as dimensões de uma peça em um vetor de Dimensões. Cria um vetor e um objeto Dimensao por dimensão a
+	 *  cada chamada; getTiposDimensao() e getDimensao(TipoDimensao) obtêm as mesmas informações sem criar objetos.
 	 * 
 	 *  @return as dimensões da peça
 	 */
-	public abstract Dimensao[] obterDimensoes();
+	public Dimensao[] obterDimensoes() {
+		List<TipoDimensao> tipos = getTiposDimensao();
+		Dimensao[] dimensoes = new Dimensao[tipos.size()];
+		
+		for(int i = 0; i < dimensoes.length; i++) {
+			dimensoes[i] = new Dimensao(tipos.get(i).getNome(), getDimensao(tipos.get(i)));
+		}
+		return dimensoes;
+	} // obterDimensoes()
+	
+	/**
+	 *  Interface funcional que recebe as dimensões de uma peça, utilizada por percorrerDimensoes(ConsumidorDimensao).
+	 */
+	@FunctionalInterface
+	public interface ConsumidorDimensao {
+		/**
+		 *  Recebe uma dimensão da peça.
+		 *  
+		 *  @param tipo - o tipo da dimensão
+		 *  @param valor - o valor da dimensão
+		 */
+		void aceitar(TipoDimensao tipo, double valor);
+	} // interface ConsumidorDimensao
 	
 	/**
-	 *  Interface interna que representa o material de uma peça com seu determinado peso e consumo de tinta.
+	 *  Classe interna que representa o material de uma peça. O peso específico e o consumo de tinta de cada material ficam no catálogo de
+	 *  materiais (CatalogoMateriais), que pode ser carregado de um arquivo para acrescentar novos materiais sem recompilar o código.
+	 *  
+	 *  Existe um único objeto para cada material, de forma que materiais podem ser comparados com ==.
 	 *  
 	 *  @author Hugo Vinícius Rodrigues Pereira
 	 *
 	 *  @version 0.1
 	 */
-	public static enum Material {
+	public static final class Material {
 		/**
-		 *  Tipos de material válidos.
+		 *  Materiais padrão, sempre presentes no catálogo.
 		 */
-		ALUMINIO("Aluminio", PESO_ALUMINIO, CONSUMO_ALUMINIO),
-		FERRO("Ferro", PESO_FERRO, CONSUMO_FERRO);
+		public final static Material ALUMINIO = new Material(0, "Aluminio");
+		public final static Material FERRO = new Material(1, "Ferro");
 		
-		private String nome;
-		private double pesoEspecifico, consumoTinta;
+		/**
+		 *  Identificador do material no catálogo e o seu nome.
+		 */
+		private final int id;
+		private final String nome;
 
 		/**
-		 *  Inicializa um objeto recém-criado para que ele represente o Material de uma Peca, com suas informações: nome do material, peso específico
-		 *  e consumo de tinta.
+		 *  Inicializa um objeto recém-criado para que ele represente o Material de uma Peca, com suas informações: identificador e nome do
+		 *  material. Somente o catálogo de materiais cria novos materiais.
 		 *  
+		 *  @param id - identificador do material no catálogo
 		 *  @param nome - nome do material
-		 *  @param pesoEspecifico - peso específico do material
-		 *  @param consumoTinta - consumo de tinta do material
 		 */  
-		private Material(String nome, double pesoEspecifico, double consumoTinta) {
+		Material(int id, String nome) {
+			this.id = id;
 			this.nome = nome;
-			this.pesoEspecifico = pesoEspecifico;
-			this.consumoTinta = consumoTinta;
 		}
-
-		/* Métodos Getters (Métodos de Acesso) */
 		
 		/**
-	     *  Obtém o nome de um determinado material.
-	     *
-	     *  @return o nome de um determinado material
-	     */
-		public String getNome() {
-			return nome;
+		 *  Obtém os materiais do catálogo atual.
+		 *  
+		 *  @return os materiais, ordenados pelo identificador
+		 */
+		public static Material[] values() {
+			return CatalogoMateriais.atual().getMateriais();
 		}
-
+		
 		/**
-	     *  Obtém o peso específico de um determinado material.
-	     *
-	     *  @return o peso específico de um determinado material
-	     */
-		public double getPesoEspecifico() {
-			return pesoEspecifico;
+		 *  Obtém o material do catálogo atual com o nome fornecido, sem diferenciar letras maiúsculas e minúsculas.
+		 *  
+		 *  @param nome - nome do material
+		 *  
+		 *  @return o material, ou null caso não exista no catálogo
+		 */
+		public static Material doNome(String nome) {
+			return CatalogoMateriais.atual().getMaterial(nome);
 		}
 
+		/* Métodos Getters (Métodos de Acesso) */
+		
 		/**
-	     *  Obtém o consumo de tinta de um determinado material.
+	     *  Obtém o identificador do material no catálogo.
 	     *
-	     *  @return o consumo de tinta de um determinado material
+	     *  @return o identificador do material
 	     */
-		public double getConsumoTinta() {
-			return consumoTinta;
+		public int getId() {
+			return id;
 		}
 		
-		/* Métodos Setters (Métodos Modificadores) */
-		
 		/**
-	     *  Define o nome do material.
+	     *  Obtém o nome de um determinado material.
 	     *
-	     *  @param nome - o novo nome do material
+	     *  @return o nome de um determinado material
 	     */
-		public void setNome(String nome) {
-			this.nome = nome;
+		public String getNome() {
+			return nome;
 		}
 
 		/**
-	     *  Define o peso específico do material.
+	     *  Obtém o peso específico de um determinado material, de acordo com o catálogo atual.
 	     *
-	     *  @param pesoEspecifico - o novo peso específico do material
+	     *  @return o peso específico de um determinado material
 	     */
-		public void setPesoEspecifico(double pesoEspecifico) {
-			this.pesoEspecifico = pesoEspecifico;
+		public double getPesoEspecifico() {
+			return CatalogoMateriais.atual().getPesoEspecifico(this);
 		}
 
 		/**
-	     *  Define o consumo de tinta do material.
+	     *  Obtém o consumo de tinta de um determinado material, de acordo com o catálogo atual.
 	     *
-	     *  @param consumoTinta - o novo consumo de tinta do material
+	     *  @return o consumo de tinta de um determinado material
 	     */
-		public void setConsumoTinta(double consumoTinta) {
-			this.consumoTinta = consumoTinta;
+		public double getConsumoTinta() {
+			return CatalogoMateriais.atual().getConsumoTinta(this);
 		}
 
 		/**
@@ -395,7 +545,9 @@ public abstract sealed class Peca permits Cilindro, Cubo, Paralelepipedo {
 	     */
 		@Override
 		public String toString() {
-			return String.format("%s | Peso: %s %s - Consumo de Tinta: %s %s", nome, pesoEspecifico, getUnidadePeso(), consumoTinta, getUnidadeConsumoTinta());
+			CatalogoMateriais catalogo = CatalogoMateriais.atual();
+			return nome + " | Peso: " + catalogo.getPesoEspecifico(this) + SPACE + getUnidadePeso() + " - Consumo de Tinta: " 
+					+ catalogo.getConsumoTinta(this) + SPACE + getUnidadeConsumoTinta();
 		}
-	} // enum Material
+	} // class Material
 } // class Peca
\ No newline at end of file
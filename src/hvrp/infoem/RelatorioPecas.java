@@ -0,0 +1,310 @@
+package hvrp.infoem;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.PrimitiveIterator;
+
+import static mos.io.InputOutput.NEW_LINE;
+import static mos.io.InputOutput.SPACE;
+
+/**
+ *  Essa classe escreve os relatórios das peças de uma estrutura metálica (a lista de peças e a área e as dimensões de cada peça) em
+ *  qualquer destino que aceite texto: um StringBuilder, um Writer ou um canal de bytes.
+ *
+ *  As peças são lidas diretamente do armazenamento colunar da estrutura, em ordem alfabética de nome, sem criar objetos Peca. O texto é
+ *  montado em um buffer de tamanho fixo que é enviado ao destino sempre que fica cheio, portanto a memória utilizada não depende do
+ *  número de peças. O texto produzido é o mesmo de EstruturaMetalica.toString() e EstruturaMetalica.obterAreaTotalEDimensoes().
+ *
+ *  Os textos curtos dos relatórios (o relatório base e os totais de peças) são montados pelos métodos estáticos textoResumo e
+ *  textoTotalPecas, utilizados pela janela de relatório, pela linha de comando e pelo processamento em lote.
+ *
+ *  Cada relatório utiliza buffers próprios e não deve ser compartilhado entre threads.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class RelatorioPecas {
+	/**
+	 *  Número de caracteres acumulados no buffer antes de enviá-lo ao destino.
+	 */
+	private final static int TAMANHO_BUFFER = 8192;
+
+	/**
+	 *  Recuos utilizados nos relatórios.
+	 */
+	private final static String RECUO = String.valueOf(SPACE).repeat(10), RECUO_DUPLO = RECUO + RECUO;
+
+	/**
+	 *  Título da lista de peças.
+	 */
+	private final static String TITULO_PECAS = "- Lista de peças utilizadas na estrutura:\n";
+
+	/**
+	 *  Formatador das áreas e dimensões.
+	 */
+	private final FormatoDecimal formato;
+
+	/**
+	 *  Buffer do texto e vetor auxiliar para enviar o buffer a um Writer.
+	 */
+	private final StringBuilder buffer;
+	private char[] caracteres;
+
+	/**
+	 *  Construtor default.
+	 *  Inicializa um relatório que formata os números no idioma padrão de formatação (o mesmo utilizado por String.format).
+	 */
+	public RelatorioPecas() {
+		this(Locale.getDefault(Locale.Category.FORMAT));
+	}
+
+	/**
+	 *  Inicializa um relatório que formata os números no idioma fornecido.
+	 *
+	 *  @param locale - o idioma da formatação dos números
+	 */
+	public RelatorioPecas(Locale locale) {
+		formato = new FormatoDecimal(locale);
+		buffer = new StringBuilder(TAMANHO_BUFFER + TAMANHO_BUFFER / 4);
+		caracteres = new char[0];
+	}
+
+	/**
+	 *  Escreve a lista de peças da estrutura, em ordem alfabética, no mesmo formato de EstruturaMetalica.toString().
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param destino - onde o relatório é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	public void escreverPecas(EstruturaMetalica estrutura, Appendable destino) throws IOException {
+		ArmazemPecas armazem = estrutura.getArmazem();
+		String[] materiais = textosMateriais();
+
+		buffer.append(TITULO_PECAS);
+
+		for(PrimitiveIterator.OfInt linhas = estrutura.linhasPorNome(); linhas.hasNext();) {
+			int linha = linhas.nextInt();
+
+			buffer.append('\n').append(RECUO).append(armazem.nome(linha)).append(" | ").append(armazem.quantidade(linha))
+				.append(" unidade(s).\n\tMaterial: ").append(materiais[armazem.material(linha)]).append('\n');
+
+			List<TipoDimensao> dimensoes = ArmazemPecas.tiposDimensao(armazem.tipo(linha));
+			for(int i = 0; i < dimensoes.size(); i++) {
+				TipoDimensao dimensao = dimensoes.get(i);
+				escreverMedida(i == 0 ? '\t' : SPACE, dimensao, armazem.dimensao(linha, dimensao));
+			}
+			buffer.append(NEW_LINE);
+
+			if(buffer.length() >= TAMANHO_BUFFER) {
+				descarregar(destino);
+			}
+		}
+		descarregar(destino);
+	} // escreverPecas(EstruturaMetalica estrutura, Appendable destino)
+
+	/**
+	 *  Escreve a lista de peças da estrutura em um canal, codificada em UTF-8. O canal não é fechado.
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param canal - onde o relatório é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	public void escreverPecas(EstruturaMetalica estrutura, WritableByteChannel canal) throws IOException {
+		Writer writer = Channels.newWriter(canal, StandardCharsets.UTF_8);
+
+		escreverPecas(estrutura, writer);
+		writer.flush();
+	}
+
+	/**
+	 *  Escreve a área e as dimensões de cada peça da estrutura, em ordem alfabética, no mesmo formato de
+	 *  EstruturaMetalica.obterAreaTotalEDimensoes().
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param destino - onde o relatório é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	public void escreverAreaEDimensoes(EstruturaMetalica estrutura, Appendable destino) throws IOException {
+		ArmazemPecas armazem = estrutura.getArmazem();
+
+		for(PrimitiveIterator.OfInt linhas = estrutura.linhasPorNome(); linhas.hasNext();) {
+			int linha = linhas.nextInt();
+
+			buffer.append(RECUO).append("- ").append(armazem.nome(linha)).append(" | ").append(armazem.quantidade(linha))
+				.append(" unidade(s).\n").append(RECUO_DUPLO).append("Área: ");
+			formato.escrever(armazem.area(linha), buffer);
+			buffer.append(SPACE).append(Peca.getUnidadeArea()).append('\n');
+
+			List<TipoDimensao> dimensoes = ArmazemPecas.tiposDimensao(armazem.tipo(linha));
+			for(int i = 0; i < dimensoes.size(); i++) {
+				TipoDimensao dimensao = dimensoes.get(i);
+				escreverDimensao(dimensao, armazem.dimensao(linha, dimensao));
+			}
+			buffer.append(NEW_LINE);
+
+			if(buffer.length() >= TAMANHO_BUFFER) {
+				descarregar(destino);
+			}
+		}
+		descarregar(destino);
+	} // escreverAreaEDimensoes(EstruturaMetalica estrutura, Appendable destino)
+
+	/**
+	 *  Escreve a área e as dimensões de cada peça da estrutura em um canal, codificadas em UTF-8. O canal não é fechado.
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param canal - onde o relatório é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	public void escreverAreaEDimensoes(EstruturaMetalica estrutura, WritableByteChannel canal) throws IOException {
+		Writer writer = Channels.newWriter(canal, StandardCharsets.UTF_8);
+
+		escreverAreaEDimensoes(estrutura, writer);
+		writer.flush();
+	}
+
+	/**
+	 *  Monta o texto do relatório base da estrutura (peso total, volume total, latas de tinta e volume total por tipo de peça) a partir do
+	 *  seu resumo.
+	 *
+	 *  @param resumo - o resumo da estrutura
+	 *
+	 *  @return o texto do relatório base
+	 */
+	public static String textoResumo(ResumoEstrutura resumo) {
+		return textoResumo(resumo.getPesoTotal(), resumo.getVolumeTotal(), resumo.getLatasDeTinta(), resumo.getVolumeTotal(Estrutura.CILINDRO),
+				resumo.getVolumeTotal(Estrutura.CUBO), resumo.getVolumeTotal(Estrutura.PARALELEPIPEDO));
+	}
+
+	/**
+	 *  Monta o texto do relatório base a partir das operações da interface Estrutura, como em textoResumo(ResumoEstrutura).
+	 *
+	 *  @param estrutura - a estrutura
+	 *
+	 *  @return o texto do relatório base
+	 */
+	public static String textoResumo(Estrutura estrutura) {
+		return textoResumo(estrutura.pesoTotal(), estrutura.volumeTotal(), estrutura.numeroDeLatasDeTinta(),
+				estrutura.volumeTotalPeca(Estrutura.CILINDRO), estrutura.volumeTotalPeca(Estrutura.CUBO),
+				estrutura.volumeTotalPeca(Estrutura.PARALELEPIPEDO));
+	}
+
+	/**
+	 *  Monta o texto com o número total de peças e o número de peças de cada tipo.
+	 *
+	 *  @param resumo - o resumo da estrutura
+	 *
+	 *  @return o texto dos totais de peças
+	 */
+	public static String textoTotalPecas(ResumoEstrutura resumo) {
+		StringBuilder relatorio = new StringBuilder();
+
+		relatorio.append(String.format("\n- Total de Peças: %s peça(s).\n", resumo.getTotalPecas()));
+		relatorio.append(String.format("%10cCilindro: %s unidade(s)\n", SPACE, resumo.getTotalPecas(Estrutura.CILINDRO)));
+		relatorio.append(String.format("%10cCubo: %s unidade(s)\n", SPACE, resumo.getTotalPecas(Estrutura.CUBO)));
+		relatorio.append(String.format("%10cParalelepipedo: %s unidade(s)\n", SPACE, resumo.getTotalPecas(Estrutura.PARALELEPIPEDO)));
+
+		return relatorio.toString();
+	} // textoTotalPecas(ResumoEstrutura resumo)
+
+	/**
+	 *  Função auxiliar que monta o texto do relatório base a partir das informações da estrutura.
+	 *
+	 *  @param pesoTotal - o peso total
+	 *  @param volumeTotal - o volume total
+	 *  @param latas - as latas de tinta de 0,5 litro, 2 litros e 5 litros (posições 0, 1 e 2)
+	 *  @param cilindros - o volume total dos cilindros
+	 *  @param cubos - o volume total dos cubos
+	 *  @param paralelepipedos - o volume total dos paralelepípedos
+	 *
+	 *  @return o texto do relatório base
+	 */
+	private static String textoResumo(double pesoTotal, double volumeTotal, int[] latas, double cilindros, double cubos,
+			double paralelepipedos) {
+		StringBuilder relatorio = new StringBuilder(String.format("\n%10c- ESTRUTURA:\n", SPACE));
+
+		relatorio.append(String.format("%20cPeso Total: %s %s\n", SPACE, pesoTotal, Peca.getUnidadePesoTotal()));
+		relatorio.append(String.format("%20cVolume Total: %s %s\n", SPACE, volumeTotal, Peca.getUnidadeVolume()));
+		relatorio.append(String.format("%20cLatas de tinta necessárias para pintar a estrutura:\n", SPACE));
+		relatorio.append(String.format("%30c5 litros: %s lata(s)\n%30c2 litros: %s lata(s)\n%30c0,5 litros: %s lata(s)\n", SPACE, latas[2], SPACE, latas[1], SPACE, latas[0]));
+
+		relatorio.append(String.format("\n%10c- VOLUME TOTAL POR TIPO DE PEÇA:\n", SPACE));
+		relatorio.append(String.format("%20cCilindro: %s %s\n", SPACE, cilindros, Peca.getUnidadeVolume()));
+		relatorio.append(String.format("%20cCubo: %s %s\n", SPACE, cubos, Peca.getUnidadeVolume()));
+		relatorio.append(String.format("%20cParalelepipedo: %s %s\n", SPACE, paralelepipedos, Peca.getUnidadeVolume()));
+
+		return relatorio.toString();
+	} // textoResumo(double pesoTotal, double volumeTotal, int[] latas, double cilindros, double cubos, double paralelepipedos)
+
+	/**
+	 *  Função auxiliar que escreve uma medida da lista de peças, como em Cilindro.toString().
+	 *
+	 *  @param separador - o caractere escrito antes da medida
+	 *  @param dimensao - o tipo da dimensão
+	 *  @param valor - o valor da medida
+	 */
+	private void escreverMedida(char separador, TipoDimensao dimensao, double valor) {
+		buffer.append(separador).append(dimensao.getNome()).append(": ").append(valor).append(SPACE).append(Peca.getUnidade());
+	}
+
+	/**
+	 *  Função auxiliar que escreve uma dimensão do relatório de área e dimensões.
+	 *
+	 *  @param dimensao - o tipo da dimensão
+	 *  @param valor - o valor da dimensão
+	 */
+	private void escreverDimensao(TipoDimensao dimensao, double valor) {
+		buffer.append(RECUO_DUPLO).append(dimensao.getNome()).append(": ");
+		formato.escrever(valor, buffer);
+		buffer.append(SPACE).append(Peca.getUnidade()).append('\n');
+	}
+
+	/**
+	 *  Função auxiliar que monta o texto de cada material do catálogo atual, indexado pelo código de material do armazenamento.
+	 *
+	 *  @return os textos dos materiais
+	 */
+	private static String[] textosMateriais() {
+		CatalogoMateriais catalogo = CatalogoMateriais.atual();
+		String[] textos = new String[catalogo.getQuantidadeMateriais() + ArmazemPecas.SEM_MATERIAL + 1];
+
+		textos[ArmazemPecas.SEM_MATERIAL] = String.valueOf((Object) null);
+		for(Peca.Material material : catalogo.getMateriais()) {
+			textos[ArmazemPecas.codigo(material) & 0xFF] = material.toString();
+		}
+		return textos;
+	}
+
+	/**
+	 *  Função auxiliar que envia o buffer ao destino e o esvazia.
+	 *
+	 *  @param destino - onde o buffer é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	private void descarregar(Appendable destino) throws IOException {
+		int tamanho = buffer.length();
+
+		if(destino instanceof Writer writer) {
+			if(caracteres.length < tamanho) {
+				caracteres = new char[tamanho];
+			}
+			buffer.getChars(0, tamanho, caracteres, 0);
+			writer.write(caracteres, 0, tamanho);
+		}
+		else {
+			destino.append(buffer);
+		}
+		buffer.setLength(0);
+	} // descarregar(Appendable destino)
+} // class RelatorioPecas
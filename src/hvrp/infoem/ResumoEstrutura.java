@@ -0,0 +1,205 @@
+package hvrp.infoem;
+
+/**
+ *  Essa classe representa um resumo (snapshot) imutável das principais informações de uma estrutura metálica: peso total, volume total,
+ *  consumo de tinta, latas de tinta necessárias, o número de peças e o volume de cada tipo de peça e o número de peças e o peso de cada
+ *  material.
+ *
+ *  Todos os valores são calculados pela EstruturaMetalica em uma única passagem pelas suas peças.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class ResumoEstrutura {
+	/**
+	 *  Peso total da estrutura, em quilogramas (Kg).
+	 */
+	private final double pesoTotal;
+
+	/**
+	 *  Volume total da estrutura, em metros cúbicos (m³).
+	 */
+	private final double volumeTotal;
+
+	/**
+	 *  Consumo de tinta total da estrutura, em litros (L).
+	 */
+	private final double consumoTinta;
+
+	/**
+	 *  Latas de tinta necessárias para pintar a estrutura (0,5 litro, 2 litros e 5 litros, respectivamente, nas posições 0, 1 e 2).
+	 */
+	private final int[] latasDeTinta;
+
+	/**
+	 *  Número total de peças da estrutura.
+	 */
+	private final int totalPecas;
+
+	/**
+	 *  Número de peças e volume de cada tipo de peça, indexados pelos tipos definidos na interface Estrutura.
+	 */
+	private final int[] totalPecasPorTipo;
+	private final double[] volumePorTipo;
+
+	/**
+	 *  Número de peças e peso de cada material, indexados pelo identificador do material no catálogo + 1 (a posição 0 corresponde às peças
+	 *  sem material).
+	 */
+	private final int[] totalPecasPorMaterial;
+	private final double[] pesoPorMaterial;
+
+	/**
+	 *  Inicializa um objeto recém-criado para que ele represente o resumo de uma estrutura metálica, com suas informações já calculadas.
+	 *
+	 *  @param pesoTotal - peso total da estrutura
+	 *  @param volumeTotal - volume total da estrutura
+	 *  @param consumoTinta - consumo de tinta total da estrutura
+	 *  @param latasDeTinta - latas de tinta necessárias para pintar a estrutura
+	 *  @param totalPecas - número total de peças da estrutura
+	 *  @param totalPecasPorTipo - número de peças de cada tipo de peça
+	 *  @param volumePorTipo - volume de cada tipo de peça
+	 *  @param totalPecasPorMaterial - número de peças de cada material
+	 *  @param pesoPorMaterial - peso de cada material
+	 */
+	ResumoEstrutura(double pesoTotal, double volumeTotal, double consumoTinta, int[] latasDeTinta, int totalPecas, int[] totalPecasPorTipo,
+			double[] volumePorTipo, int[] totalPecasPorMaterial, double[] pesoPorMaterial) {
+		this.pesoTotal = pesoTotal;
+		this.volumeTotal = volumeTotal;
+		this.consumoTinta = consumoTinta;
+		this.latasDeTinta = latasDeTinta;
+		this.totalPecas = totalPecas;
+		this.totalPecasPorTipo = totalPecasPorTipo;
+		this.volumePorTipo = volumePorTipo;
+		this.totalPecasPorMaterial = totalPecasPorMaterial;
+		this.pesoPorMaterial = pesoPorMaterial;
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+     *  Obtém o peso total da estrutura, em quilogramas (Kg).
+     *
+     *  @return o peso total da estrutura
+     */
+	public double getPesoTotal() {
+		return pesoTotal;
+	}
+
+	/**
+     *  Obtém o peso total das peças de um determinado material, em quilogramas (Kg).
+     *
+     *  @param material - o material
+     *
+     *  @return o peso total das peças do material, ou zero caso nenhuma peça utilize o material
+     */
+	public double getPesoTotal(Peca.Material material) {
+		int codigo = codigo(material);
+		return codigo < pesoPorMaterial.length ? pesoPorMaterial[codigo] : 0;
+	}
+
+	/**
+     *  Obtém o volume total da estrutura, em metros cúbicos (m³).
+     *
+     *  @return o volume total da estrutura
+     */
+	public double getVolumeTotal() {
+		return volumeTotal;
+	}
+
+	/**
+     *  Obtém o volume total de um determinado tipo de peça, em metros cúbicos (m³).
+     *
+     *  @param tipoPeca - tipo da peça, podendo ser Cilindro, Cubo ou Paralelepipedo
+     *
+     *  @return o volume total do tipo de peça fornecido, ou zero caso o tipo seja inválido
+     */
+	public double getVolumeTotal(int tipoPeca) {
+		return tipoValido(tipoPeca) ? volumePorTipo[tipoPeca] : 0;
+	}
+
+	/**
+     *  Obtém o consumo de tinta total da estrutura, em litros (L).
+     *
+     *  @return o consumo de tinta total da estrutura
+     */
+	public double getConsumoTinta() {
+		return consumoTinta;
+	}
+
+	/**
+     *  Obtém as latas de tinta necessárias para pintar a estrutura.
+     *  A quantidade das latas de tinta de 0,5 litro, 2 litros e 5 litros são armazenadas, respectivamente, nas posições 0, 1 e 2.
+     *
+     *  @return uma cópia do vetor com a quantidade de cada lata de tinta
+     */
+	public int[] getLatasDeTinta() {
+		return latasDeTinta.clone();
+	}
+
+	/**
+     *  Obtém a quantidade de um determinado tamanho de lata de tinta, sem criar um novo vetor.
+     *
+     *  @param posicao - posição da lata (0 para 0,5 litro, 1 para 2 litros e 2 para 5 litros)
+     *
+     *  @return a quantidade de latas do tamanho fornecido
+     */
+	public int getLatasDeTinta(int posicao) {
+		return latasDeTinta[posicao];
+	}
+
+	/**
+     *  Obtém o número total de peças da estrutura.
+     *
+     *  @return o número total de peças da estrutura
+     */
+	public int getTotalPecas() {
+		return totalPecas;
+	}
+
+	/**
+     *  Obtém o número total de peças de um determinado tipo de peça.
+     *
+     *  @param tipoPeca - tipo da peça, podendo ser Cilindro, Cubo ou Paralelepipedo
+     *
+     *  @return o número total de peças do tipo fornecido, ou zero caso o tipo seja inválido
+     */
+	public int getTotalPecas(int tipoPeca) {
+		return tipoValido(tipoPeca) ? totalPecasPorTipo[tipoPeca] : 0;
+	}
+
+	/**
+     *  Obtém o número total de peças de um determinado material.
+     *
+     *  @param material - o material
+     *
+     *  @return o número total de peças do material, ou zero caso nenhuma peça utilize o material
+     */
+	public int getTotalPecas(Peca.Material material) {
+		int codigo = codigo(material);
+		return codigo < totalPecasPorMaterial.length ? totalPecasPorMaterial[codigo] : 0;
+	}
+
+	/**
+	 *  Função auxiliar que obtém a posição de um material nos vetores por material.
+	 *
+	 *  @param material - o material, ou null para as peças sem material
+	 *
+	 *  @return a posição do material
+	 */
+	private static int codigo(Peca.Material material) {
+		return material == null ? 0 : material.getId() + 1;
+	}
+
+	/**
+	 *  Função auxiliar que verifica se o tipo de peça fornecido é válido.
+	 *
+	 *  @param tipoPeca - tipo da peça
+	 *
+	 *  @return true se o tipo for CILINDRO, CUBO ou PARALELEPIPEDO
+	 */
+	private static boolean tipoValido(int tipoPeca) {
+		return tipoPeca >= Estrutura.CILINDRO && tipoPeca <= Estrutura.PARALELEPIPEDO;
+	}
+} // class ResumoEstrutura
@@ -0,0 +1,46 @@
+package hvrp.infoem;
+
+/**
+ *  Enumeração que representa os tipos de dimensão das peças. Cada tipo de peça possui um esquema fixo de dimensões, obtido por
+ *  Peca.getTiposDimensao(), e o valor de cada dimensão é lido por Peca.getDimensao(TipoDimensao), sem criar objetos.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public enum TipoDimensao {
+	RAIO("Raio"), ALTURA("Altura"), LARGURA("Largura"), PROFUNDIDADE("Profundidade"), ARESTA("Aresta");
+
+	/**
+	 *  Nome da dimensão exibido nos relatórios.
+	 */
+	private final String nome;
+
+	/**
+	 *  Inicializa um tipo de dimensão com o nome fornecido.
+	 *
+	 *  @param nome - nome da dimensão
+	 */
+	TipoDimensao(String nome) {
+		this.nome = nome;
+	}
+
+	/**
+	 *  Obtém o nome da dimensão exibido nos relatórios.
+	 *
+	 *  @return o nome da dimensão
+	 */
+	public String getNome() {
+		return nome;
+	}
+
+	/**
+	 *  Retorna o nome da dimensão.
+	 *
+	 *  @return o nome da dimensão
+	 */
+	@Override
+	public String toString() {
+		return nome;
+	}
+} // enum TipoDimensao
@@ -0,0 +1,550 @@
+package hvrp.infoem;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import hvrp.infoem.mercado.Mercado;
+
+/**
+ *  Totais acumulados de uma estrutura metálica, mantidos à medida que as peças são adicionadas: peso total, volume total, o número de
+ *  peças e o volume de cada tipo de peça e o número de peças, o peso e a área pintada de cada material.
+ *
+ *  Os totais reais são mantidos por blocos de linhas de tamanho fixo, de duas formas:<br>
+ *  <strong>- Soma sequencial (padrão):</strong> cada bloco guarda a soma simples de todas as linhas até o seu fim, portanto os totais são
+ *  os mesmos da soma das peças uma a uma, na ordem da lista. Um recálculo refaz, em sequência, os blocos a partir do primeiro inválido.<br>
+ *  <strong>- Soma compensada por blocos (agregação paralela):</strong> cada bloco guarda apenas as suas linhas, somadas em ordem com soma
+ *  compensada (Kahan-Neumaier), e os blocos são combinados sempre na mesma ordem. Assim o resultado depende apenas das peças, e não de como
+ *  os blocos foram calculados: um recálculo, sequencial ou em paralelo com qualquer número de threads, produz exatamente os mesmos valores.
+ *  <br><br>
+ *
+ *  Nas duas formas, adicionar uma peça atualiza o último bloco em tempo constante.
+ *
+ *  Quando uma peça já adicionada é modificada, os totais inteiros (número de peças) são ajustados na hora e somente o bloco da peça é
+ *  invalidado, sendo recalculado na próxima consulta.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class TotaisEstrutura {
+	/**
+	 *  Constante auxiliar para os arredondamentos realizados.
+	 */
+	private final static double CEM = 100.0;
+
+	/**
+	 *  Número de linhas de cada bloco (potência de dois) e o deslocamento correspondente.
+	 */
+	private final static int DESLOCAMENTO_BLOCO = 12, LINHAS_POR_BLOCO = 1 << DESLOCAMENTO_BLOCO;
+
+	/**
+	 *  Número máximo de blocos recalculados por uma mesma tarefa do pool.
+	 */
+	private final static int BLOCOS_POR_TAREFA = 4;
+
+	/**
+	 *  Posição de cada total real dentro de um bloco: peso, volume, volume por tipo (somado ao tipo da peça) e área por material (somada ao
+	 *  código do material). O peso por material fica logo após as áreas, a partir de inicioPesoMaterial.
+	 */
+	private final static int PESO = 0, VOLUME = 1, VOLUME_TIPO = 1, AREA = VOLUME_TIPO + Estrutura.PARALELEPIPEDO + 1;
+
+	/**
+	 *  Número de totais reais de cada bloco.
+	 */
+	private int componentes, inicioPesoMaterial;
+
+	/**
+	 *  Somas e compensações dos totais reais de cada bloco, com os totais de um bloco em posições consecutivas.
+	 */
+	private double[] somas, compensacoes;
+
+	/**
+	 *  Número de blocos em uso e os blocos cujos totais reais não correspondem às peças atuais.
+	 */
+	private int blocos;
+	private final BitSet blocosInvalidos;
+
+	/**
+	 *  Se os totais são somados por blocos com soma compensada (agregação paralela) ou em sequência.
+	 */
+	private boolean compensado;
+
+	/**
+	 *  Totais reais combinados (peso em Kg, volumes em m³ e áreas em m²) e se eles correspondem aos blocos atuais.
+	 */
+	private double pesoTotal, volumeTotal;
+	private final double[] volumePorTipo;
+	private double[] areaPorMaterial, pesoPorMaterial;
+	private boolean combinado;
+
+	/**
+	 *  Totais inteiros (número de peças).
+	 */
+	private int totalPecas;
+	private final int[] totalPecasPorTipo;
+	private int[] totalPecasPorMaterial;
+
+	/**
+	 *  Inicializa os totais de uma estrutura sem peças.
+	 *
+	 *  @param codigosMaterial - o número de códigos de material (incluindo o código reservado para peças sem material)
+	 */
+	TotaisEstrutura(int codigosMaterial) {
+		volumePorTipo = new double[Estrutura.PARALELEPIPEDO + 1];
+		areaPorMaterial = new double[codigosMaterial];
+		pesoPorMaterial = new double[codigosMaterial];
+		totalPecasPorTipo = new int[Estrutura.PARALELEPIPEDO + 1];
+		totalPecasPorMaterial = new int[codigosMaterial];
+		inicioPesoMaterial = AREA + codigosMaterial;
+		componentes = inicioPesoMaterial + codigosMaterial;
+		somas = new double[componentes * 4];
+		compensacoes = new double[somas.length];
+		blocosInvalidos = new BitSet();
+		combinado = true;
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém o número total de peças.
+	 *
+	 *  @return o número total de peças
+	 */
+	int getTotalPecas() {
+		return totalPecas;
+	}
+
+	/**
+	 *  Obtém o número de peças de um determinado tipo.
+	 *
+	 *  @param tipoPeca - tipo da peça, podendo ser Cilindro, Cubo ou Paralelepipedo
+	 *
+	 *  @return o número de peças do tipo fornecido, ou zero caso o tipo seja inválido
+	 */
+	int getTotalPecas(int tipoPeca) {
+		return tipoPeca >= Estrutura.CILINDRO && tipoPeca <= Estrutura.PARALELEPIPEDO ? totalPecasPorTipo[tipoPeca] : 0;
+	}
+
+	/**
+	 *  Obtém o número de peças de um determinado material.
+	 *
+	 *  @param codigo - o código do material no armazenamento
+	 *
+	 *  @return o número de peças do material, ou zero caso o código não exista
+	 */
+	int getTotalPecasMaterial(int codigo) {
+		return codigo >= 0 && codigo < totalPecasPorMaterial.length ? totalPecasPorMaterial[codigo] : 0;
+	}
+
+	/**
+	 *  Informa se os totais reais correspondem às peças atuais.
+	 *
+	 *  @return true se nenhum bloco precisa ser recalculado
+	 */
+	boolean isValido() {
+		return blocosInvalidos.isEmpty();
+	}
+
+	/**
+	 *  Informa se os totais são somados por blocos com soma compensada (agregação paralela).
+	 *
+	 *  @return true para a soma compensada por blocos, false para a soma sequencial
+	 */
+	boolean isCompensado() {
+		return compensado;
+	}
+
+	/**
+	 *  Define se os totais são somados por blocos com soma compensada (agregação paralela) ou em sequência. Ao mudar a forma da soma, todos
+	 *  os blocos são invalidados e recalculados na próxima consulta.
+	 *
+	 *  @param compensado - true para a soma compensada por blocos, false para a soma sequencial
+	 */
+	void setCompensado(boolean compensado) {
+		if(this.compensado != compensado) {
+			this.compensado = compensado;
+			invalidar();
+			combinado = false;
+		}
+	} // setCompensado(boolean compensado)
+
+	/**
+	 *  Zera todos os totais.
+	 */
+	void limpar() {
+		totalPecas = 0;
+		Arrays.fill(totalPecasPorTipo, 0);
+		Arrays.fill(totalPecasPorMaterial, 0);
+		Arrays.fill(somas, 0, blocos * componentes, 0);
+		Arrays.fill(compensacoes, 0, blocos * componentes, 0);
+		blocos = 0;
+		blocosInvalidos.clear();
+		combinado = false;
+	}
+
+	/**
+	 *  Aumenta o número de códigos de material dos totais, mantendo os totais já calculados. Os novos materiais começam com área zero.
+	 *
+	 *  @param codigosMaterial - o novo número de códigos de material
+	 */
+	void redimensionar(int codigosMaterial) {
+		if(codigosMaterial <= areaPorMaterial.length) {
+			return;
+		}
+
+		int codigosAnteriores = areaPorMaterial.length, novoInicioPesoMaterial = AREA + codigosMaterial;
+		int novosComponentes = novoInicioPesoMaterial + codigosMaterial;
+		double[] novasSomas = new double[Math.max(blocos, 4) * novosComponentes], novasCompensacoes = new double[novasSomas.length];
+
+		for(int bloco = 0; bloco < blocos; bloco++) {
+			int base = bloco * componentes, novaBase = bloco * novosComponentes;
+
+			System.arraycopy(somas, base, novasSomas, novaBase, inicioPesoMaterial);
+			System.arraycopy(compensacoes, base, novasCompensacoes, novaBase, inicioPesoMaterial);
+			System.arraycopy(somas, base + inicioPesoMaterial, novasSomas, novaBase + novoInicioPesoMaterial, codigosAnteriores);
+			System.arraycopy(compensacoes, base + inicioPesoMaterial, novasCompensacoes, novaBase + novoInicioPesoMaterial, codigosAnteriores);
+		}
+
+		somas = novasSomas;
+		compensacoes = novasCompensacoes;
+		componentes = novosComponentes;
+		inicioPesoMaterial = novoInicioPesoMaterial;
+		areaPorMaterial = new double[codigosMaterial];
+		pesoPorMaterial = new double[codigosMaterial];
+		totalPecasPorMaterial = Arrays.copyOf(totalPecasPorMaterial, codigosMaterial);
+		combinado = false;
+	} // redimensionar(int codigosMaterial)
+
+	/**
+	 *  Acumula uma linha do armazenamento nos totais. A linha deve ser a última do armazenamento ou uma linha já descontada.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha a ser acumulada
+	 *  @param densidades - os pesos específicos indexados pelo código de material
+	 */
+	void acumular(ArmazemPecas armazem, int linha, double[] densidades) {
+		int quantidade = armazem.quantidade(linha), bloco = linha >>> DESLOCAMENTO_BLOCO;
+
+		totalPecas += quantidade;
+		totalPecasPorTipo[armazem.tipo(linha)] += quantidade;
+		totalPecasPorMaterial[armazem.material(linha)] += quantidade;
+
+		if(bloco >= blocos) {
+			usarBlocos(bloco + 1);
+			iniciarBloco(bloco);
+		}
+		// Na soma sequencial, um bloco inválido anterior invalida também as somas acumuladas dos blocos seguintes
+		if(compensado ? !blocosInvalidos.get(bloco) : blocosInvalidos.isEmpty()) {
+			somarLinha(armazem, linha, densidades, bloco * componentes);
+			combinado = false;
+		}
+	} // acumular(ArmazemPecas armazem, int linha, double[] densidades)
+
+	/**
+	 *  Acumula nos totais inteiros as linhas do armazenamento a partir da linha fornecida e invalida os blocos dessas linhas, que serão
+	 *  recalculados (em paralelo, caso possível) na próxima consulta.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param inicio - a primeira linha a ser acumulada
+	 */
+	void acumularLinhas(ArmazemPecas armazem, int inicio) {
+		int fim = armazem.tamanho();
+
+		if(inicio >= fim) {
+			return;
+		}
+
+		for(int linha = inicio; linha < fim; linha++) {
+			int quantidade = armazem.quantidade(linha);
+
+			totalPecas += quantidade;
+			totalPecasPorTipo[armazem.tipo(linha)] += quantidade;
+			totalPecasPorMaterial[armazem.material(linha)] += quantidade;
+		}
+
+		usarBlocos(((fim - 1) >>> DESLOCAMENTO_BLOCO) + 1);
+		blocosInvalidos.set(inicio >>> DESLOCAMENTO_BLOCO, blocos);
+	} // acumularLinhas(ArmazemPecas armazem, int inicio)
+
+	/**
+	 *  Remove dos totais inteiros todas as linhas a partir da linha fornecida e descarta os blocos dessas linhas, antes de as linhas serem
+	 *  substituídas ou deslocadas. As linhas atuais a partir da mesma posição devem ser acumuladas em seguida por acumularLinhas.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param inicio - a primeira linha a ser descontada
+	 */
+	void descontarLinhas(ArmazemPecas armazem, int inicio) {
+		for(int linha = inicio, fim = armazem.tamanho(); linha < fim; linha++) {
+			int quantidade = armazem.quantidade(linha);
+
+			totalPecas -= quantidade;
+			totalPecasPorTipo[armazem.tipo(linha)] -= quantidade;
+			totalPecasPorMaterial[armazem.material(linha)] -= quantidade;
+		}
+
+		int primeiroBloco = inicio >>> DESLOCAMENTO_BLOCO;
+
+		if(primeiroBloco < blocos) {
+			// O bloco da primeira linha pode conter linhas anteriores, que continuam no armazenamento: ele é mantido e recalculado por inteiro
+			int mantidos = (primeiroBloco << DESLOCAMENTO_BLOCO) < inicio ? primeiroBloco + 1 : primeiroBloco;
+
+			blocosInvalidos.clear(mantidos, blocos);
+			if(mantidos > primeiroBloco) {
+				blocosInvalidos.set(primeiroBloco);
+			}
+			blocos = mantidos;
+			combinado = false;
+		}
+	} // descontarLinhas(ArmazemPecas armazem, int inicio)
+
+	/**
+	 *  Remove uma linha dos totais inteiros e invalida o bloco da linha. Deve ser chamado antes de a linha ser modificada.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha que será modificada
+	 */
+	void descontar(ArmazemPecas armazem, int linha) {
+		int quantidade = armazem.quantidade(linha);
+
+		totalPecas -= quantidade;
+		totalPecasPorTipo[armazem.tipo(linha)] -= quantidade;
+		totalPecasPorMaterial[armazem.material(linha)] -= quantidade;
+		blocosInvalidos.set(linha >>> DESLOCAMENTO_BLOCO);
+	} // descontar(ArmazemPecas armazem, int linha)
+
+	/**
+	 *  Invalida os totais reais de todos os blocos, que serão recalculados na próxima consulta.
+	 */
+	void invalidar() {
+		blocosInvalidos.set(0, blocos);
+	}
+
+	/**
+	 *  Recalcula os totais reais dos blocos inválidos. Na soma compensada, cada bloco é recalculado por inteiro e de forma independente, de
+	 *  modo que o resultado é o mesmo com ou sem o pool. Na soma sequencial, os blocos a partir do primeiro inválido são recalculados em
+	 *  ordem, na thread atual.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param densidades - os pesos específicos indexados pelo código de material
+	 *  @param pool - o pool utilizado para recalcular os blocos em paralelo, ou null para recalculá-los na thread atual
+	 */
+	void recalcular(ArmazemPecas armazem, double[] densidades, ForkJoinPool pool) {
+		if(!compensado) {
+			for(int bloco = blocosInvalidos.nextSetBit(0); bloco >= 0 && bloco < blocos; bloco++) {
+				recalcularBloco(armazem, densidades, bloco);
+			}
+		}
+		else {
+			int[] invalidos = blocosInvalidos.stream().toArray();
+
+			if(pool != null && invalidos.length > BLOCOS_POR_TAREFA) {
+				pool.invoke(new RecalculoBlocos(armazem, densidades, invalidos, 0, invalidos.length));
+			}
+			else {
+				for(int bloco : invalidos) {
+					recalcularBloco(armazem, densidades, bloco);
+				}
+			}
+		}
+
+		blocosInvalidos.clear();
+		combinado = false;
+	} // recalcular(ArmazemPecas armazem, double[] densidades, ForkJoinPool pool)
+
+	/**
+	 *  Cria o resumo da estrutura a partir dos totais. Os totais reais devem estar válidos.
+	 *
+	 *  @param consumos - os consumos de tinta indexados pelo código de material
+	 *
+	 *  @return o resumo da estrutura
+	 */
+	ResumoEstrutura resumo(double[] consumos) {
+		combinar();
+
+		double consumoTinta = 0;
+		double[] volumes = new double[volumePorTipo.length];
+
+		for(int material = 0; material < areaPorMaterial.length; material++) {
+			consumoTinta += consumos[material] * areaPorMaterial[material];
+		}
+		consumoTinta = EstruturaMetalica.converterParaLitros(consumoTinta);
+
+		for(int tipo = Estrutura.CILINDRO; tipo <= Estrutura.PARALELEPIPEDO; tipo++) {
+			volumes[tipo] = Math.round(volumePorTipo[tipo] * CEM) / CEM;
+		}
+
+		return new ResumoEstrutura(pesoTotal, Math.round(volumeTotal * CEM) / CEM, consumoTinta, Mercado.calculaLatasDeTinta(consumoTinta), totalPecas,
+				totalPecasPorTipo.clone(), volumes, totalPecasPorMaterial.clone(), pesoPorMaterial.clone());
+	} // resumo(double[] consumos)
+
+	/**
+	 *  Função auxiliar que combina os totais reais dos blocos: na soma compensada, sempre na ordem dos blocos e com soma compensada; na soma
+	 *  sequencial, os totais são os do último bloco.
+	 */
+	private void combinar() {
+		if(combinado) {
+			return;
+		}
+
+		double[] soma = new double[componentes], compensacao = new double[componentes];
+
+		if(compensado) {
+			for(int bloco = 0; bloco < blocos; bloco++) {
+				for(int c = 0, base = bloco * componentes; c < componentes; c++) {
+					somar(soma, compensacao, c, somas[base + c] + compensacoes[base + c]);
+				}
+			}
+		}
+		else if(blocos > 0) {
+			System.arraycopy(somas, (blocos - 1) * componentes, soma, 0, componentes);
+		}
+
+		pesoTotal = soma[PESO] + compensacao[PESO];
+		volumeTotal = soma[VOLUME] + compensacao[VOLUME];
+		for(int tipo = Estrutura.CILINDRO; tipo <= Estrutura.PARALELEPIPEDO; tipo++) {
+			volumePorTipo[tipo] = soma[VOLUME_TIPO + tipo] + compensacao[VOLUME_TIPO + tipo];
+		}
+		for(int material = 0; material < areaPorMaterial.length; material++) {
+			areaPorMaterial[material] = soma[AREA + material] + compensacao[AREA + material];
+			pesoPorMaterial[material] = soma[inicioPesoMaterial + material] + compensacao[inicioPesoMaterial + material];
+		}
+		combinado = true;
+	} // combinar()
+
+	/**
+	 *  Função auxiliar que recalcula os totais reais de um bloco, somando as suas linhas em ordem. Na soma sequencial, o bloco anterior já
+	 *  deve estar válido.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param densidades - os pesos específicos indexados pelo código de material
+	 *  @param bloco - o bloco a ser recalculado
+	 */
+	private void recalcularBloco(ArmazemPecas armazem, double[] densidades, int bloco) {
+		int base = bloco * componentes, inicio = bloco << DESLOCAMENTO_BLOCO;
+		int fim = Math.min(armazem.tamanho(), inicio + LINHAS_POR_BLOCO);
+
+		iniciarBloco(bloco);
+		for(int linha = inicio; linha < fim; linha++) {
+			somarLinha(armazem, linha, densidades, base);
+		}
+	} // recalcularBloco(ArmazemPecas armazem, double[] densidades, int bloco)
+
+	/**
+	 *  Função auxiliar que soma os totais reais de uma linha nos totais do seu bloco.
+	 *
+	 *  @param armazem - o armazenamento das peças
+	 *  @param linha - a linha a ser somada
+	 *  @param densidades - os pesos específicos indexados pelo código de material
+	 *  @param base - posição dos totais do bloco
+	 */
+	private void somarLinha(ArmazemPecas armazem, int linha, double[] densidades, int base) {
+		int quantidade = armazem.quantidade(linha);
+		int tipo = armazem.tipo(linha), material = armazem.material(linha);
+		double volume = quantidade * armazem.volume(linha), peso = EstruturaMetalica.converterParaKG(densidades[material], volume);
+
+		double area = quantidade * armazem.area(linha);
+
+		if(compensado) {
+			somar(somas, compensacoes, base + PESO, peso);
+			somar(somas, compensacoes, base + inicioPesoMaterial + material, peso);
+			somar(somas, compensacoes, base + VOLUME, volume);
+			somar(somas, compensacoes, base + VOLUME_TIPO + tipo, volume);
+			somar(somas, compensacoes, base + AREA + material, area);
+		}
+		else {
+			somas[base + PESO] += peso;
+			somas[base + inicioPesoMaterial + material] += peso;
+			somas[base + VOLUME] += volume;
+			somas[base + VOLUME_TIPO + tipo] += volume;
+			somas[base + AREA + material] += area;
+		}
+	} // somarLinha(ArmazemPecas armazem, int linha, double[] densidades, int base)
+
+	/**
+	 *  Função auxiliar que inicia os totais de um bloco antes de as suas linhas serem somadas: com zero na soma compensada e com os totais do
+	 *  bloco anterior na soma sequencial.
+	 *
+	 *  @param bloco - o bloco a ser iniciado
+	 */
+	private void iniciarBloco(int bloco) {
+		int base = bloco * componentes;
+
+		if(compensado || bloco == 0) {
+			Arrays.fill(somas, base, base + componentes, 0);
+		}
+		else {
+			System.arraycopy(somas, base - componentes, somas, base, componentes);
+		}
+		Arrays.fill(compensacoes, base, base + componentes, 0);
+	} // iniciarBloco(int bloco)
+
+	/**
+	 *  Função auxiliar que garante espaço para a quantidade de blocos fornecida.
+	 *
+	 *  @param quantidadeBlocos - a quantidade de blocos em uso
+	 */
+	private void usarBlocos(int quantidadeBlocos) {
+		if(quantidadeBlocos * componentes > somas.length) {
+			int tamanho = Math.max(quantidadeBlocos * componentes, somas.length * 2);
+			somas = Arrays.copyOf(somas, tamanho);
+			compensacoes = Arrays.copyOf(compensacoes, tamanho);
+		}
+		blocos = Math.max(blocos, quantidadeBlocos);
+	} // usarBlocos(int quantidadeBlocos)
+
+	/**
+	 *  Função auxiliar que soma um valor com compensação do erro de arredondamento (Kahan-Neumaier).
+	 *
+	 *  @param somas - as somas
+	 *  @param compensacoes - as compensações de cada soma
+	 *  @param posicao - posição da soma
+	 *  @param valor - o valor a ser somado
+	 */
+	private static void somar(double[] somas, double[] compensacoes, int posicao, double valor) {
+		double soma = somas[posicao], resultado = soma + valor;
+
+		compensacoes[posicao] += Math.abs(soma) >= Math.abs(valor) ? (soma - resultado) + valor : (valor - resultado) + soma;
+		somas[posicao] = resultado;
+	} // somar(double[] somas, double[] compensacoes, int posicao, double valor)
+
+	/**
+	 *  Tarefa que recalcula um intervalo dos blocos inválidos, dividindo-o entre as threads do pool. Cada bloco escreve apenas nas suas
+	 *  próprias posições das somas.
+	 */
+	private final class RecalculoBlocos extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		// A tarefa só existe durante o recálculo e nunca é serializada
+		private final transient ArmazemPecas armazem;
+		private final transient double[] densidades;
+		private final transient int[] invalidos;
+		private final int inicio, fim;
+
+		/**
+		 *  Inicializa a tarefa que recalcula os blocos invalidos[inicio] até invalidos[fim - 1].
+		 */
+		RecalculoBlocos(ArmazemPecas armazem, double[] densidades, int[] invalidos, int inicio, int fim) {
+			this.armazem = armazem;
+			this.densidades = densidades;
+			this.invalidos = invalidos;
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		@Override
+		protected void compute() {
+			if(fim - inicio <= BLOCOS_POR_TAREFA) {
+				for(int i = inicio; i < fim; i++) {
+					recalcularBloco(armazem, densidades, invalidos[i]);
+				}
+			}
+			else {
+				int meio = (inicio + fim) >>> 1;
+				invokeAll(new RecalculoBlocos(armazem, densidades, invalidos, inicio, meio),
+						new RecalculoBlocos(armazem, densidades, invalidos, meio, fim));
+			}
+		}
+	} // class RecalculoBlocos
+} // class TotaisEstrutura
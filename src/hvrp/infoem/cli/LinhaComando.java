@@ -0,0 +1,619 @@
+package hvrp.infoem.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import hvrp.infoem.CatalogoMateriais;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Peca;
+import hvrp.infoem.RelatorioPecas;
+import hvrp.infoem.ResumoEstrutura;
+import hvrp.infoem.TipoDimensao;
+import hvrp.infoem.importacao.ImportadorCSV;
+import hvrp.infoem.importacao.MonitorCSV;
+import hvrp.infoem.lote.ProcessamentoLote;
+import hvrp.infoem.servico.ServicoCalculo;
+
+import static hvrp.infoem.Estrutura.CILINDRO;
+import static hvrp.infoem.Estrutura.CUBO;
+import static hvrp.infoem.Estrutura.PARALELEPIPEDO;
+
+/**
+ *  Essa classe executa o programa pela linha de comando, sem janela: importa um arquivo de peças, escreve os relatórios pedidos em texto
+ *  ou JSON na saída padrão (ou em um arquivo) e termina com um código de saída que indica o resultado. Nenhuma classe de interface
+ *  gráfica (mos.io.InputOutput, AWT ou Swing) é carregada, portanto o programa inicia rapidamente e funciona sem monitor.
+ *
+ *  Uso: LinhaComando [arquivo] [--formato texto|json] [--secoes relatorioEM,relatorioPecas] [--materiais arquivo] [--saida arquivo]
+ *  [--copia arquivo] [--monitorar | --lote origem | --servidor [--porta número]]
+ *
+ *  O arquivo pode ser um .csv ou uma cópia binária (.emb) gravada por EstruturaMetalica.salvar(Path); sem arquivo, é utilizado o mesmo
+ *  arquivo de EM. Sem --secoes, apenas o relatório base (relatorioEM) é escrito. Com --copia, a estrutura importada também é gravada
+ *  em uma cópia binária (EstruturaMetalica.salvar(Path, Path)), que EM carrega em vez do arquivo .csv enquanto ele não mudar.
+ *
+ *  Os demais modos sem janela também são executados por essa classe:<br>
+ *  <strong>- --monitorar:</strong> o arquivo .csv é acompanhado (hvrp.infoem.importacao.MonitorCSV) e os relatórios são escritos
+ *  novamente a cada alteração, até que o programa seja encerrado.<br>
+ *  <strong>- --lote:</strong> todos os arquivos .csv da origem (um diretório, um padrão como csv/*.csv ou um único arquivo) são processados
+ *  de uma só vez (hvrp.infoem.lote.ProcessamentoLote), com os relatórios escritos no diretório de --saida (relatorios, por padrão).<br>
+ *  <strong>- --servidor:</strong> o serviço HTTP de cálculo (hvrp.infoem.servico.ServicoCalculo) é iniciado na porta fornecida e atende
+ *  as requisições até que o programa seja encerrado.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class LinhaComando {
+	/**
+	 *  Códigos de saída: sucesso, erro na importação (arquivo inexistente ou inválido), argumentos inválidos e erro na escrita da saída.
+	 */
+	public final static int SUCESSO = 0, ERRO_IMPORTACAO = 1, ERRO_ARGUMENTOS = 2, ERRO_SAIDA = 3;
+
+	/**
+	 *  Argumentos aceitos.
+	 */
+	private final static String ARGUMENTO_FORMATO = "--formato", ARGUMENTO_SECOES = "--secoes", ARGUMENTO_MATERIAIS = "--materiais",
+			ARGUMENTO_SAIDA = "--saida", ARGUMENTO_AJUDA = "--ajuda", ARGUMENTO_MONITORAR = "--monitorar", ARGUMENTO_LOTE = "--lote",
+			ARGUMENTO_SERVIDOR = "--servidor", ARGUMENTO_PORTA = "--porta", ARGUMENTO_COPIA = "--copia";
+
+	/**
+	 *  Caminhos padrão do arquivo de peças e do arquivo de materiais (os mesmos de EM).
+	 */
+	private final static String CAMINHO_PADRAO = "csv/MetalStructure.csv", MATERIAIS_PADRAO = "csv/Materiais.csv";
+
+	/**
+	 *  Diretório padrão dos relatórios do processamento em lote.
+	 */
+	private final static String DIRETORIO_RELATORIOS = "relatorios";
+
+	/**
+	 *  Extensão das cópias binárias da estrutura.
+	 */
+	private final static String EXTENSAO_BINARIA = ".emb";
+
+	/**
+	 *  Texto de uso e mensagens de erro.
+	 */
+	private final static String USO = "Uso: LinhaComando [arquivo] [--formato texto|json] [--secoes relatorioEM,relatorioPecas] "
+			+ "[--materiais arquivo] [--saida arquivo] [--copia arquivo] [--monitorar | --lote origem | --servidor [--porta número]]";
+	private final static String ARGUMENTO_DESCONHECIDO = "Argumento desconhecido: %s";
+	private final static String VALOR_AUSENTE = "O argumento %s precisa de um valor!";
+	private final static String FORMATO_INVALIDO = "Formato inválido: %s (utilize texto ou json)";
+	private final static String SECAO_INVALIDA = "Seção inválida: %s (utilize relatorioEM ou relatorioPecas)";
+	private final static String ERRO_LEITURA = "Não foi possível importar %s: %s";
+	private final static String ARQUIVO_INEXISTENTE = "arquivo não encontrado";
+	private final static String ERRO_ESCRITA = "Não foi possível escrever o relatório: %s";
+	private final static String MODOS_INCOMPATIVEIS = "Utilize apenas um dos argumentos --monitorar, --lote e --servidor!";
+	private final static String COPIA_INCOMPATIVEL = "O argumento --copia não pode ser utilizado com --monitorar, --lote ou --servidor!";
+	private final static String ERRO_COPIA = "Não foi possível gravar a cópia binária %s: %s";
+	private final static String PORTA_INVALIDA = "Porta inválida: %s";
+	private final static String ATUALIZADA = "\nEstrutura atualizada: %d peça(s) convertida(s) em %d ms.%n";
+	private final static String NAO_ATUALIZADA = "\nA estrutura não foi atualizada: %s%n";
+	private final static String SERVICO_INICIADO = "Serviço de cálculo iniciado em http://localhost:%d/estruturas%n";
+
+	/**
+	 *  Formatos de saída.
+	 */
+	enum Formato {
+		TEXTO, JSON
+	}
+
+	/**
+	 *  Seções do relatório, com os nomes dos relatórios de EM.
+	 */
+	enum Secao {
+		RELATORIO_EM("relatorioEM"), RELATORIO_PECAS("relatorioPecas");
+
+		/**
+		 *  Nome da seção na linha de comando.
+		 */
+		private final String nome;
+
+		/**
+		 *  Inicializa uma seção com o nome fornecido.
+		 *
+		 *  @param nome - o nome da seção
+		 */
+		Secao(String nome) {
+			this.nome = nome;
+		}
+	}
+
+	/**
+	 *  Construtor privado: a classe possui apenas métodos estáticos.
+	 */
+	private LinhaComando() {}
+
+	/**
+	 *  Executa o programa com os argumentos fornecidos. Em caso de erro, a JVM é encerrada com o código de saída obtido; com --servidor, a
+	 *  JVM continua em execução enquanto o serviço atende as requisições.
+	 *
+	 *  @param args - os argumentos da linha de comando
+	 */
+	public static void main(String[] args) {
+		int codigo = executar(args);
+
+		if(codigo != SUCESSO) {
+			System.exit(codigo);
+		}
+	}
+
+	/**
+	 *  Executa o programa com os argumentos fornecidos, sem encerrar a JVM. Os relatórios são escritos na saída padrão (ou no arquivo de
+	 *  --saida) e os erros, na saída de erros. Com --monitorar, só retorna quando a thread é interrompida; com --servidor, retorna assim
+	 *  que o serviço é iniciado.
+	 *
+	 *  @param args - os argumentos da linha de comando
+	 *
+	 *  @return o código de saída: SUCESSO, ERRO_IMPORTACAO, ERRO_ARGUMENTOS ou ERRO_SAIDA
+	 */
+	public static int executar(String[] args) {
+		Path arquivo = Path.of(CAMINHO_PADRAO), materiais = null, saida = null, copia = null;
+		Formato formato = Formato.TEXTO;
+		Set<Secao> secoes = EnumSet.of(Secao.RELATORIO_EM);
+		boolean arquivoInformado = false, monitorar = false, servidor = false;
+		String lote = null;
+		int porta = ServicoCalculo.PORTA_PADRAO;
+
+		try {
+			for(int i = 0; i < args.length; i++) {
+				switch(args[i]) {
+					case ARGUMENTO_AJUDA -> {
+						System.out.println(USO);
+						return SUCESSO;
+					}
+					case ARGUMENTO_FORMATO -> formato = formato(valor(args, ++i));
+					case ARGUMENTO_SECOES -> secoes = secoes(valor(args, ++i));
+					case ARGUMENTO_MATERIAIS -> materiais = Path.of(valor(args, ++i));
+					case ARGUMENTO_SAIDA -> saida = Path.of(valor(args, ++i));
+					case ARGUMENTO_MONITORAR -> monitorar = true;
+					case ARGUMENTO_LOTE -> lote = valor(args, ++i);
+					case ARGUMENTO_SERVIDOR -> servidor = true;
+					case ARGUMENTO_PORTA -> porta = porta(valor(args, ++i));
+					case ARGUMENTO_COPIA -> copia = Path.of(valor(args, ++i));
+					default -> {
+						// Apenas um arquivo de peças pode ser informado
+						if(args[i].startsWith("--") || arquivoInformado)
+							throw new IllegalArgumentException(String.format(ARGUMENTO_DESCONHECIDO, args[i]));
+						arquivo = Path.of(args[i]);
+						arquivoInformado = true;
+					}
+				}
+			}
+			int modos = (monitorar ? 1 : 0) + (lote != null ? 1 : 0) + (servidor ? 1 : 0);
+			if(modos > 1)
+				throw new IllegalArgumentException(MODOS_INCOMPATIVEIS);
+			if(modos > 0 && copia != null)
+				throw new IllegalArgumentException(COPIA_INCOMPATIVEL);
+		}
+		catch(IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USO);
+			return ERRO_ARGUMENTOS;
+		}
+
+		try {
+			carregarCatalogo(materiais);
+		}
+		catch(IOException | IllegalArgumentException e) {
+			System.err.println(String.format(ERRO_LEITURA, materiais == null ? MATERIAIS_PADRAO : materiais, e.getMessage()));
+			return ERRO_IMPORTACAO;
+		}
+
+		if(monitorar)
+			return monitorar(arquivo, formato, secoes, saida);
+		if(lote != null)
+			return processarLote(lote, saida == null ? Path.of(DIRETORIO_RELATORIOS) : saida);
+		if(servidor)
+			return iniciarServidor(porta);
+
+		EstruturaMetalica estrutura = new EstruturaMetalica();
+		try {
+			importar(estrutura, arquivo);
+		}
+		catch(IOException | UncheckedIOException | IllegalArgumentException e) {
+			if(e instanceof NoSuchFileException inexistente)
+				System.err.println(String.format(ERRO_LEITURA, inexistente.getFile(), ARQUIVO_INEXISTENTE));
+			else
+				System.err.println(String.format(ERRO_LEITURA, arquivo, e.getMessage()));
+			return ERRO_IMPORTACAO;
+		}
+
+		try {
+			escrever(estrutura, formato, secoes, saida);
+		}
+		catch(IOException e) {
+			System.err.println(String.format(ERRO_ESCRITA, e.getMessage()));
+			return ERRO_SAIDA;
+		}
+
+		if(copia != null) {
+			try {
+				salvarCopia(estrutura, arquivo, copia);
+			}
+			catch(IOException e) {
+				System.err.println(String.format(ERRO_COPIA, copia, e.getMessage()));
+				return ERRO_SAIDA;
+			}
+		}
+		return SUCESSO;
+	} // executar(String[] args)
+
+	/**
+	 *  Função auxiliar que acompanha o arquivo .csv até que a thread seja interrompida. A cada alteração do arquivo, somente as linhas
+	 *  modificadas são reimportadas e os relatórios são escritos novamente, junto com o número de peças convertidas e o tempo da
+	 *  atualização. Os erros de uma atualização (por exemplo, uma linha inválida) são escritos na saída de erros e a estrutura volta a ser
+	 *  atualizada assim que o arquivo é corrigido.
+	 *
+	 *  @param arquivo - o arquivo .csv acompanhado
+	 *  @param formato - o formato de saída
+	 *  @param secoes - as seções pedidas
+	 *  @param saida - o arquivo reescrito a cada alteração, ou null para a saída padrão
+	 *
+	 *  @return SUCESSO, ou ERRO_IMPORTACAO caso não seja possível acompanhar o arquivo
+	 */
+	private static int monitorar(Path arquivo, Formato formato, Set<Secao> secoes, Path saida) {
+		EstruturaMetalica estrutura = new EstruturaMetalica();
+		MonitorCSV monitor = new MonitorCSV(new ImportadorCSV(estrutura), arquivo);
+
+		try {
+			monitor.monitorar(convertidas -> {
+				System.out.printf(ATUALIZADA, convertidas, TimeUnit.NANOSECONDS.toMillis(monitor.getDuracao()));
+				try {
+					escrever(estrutura, formato, secoes, saida);
+				}
+				catch(IOException e) {
+					System.err.println(String.format(ERRO_ESCRITA, e.getMessage()));
+				}
+			}, erro -> System.err.printf(NAO_ATUALIZADA, erro.getMessage()));
+		}
+		catch(IOException e) {
+			System.err.println(String.format(ERRO_LEITURA, arquivo, e.getMessage()));
+			return ERRO_IMPORTACAO;
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return SUCESSO;
+	} // monitorar(Path arquivo, Formato formato, Set<Secao> secoes, Path saida)
+
+	/**
+	 *  Função auxiliar que processa todos os arquivos .csv de uma origem, cada um em uma thread virtual (ProcessamentoLote). Um relatório
+	 *  de cada arquivo e o resumo de todos eles são escritos no diretório de destino, e o resumo também é escrito na saída padrão.
+	 *
+	 *  @param origem - o diretório, o padrão ou o arquivo
+	 *  @param destino - o diretório dos relatórios
+	 *
+	 *  @return SUCESSO, ERRO_IMPORTACAO caso não seja possível ler a origem ou ERRO_SAIDA caso não seja possível escrever o resumo
+	 */
+	private static int processarLote(String origem, Path destino) {
+		List<Path> arquivos;
+
+		try {
+			arquivos = ProcessamentoLote.listarArquivos(origem);
+		}
+		catch(IOException e) {
+			System.err.println(String.format(ERRO_LEITURA, origem, e.getMessage()));
+			return ERRO_IMPORTACAO;
+		}
+
+		try {
+			System.out.print(ProcessamentoLote.textoResumo(new ProcessamentoLote().processar(arquivos, destino)));
+		}
+		catch(IOException e) {
+			System.err.println(String.format(ERRO_ESCRITA, e.getMessage()));
+			return ERRO_SAIDA;
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return SUCESSO;
+	} // processarLote(String origem, Path destino)
+
+	/**
+	 *  Função auxiliar que inicia o serviço HTTP de cálculo na porta fornecida do endereço local. O serviço continua atendendo as
+	 *  requisições até que o programa seja encerrado.
+	 *
+	 *  @param porta - a porta do serviço
+	 *
+	 *  @return SUCESSO, ou ERRO_ARGUMENTOS caso não seja possível utilizar a porta
+	 */
+	private static int iniciarServidor(int porta) {
+		try {
+			ServicoCalculo servico = new ServicoCalculo(porta);
+
+			servico.iniciar();
+			System.out.printf(SERVICO_INICIADO, servico.getPorta());
+			return SUCESSO;
+		}
+		catch(IOException e) {
+			System.err.println(String.format(PORTA_INVALIDA, porta) + " (" + e.getMessage() + ")");
+			return ERRO_ARGUMENTOS;
+		}
+	} // iniciarServidor(int porta)
+
+	/**
+	 *  Função auxiliar que escreve as seções pedidas no formato fornecido, na saída padrão ou em um arquivo.
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param formato - o formato de saída
+	 *  @param secoes - as seções pedidas
+	 *  @param saida - o arquivo do relatório, ou null para a saída padrão
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	private static void escrever(EstruturaMetalica estrutura, Formato formato, Set<Secao> secoes, Path saida) throws IOException {
+		if(saida == null) {
+			// A saída padrão não é fechada, apenas esvaziada
+			Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+			escrever(estrutura, formato, secoes, writer);
+			writer.flush();
+		}
+		else {
+			try(Writer writer = Files.newBufferedWriter(saida, StandardCharsets.UTF_8)) {
+				escrever(estrutura, formato, secoes, writer);
+			}
+		}
+	} // escrever(EstruturaMetalica estrutura, Formato formato, Set<Secao> secoes, Path saida)
+
+	/**
+	 *  Função auxiliar que escreve as seções pedidas no formato fornecido.
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param formato - o formato de saída
+	 *  @param secoes - as seções pedidas
+	 *  @param writer - onde o relatório é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	private static void escrever(EstruturaMetalica estrutura, Formato formato, Set<Secao> secoes, Writer writer) throws IOException {
+		if(formato == Formato.JSON)
+			escreverJSON(estrutura, secoes, writer);
+		else
+			escreverTexto(estrutura, secoes, writer);
+	}
+
+	/**
+	 *  Função auxiliar que escreve as seções pedidas em texto, nos mesmos formatos dos relatórios de EM.
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param secoes - as seções pedidas
+	 *  @param writer - onde o relatório é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	private static void escreverTexto(EstruturaMetalica estrutura, Set<Secao> secoes, Writer writer) throws IOException {
+		ResumoEstrutura resumo = estrutura.obterResumo();
+
+		if(secoes.contains(Secao.RELATORIO_EM)) {
+			writer.write(RelatorioPecas.textoResumo(resumo));
+		}
+		if(secoes.contains(Secao.RELATORIO_PECAS)) {
+			RelatorioPecas relatorio = new RelatorioPecas();
+
+			writer.write('\n');
+			relatorio.escreverPecas(estrutura, writer);
+			writer.write(RelatorioPecas.textoTotalPecas(resumo));
+			writer.write("\n- ÁREA E DIMENSÕES:\n");
+			relatorio.escreverAreaEDimensoes(estrutura, writer);
+		}
+	} // escreverTexto(EstruturaMetalica estrutura, Set<Secao> secoes, Writer writer)
+
+	/**
+	 *  Função auxiliar que escreve as seções pedidas em um objeto JSON, com uma propriedade para cada seção. O relatório base utiliza os
+	 *  nomes dos métodos da interface Estrutura (como o serviço de cálculo), e o relatório de peças lista cada peça em ordem alfabética,
+	 *  com a sua área e as suas dimensões.
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param secoes - as seções pedidas
+	 *  @param writer - onde o relatório é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	private static void escreverJSON(EstruturaMetalica estrutura, Set<Secao> secoes, Writer writer) throws IOException {
+		ResumoEstrutura resumo = estrutura.obterResumo();
+		String separador = "";
+
+		writer.write('{');
+		if(secoes.contains(Secao.RELATORIO_EM)) {
+			writer.write("\"relatorioEM\":{\"pesoTotal\":" + resumo.getPesoTotal() + ",\"volumeTotal\":" + resumo.getVolumeTotal()
+					+ ",\"numeroDeLatasDeTinta\":[" + resumo.getLatasDeTinta(0) + ',' + resumo.getLatasDeTinta(1) + ','
+					+ resumo.getLatasDeTinta(2) + "],\"volumeTotalPeca\":{\"cilindro\":" + resumo.getVolumeTotal(CILINDRO)
+					+ ",\"cubo\":" + resumo.getVolumeTotal(CUBO) + ",\"paralelepipedo\":" + resumo.getVolumeTotal(PARALELEPIPEDO) + "}}");
+			separador = ",";
+		}
+		if(secoes.contains(Secao.RELATORIO_PECAS)) {
+			writer.write(separador + "\"relatorioPecas\":{\"totalPecas\":" + resumo.getTotalPecas() + ",\"totalPecasPorTipo\":{\"cilindro\":"
+					+ resumo.getTotalPecas(CILINDRO) + ",\"cubo\":" + resumo.getTotalPecas(CUBO) + ",\"paralelepipedo\":"
+					+ resumo.getTotalPecas(PARALELEPIPEDO) + "},\"pecas\":[");
+
+			String virgula = "";
+			for(Peca peca : estrutura.obterPecasPorNome()) {
+				writer.write(virgula + "{\"nome\":");
+				escreverTextoJSON(peca.getNome(), writer);
+				writer.write(",\"tipo\":\"" + peca.getClass().getSimpleName() + "\",\"quantidade\":" + peca.getQuantidade() + ",\"material\":");
+				escreverTextoJSON(peca.getMaterial() == null ? null : peca.getMaterial().getNome(), writer);
+				writer.write(",\"area\":" + peca.area() + ",\"dimensoes\":{");
+
+				List<TipoDimensao> dimensoes = peca.getTiposDimensao();
+				for(int i = 0; i < dimensoes.size(); i++) {
+					TipoDimensao dimensao = dimensoes.get(i);
+					writer.write((i == 0 ? "\"" : ",\"") + dimensao.getNome().toLowerCase(Locale.ROOT) + "\":" + peca.getDimensao(dimensao));
+				}
+				writer.write("}}");
+				virgula = ",";
+			}
+			writer.write("]}");
+		}
+		writer.write("}\n");
+	} // escreverJSON(EstruturaMetalica estrutura, Set<Secao> secoes, Writer writer)
+
+	/**
+	 *  Função auxiliar que escreve um texto JSON entre aspas (ou null), escapando as aspas, as barras e os caracteres de controle.
+	 *
+	 *  @param texto - o texto
+	 *  @param writer - onde o texto é escrito
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	private static void escreverTextoJSON(String texto, Writer writer) throws IOException {
+		if(texto == null) {
+			writer.write("null");
+			return;
+		}
+
+		writer.write('"');
+		for(int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+
+			if(c == '"' || c == '\\')
+				writer.write("\\" + c);
+			else if(c < ' ')
+				writer.write(String.format("\\u%04x", (int) c));
+			else
+				writer.write(c);
+		}
+		writer.write('"');
+	} // escreverTextoJSON(String texto, Writer writer)
+
+	/**
+	 *  Função auxiliar que carrega o catálogo de materiais do arquivo fornecido ou, sem arquivo, do arquivo padrão, caso ele exista.
+	 *
+	 *  @param materiais - o arquivo de materiais, ou null
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 *  @throws IllegalArgumentException caso seja encontrado um material inválido ou um valor numérico inválido
+	 */
+	private static void carregarCatalogo(Path materiais) throws IOException, IllegalArgumentException {
+		Path arquivo = materiais == null ? Path.of(MATERIAIS_PADRAO) : materiais;
+
+		if(materiais != null || Files.exists(arquivo)) {
+			CatalogoMateriais.carregar(arquivo);
+		}
+	}
+
+	/**
+	 *  Função auxiliar que importa as peças do arquivo fornecido: uma cópia binária (.emb) é carregada diretamente, e qualquer outro
+	 *  arquivo é importado como .csv.
+	 *
+	 *  @param estrutura - a estrutura que recebe as peças
+	 *  @param arquivo - o arquivo de peças
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 *  @throws IllegalArgumentException caso seja encontrada uma peça ou um valor inválido
+	 */
+	private static void importar(EstruturaMetalica estrutura, Path arquivo) throws IOException, IllegalArgumentException {
+		if(arquivo.toString().endsWith(EXTENSAO_BINARIA))
+			estrutura.carregar(arquivo);
+		else
+			new ImportadorCSV(estrutura).importar(arquivo);
+	}
+
+	/**
+	 *  Função auxiliar que grava a cópia binária da estrutura. A cópia de um arquivo .csv registra o tamanho e a data de modificação do
+	 *  arquivo, e a de outra cópia binária não registra a origem.
+	 *
+	 *  @param estrutura - a estrutura importada
+	 *  @param arquivo - o arquivo de peças importado
+	 *  @param copia - o arquivo da cópia binária
+	 *
+	 *  @throws IOException caso ocorra algum problema na gravação da cópia
+	 */
+	private static void salvarCopia(EstruturaMetalica estrutura, Path arquivo, Path copia) throws IOException {
+		if(arquivo.toString().endsWith(EXTENSAO_BINARIA))
+			estrutura.salvar(copia);
+		else
+			estrutura.salvar(copia, arquivo);
+	}
+
+	/**
+	 *  Função auxiliar que obtém o valor de um argumento.
+	 *
+	 *  @param args - os argumentos da linha de comando
+	 *  @param indice - a posição do valor
+	 *
+	 *  @return o valor do argumento
+	 *
+	 *  @throws IllegalArgumentException caso o argumento não possua valor
+	 */
+	private static String valor(String[] args, int indice) throws IllegalArgumentException {
+		if(indice >= args.length)
+			throw new IllegalArgumentException(String.format(VALOR_AUSENTE, args[indice - 1]));
+		return args[indice];
+	}
+
+	/**
+	 *  Função auxiliar que converte o valor de --porta.
+	 *
+	 *  @param valor - o valor do argumento
+	 *
+	 *  @return a porta
+	 *
+	 *  @throws IllegalArgumentException caso a porta não seja um número entre 0 e 65535
+	 */
+	private static int porta(String valor) throws IllegalArgumentException {
+		try {
+			int porta = Integer.parseInt(valor);
+
+			if(porta >= 0 && porta <= 0xFFFF)
+				return porta;
+		}
+		catch(NumberFormatException e) {
+			// A mensagem de porta inválida é mais clara que a da conversão
+		}
+		throw new IllegalArgumentException(String.format(PORTA_INVALIDA, valor));
+	} // porta(String valor)
+
+	/**
+	 *  Função auxiliar que converte o valor de --formato.
+	 *
+	 *  @param valor - o valor do argumento
+	 *
+	 *  @return o formato de saída
+	 *
+	 *  @throws IllegalArgumentException caso o formato seja desconhecido
+	 */
+	private static Formato formato(String valor) throws IllegalArgumentException {
+		for(Formato formato : Formato.values()) {
+			if(formato.name().equalsIgnoreCase(valor))
+				return formato;
+		}
+		throw new IllegalArgumentException(String.format(FORMATO_INVALIDO, valor));
+	}
+
+	/**
+	 *  Função auxiliar que converte o valor de --secoes (nomes separados por vírgula).
+	 *
+	 *  @param valor - o valor do argumento
+	 *
+	 *  @return as seções pedidas
+	 *
+	 *  @throws IllegalArgumentException caso alguma seção seja desconhecida
+	 */
+	private static Set<Secao> secoes(String valor) throws IllegalArgumentException {
+		Set<Secao> secoes = EnumSet.noneOf(Secao.class);
+
+		proxima:
+		for(String nome : valor.split(",")) {
+			for(Secao secao : Secao.values()) {
+				if(secao.nome.equals(nome.strip())) {
+					secoes.add(secao);
+					continue proxima;
+				}
+			}
+			throw new IllegalArgumentException(String.format(SECAO_INVALIDA, nome.strip()));
+		}
+		return secoes;
+	} // secoes(String valor)
+} // class LinhaComando
@@ -0,0 +1,7 @@
+/**
+ *  Armazena os modos do programa sem janela, executados pela linha de comando.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *  @version 0.1
+ */
+package hvrp.infoem.cli;
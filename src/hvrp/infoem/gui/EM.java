@@ -1,18 +1,23 @@
 package hvrp.infoem.gui;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
+import hvrp.infoem.CatalogoMateriais;
 import hvrp.infoem.Estrutura;
 import hvrp.infoem.EstruturaMetalica;
-import hvrp.infoem.Paralelepipedo;
-import hvrp.infoem.Peca;
-import hvrp.infoem.Cubo;
-import hvrp.infoem.Cilindro;
-import mos.reader.Line;
-import mos.reader.Reader;
-import static mos.reader.Reader.*;
+import hvrp.infoem.RelatorioPecas;
+import hvrp.infoem.ResumoEstrutura;
+import hvrp.infoem.importacao.ImportadorCSV;
+import hvrp.infoem.metricas.EstruturaMedida;
+import hvrp.infoem.metricas.Fase;
+import hvrp.infoem.metricas.MedicaoFase;
+import hvrp.infoem.metricas.RegistroMetricas;
 import static mos.io.InputOutput.*;
 
 /**
@@ -28,6 +33,11 @@ public class EM implements Estrutura {
 	 */
 	private EstruturaMetalica estruturaMetalica;
 	
+	/**
+	 *  Medições das fases executadas (hvrp.infoem.metricas.MedicaoFase), na ordem de execução.
+	 */
+	private final List<MedicaoFase> fases;
+	
 	/**
 	 *  Representa o diretório onde estará o arquivo com as informações da estrutura metálica.
 	 */
@@ -43,23 +53,38 @@ public class EM implements Estrutura {
 	 */
 	private final static String CAMINHO = String.format("%s%c%s", DIRETORIO, File.separatorChar, ARQUIVO);
 	
+	/**
+	 *  Representa o caminho completo do arquivo com os materiais das peças (peso específico e consumo de tinta de cada material).
+	 */
+	private final static String CAMINHO_MATERIAIS = String.format("%s%c%s", DIRETORIO, File.separatorChar, "Materiais.csv");
+	
+	/**
+	 *  Representa o caminho completo da cópia binária da estrutura metálica, carregada em vez do arquivo .csv enquanto corresponder a ele.
+	 *  A cópia não é gravada por EM: ela é gravada explicitamente pela linha de comando (hvrp.infoem.cli.LinhaComando --copia).
+	 */
+	private final static String CAMINHO_BINARIO = String.format("%s%c%s", DIRETORIO, File.separatorChar, "MetalStructure.emb");
+	
 	/**
 	 *  Representa uma mensagem que será vista se a exceção IllegalArgumentException for disparada na leitura do tipo de peça da estrutura.
 	 */
 	private final static String PECA_INVALIDA = "Tipo de peça fornecido é inválido!";
 	
 	/**
-	 *  Representa uma mensagem que será vista se a exceção IllegalArgumentException for disparada na leitura do material da peça da estrutura.
+	 *  Representa o argumento que acrescenta ao relatório o resumo dos tempos de cada fase e a latência das operações medidas.
 	 */
-	private final static String	MATERIAL_INVALIDO = "Material fornecido é inválido!"; 
+	private final static String ARGUMENTO_TEMPOS = "--tempos";
 	
 	/**
-	 *  Chama o construtor default da classe EM para que o programa seja iniciado. 
+	 *  Chama o construtor default da classe EM para que o programa seja iniciado. Com o argumento --tempos, o relatório termina com o resumo
+	 *  dos tempos de cada fase.
+	 *  
+	 *  Os modos sem janela (relatório em texto ou JSON, acompanhamento do arquivo .csv, processamento em lote e serviço de cálculo) são
+	 *  executados por hvrp.infoem.cli.LinhaComando, e a janela de relatório com importação em segundo plano, por JanelaRelatorio.
 	 * 
 	 *  @param args
 	 */
 	public static void main(String[] args) {
-		new EM();
+		new EM(args.length > 0 && args[0].equals(ARGUMENTO_TEMPOS));
 	}
 	
 	/**
@@ -67,107 +92,172 @@ public class EM implements Estrutura {
 	 *  Onde será executado os testes de EstruturaMetalica, com um relatório contendo as informações necessárias.
 	 */
 	public EM() {
+		this(false);
+	} 
+	
+	/**
+	 *  Executa os testes de EstruturaMetalica, como no construtor default. Cada fase (catálogo, importação, cálculo, relatório e exibição)
+	 *  emite um evento do JDK Flight Recorder (hvrp.infoem.Fase), visível em qualquer gravação iniciada com -XX:StartFlightRecording.
+	 *  
+	 *  @param tempos - true para ativar o registro de métricas e acrescentar ao relatório o resumo dos tempos de cada fase (a exibição do
+	 *  relatório não entra no resumo, pois só termina quando a janela é fechada)
+	 */
+	public EM(boolean tempos) {
 		estruturaMetalica = new EstruturaMetalica();
+		fases = new ArrayList<>();
+		
+		if(tempos) {
+			RegistroMetricas.global().ativar();
+		}
 		
+		carregarMateriais();
 		importarPecas();
 		relatorioEM();
 		//relatorioPecas();
 		
+		if(tempos) {
+			writeTextArea(MedicaoFase.textoTempos(fases) + RegistroMetricas.global().textoLatencias());
+		}
+		
+		MedicaoFase exibicao = iniciarFase(Fase.EXIBICAO);
 		showTextArea(getTextArea(), "Relatório EM (Estrutura Metálica)");
+		exibicao.concluir();
 		System.exit(0);
-	} 
+	} // EM(boolean tempos)
 
+	/**
+	 *  Carrega o catálogo de materiais do arquivo .csv de materiais, caso ele exista. Sem o arquivo são utilizados os materiais padrão
+	 *  (alumínio e ferro).
+	 * 
+	 *  @throws IllegalArgumentException caso seja encontrado um material inválido
+	 *  @throws NumberFormatException caso ocorra algum problema nas conversões dos valores numéricos
+	 *  @throws UncheckedIOException caso ocorra algum problema na leitura do arquivo
+	 */
+	public void carregarMateriais() throws IllegalArgumentException, NumberFormatException {
+		MedicaoFase medicao = iniciarFase(Fase.CATALOGO);
+		Path arquivo = Path.of(CAMINHO_MATERIAIS);
+		
+		if(Files.exists(arquivo)) {
+			try {
+				CatalogoMateriais.carregar(arquivo);
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		medicao.concluir(CatalogoMateriais.atual().getQuantidadeMateriais(), 0, 0);
+	} // carregarMateriais()
+	
 	/**
 	 * 	Realiza a importação das informações de determinadas peças cadastradas no arquivo .csv fornecido. 
-	 *  Utiliza métodos das classes (mos.reader.Line e mos.reader.Reader) para percorrer o arquivo .csv fornecido.
+	 *  Utiliza a classe (hvrp.infoem.importacao.ImportadorCSV), que percorre o arquivo .csv mapeado em memória e adiciona cada linha
+	 *  diretamente na estrutura, sem carregar o arquivo inteiro.
+	 *  
+	 *  Caso exista uma cópia binária da estrutura (gravada por LinhaComando --copia, com EstruturaMetalica.salvar(Path, Path)) cujo tamanho
+	 *  e data de modificação registrados sejam iguais aos atuais do arquivo .csv, a cópia é carregada em vez de importar o arquivo. Uma
+	 *  cópia inexistente, inválida, desatualizada ou que não possa ser lida é simplesmente ignorada. Nenhum arquivo é gravado.
 	 * 
 	 *  @throws IllegalArgumentException caso seja passado um tipo de peça inválido ou um material inválido
-	 *  @throws NumberFormatException caso ocorra algum problema nas conversões de string para int ou double (parseInt() e parseDouble())
+	 *  @throws NumberFormatException caso ocorra algum problema nas conversões dos valores numéricos
+	 *  @throws UncheckedIOException caso ocorra algum problema na leitura do arquivo
 	 */
 	public void importarPecas() throws IllegalArgumentException, NumberFormatException {
-		List<Line> lineList = read(CAMINHO, Reader.SEMICOLON);
+		Path arquivo = Path.of(CAMINHO);
 		
-		lineList.removeFirst();
+		if(carregarCopia(arquivo, Path.of(CAMINHO_BINARIO)))
+			return;
 		
-		for(Line line : lineList) { 
-			Optional<String> optional = line.getData(0);
-			Optional<String> material = line.getData(2);
+		try {
+			long tamanho = Files.size(arquivo);
+			MedicaoFase medicao = iniciarFase(Fase.IMPORTACAO);
+			int importadas = new ImportadorCSV(estruturaMetalica).importar(arquivo);
 			
-			if(optional.isPresent() && material.isPresent()) {
-				
-				if(optional.get().equalsIgnoreCase(Cubo.CUBO)) {
-					if(material.get().equalsIgnoreCase(Peca.Material.ALUMINIO.getNome()))
-						estruturaMetalica.adicionarPeca(new Cubo(Integer.parseInt(line.getData(1).get()), Peca.Material.ALUMINIO, Double.parseDouble(line.getData(7).get())));
-					
-					else if(material.get().equalsIgnoreCase(Peca.Material.FERRO.getNome()))
-						estruturaMetalica.adicionarPeca(new Cubo(Integer.parseInt(line.getData(1).get()), Peca.Material.FERRO, Double.parseDouble(line.getData(7).get())));
-					
-					else 
-						throw new IllegalArgumentException(MATERIAL_INVALIDO);
-				}
-				
-				else if(optional.get().equalsIgnoreCase(Cilindro.CILINDRO)) {
-					if(material.get().equalsIgnoreCase(Peca.Material.ALUMINIO.getNome()))
-						estruturaMetalica.adicionarPeca(new Cilindro(Integer.parseInt(line.getData(1).get()), Peca.Material.ALUMINIO, Double.parseDouble(line.getData(3).get()), Double.parseDouble(line.getData(4).get())));
-					
-					else if(material.get().equalsIgnoreCase(Peca.Material.FERRO.getNome()))
-						estruturaMetalica.adicionarPeca(new Cilindro(Integer.parseInt(line.getData(1).get()), Peca.Material.FERRO, Double.parseDouble(line.getData(3).get()), Double.parseDouble(line.getData(4).get())));
-					
-					else 
-						throw new IllegalArgumentException(MATERIAL_INVALIDO);
-				}
-				
-				else if(optional.get().equalsIgnoreCase(Paralelepipedo.PARALELEPIPEDO)) {
-					if(material.get().equalsIgnoreCase(Peca.Material.ALUMINIO.getNome()))
-						estruturaMetalica.adicionarPeca(new Paralelepipedo(Integer.parseInt(line.getData(1).get()), Peca.Material.ALUMINIO, Double.parseDouble(line.getData(4).get()), Double.parseDouble(line.getData(5).get()), Double.parseDouble(line.getData(6).get())));
-					
-					else if(material.get().equalsIgnoreCase(Peca.Material.FERRO.getNome()))
-						estruturaMetalica.adicionarPeca(new Paralelepipedo(Integer.parseInt(line.getData(1).get()), Peca.Material.FERRO, Double.parseDouble(line.getData(4).get()), Double.parseDouble(line.getData(5).get()), Double.parseDouble(line.getData(6).get())));
-					
-					else 
-						throw new IllegalArgumentException(MATERIAL_INVALIDO);
-				}
-				
-				else {
-					throw new IllegalArgumentException(PECA_INVALIDA);
-				}
-			}
+			medicao.concluir(importadas, tamanho, importadas);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
 		}
 	} // importarPecas() throws IllegalArgumentException
 	
+	/**
+	 *  Função auxiliar que carrega a cópia binária da estrutura, caso ela corresponda ao arquivo .csv.
+	 *  
+	 *  @param arquivo - o arquivo .csv
+	 *  @param copia - a cópia binária
+	 *  
+	 *  @return true caso a cópia tenha sido carregada; false caso o arquivo .csv deva ser importado
+	 */
+	private boolean carregarCopia(Path arquivo, Path copia) {
+		try {
+			if(!EstruturaMetalica.isCopiaAtual(copia, arquivo))
+				return false;
+			
+			long tamanho = Files.size(copia);
+			MedicaoFase medicao = iniciarFase(Fase.COPIA_BINARIA);
+			estruturaMetalica.carregar(copia);
+			
+			int linhas = estruturaMetalica.getPecasList().size();
+			medicao.concluir(linhas, tamanho, linhas);
+			return true;
+		}
+		catch(IOException | IllegalArgumentException e) {
+			// A cópia não pôde ser lida (corrompida, de outra versão ou com um material removido): o arquivo .csv é importado
+			return false;
+		}
+	} // carregarCopia(Path arquivo, Path copia)
+	
 	/**
 	 *  Relatório base da estrutura, contendo suas principais informações: peso total, volume total, latas de tinta necessárias para pinta a estrutura e
 	 *  o volume total por cada tipo de peça cadastrada. Utiliza métodos da classe (mos.io.InputOutput) para gravar os dados em uma interface.
+	 *  Todas as informações são lidas do mesmo resumo da estrutura, calculado em uma única passagem pelas peças. Com o registro de métricas
+	 *  ativo (--tempos), as informações são lidas pelas operações da interface Estrutura por meio de EstruturaMedida, que registra a
+	 *  latência de cada operação.
 	 */
 	public void relatorioEM() {
-		StringBuilder relatorio = new StringBuilder(String.format("\n%10c- ESTRUTURA:\n", SPACE));
-		int[] latas = numeroDeLatasDeTinta();
-		
-		relatorio.append(String.format("%20cPeso Total: %s %s\n", SPACE, pesoTotal(), Peca.getUnidadePesoTotal()));
-		relatorio.append(String.format("%20cVolume Total: %s %s\n", SPACE, volumeTotal(), Peca.getUnidadeVolume()));
-		relatorio.append(String.format("%20cLatas de tinta necessárias para pintar a estrutura:\n", SPACE));
-		relatorio.append(String.format("%30c5 litros: %s lata(s)\n%30c2 litros: %s lata(s)\n%30c0,5 litros: %s lata(s)\n", SPACE, latas[2], SPACE, latas[1], SPACE, latas[0]));
+		ResumoEstrutura resumo = calcularResumo();
+		MedicaoFase medicao = iniciarFase(Fase.RELATORIO);
 		
-		relatorio.append(String.format("\n%10c- VOLUME TOTAL POR TIPO DE PEÇA:\n", SPACE));
-		relatorio.append(String.format("%20cCilindro: %s %s\n", SPACE, volumeTotalPeca(1), Peca.getUnidadeVolume()));
-		relatorio.append(String.format("%20cCubo: %s %s\n", SPACE, volumeTotalPeca(2), Peca.getUnidadeVolume()));
-		relatorio.append(String.format("%20cParalelepipedo: %s %s\n", SPACE, volumeTotalPeca(3), Peca.getUnidadeVolume()));
+		writeTextArea(RegistroMetricas.global().isAtivo() ? RelatorioPecas.textoResumo(new EstruturaMedida(this))
+				: RelatorioPecas.textoResumo(resumo));
+		medicao.concluir();
+	} // relatorioEM()
+	
+	/**
+	 *  Função auxiliar que obtém o resumo da estrutura, medindo o cálculo como uma fase.
+	 *  
+	 *  @return o resumo da estrutura
+	 */
+	private ResumoEstrutura calcularResumo() {
+		MedicaoFase medicao = iniciarFase(Fase.CALCULO);
+		ResumoEstrutura resumo = estruturaMetalica.obterResumo();
 		
+		medicao.concluir(estruturaMetalica.getPecasList().size(), 0, resumo.getTotalPecas());
+		return resumo;
+	}
+	
+	/**
+	 *  Função auxiliar que inicia a medição de uma fase e a guarda para o resumo dos tempos.
+	 *  
+	 *  @param fase - a fase medida
+	 *  
+	 *  @return a medição iniciada
+	 */
+	private MedicaoFase iniciarFase(Fase fase) {
+		MedicaoFase medicao = MedicaoFase.iniciar(fase);
 		
-		writeTextArea(relatorio);
-	} // relatorioEM()
+		fases.add(medicao);
+		return medicao;
+	}
 	
 	/**
 	 *  Relatório extra usado para testar alguns métodos de EstruturaMetalica, contendo informações como: total de peças, total de peças por tipo de peça, 
 	 *  área total e dimensões de cada peça e informações de uma determinada peça. Utiliza métodos da classe (mos.io.InputOutput) para gravar os dados em uma interface.
 	 */
 	public void relatorioPecas() {
-		StringBuilder relatorio = new StringBuilder();
+		calcularResumo();
 		
-		relatorio.append(String.format("\n- Total de Peças: %s peça(s).\n", estruturaMetalica.obterTotalPecas()));
-		relatorio.append(String.format("%10cCilindro: %s unidade(s)\n", SPACE, estruturaMetalica.obterTotalPecas(1)));
-		relatorio.append(String.format("%10cCubo: %s unidade(s)\n", SPACE, estruturaMetalica.obterTotalPecas(2)));
-		relatorio.append(String.format("%10cParalelepipedo: %s unidade(s)\n", SPACE, estruturaMetalica.obterTotalPecas(3)));
+		MedicaoFase medicao = iniciarFase(Fase.RELATORIO);
+		StringBuilder relatorio = new StringBuilder(RelatorioPecas.textoTotalPecas(estruturaMetalica.obterResumo()));
 		
 		relatorio.append(String.format("\n- ÁREA E DIMENSÕES:\n"));
 		relatorio.append(String.format("%s", estruturaMetalica.obterAreaTotalEDimensoes()));
@@ -176,6 +266,7 @@ public class EM implements Estrutura {
 		relatorio.append(String.format("%10c%s", SPACE, estruturaMetalica.obterPeca(0)));
 		
 		writeTextArea(estruturaMetalica.toString() + relatorio);
+		medicao.concluir(estruturaMetalica.getPecasList().size(), 0, 0);
 	} // relatorioPecas()
 	
 	/**
@@ -192,7 +283,7 @@ public class EM implements Estrutura {
 	 */
 	@Override
 	public double pesoTotal() {
-		return estruturaMetalica.calcularPesoTotal();
+		return estruturaMetalica.obterResumo().getPesoTotal();
 	} // pesoTotal()
 
 	/**
@@ -201,7 +292,7 @@ public class EM implements Estrutura {
 	 */
 	@Override
 	public double volumeTotal() {
-		return estruturaMetalica.calcularVolumeTotal();
+		return estruturaMetalica.obterResumo().getVolumeTotal();
 	} // volumeTotal()
 
 	/**
@@ -212,7 +303,7 @@ public class EM implements Estrutura {
 	 */
 	@Override
 	public int[] numeroDeLatasDeTinta() {
-		return estruturaMetalica.calcularConsumoTinta();
+		return estruturaMetalica.obterResumo().getLatasDeTinta();
 	} // numeroDeLatasDeTinta()
 
 	/**
@@ -225,7 +316,7 @@ public class EM implements Estrutura {
 	@Override
 	public double volumeTotalPeca(int tipoPeca) throws IllegalArgumentException {
 		if(tipoPeca >= CILINDRO && tipoPeca <= PARALELEPIPEDO)
-			return estruturaMetalica.calcularVolumeTotal(tipoPeca);
+			return estruturaMetalica.obterResumo().getVolumeTotal(tipoPeca);
 		else 
 			throw new IllegalArgumentException(PECA_INVALIDA);
 	} // volumeTotalPeca(int tipoPeca)
@@ -0,0 +1,255 @@
+package hvrp.infoem.gui;
+
+import java.awt.BorderLayout;
+import java.awt.Font;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.WindowConstants;
+
+import hvrp.infoem.CatalogoMateriais;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.RelatorioPecas;
+import hvrp.infoem.ResumoEstrutura;
+import hvrp.infoem.importacao.ImportadorCSV;
+
+/**
+ *  Janela do relatório da estrutura metálica. A importação das peças é feita em segundo plano, com uma barra de progresso e um botão para
+ *  cancelá-la, enquanto a janela continua respondendo.
+ *
+ *  O relatório base (o mesmo de EM.relatorioEM()) é exibido assim que o resumo da estrutura é calculado. As peças são exibidas em uma
+ *  tabela em ordem alfabética cujo modelo (ModeloPecas) obtém e formata cada peça apenas quando a sua linha fica visível, portanto a janela
+ *  exibe estruturas com milhões de peças sem montar o texto de todas elas.
+ *
+ *  Uso: JanelaRelatorio [arquivo]
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public class JanelaRelatorio extends JFrame {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 *  Título da janela e mensagens exibidas no andamento da importação.
+	 */
+	private final static String TITULO = "Relatório EM (Estrutura Metálica)";
+	private final static String IMPORTANDO = "Importando %s...";
+	private final static String CALCULANDO = "Calculando o resumo da estrutura...";
+	private final static String ORDENANDO = "Ordenando as peças...";
+	private final static String CONCLUIDO = "%,d peça(s) importada(s).";
+	private final static String CANCELADO = "Importação cancelada.";
+	private final static String FALHOU = "Falha na importação.";
+
+	/**
+	 *  Caminhos padrão do arquivo de peças e do arquivo de materiais (os mesmos de EM).
+	 */
+	private final static String CAMINHO_PADRAO = "csv/MetalStructure.csv", MATERIAIS_PADRAO = "csv/Materiais.csv";
+
+	/**
+	 *  Componentes da janela.
+	 */
+	private final JProgressBar barraProgresso;
+	private final JLabel situacao;
+	private final JButton botaoCancelar;
+	private final JTextArea areaResumo;
+	private final JTable tabelaPecas;
+
+	/**
+	 *  Importação em segundo plano e o importador utilizado por ela.
+	 */
+	private final transient Importacao importacao;
+	private final transient ImportadorCSV importador;
+
+	/**
+	 *  Estrutura metálica exibida.
+	 */
+	private final transient EstruturaMetalica estruturaMetalica;
+
+	/**
+	 *  Inicializa a janela e a importação das peças, que só começa quando a janela é exibida por abrir(Path, Path).
+	 *
+	 *  @param arquivo - caminho do arquivo .csv das peças
+	 *  @param arquivoMateriais - caminho do arquivo .csv de materiais (ignorado caso não exista)
+	 */
+	private JanelaRelatorio(Path arquivo, Path arquivoMateriais) {
+		super(TITULO);
+
+		estruturaMetalica = new EstruturaMetalica();
+		importador = new ImportadorCSV(estruturaMetalica);
+		importacao = new Importacao(arquivo, arquivoMateriais);
+
+		barraProgresso = new JProgressBar(0, 100);
+		barraProgresso.setStringPainted(true);
+		situacao = new JLabel(String.format(IMPORTANDO, arquivo.getFileName()));
+		botaoCancelar = new JButton("Cancelar");
+		botaoCancelar.addActionListener(e -> cancelar());
+
+		areaResumo = new JTextArea(12, 60);
+		areaResumo.setEditable(false);
+		areaResumo.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+		tabelaPecas = new JTable(new ModeloPecas());
+		tabelaPecas.setFillsViewportHeight(true);
+		tabelaPecas.getTableHeader().setReorderingAllowed(false);
+
+		JPanel painelProgresso = new JPanel(new BorderLayout(8, 0));
+		painelProgresso.setBorder(BorderFactory.createEmptyBorder(6, 6, 6, 6));
+		painelProgresso.add(situacao, BorderLayout.WEST);
+		painelProgresso.add(barraProgresso, BorderLayout.CENTER);
+		painelProgresso.add(botaoCancelar, BorderLayout.EAST);
+
+		JSplitPane divisao = new JSplitPane(JSplitPane.VERTICAL_SPLIT, new JScrollPane(areaResumo), new JScrollPane(tabelaPecas));
+		divisao.setResizeWeight(0.3);
+
+		add(painelProgresso, BorderLayout.NORTH);
+		add(divisao, BorderLayout.CENTER);
+
+		setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				cancelar();
+			}
+		});
+		setSize(900, 700);
+		setLocationRelativeTo(null);
+
+		importacao.addPropertyChangeListener(e -> {
+			if("progress".equals(e.getPropertyName())) {
+				barraProgresso.setValue((Integer) e.getNewValue());
+			}
+		});
+	} // JanelaRelatorio(Path arquivo, Path arquivoMateriais)
+
+	/**
+	 *  Abre a janela de relatório com o arquivo de peças fornecido ou, sem argumentos, com o mesmo arquivo de EM.
+	 *
+	 *  @param args - o arquivo .csv das peças (opcional)
+	 */
+	public static void main(String[] args) {
+		abrir(Path.of(args.length > 0 ? args[0] : CAMINHO_PADRAO), Path.of(MATERIAIS_PADRAO));
+	}
+
+	/**
+	 *  Abre a janela de relatório e inicia a importação das peças em segundo plano. Pode ser chamado de qualquer thread.
+	 *
+	 *  @param arquivo - caminho do arquivo .csv das peças
+	 *  @param arquivoMateriais - caminho do arquivo .csv de materiais (ignorado caso não exista)
+	 */
+	public static void abrir(Path arquivo, Path arquivoMateriais) {
+		SwingUtilities.invokeLater(() -> {
+			JanelaRelatorio janela = new JanelaRelatorio(arquivo, arquivoMateriais);
+
+			janela.setVisible(true);
+			janela.importacao.execute();
+		});
+	}
+
+	/**
+	 *  Função auxiliar que cancela a importação em andamento (se houver).
+	 */
+	private void cancelar() {
+		if(!importacao.isDone()) {
+			importador.cancelar();
+			importacao.cancel(true);
+		}
+	}
+
+	/**
+	 *  Importação das peças em segundo plano. Publica o resumo da estrutura assim que ele é calculado e retorna os índices das peças em
+	 *  ordem alfabética, utilizados pela tabela.
+	 */
+	private final class Importacao extends SwingWorker<int[], ResumoEstrutura> {
+		private final Path arquivo, arquivoMateriais;
+
+		Importacao(Path arquivo, Path arquivoMateriais) {
+			this.arquivo = arquivo;
+			this.arquivoMateriais = arquivoMateriais;
+		}
+
+		@Override
+		protected int[] doInBackground() throws Exception {
+			if(Files.exists(arquivoMateriais)) {
+				CatalogoMateriais.carregar(arquivoMateriais);
+			}
+
+			importador.setProgresso(fracao -> setProgress((int) Math.min(100, fracao * 100)));
+			importador.importar(arquivo);
+
+			avisar(CALCULANDO);
+			publish(estruturaMetalica.obterResumo());
+
+			avisar(ORDENANDO);
+			return estruturaMetalica.obterIndicesPorNome();
+		} // doInBackground()
+
+		/**
+		 *  Função auxiliar que exibe o andamento da importação, a menos que ela já tenha sido cancelada.
+		 *
+		 *  @param mensagem - a mensagem exibida
+		 */
+		private void avisar(String mensagem) {
+			SwingUtilities.invokeLater(() -> {
+				if(!isCancelled()) {
+					situacao.setText(mensagem);
+				}
+			});
+		}
+
+		@Override
+		protected void process(List<ResumoEstrutura> resumos) {
+			areaResumo.setText(RelatorioPecas.textoResumo(resumos.get(resumos.size() - 1)));
+			areaResumo.setCaretPosition(0);
+		}
+
+		@Override
+		protected void done() {
+			botaoCancelar.setEnabled(false);
+
+			try {
+				int[] indices = get();
+
+				tabelaPecas.setModel(new ModeloPecas(estruturaMetalica, indices));
+				situacao.setText(String.format(CONCLUIDO, indices.length));
+				barraProgresso.setValue(100);
+			}
+			catch(CancellationException e) {
+				situacao.setText(CANCELADO);
+			}
+			catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			catch(ExecutionException e) {
+				Throwable causa = e.getCause();
+
+				if(causa instanceof InterruptedIOException) {
+					situacao.setText(CANCELADO);
+				}
+				else {
+					situacao.setText(FALHOU);
+					JOptionPane.showMessageDialog(JanelaRelatorio.this, causa.getMessage(), TITULO, JOptionPane.ERROR_MESSAGE);
+				}
+			}
+		} // done()
+	} // class Importacao
+} // class JanelaRelatorio
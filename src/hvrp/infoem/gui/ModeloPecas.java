@@ -0,0 +1,143 @@
+package hvrp.infoem.gui;
+
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Peca;
+import hvrp.infoem.TipoDimensao;
+
+/**
+ *  Modelo da tabela de peças da janela de relatório, com uma linha por peça da estrutura em ordem alfabética de nome.
+ *
+ *  O modelo guarda apenas os índices das peças em ordem alfabética. Cada peça é obtida da estrutura e formatada somente quando a tabela
+ *  pede o valor de uma das suas células, o que acontece apenas para as linhas visíveis; a última peça obtida é reaproveitada pelas demais
+ *  colunas da mesma linha. Por isso a tabela não deve ordenar ou filtrar as linhas (o que pediria os valores de todas as linhas).
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+final class ModeloPecas extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 *  Nomes das colunas da tabela.
+	 */
+	private final static String[] COLUNAS = {"Peça", "Quantidade", "Material", "Área (" + Peca.getUnidadeArea() + ")",
+			"Dimensões (" + Peca.getUnidade() + ")"};
+
+	private final static int COLUNA_NOME = 0, COLUNA_QUANTIDADE = 1, COLUNA_MATERIAL = 2, COLUNA_AREA = 3;
+
+	/**
+	 *  Estrutura metálica exibida e os índices das suas peças em ordem alfabética.
+	 */
+	private final transient EstruturaMetalica estruturaMetalica;
+	private final int[] indices;
+
+	/**
+	 *  Formatador das áreas e dimensões, com duas casas decimais e separador de milhares, como no relatório de área e dimensões.
+	 */
+	private final NumberFormat formato;
+
+	/**
+	 *  Última linha da tabela obtida e a sua peça.
+	 */
+	private int linhaAtual = -1;
+	private transient Peca pecaAtual;
+
+	/**
+	 *  Construtor default.
+	 *  Inicializa um modelo sem peças.
+	 */
+	ModeloPecas() {
+		this(null, new int[0]);
+	}
+
+	/**
+	 *  Inicializa um modelo com as peças da estrutura fornecida.
+	 *
+	 *  @param estruturaMetalica - a estrutura metálica
+	 *  @param indices - os índices das peças da estrutura em ordem alfabética (EstruturaMetalica.obterIndicesPorNome())
+	 */
+	ModeloPecas(EstruturaMetalica estruturaMetalica, int[] indices) {
+		this.estruturaMetalica = estruturaMetalica;
+		this.indices = indices;
+
+		formato = NumberFormat.getNumberInstance();
+		formato.setMinimumFractionDigits(2);
+		formato.setMaximumFractionDigits(2);
+		formato.setRoundingMode(RoundingMode.HALF_UP);
+	}
+
+	@Override
+	public int getRowCount() {
+		return indices.length;
+	}
+
+	@Override
+	public int getColumnCount() {
+		return COLUNAS.length;
+	}
+
+	@Override
+	public String getColumnName(int coluna) {
+		return COLUNAS[coluna];
+	}
+
+	@Override
+	public Class<?> getColumnClass(int coluna) {
+		return coluna == COLUNA_QUANTIDADE ? Integer.class : String.class;
+	}
+
+	@Override
+	public Object getValueAt(int linha, int coluna) {
+		Peca peca = peca(linha);
+
+		return switch(coluna) {
+			case COLUNA_NOME -> peca.getNome();
+			case COLUNA_QUANTIDADE -> peca.getQuantidade();
+			case COLUNA_MATERIAL -> peca.getMaterial() == null ? "" : peca.getMaterial().getNome();
+			case COLUNA_AREA -> formato.format(peca.area());
+			default -> dimensoes(peca);
+		};
+	} // getValueAt(int linha, int coluna)
+
+	/**
+	 *  Função auxiliar que obtém a peça de uma linha da tabela, reaproveitando a última peça obtida.
+	 *
+	 *  @param linha - a linha da tabela
+	 *
+	 *  @return a peça da linha
+	 */
+	private Peca peca(int linha) {
+		if(linha != linhaAtual) {
+			pecaAtual = estruturaMetalica.obterPeca(indices[linha]);
+			linhaAtual = linha;
+		}
+		return pecaAtual;
+	}
+
+	/**
+	 *  Função auxiliar que monta o texto das dimensões de uma peça.
+	 *
+	 *  @param peca - a peça
+	 *
+	 *  @return as dimensões da peça
+	 */
+	private String dimensoes(Peca peca) {
+		StringBuilder texto = new StringBuilder();
+		List<TipoDimensao> tipos = peca.getTiposDimensao();
+
+		for(int i = 0; i < tipos.size(); i++) {
+			if(i > 0) {
+				texto.append("  ");
+			}
+			texto.append(tipos.get(i).getNome()).append(": ").append(formato.format(peca.getDimensao(tipos.get(i))));
+		}
+		return texto.toString();
+	} // dimensoes(Peca peca)
+} // class ModeloPecas
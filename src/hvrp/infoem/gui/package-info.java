@@ -1,5 +1,5 @@
 /**
- *  Armazena o programa utilizado para testar as funcionalidades de EstruturaMetalica, utilizando Java GUI.
+ *  Armazena o programa utilizado para testar as funcionalidades de EstruturaMetalica, utilizando Java GUI, e a janela de relatório.
  *
  *  @author Hugo Vinícius Rodrigues Pereira
  *  @version 0.1
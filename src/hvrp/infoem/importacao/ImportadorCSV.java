@@ -0,0 +1,1191 @@
+package hvrp.infoem.importacao;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+
+import hvrp.infoem.CatalogoMateriais;
+import hvrp.infoem.Cilindro;
+import hvrp.infoem.Cubo;
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Paralelepipedo;
+import hvrp.infoem.Peca.Material;
+
+/**
+ *  Essa classe representa o importador das peças de uma estrutura metálica a partir de um arquivo .csv separado por ponto e vírgula, com as
+ *  colunas: Peça;Quantidade;Material;Raio;Altura;Largura;Profundidade;Aresta. A primeira linha do arquivo (cabeçalho) é ignorada.
+ *
+ *  O arquivo é mapeado em memória por janelas de tamanho fixo e decodificado diretamente a partir dos bytes, sem criar uma String por linha
+ *  ou por campo. Cada linha válida é adicionada imediatamente na estrutura, de forma que a memória utilizada pelo importador não depende do
+ *  tamanho do arquivo. O valor '-' representa uma dimensão ausente.
+ *
+ *  Arquivos grandes são divididos em trechos alinhados às quebras de linha e cada trecho é lido em paralelo por um ForkJoinPool, com uma
+ *  estrutura parcial por trecho. As estruturas parciais são anexadas na ordem dos trechos, de forma que a ordem das peças é a mesma do
+ *  arquivo, e os erros informam a linha correspondente no arquivo.
+ *
+ *  Quando a deduplicação da estrutura está ativa (EstruturaMetalica.setDeduplicacao(double)), as linhas com peças idênticas são somadas em
+ *  uma única peça já durante a leitura, inclusive nas estruturas parciais, portanto a memória utilizada depende apenas do número de peças
+ *  distintas do arquivo.
+ *
+ *  reimportar(Path) lê novamente um arquivo modificado e aplica na estrutura somente as linhas alteradas, o que permite acompanhar as
+ *  edições do arquivo (MonitorCSV) sem importá-lo por completo a cada alteração.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public class ImportadorCSV {
+	/**
+	 *  Representa o caractere separador das colunas do arquivo.
+	 */
+	public final static byte SEPARADOR = ';';
+
+	/**
+	 *  Caracteres de controle utilizados na leitura.
+	 */
+	private final static byte NOVA_LINHA = '\n', RETORNO = '\r', AUSENTE = '-';
+
+	/**
+	 *  Tamanho de cada janela do arquivo mapeada em memória (64 MiB).
+	 */
+	private final static long JANELA = 1L << 26;
+
+	/**
+	 *  Tamanho mínimo do arquivo para que a leitura seja feita em paralelo (8 MiB) e tamanho mínimo de cada trecho lido em paralelo (1 MiB).
+	 */
+	private final static long TAMANHO_MINIMO_PARALELO = 1L << 23, TAMANHO_MINIMO_TRECHO = 1L << 20;
+
+	/**
+	 *  Número de trechos criados para cada thread do pool, para equilibrar a carga entre as threads.
+	 */
+	private final static int TRECHOS_POR_THREAD = 4;
+
+	/**
+	 *  Número de trechos em leitura (ou lidos e ainda não anexados) para cada thread do pool, que limita as estruturas parciais em memória.
+	 */
+	private final static int TRECHOS_PENDENTES_POR_THREAD = 2;
+
+	/**
+	 *  Número de bytes processados entre duas verificações de cancelamento e dois avisos de progresso (1 MiB).
+	 */
+	private final static int FATIA = 1 << 20;
+
+	/**
+	 *  Tamanho do buffer utilizado na leitura de um canal, em bytes.
+	 */
+	private final static int TAMANHO_LEITURA = 1 << 16;
+
+	/**
+	 *  Posição de cada coluna do arquivo.
+	 */
+	private final static int COLUNA_PECA = 0, COLUNA_QUANTIDADE = 1, COLUNA_MATERIAL = 2, COLUNA_RAIO = 3, COLUNA_ALTURA = 4, COLUNA_LARGURA = 5,
+			COLUNA_PROFUNDIDADE = 6, COLUNA_ARESTA = 7;
+
+	/**
+	 *  Número mínimo de colunas preenchidas para que uma linha seja considerada. Linhas com menos colunas (por exemplo, linhas em branco) são
+	 *  ignoradas.
+	 */
+	private final static int COLUNAS_MINIMAS = COLUNA_MATERIAL + 1;
+
+	/**
+	 *  Tipos de peças reconhecidos pelo importador.
+	 */
+	private final static int TIPO_INVALIDO = 0, CILINDRO = 1, CUBO = 2, PARALELEPIPEDO = 3;
+
+	/**
+	 *  Nomes dos tipos de peças, em letras minúsculas.
+	 */
+	private final static byte[] NOME_CILINDRO = minusculas(Cilindro.CILINDRO), NOME_CUBO = minusculas(Cubo.CUBO),
+			NOME_PARALELEPIPEDO = minusculas(Paralelepipedo.PARALELEPIPEDO);
+
+	/**
+	 *  Maior número de algarismos significativos convertido sem o auxílio de Double.parseDouble.
+	 */
+	private final static int ALGARISMOS_MAXIMOS = 15;
+
+	/**
+	 *  Potências de dez representadas exatamente por um double.
+	 */
+	private final static double[] POTENCIAS_DE_DEZ = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 *  Mensagens de erro da importação.
+	 */
+	private final static String PECA_INVALIDA = "Tipo de peça fornecido é inválido!";
+	private final static String MATERIAL_INVALIDO = "Material fornecido é inválido!";
+	private final static String NUMERO_INVALIDO = "Valor numérico inválido na coluna %d!";
+	private final static String FORMATO_ERRO = "%s (linha %d)";
+	private final static String IMPORTACAO_INTERROMPIDA = "Importação interrompida!";
+
+	/**
+	 *  Estrutura metálica que receberá as peças importadas.
+	 */
+	private final EstruturaMetalica estruturaMetalica;
+
+	/**
+	 *  Pool utilizado na leitura em paralelo.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 *  Versão do catálogo de materiais utilizada na importação, com os materiais válidos e seus nomes em letras minúsculas.
+	 */
+	private CatalogoMateriais catalogo;
+	private Material[] materiais;
+	private byte[][] nomesMateriais;
+
+	/**
+	 *  Conteúdo e tamanho do campo sendo lido.
+	 */
+	private byte[] campo;
+	private int tamanhoCampo;
+
+	/**
+	 *  Estado da linha sendo lida: a coluna atual, a última coluna preenchida, o tipo da peça, o material, a quantidade e as dimensões
+	 *  (raio, altura, largura, profundidade e aresta), com a indicação de quais valores numéricos são válidos.
+	 */
+	private int coluna, ultimaColunaPreenchida, tipo;
+	private Material material;
+	private int quantidade;
+	private boolean quantidadeValida;
+	private final double[] dimensoes;
+	private final boolean[] dimensoesValidas;
+
+	/**
+	 *  Número da linha atual no arquivo ou no trecho (no arquivo, a primeira linha é o cabeçalho), se o cabeçalho ainda está sendo lido e o
+	 *  número de quebras de linha lidas.
+	 */
+	private long linha, linhasLidas;
+	private boolean cabecalho;
+
+	/**
+	 *  Erro encontrado na leitura de um trecho, informado somente após a junção dos trechos anteriores.
+	 */
+	private ErroLinha erro;
+
+	/**
+	 *  Número de peças importadas.
+	 */
+	private int pecasImportadas;
+
+	/**
+	 *  Importador que iniciou a importação: o próprio importador ou, na leitura de um trecho, o importador do arquivo inteiro. O progresso
+	 *  e o cancelamento são sempre os do importador principal.
+	 */
+	private ImportadorCSV principal = this;
+
+	/**
+	 *  Função avisada do progresso da importação, o tamanho do arquivo e o número de bytes já processados.
+	 */
+	private DoubleConsumer progresso;
+	private long tamanhoArquivo;
+	private final AtomicLong bytesProcessados = new AtomicLong();
+
+	/**
+	 *  Indica se a importação foi cancelada e a thread que chamou importar(Path).
+	 */
+	private volatile boolean cancelado;
+	private Thread chamador;
+
+	/**
+	 *  Linhas de peças do arquivo na última chamada de reimportar(Path), guardadas como o código hash de cada linha na ordem das peças da
+	 *  estrutura, a versão do catálogo de materiais utilizada e a versão das peças da estrutura logo após a reimportação. Sem uma
+	 *  reimportação anterior, o vetor é null.
+	 */
+	private long[] hashesLinhas;
+	private CatalogoMateriais catalogoLinhas;
+	private long versaoLinhas;
+
+	/**
+	 *  Inicializa um objeto recém-criado para que ele represente o importador das peças da estrutura metálica fornecida.
+	 *
+	 *  @param estruturaMetalica - a estrutura que receberá as peças importadas
+	 */
+	public ImportadorCSV(EstruturaMetalica estruturaMetalica) {
+		this(estruturaMetalica, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 *  Inicializa um objeto recém-criado para que ele represente o importador das peças da estrutura metálica fornecida, utilizando o pool
+	 *  fornecido na leitura em paralelo.
+	 *
+	 *  @param estruturaMetalica - a estrutura que receberá as peças importadas
+	 *  @param pool - o pool utilizado na leitura em paralelo
+	 */
+	public ImportadorCSV(EstruturaMetalica estruturaMetalica, ForkJoinPool pool) {
+		this.estruturaMetalica = estruturaMetalica;
+		this.pool = pool;
+
+		campo = new byte[64];
+		dimensoes = new double[COLUNA_ARESTA - COLUNA_RAIO + 1];
+		dimensoesValidas = new boolean[dimensoes.length];
+	}
+
+	/* Métodos Setters (Métodos Modificadores) */
+
+	/**
+	 *  Define a função avisada do progresso da importação, que recebe a fração do arquivo já processada (de 0 a 1). Na leitura em
+	 *  paralelo a função pode ser chamada por várias threads ao mesmo tempo.
+	 *
+	 *  @param progresso - a função avisada do progresso, ou null para não acompanhar o progresso
+	 */
+	public void setProgresso(DoubleConsumer progresso) {
+		this.progresso = progresso;
+	}
+
+	/**
+	 *  Cancela a importação em andamento, que termina com uma InterruptedIOException assim que todas as threads da leitura percebem o
+	 *  cancelamento. As peças lidas até o cancelamento podem já ter sido adicionadas na estrutura, e as próximas importações deste
+	 *  importador também são canceladas. A importação também é cancelada quando a thread que chamou importar(Path) é interrompida.
+	 */
+	public void cancelar() {
+		cancelado = true;
+	}
+
+	/**
+	 *  Importa as peças do arquivo fornecido para a estrutura metálica.
+	 *
+	 *  @param arquivo - caminho do arquivo .csv
+	 *
+	 *  @return o número de peças importadas
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 *  @throws IllegalArgumentException caso seja encontrado um tipo de peça inválido ou um material inválido
+	 *  @throws NumberFormatException caso seja encontrado um valor numérico inválido em uma coluna utilizada pela peça
+	 */
+	public int importar(Path arquivo) throws IOException, IllegalArgumentException, NumberFormatException {
+		usarCatalogo(CatalogoMateriais.atual());
+
+		try(FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			long tamanho = canal.size();
+
+			chamador = Thread.currentThread();
+			tamanhoArquivo = tamanho;
+			bytesProcessados.set(0);
+
+			if(tamanho >= TAMANHO_MINIMO_PARALELO && pool.getParallelism() > 1)
+				return importarEmParalelo(canal, tamanho);
+
+			iniciar();
+			ler(canal, 0, tamanho);
+			finalizar();
+		}
+		catch(ErroLinha e) {
+			throw e.excecao(0);
+		}
+
+		return pecasImportadas;
+	} // importar(Path arquivo)
+
+	/**
+	 *  Importa as peças lidas de um canal (por exemplo, o corpo de uma requisição) à medida que os bytes chegam, com o mesmo formato de um
+	 *  arquivo .csv. O canal é lido sequencialmente até o fim e não é fechado. Como o tamanho total não é conhecido, o progresso não é
+	 *  avisado.
+	 *
+	 *  @param canal - o canal com o conteúdo .csv
+	 *
+	 *  @return o número de peças importadas
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do canal
+	 *  @throws IllegalArgumentException caso seja encontrado um tipo de peça inválido ou um material inválido
+	 *  @throws NumberFormatException caso seja encontrado um valor numérico inválido em uma coluna utilizada pela peça
+	 */
+	public int importar(ReadableByteChannel canal) throws IOException, IllegalArgumentException, NumberFormatException {
+		ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_LEITURA);
+
+		usarCatalogo(CatalogoMateriais.atual());
+		chamador = Thread.currentThread();
+
+		try {
+			iniciar();
+			while(canal.read(buffer.clear()) >= 0) {
+				verificarCancelamento();
+				processar(buffer.flip());
+			}
+			finalizar();
+		}
+		catch(ErroLinha e) {
+			throw e.excecao(0);
+		}
+
+		return pecasImportadas;
+	} // importar(ReadableByteChannel canal)
+
+	/**
+	 *  Reimporta as peças do arquivo fornecido, que pode ter sido modificado desde a última reimportação, aplicando na estrutura somente as
+	 *  linhas alteradas.
+	 *
+	 *  O arquivo é percorrido uma vez calculando um código hash de cada linha de peça. As linhas iguais no começo e no fim do arquivo são
+	 *  mantidas, e somente as linhas entre elas são convertidas e substituem as peças correspondentes, portanto alterar uma linha custa a
+	 *  leitura do arquivo mais a conversão de uma linha. As peças são associadas às linhas pela posição no arquivo.
+	 *
+	 *  A estrutura é esvaziada e o arquivo é importado por completo na primeira reimportação, quando o catálogo de materiais muda, quando a
+	 *  estrutura foi modificada por outro meio (a sua versão, EstruturaMetalica.getVersao(), não é mais a registrada na última
+	 *  reimportação) ou quando a deduplicação está ativa (peças incorporadas não correspondem a uma única linha). Caso a reimportação falhe,
+	 *  a estrutura não é modificada ou, na importação completa, contém as peças lidas até o erro.
+	 *
+	 *  @param arquivo - caminho do arquivo .csv
+	 *
+	 *  @return o número de peças convertidas (0 caso nenhuma linha de peça tenha mudado)
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 *  @throws IllegalArgumentException caso seja encontrado um tipo de peça inválido ou um material inválido
+	 *  @throws NumberFormatException caso seja encontrado um valor numérico inválido em uma coluna utilizada pela peça
+	 */
+	public int reimportar(Path arquivo) throws IOException, IllegalArgumentException, NumberFormatException {
+		CatalogoMateriais atual = CatalogoMateriais.atual();
+		long[] anteriores = hashesLinhas;
+		LinhasArquivo linhas;
+
+		usarCatalogo(atual);
+		hashesLinhas = null;
+
+		try(FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+			long tamanho = canal.size();
+
+			chamador = Thread.currentThread();
+			tamanhoArquivo = tamanho;
+			bytesProcessados.set(0);
+			linhas = linhas(canal, tamanho, anteriores == null ? 0 : anteriores.length);
+
+			// Qualquer modificação da estrutura desde a última reimportação muda a sua versão, e as peças deixam de corresponder às linhas
+			if(anteriores != null && catalogoLinhas == atual && !estruturaMetalica.isDeduplicacao()
+					&& estruturaMetalica.getVersao() == versaoLinhas && estruturaMetalica.getPecasList().size() == anteriores.length) {
+				int convertidas = substituirAlteradas(canal, tamanho, anteriores, linhas);
+
+				if(convertidas >= 0) {
+					guardarLinhas(linhas, atual);
+					return convertidas;
+				}
+			}
+		}
+
+		estruturaMetalica.setPecasList(List.of());
+		int importadas = importar(arquivo);
+
+		if(!estruturaMetalica.isDeduplicacao() && importadas == linhas.quantidade) {
+			guardarLinhas(linhas, atual);
+		}
+		return importadas;
+	} // reimportar(Path arquivo)
+
+	/**
+	 *  Define a versão do catálogo de materiais utilizada para reconhecer os materiais do arquivo.
+	 *
+	 *  @param catalogo - o catálogo de materiais
+	 */
+	void usarCatalogo(CatalogoMateriais catalogo) {
+		if(catalogo == this.catalogo) {
+			return;
+		}
+
+		this.catalogo = catalogo;
+		materiais = catalogo.getMateriais();
+		nomesMateriais = new byte[materiais.length][];
+		for(int i = 0; i < materiais.length; i++) {
+			nomesMateriais[i] = minusculas(materiais[i].getNome());
+		}
+	} // usarCatalogo(CatalogoMateriais catalogo)
+
+	/**
+	 *  Prepara o importador para uma nova leitura.
+	 */
+	void iniciar() {
+		if(catalogo == null) {
+			usarCatalogo(CatalogoMateriais.atual());
+		}
+		linha = 1;
+		linhasLidas = 0;
+		cabecalho = true;
+		pecasImportadas = 0;
+		erro = null;
+		iniciarLinha();
+	}
+
+	/**
+	 *  Função auxiliar que importa as peças dividindo o arquivo em trechos lidos em paralelo. Cada trecho começa logo após uma quebra de
+	 *  linha e é lido em uma estrutura parcial; as estruturas parciais são anexadas na ordem dos trechos e liberadas logo em seguida. Um
+	 *  novo trecho só é enviado ao pool quando o primeiro pendente é anexado, portanto no máximo TRECHOS_PENDENTES_POR_THREAD trechos por
+	 *  thread ficam em memória ao mesmo tempo, independentemente do tamanho do arquivo.
+	 *
+	 *  @param canal - o canal do arquivo
+	 *  @param tamanho - o tamanho do arquivo
+	 *
+	 *  @return o número de peças importadas
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 */
+	private int importarEmParalelo(FileChannel canal, long tamanho) throws IOException {
+		long inicioDados = proximaLinha(canal, 0, tamanho);
+		int quantidadeTrechos = (int) Math.max(1, Math.min((long) pool.getParallelism() * TRECHOS_POR_THREAD,
+				(tamanho - inicioDados) / TAMANHO_MINIMO_TRECHO));
+		List<Callable<ImportadorCSV>> trechos = new ArrayList<>(quantidadeTrechos);
+
+		for(long inicio = inicioDados, passo = (tamanho - inicioDados) / quantidadeTrechos; inicio < tamanho;) {
+			long fim = trechos.size() == quantidadeTrechos - 1 ? tamanho : proximaLinha(canal, Math.min(inicio + passo, tamanho), tamanho);
+			long inicioTrecho = inicio;
+
+			trechos.add(() -> lerTrecho(canal, inicioTrecho, fim));
+			inicio = fim;
+		}
+
+		// A primeira linha (cabeçalho) não pertence a nenhum trecho
+		long linhasAnteriores = 1;
+		int janela = Math.min(trechos.size(), pool.getParallelism() * TRECHOS_PENDENTES_POR_THREAD), enviados = 0;
+		Deque<ForkJoinTask<ImportadorCSV>> pendentes = new ArrayDeque<>(janela);
+		pecasImportadas = 0;
+
+		try {
+			while(enviados < janela) {
+				pendentes.add(pool.submit(trechos.get(enviados++)));
+			}
+
+			while(!pendentes.isEmpty()) {
+				ImportadorCSV parcial = resultado(pendentes.poll());
+
+				try {
+					estruturaMetalica.anexar(parcial.estruturaMetalica);
+				}
+				finally {
+					parcial.estruturaMetalica.liberar();
+				}
+				pecasImportadas += parcial.pecasImportadas;
+
+				if(parcial.erro != null)
+					throw parcial.erro.excecao(linhasAnteriores);
+
+				linhasAnteriores += parcial.linhasLidas;
+				if(enviados < trechos.size()) {
+					pendentes.add(pool.submit(trechos.get(enviados++)));
+				}
+			}
+		}
+		finally {
+			descartar(pendentes);
+		}
+
+		return pecasImportadas;
+	} // importarEmParalelo(FileChannel canal, long tamanho)
+
+	/**
+	 *  Função auxiliar que aguarda os trechos pendentes de uma importação interrompida por um erro e libera as suas estruturas parciais,
+	 *  que podem estar fora do heap.
+	 *
+	 *  @param pendentes - os trechos enviados ao pool e ainda não anexados
+	 */
+	private static void descartar(Deque<ForkJoinTask<ImportadorCSV>> pendentes) {
+		for(ForkJoinTask<ImportadorCSV> trecho : pendentes) {
+			trecho.quietlyJoin();
+
+			if(trecho.isCompletedNormally()) {
+				trecho.getRawResult().estruturaMetalica.liberar();
+			}
+		}
+	}
+
+	/**
+	 *  Função auxiliar que lê um trecho do arquivo em uma nova estrutura parcial, no mesmo tipo de armazenamento da estrutura importada
+	 *  (no heap ou fora dele), que deve ser liberada depois de utilizada. Um erro encontrado no trecho é guardado no importador retornado,
+	 *  junto com as peças lidas antes dele.
+	 *
+	 *  @param canal - o canal do arquivo
+	 *  @param inicio - posição do primeiro byte do trecho, logo após uma quebra de linha
+	 *  @param fim - posição seguinte ao último byte do trecho
+	 *
+	 *  @return o importador com a estrutura parcial do trecho
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 */
+	private ImportadorCSV lerTrecho(FileChannel canal, long inicio, long fim) throws IOException {
+		EstruturaMetalica estruturaParcial = estruturaMetalica.isForaDoHeap() ? EstruturaMetalica.foraDoHeap() : new EstruturaMetalica();
+
+		// A estrutura parcial já descarta as peças repetidas do trecho, e anexá-la descarta as repetidas entre os trechos
+		if(estruturaMetalica.isDeduplicacao()) {
+			estruturaParcial.setDeduplicacao(estruturaMetalica.getToleranciaDeduplicacao());
+		}
+
+		ImportadorCSV parcial = new ImportadorCSV(estruturaParcial, pool);
+
+		parcial.principal = this;
+		parcial.usarCatalogo(catalogo);
+		parcial.iniciar();
+		parcial.cabecalho = false;
+
+		try {
+			parcial.ler(canal, inicio, fim);
+			parcial.finalizar();
+		}
+		catch(ErroLinha e) {
+			parcial.erro = e;
+		}
+		catch(IOException | RuntimeException e) {
+			estruturaParcial.liberar();
+			throw e;
+		}
+		return parcial;
+	} // lerTrecho(FileChannel canal, long inicio, long fim)
+
+	/**
+	 *  Função auxiliar que substitui as peças das linhas alteradas desde a última reimportação pelas peças lidas do arquivo.
+	 *
+	 *  @param canal - o canal do arquivo
+	 *  @param tamanho - o tamanho do arquivo
+	 *  @param anteriores - os códigos hash das linhas de peças na última reimportação
+	 *  @param linhas - as linhas de peças atuais do arquivo
+	 *
+	 *  @return o número de peças convertidas, ou -1 caso as peças lidas não correspondam às linhas e o arquivo deva ser importado por
+	 *          completo
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 */
+	private int substituirAlteradas(FileChannel canal, long tamanho, long[] anteriores, LinhasArquivo linhas) throws IOException {
+		long[] atuais = linhas.hashes;
+		int quantidade = linhas.quantidade, comuns = Math.min(anteriores.length, quantidade), prefixo = 0, sufixo = 0;
+
+		while(prefixo < comuns && anteriores[prefixo] == atuais[prefixo]) {
+			prefixo++;
+		}
+		while(sufixo < comuns - prefixo && anteriores[anteriores.length - 1 - sufixo] == atuais[quantidade - 1 - sufixo]) {
+			sufixo++;
+		}
+
+		int removidas = anteriores.length - prefixo - sufixo, inseridas = quantidade - prefixo - sufixo;
+
+		if(removidas == 0 && inseridas == 0)
+			return 0;
+
+		EstruturaMetalica novas = new EstruturaMetalica();
+
+		if(inseridas > 0) {
+			long fim = prefixo + inseridas < quantidade ? linhas.inicios[prefixo + inseridas] : tamanho;
+			ImportadorCSV parcial = lerTrecho(canal, linhas.inicios[prefixo], fim);
+			novas = parcial.estruturaMetalica;
+
+			// O número da primeira linha do trecho no arquivo é o número de linhas anteriores a ela mais um
+			if(parcial.erro != null || parcial.pecasImportadas != inseridas) {
+				novas.liberar();
+
+				if(parcial.erro != null)
+					throw parcial.erro.excecao(linhas.numeros[prefixo]);
+				return -1;
+			}
+		}
+
+		try {
+			estruturaMetalica.substituirPecas(prefixo, removidas, novas);
+		}
+		finally {
+			novas.liberar();
+		}
+		return inseridas;
+	} // substituirAlteradas(FileChannel canal, long tamanho, long[] anteriores, LinhasArquivo linhas)
+
+	/**
+	 *  Função auxiliar que guarda as linhas de peças lidas e a versão atual das peças da estrutura para a próxima reimportação.
+	 *
+	 *  @param linhas - as linhas de peças do arquivo
+	 *  @param catalogo - o catálogo de materiais utilizado
+	 */
+	private void guardarLinhas(LinhasArquivo linhas, CatalogoMateriais catalogo) {
+		hashesLinhas = Arrays.copyOf(linhas.hashes, linhas.quantidade);
+		catalogoLinhas = catalogo;
+		versaoLinhas = estruturaMetalica.getVersao();
+	}
+
+	/**
+	 *  Função auxiliar que percorre o arquivo e obtém as suas linhas de peças. Assim como na importação, o cabeçalho e as linhas com menos
+	 *  de COLUNAS_MINIMAS colunas preenchidas são ignorados, e o código hash (FNV-1a de 64 bits) de cada linha ignora os retornos de carro.
+	 *
+	 *  @param canal - o canal do arquivo
+	 *  @param tamanho - o tamanho do arquivo
+	 *  @param previstas - número previsto de linhas de peças (por exemplo, o da última reimportação)
+	 *
+	 *  @return as linhas de peças do arquivo
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 */
+	private LinhasArquivo linhas(FileChannel canal, long tamanho, int previstas) throws IOException {
+		LinhasArquivo linhas = new LinhasArquivo(previstas);
+		long hash = LinhasArquivo.BASE_HASH, inicioLinha = 0;
+		int numero = 0, coluna = 0, ultimaPreenchida = -1;
+		boolean campoVazio = true;
+
+		for(long posicao = 0; posicao < tamanho; posicao += JANELA) {
+			ByteBuffer janela = canal.map(MapMode.READ_ONLY, posicao, Math.min(JANELA, tamanho - posicao));
+
+			verificarCancelamento();
+			for(int i = 0, fim = janela.limit(); i < fim; i++) {
+				byte b = janela.get(i);
+
+				if(b == NOVA_LINHA) {
+					if(!campoVazio) {
+						ultimaPreenchida = coluna;
+					}
+					// A primeira linha é o cabeçalho
+					if(numero > 0 && ultimaPreenchida + 1 >= COLUNAS_MINIMAS) {
+						linhas.adicionar(hash, inicioLinha, numero);
+					}
+
+					numero++;
+					inicioLinha = posicao + i + 1;
+					hash = LinhasArquivo.BASE_HASH;
+					coluna = 0;
+					ultimaPreenchida = -1;
+					campoVazio = true;
+				}
+				else if(b != RETORNO) {
+					hash = (hash ^ b) * LinhasArquivo.PRIMO_HASH;
+
+					if(b == SEPARADOR) {
+						if(!campoVazio) {
+							ultimaPreenchida = coluna;
+						}
+						coluna++;
+						campoVazio = true;
+					}
+					else {
+						campoVazio = false;
+					}
+				}
+			}
+		}
+
+		// Última linha sem quebra de linha
+		if(!campoVazio) {
+			ultimaPreenchida = coluna;
+		}
+		if(numero > 0 && ultimaPreenchida + 1 >= COLUNAS_MINIMAS) {
+			linhas.adicionar(hash, inicioLinha, numero);
+		}
+		return linhas;
+	} // linhas(FileChannel canal, long tamanho, int previstas)
+
+	/**
+	 *  Função auxiliar que lê o intervalo fornecido do arquivo, mapeando-o em memória por janelas.
+	 *
+	 *  @param canal - o canal do arquivo
+	 *  @param inicio - posição do primeiro byte a ser lido
+	 *  @param fim - posição seguinte ao último byte a ser lido
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 */
+	private void ler(FileChannel canal, long inicio, long fim) throws IOException {
+		for(long posicao = inicio; posicao < fim; posicao += JANELA) {
+			ByteBuffer janela = canal.map(MapMode.READ_ONLY, posicao, Math.min(JANELA, fim - posicao));
+
+			for(int inicioFatia = 0, tamanho = janela.limit(); inicioFatia < tamanho; inicioFatia += FATIA) {
+				int fimFatia = Math.min(tamanho, inicioFatia + FATIA);
+
+				principal.verificarCancelamento();
+				processar(janela.limit(fimFatia).position(inicioFatia));
+				principal.avancar(fimFatia - inicioFatia);
+			}
+		}
+	} // ler(FileChannel canal, long inicio, long fim)
+
+	/**
+	 *  Função auxiliar que interrompe a leitura caso a importação tenha sido cancelada.
+	 *
+	 *  @throws InterruptedIOException caso a importação tenha sido cancelada ou a thread que a iniciou tenha sido interrompida
+	 */
+	private void verificarCancelamento() throws InterruptedIOException {
+		if(cancelado || chamador.isInterrupted())
+			throw new InterruptedIOException(IMPORTACAO_INTERROMPIDA);
+	}
+
+	/**
+	 *  Função auxiliar que acumula os bytes processados e avisa o progresso da importação.
+	 *
+	 *  @param bytes - número de bytes processados desde o último aviso
+	 */
+	private void avancar(long bytes) {
+		long total = bytesProcessados.addAndGet(bytes);
+
+		if(progresso != null) {
+			progresso.accept((double) total / tamanhoArquivo);
+		}
+	}
+
+	/**
+	 *  Função auxiliar que obtém a posição seguinte à primeira quebra de linha a partir da posição fornecida.
+	 *
+	 *  @param canal - o canal do arquivo
+	 *  @param posicao - posição inicial da busca
+	 *  @param tamanho - o tamanho do arquivo
+	 *
+	 *  @return a posição logo após a quebra de linha, ou o tamanho do arquivo caso não exista outra quebra de linha
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo
+	 */
+	private static long proximaLinha(FileChannel canal, long posicao, long tamanho) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+		while(posicao < tamanho) {
+			buffer.clear();
+			int lidos = canal.read(buffer, posicao);
+			if(lidos < 0)
+				break;
+
+			for(int i = 0; i < lidos; i++) {
+				if(buffer.get(i) == NOVA_LINHA)
+					return posicao + i + 1;
+			}
+			posicao += lidos;
+		}
+		return tamanho;
+	} // proximaLinha(FileChannel canal, long posicao, long tamanho)
+
+	/**
+	 *  Função auxiliar que aguarda a leitura de um trecho e obtém o seu resultado.
+	 *
+	 *  @param trecho - a leitura do trecho
+	 *
+	 *  @return o importador com a estrutura parcial do trecho
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do arquivo ou a thread seja interrompida
+	 */
+	private static ImportadorCSV resultado(Future<ImportadorCSV> trecho) throws IOException {
+		try {
+			return trecho.get();
+		}
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(IMPORTACAO_INTERROMPIDA);
+		}
+		catch(ExecutionException e) {
+			Throwable causa = e.getCause();
+
+			// O pool encapsula as exceções verificadas dos trechos em uma RuntimeException, que pode ser encapsulada novamente ao ser
+			// repassada para a thread que aguarda o trecho
+			while(causa.getClass() == RuntimeException.class && causa.getCause() != null)
+				causa = causa.getCause();
+
+			if(causa instanceof IOException io)
+				throw io;
+			if(causa instanceof UncheckedIOException io)
+				throw io.getCause();
+			if(causa instanceof RuntimeException r)
+				throw r;
+			throw new IOException(causa);
+		}
+	} // resultado(Future<ImportadorCSV> trecho)
+
+	/**
+	 *  Processa os bytes disponíveis no buffer fornecido (da posição até o limite), continuando a leitura a partir do estado deixado pela
+	 *  chamada anterior. Uma linha pode começar em um buffer e terminar no próximo.
+	 *
+	 *  @param buffer - os bytes a serem processados
+	 */
+	void processar(ByteBuffer buffer) {
+		for(int i = buffer.position(), fim = buffer.limit(); i < fim; i++) {
+			byte b = buffer.get(i);
+
+			if(cabecalho) {
+				if(b == NOVA_LINHA) {
+					cabecalho = false;
+					linha++;
+					linhasLidas++;
+				}
+			}
+			else if(b == NOVA_LINHA) {
+				finalizarCampo();
+				finalizarLinha();
+				linhasLidas++;
+			}
+			else if(b == SEPARADOR) {
+				finalizarCampo();
+			}
+			else if(b != RETORNO) {
+				acrescentar(b);
+			}
+		}
+	} // processar(ByteBuffer buffer)
+
+	/**
+	 *  Finaliza a leitura, processando a última linha caso o arquivo não termine com uma quebra de linha.
+	 */
+	void finalizar() {
+		if(!cabecalho && (coluna > 0 || tamanhoCampo > 0)) {
+			finalizarCampo();
+			finalizarLinha();
+		}
+	}
+
+	/**
+	 *  Função auxiliar que acrescenta um byte ao campo sendo lido.
+	 *
+	 *  @param b - o byte lido
+	 */
+	private void acrescentar(byte b) {
+		if(tamanhoCampo == campo.length) {
+			campo = Arrays.copyOf(campo, campo.length * 2);
+		}
+		campo[tamanhoCampo++] = b;
+	}
+
+	/**
+	 *  Função auxiliar que interpreta o campo lido de acordo com a sua coluna.
+	 */
+	private void finalizarCampo() {
+		if(tamanhoCampo > 0) {
+			ultimaColunaPreenchida = coluna;
+		}
+
+		switch(coluna) {
+			case COLUNA_PECA -> tipo = tipoPeca();
+			case COLUNA_QUANTIDADE -> quantidadeValida = converterQuantidade();
+			case COLUNA_MATERIAL -> material = material();
+			case COLUNA_RAIO, COLUNA_ALTURA, COLUNA_LARGURA, COLUNA_PROFUNDIDADE, COLUNA_ARESTA ->
+				dimensoesValidas[coluna - COLUNA_RAIO] = converterDimensao(coluna - COLUNA_RAIO);
+			default -> {}
+		}
+
+		tamanhoCampo = 0;
+		coluna++;
+	} // finalizarCampo()
+
+	/**
+	 *  Função auxiliar que valida a linha lida e adiciona a peça correspondente na estrutura.
+	 *
+	 *  @throws ErroLinha caso o tipo de peça, o material ou algum valor numérico utilizado pela peça sejam inválidos
+	 */
+	private void finalizarLinha() throws ErroLinha {
+		if(ultimaColunaPreenchida + 1 >= COLUNAS_MINIMAS) {
+			if(tipo == TIPO_INVALIDO)
+				throw new ErroLinha(PECA_INVALIDA, linha, false);
+
+			if(material == null)
+				throw new ErroLinha(MATERIAL_INVALIDO, linha, false);
+
+			int quantidade = quantidade();
+
+			switch(tipo) {
+				case CUBO -> estruturaMetalica.adicionarCubo(quantidade, material, dimensao(COLUNA_ARESTA));
+				case CILINDRO -> estruturaMetalica.adicionarCilindro(quantidade, material, dimensao(COLUNA_RAIO), dimensao(COLUNA_ALTURA));
+				default -> estruturaMetalica.adicionarParalelepipedo(quantidade, material, dimensao(COLUNA_ALTURA), dimensao(COLUNA_LARGURA),
+						dimensao(COLUNA_PROFUNDIDADE));
+			}
+			pecasImportadas++;
+		}
+
+		linha++;
+		iniciarLinha();
+	} // finalizarLinha()
+
+	/**
+	 *  Função auxiliar que limpa o estado da linha sendo lida.
+	 */
+	private void iniciarLinha() {
+		coluna = 0;
+		tamanhoCampo = 0;
+		ultimaColunaPreenchida = -1;
+		tipo = TIPO_INVALIDO;
+		material = null;
+		quantidadeValida = false;
+		Arrays.fill(dimensoesValidas, false);
+	}
+
+	/**
+	 *  Função auxiliar que obtém a quantidade lida na linha.
+	 *
+	 *  @return a quantidade de peças
+	 *
+	 *  @throws ErroLinha caso a quantidade seja inválida
+	 */
+	private int quantidade() throws ErroLinha {
+		if(!quantidadeValida)
+			throw new ErroLinha(String.format(NUMERO_INVALIDO, COLUNA_QUANTIDADE + 1), linha, true);
+
+		return quantidade;
+	}
+
+	/**
+	 *  Função auxiliar que obtém uma dimensão lida na linha.
+	 *
+	 *  @param coluna - a coluna da dimensão
+	 *
+	 *  @return o valor da dimensão
+	 *
+	 *  @throws ErroLinha caso a dimensão esteja ausente ou seja inválida
+	 */
+	private double dimensao(int coluna) throws ErroLinha {
+		if(!dimensoesValidas[coluna - COLUNA_RAIO])
+			throw new ErroLinha(String.format(NUMERO_INVALIDO, coluna + 1), linha, true);
+
+		return dimensoes[coluna - COLUNA_RAIO];
+	}
+
+	/**
+	 *  Função auxiliar que identifica o tipo de peça do campo lido, sem diferenciar letras maiúsculas e minúsculas.
+	 *
+	 *  @return o tipo da peça, ou TIPO_INVALIDO caso o nome não seja reconhecido
+	 */
+	private int tipoPeca() {
+		if(iguais(NOME_CILINDRO))
+			return CILINDRO;
+		if(iguais(NOME_CUBO))
+			return CUBO;
+		if(iguais(NOME_PARALELEPIPEDO))
+			return PARALELEPIPEDO;
+
+		return TIPO_INVALIDO;
+	}
+
+	/**
+	 *  Função auxiliar que identifica o material do campo lido, sem diferenciar letras maiúsculas e minúsculas.
+	 *
+	 *  @return o material, ou null caso o nome não seja reconhecido
+	 */
+	private Material material() {
+		for(int i = 0; i < nomesMateriais.length; i++) {
+			if(iguais(nomesMateriais[i]))
+				return materiais[i];
+		}
+		return null;
+	}
+
+	/**
+	 *  Função auxiliar que compara o campo lido com um nome em letras minúsculas, sem diferenciar letras maiúsculas e minúsculas.
+	 *
+	 *  @param nome - o nome em letras minúsculas
+	 *
+	 *  @return true se o campo for igual ao nome
+	 */
+	private boolean iguais(byte[] nome) {
+		if(tamanhoCampo != nome.length)
+			return false;
+
+		for(int i = 0; i < tamanhoCampo; i++) {
+			byte b = campo[i];
+			if(b >= 'A' && b <= 'Z') {
+				b += 'a' - 'A';
+			}
+			if(b != nome[i])
+				return false;
+		}
+		return true;
+	} // iguais(byte[] nome)
+
+	/**
+	 *  Função auxiliar que converte o campo lido em um número inteiro, com as mesmas regras de Integer.parseInt.
+	 *
+	 *  @return true se o campo representar um número inteiro válido
+	 */
+	private boolean converterQuantidade() {
+		int i = 0;
+		boolean negativo = false;
+
+		if(tamanhoCampo > 0 && (campo[0] == '-' || campo[0] == '+')) {
+			negativo = campo[0] == '-';
+			i++;
+		}
+		if(i == tamanhoCampo)
+			return false;
+
+		long valor = 0;
+		for(; i < tamanhoCampo; i++) {
+			int digito = campo[i] - '0';
+			if(digito < 0 || digito > 9)
+				return false;
+
+			valor = valor * 10 + digito;
+			if(valor > (long) Integer.MAX_VALUE + 1)
+				return false;
+		}
+
+		valor = negativo ? -valor : valor;
+		if(valor > Integer.MAX_VALUE)
+			return false;
+
+		quantidade = (int) valor;
+		return true;
+	} // converterQuantidade()
+
+	/**
+	 *  Função auxiliar que converte o campo lido em um número real, com o mesmo resultado de Double.parseDouble. Números decimais simples
+	 *  (até 15 algarismos significativos) são convertidos diretamente a partir dos bytes; os demais formatos utilizam Double.parseDouble.
+	 *
+	 *  @param indice - índice da dimensão que receberá o valor
+	 *
+	 *  @return true se o campo representar um número real válido
+	 */
+	private boolean converterDimensao(int indice) {
+		if(tamanhoCampo == 0 || (tamanhoCampo == 1 && campo[0] == AUSENTE))
+			return false;
+
+		int i = 0, algarismos = 0, expoente = 0;
+		boolean negativo = false, algumDigito = false, ponto = false;
+		long mantissa = 0;
+
+		if(campo[0] == '-' || campo[0] == '+') {
+			negativo = campo[0] == '-';
+			i++;
+		}
+
+		for(; i < tamanhoCampo; i++) {
+			byte b = campo[i];
+
+			if(b >= '0' && b <= '9') {
+				algumDigito = true;
+				if(mantissa != 0 || b != '0') {
+					mantissa = mantissa * 10 + (b - '0');
+					algarismos++;
+				}
+				if(ponto) {
+					expoente--;
+				}
+			}
+			else if(b == '.' && !ponto) {
+				ponto = true;
+			}
+			else {
+				break;
+			}
+		}
+
+		if(i == tamanhoCampo && algumDigito && algarismos <= ALGARISMOS_MAXIMOS && -expoente < POTENCIAS_DE_DEZ.length) {
+			double valor = expoente == 0 ? mantissa : mantissa / POTENCIAS_DE_DEZ[-expoente];
+			dimensoes[indice] = negativo ? -valor : valor;
+			return true;
+		}
+
+		try {
+			dimensoes[indice] = Double.parseDouble(new String(campo, 0, tamanhoCampo, StandardCharsets.ISO_8859_1));
+			return true;
+		}
+		catch(NumberFormatException e) {
+			return false;
+		}
+	} // converterDimensao(int indice)
+
+	/**
+	 *  Função auxiliar que obtém os bytes de um nome em letras minúsculas.
+	 *
+	 *  @param nome - o nome
+	 *
+	 *  @return os bytes do nome em letras minúsculas
+	 */
+	private static byte[] minusculas(String nome) {
+		byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+
+		for(int i = 0; i < bytes.length; i++) {
+			if(bytes[i] >= 'A' && bytes[i] <= 'Z') {
+				bytes[i] += 'a' - 'A';
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 *  Linhas de peças de um arquivo: o código hash de cada linha, a posição do seu primeiro byte e o número de linhas do arquivo antes
+	 *  dela (contando o cabeçalho e as linhas ignoradas).
+	 */
+	private static final class LinhasArquivo {
+		/**
+		 *  Valor inicial e multiplicador do código hash FNV-1a de 64 bits.
+		 */
+		final static long BASE_HASH = 0xCBF29CE484222325L, PRIMO_HASH = 0x100000001B3L;
+
+		/**
+		 *  Capacidade inicial dos vetores.
+		 */
+		private final static int CAPACIDADE_INICIAL = 1024;
+
+		long[] hashes, inicios;
+		int[] numeros;
+		int quantidade;
+
+		/**
+		 *  Inicializa os vetores com espaço para o número previsto de linhas, com alguma folga para as linhas acrescentadas.
+		 *
+		 *  @param previstas - número previsto de linhas
+		 */
+		LinhasArquivo(int previstas) {
+			int capacidade = Math.max(CAPACIDADE_INICIAL, previstas + (previstas >> 4));
+
+			hashes = new long[capacidade];
+			inicios = new long[capacidade];
+			numeros = new int[capacidade];
+		}
+
+		/**
+		 *  Acrescenta uma linha de peça.
+		 *
+		 *  @param hash - o código hash da linha
+		 *  @param inicio - a posição do primeiro byte da linha
+		 *  @param numero - o número de linhas do arquivo antes dela
+		 */
+		void adicionar(long hash, long inicio, int numero) {
+			if(quantidade == hashes.length) {
+				hashes = Arrays.copyOf(hashes, quantidade * 2);
+				inicios = Arrays.copyOf(inicios, quantidade * 2);
+				numeros = Arrays.copyOf(numeros, quantidade * 2);
+			}
+			hashes[quantidade] = hash;
+			inicios[quantidade] = inicio;
+			numeros[quantidade++] = numero;
+		}
+	} // class LinhasArquivo
+
+	/**
+	 *  Erro encontrado em uma linha, com o número da linha relativo ao início da leitura. O erro é convertido em IllegalArgumentException ou
+	 *  NumberFormatException, com o número da linha no arquivo, somente quando é informado a quem chamou o importador.
+	 */
+	private static final class ErroLinha extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 *  Mensagem do erro (sem o número da linha), número da linha e se o erro é de um valor numérico.
+		 */
+		private final String mensagem;
+		private final long linha;
+		private final boolean numerico;
+
+		/**
+		 *  Inicializa um objeto recém-criado para que ele represente o erro encontrado em uma linha.
+		 *
+		 *  @param mensagem - mensagem do erro, sem o número da linha
+		 *  @param linha - número da linha, relativo ao início da leitura
+		 *  @param numerico - true se o erro for de um valor numérico
+		 */
+		ErroLinha(String mensagem, long linha, boolean numerico) {
+			super(mensagem, null, false, false);
+			this.mensagem = mensagem;
+			this.linha = linha;
+			this.numerico = numerico;
+		}
+
+		/**
+		 *  Cria a exceção informada a quem chamou o importador.
+		 *
+		 *  @param linhasAnteriores - número de linhas do arquivo antes do início da leitura
+		 *
+		 *  @return NumberFormatException para erros de valores numéricos e IllegalArgumentException para os demais erros
+		 */
+		RuntimeException excecao(long linhasAnteriores) {
+			String texto = String.format(FORMATO_ERRO, mensagem, linhasAnteriores + linha);
+			return numerico ? new NumberFormatException(texto) : new IllegalArgumentException(texto);
+		}
+	} // class ErroLinha
+} // class ImportadorCSV
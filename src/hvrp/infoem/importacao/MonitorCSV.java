@@ -0,0 +1,131 @@
+package hvrp.infoem.importacao;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ *  Essa classe acompanha as alterações de um arquivo .csv e reimporta as suas peças sempre que ele é modificado.
+ *
+ *  O diretório do arquivo é observado por um WatchService e cada alteração é aplicada por ImportadorCSV.reimportar(Path), que converte
+ *  somente as linhas modificadas. Como os editores costumam gravar o arquivo em várias etapas, os eventos que chegam em sequência são
+ *  agrupados em uma única reimportação.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public class MonitorCSV {
+	/**
+	 *  Tempo, em milissegundos, sem novos eventos para que uma sequência de alterações seja considerada terminada.
+	 */
+	private final static long ESPERA_EVENTOS = 50;
+
+	/**
+	 *  Importador que aplica as alterações na estrutura.
+	 */
+	private final ImportadorCSV importador;
+
+	/**
+	 *  Caminho do arquivo .csv acompanhado.
+	 */
+	private final Path arquivo;
+
+	/**
+	 *  Duração, em nanossegundos, da última importação.
+	 */
+	private volatile long duracao;
+
+	/**
+	 *  Inicializa um objeto recém-criado para que ele acompanhe o arquivo fornecido, aplicando as alterações com o importador fornecido.
+	 *
+	 *  @param importador - o importador da estrutura metálica
+	 *  @param arquivo - caminho do arquivo .csv
+	 */
+	public MonitorCSV(ImportadorCSV importador, Path arquivo) {
+		this.importador = importador;
+		this.arquivo = arquivo.toAbsolutePath();
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém a duração da última importação, inclusive das que falharam.
+	 *
+	 *  @return a duração da última importação, em nanossegundos
+	 */
+	public long getDuracao() {
+		return duracao;
+	}
+
+	/**
+	 *  Importa o arquivo e passa a acompanhá-lo, reimportando as peças a cada alteração, até que a thread seja interrompida. Os erros de
+	 *  uma reimportação (por exemplo, de um arquivo salvo pela metade ou de uma linha inválida) não encerram o acompanhamento: eles são
+	 *  informados e a próxima alteração é aplicada normalmente.
+	 *
+	 *  @param aoAtualizar - função avisada após cada importação, com o número de peças convertidas
+	 *  @param aoFalhar - função avisada dos erros das importações
+	 *
+	 *  @throws IOException caso não seja possível observar o diretório do arquivo
+	 *  @throws InterruptedException caso a thread seja interrompida
+	 */
+	public void monitorar(IntConsumer aoAtualizar, Consumer<Exception> aoFalhar) throws IOException, InterruptedException {
+		Path diretorio = arquivo.getParent(), nome = arquivo.getFileName();
+
+		try(WatchService observador = FileSystems.getDefault().newWatchService()) {
+			diretorio.register(observador, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			reimportar(aoAtualizar, aoFalhar);
+
+			while(true) {
+				boolean alterado = false;
+
+				// Agrupa os eventos até que o arquivo fique ESPERA_EVENTOS milissegundos sem alterações
+				for(WatchKey chave = observador.take(); chave != null; chave = observador.poll(ESPERA_EVENTOS, TimeUnit.MILLISECONDS)) {
+					for(WatchEvent<?> evento : chave.pollEvents()) {
+						alterado |= evento.kind() == StandardWatchEventKinds.OVERFLOW || nome.equals(evento.context());
+					}
+					chave.reset();
+				}
+
+				if(alterado) {
+					reimportar(aoAtualizar, aoFalhar);
+				}
+			}
+		}
+	} // monitorar(IntConsumer aoAtualizar, Consumer<Exception> aoFalhar)
+
+	/**
+	 *  Função auxiliar que reimporta o arquivo e avisa o resultado.
+	 *
+	 *  @param aoAtualizar - função avisada com o número de peças convertidas
+	 *  @param aoFalhar - função avisada do erro da importação
+	 *
+	 *  @throws InterruptedException caso a thread seja interrompida durante a importação
+	 */
+	private void reimportar(IntConsumer aoAtualizar, Consumer<Exception> aoFalhar) throws InterruptedException {
+		long inicio = System.nanoTime();
+		int convertidas;
+
+		try {
+			convertidas = importador.reimportar(arquivo);
+		}
+		catch(InterruptedIOException e) {
+			throw new InterruptedException(e.getMessage());
+		}
+		catch(IOException | RuntimeException e) {
+			duracao = System.nanoTime() - inicio;
+			aoFalhar.accept(e);
+			return;
+		}
+		duracao = System.nanoTime() - inicio;
+		aoAtualizar.accept(convertidas);
+	} // reimportar(IntConsumer aoAtualizar, Consumer<Exception> aoFalhar)
+} // class MonitorCSV
@@ -0,0 +1,7 @@
+/**
+ *  Armazena as classes responsáveis por importar as peças de uma estrutura metálica a partir de arquivos.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *  @version 0.1
+ */
+package hvrp.infoem.importacao;
\ No newline at end of file
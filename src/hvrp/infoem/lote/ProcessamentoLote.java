@@ -0,0 +1,354 @@
+package hvrp.infoem.lote;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.Peca;
+import hvrp.infoem.RelatorioPecas;
+import hvrp.infoem.ResumoEstrutura;
+import hvrp.infoem.importacao.ImportadorCSV;
+
+import static mos.io.InputOutput.SPACE;
+
+/**
+ *  Essa classe processa vários arquivos .csv de estruturas metálicas de uma só vez: cada arquivo é importado em uma estrutura própria,
+ *  recebe um relatório próprio e, ao final, é escrito um resumo com os totais de todos os arquivos.
+ *
+ *  Cada arquivo é processado em uma thread virtual. O número de arquivos lidos ou escritos ao mesmo tempo é limitado, e os cálculos das
+ *  estruturas (a leitura em paralelo dos arquivos grandes e o recálculo dos totais) utilizam um único ForkJoinPool compartilhado, portanto
+ *  o número de threads de plataforma não depende do número de arquivos. Cada estrutura é descartada assim que o seu relatório é escrito,
+ *  restando apenas o seu resumo.
+ *
+ *  Um arquivo que não pode ser importado (por exemplo, com uma linha inválida) não interrompe os demais: o erro é registrado no resultado
+ *  do arquivo e no resumo.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public class ProcessamentoLote {
+	/**
+	 *  Número padrão de arquivos lidos ou escritos ao mesmo tempo.
+	 */
+	public final static int LEITURAS_SIMULTANEAS = 4;
+
+	/**
+	 *  Padrão dos arquivos processados quando a origem é um diretório, extensões dos arquivos e nome do arquivo do resumo.
+	 */
+	private final static String PADRAO_CSV = "*.csv", EXTENSAO_CSV = ".csv", EXTENSAO_RELATORIO = ".txt", ARQUIVO_RESUMO = "Resumo.txt";
+
+	/**
+	 *  Caracteres que indicam que o último elemento da origem é um padrão (glob) e não um arquivo.
+	 */
+	private final static String CARACTERES_PADRAO = "*?[{";
+
+	/**
+	 *  Constante utilizada para arredondar os totais em duas casas decimais, como nos resumos das estruturas.
+	 */
+	private final static double CEM = 100.0;
+
+	/**
+	 *  Mensagens de erro.
+	 */
+	private final static String LEITURAS_INVALIDAS = "O número de leituras simultâneas deve ser maior ou igual a 1!";
+	private final static String PROCESSAMENTO_INTERROMPIDO = "Processamento interrompido!";
+
+	/**
+	 *  Limite dos arquivos lidos ou escritos ao mesmo tempo.
+	 */
+	private final Semaphore leituras;
+
+	/**
+	 *  Pool compartilhado pelos cálculos de todas as estruturas.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 *  Construtor default.
+	 *  Inicializa um processamento com LEITURAS_SIMULTANEAS leituras simultâneas e o pool comum.
+	 */
+	public ProcessamentoLote() {
+		this(LEITURAS_SIMULTANEAS, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 *  Inicializa um processamento com o limite de leituras simultâneas e o pool fornecidos.
+	 *
+	 *  @param leiturasSimultaneas - número máximo de arquivos lidos ou escritos ao mesmo tempo
+	 *  @param pool - o pool compartilhado pelos cálculos das estruturas
+	 *
+	 *  @throws IllegalArgumentException caso o número de leituras simultâneas seja menor que 1
+	 */
+	public ProcessamentoLote(int leiturasSimultaneas, ForkJoinPool pool) throws IllegalArgumentException {
+		if(leiturasSimultaneas < 1)
+			throw new IllegalArgumentException(LEITURAS_INVALIDAS);
+
+		leituras = new Semaphore(leiturasSimultaneas);
+		this.pool = pool;
+	}
+
+	/**
+	 *  Obtém os arquivos de uma origem, em ordem alfabética. A origem pode ser um diretório (todos os arquivos .csv do diretório), um padrão
+	 *  no último elemento do caminho (por exemplo, csv/estrutura-*.csv) ou um único arquivo.
+	 *
+	 *  @param origem - o diretório, o padrão ou o arquivo
+	 *
+	 *  @return os arquivos encontrados
+	 *
+	 *  @throws IOException caso ocorra algum problema na leitura do diretório
+	 */
+	public static List<Path> listarArquivos(String origem) throws IOException {
+		int separador = Math.max(origem.lastIndexOf('/'), origem.lastIndexOf('\\'));
+		String nome = origem.substring(separador + 1);
+		Path diretorio;
+		String padrao;
+
+		if(nome.chars().anyMatch(c -> CARACTERES_PADRAO.indexOf(c) >= 0)) {
+			diretorio = Path.of(separador < 0 ? "." : origem.substring(0, separador + 1));
+			padrao = nome;
+		}
+		else if(Files.isDirectory(Path.of(origem))) {
+			diretorio = Path.of(origem);
+			padrao = PADRAO_CSV;
+		}
+		else
+			return List.of(Path.of(origem));
+
+		List<Path> arquivos = new ArrayList<>();
+
+		try(DirectoryStream<Path> conteudo = Files.newDirectoryStream(diretorio, padrao)) {
+			for(Path arquivo : conteudo) {
+				if(Files.isRegularFile(arquivo)) {
+					arquivos.add(arquivo);
+				}
+			}
+		}
+		arquivos.sort(null);
+		return arquivos;
+	} // listarArquivos(String origem)
+
+	/**
+	 *  Processa os arquivos fornecidos, escrevendo no diretório de destino um relatório por arquivo (com o nome do arquivo e a extensão
+	 *  .txt) e o resumo de todos os arquivos (Resumo.txt).
+	 *
+	 *  @param arquivos - os arquivos .csv das estruturas
+	 *  @param destino - o diretório dos relatórios, criado caso não exista
+	 *
+	 *  @return o resultado de cada arquivo, na ordem fornecida
+	 *
+	 *  @throws IOException caso não seja possível criar o diretório de destino ou escrever o resumo
+	 *  @throws InterruptedException caso a thread seja interrompida (os arquivos em andamento também são interrompidos)
+	 */
+	public List<Resultado> processar(List<Path> arquivos, Path destino) throws IOException, InterruptedException {
+		List<Future<Resultado>> tarefas = new ArrayList<>(arquivos.size());
+		List<Resultado> resultados = new ArrayList<>(arquivos.size());
+
+		Files.createDirectories(destino);
+
+		try(ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+			for(Path arquivo : arquivos) {
+				tarefas.add(threads.submit(() -> processar(arquivo, destino)));
+			}
+
+			for(Future<Resultado> tarefa : tarefas) {
+				try {
+					resultados.add(tarefa.get());
+				}
+				catch(ExecutionException e) {
+					// processar(Path, Path) só deixa escapar a interrupção
+					throw new InterruptedException(PROCESSAMENTO_INTERROMPIDO);
+				}
+			}
+		}
+
+		Files.writeString(destino.resolve(ARQUIVO_RESUMO), textoResumo(resultados), StandardCharsets.UTF_8);
+		return resultados;
+	} // processar(List<Path> arquivos, Path destino)
+
+	/**
+	 *  Monta o texto do resumo de um processamento: o resultado de cada arquivo e os totais dos arquivos processados com sucesso (as latas
+	 *  de tinta são as latas de cada estrutura somadas).
+	 *
+	 *  @param resultados - os resultados dos arquivos
+	 *
+	 *  @return o texto do resumo
+	 */
+	public static String textoResumo(List<Resultado> resultados) {
+		StringBuilder resumo = new StringBuilder(String.format("\n%10c- ARQUIVOS:\n", SPACE));
+		double pesoTotal = 0, volumeTotal = 0;
+		int[] latas = new int[3];
+		int processados = 0;
+
+		for(Resultado resultado : resultados) {
+			ResumoEstrutura r = resultado.getResumo();
+
+			if(r == null) {
+				resumo.append(String.format("%20c%s: falha - %s\n", SPACE, resultado.getArquivo().getFileName(),
+						resultado.getErro().getMessage()));
+				continue;
+			}
+
+			resumo.append(String.format("%20c%s: %s peça(s), %s %s, %s %s\n", SPACE, resultado.getArquivo().getFileName(), r.getTotalPecas(),
+					r.getPesoTotal(), Peca.getUnidadePesoTotal(), r.getVolumeTotal(), Peca.getUnidadeVolume()));
+			pesoTotal += r.getPesoTotal();
+			volumeTotal += r.getVolumeTotal();
+			for(int i = 0; i < latas.length; i++) {
+				latas[i] += r.getLatasDeTinta(i);
+			}
+			processados++;
+		}
+
+		resumo.append(String.format("\n%10c- TOTAL (%s de %s arquivo(s) processado(s)):\n", SPACE, processados, resultados.size()));
+		resumo.append(String.format("%20cPeso Total: %s %s\n", SPACE, Math.round(pesoTotal * CEM) / CEM, Peca.getUnidadePesoTotal()));
+		resumo.append(String.format("%20cVolume Total: %s %s\n", SPACE, Math.round(volumeTotal * CEM) / CEM, Peca.getUnidadeVolume()));
+		resumo.append(String.format("%20cLatas de tinta necessárias para pintar as estruturas:\n", SPACE));
+		resumo.append(String.format("%30c5 litros: %s lata(s)\n%30c2 litros: %s lata(s)\n%30c0,5 litros: %s lata(s)\n", SPACE, latas[2], SPACE,
+				latas[1], SPACE, latas[0]));
+
+		return resumo.toString();
+	} // textoResumo(List<Resultado> resultados)
+
+	/**
+	 *  Função auxiliar que importa um arquivo e escreve o seu relatório. Executada na thread virtual do arquivo.
+	 *
+	 *  @param arquivo - o arquivo .csv da estrutura
+	 *  @param destino - o diretório dos relatórios
+	 *
+	 *  @return o resultado do arquivo, com o resumo da estrutura ou o erro encontrado
+	 *
+	 *  @throws InterruptedException caso o processamento seja interrompido
+	 */
+	private Resultado processar(Path arquivo, Path destino) throws InterruptedException {
+		EstruturaMetalica estrutura = new EstruturaMetalica();
+
+		estrutura.setPool(pool);
+
+		try {
+			leituras.acquire();
+			try {
+				new ImportadorCSV(estrutura, pool).importar(arquivo);
+			}
+			finally {
+				leituras.release();
+			}
+
+			ResumoEstrutura resumo = estrutura.obterResumo();
+
+			leituras.acquire();
+			try {
+				escreverRelatorio(estrutura, resumo, destino.resolve(nomeRelatorio(arquivo)));
+			}
+			finally {
+				leituras.release();
+			}
+			return new Resultado(arquivo, resumo, null);
+		}
+		catch(InterruptedIOException e) {
+			throw new InterruptedException(e.getMessage());
+		}
+		catch(IOException | RuntimeException e) {
+			return new Resultado(arquivo, null, e);
+		}
+	} // processar(Path arquivo, Path destino)
+
+	/**
+	 *  Função auxiliar que escreve o relatório de uma estrutura: o relatório base (o mesmo de EM.relatorioEM()) e a lista de peças.
+	 *
+	 *  @param estrutura - a estrutura metálica
+	 *  @param resumo - o resumo da estrutura
+	 *  @param relatorio - o arquivo do relatório
+	 *
+	 *  @throws IOException caso ocorra algum problema na escrita
+	 */
+	private static void escreverRelatorio(EstruturaMetalica estrutura, ResumoEstrutura resumo, Path relatorio) throws IOException {
+		try(BufferedWriter writer = Files.newBufferedWriter(relatorio, StandardCharsets.UTF_8)) {
+			writer.write(RelatorioPecas.textoResumo(resumo));
+			writer.write('\n');
+			new RelatorioPecas().escreverPecas(estrutura, writer);
+		}
+	}
+
+	/**
+	 *  Função auxiliar que obtém o nome do relatório de um arquivo, trocando a extensão .csv por .txt.
+	 *
+	 *  @param arquivo - o arquivo .csv
+	 *
+	 *  @return o nome do relatório
+	 */
+	private static String nomeRelatorio(Path arquivo) {
+		String nome = arquivo.getFileName().toString();
+
+		if(nome.regionMatches(true, nome.length() - EXTENSAO_CSV.length(), EXTENSAO_CSV, 0, EXTENSAO_CSV.length())) {
+			nome = nome.substring(0, nome.length() - EXTENSAO_CSV.length());
+		}
+		return nome + EXTENSAO_RELATORIO;
+	}
+
+	/**
+	 *  Resultado do processamento de um arquivo: o resumo da estrutura, caso o arquivo tenha sido processado, ou o erro encontrado.
+	 */
+	public static final class Resultado {
+		/**
+		 *  O arquivo processado, o resumo da sua estrutura e o erro encontrado.
+		 */
+		private final Path arquivo;
+		private final ResumoEstrutura resumo;
+		private final Exception erro;
+
+		/**
+		 *  Inicializa um objeto recém-criado para que ele represente o resultado de um arquivo.
+		 *
+		 *  @param arquivo - o arquivo processado
+		 *  @param resumo - o resumo da estrutura, ou null caso o arquivo não tenha sido processado
+		 *  @param erro - o erro encontrado, ou null caso o arquivo tenha sido processado
+		 */
+		Resultado(Path arquivo, ResumoEstrutura resumo, Exception erro) {
+			this.arquivo = arquivo;
+			this.resumo = resumo;
+			this.erro = erro;
+		}
+
+		/* Métodos Getters (Métodos de Acesso) */
+
+		/**
+		 *  Obtém o arquivo processado.
+		 *
+		 *  @return o arquivo processado
+		 */
+		public Path getArquivo() {
+			return arquivo;
+		}
+
+		/**
+		 *  Obtém o resumo da estrutura do arquivo.
+		 *
+		 *  @return o resumo da estrutura, ou null caso o arquivo não tenha sido processado
+		 */
+		public ResumoEstrutura getResumo() {
+			return resumo;
+		}
+
+		/**
+		 *  Obtém o erro encontrado no processamento do arquivo.
+		 *
+		 *  @return o erro encontrado, ou null caso o arquivo tenha sido processado
+		 */
+		public Exception getErro() {
+			return erro;
+		}
+	} // class Resultado
+} // class ProcessamentoLote
@@ -0,0 +1,7 @@
+/**
+ *  Armazena o processamento em lote, que importa vários arquivos de estruturas metálicas de uma só vez e escreve um relatório de cada um.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *  @version 0.1
+ */
+package hvrp.infoem.lote;
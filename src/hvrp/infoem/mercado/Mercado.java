@@ -1,8 +1,23 @@
 package hvrp.infoem.mercado;
 
+import java.nio.BufferOverflowException;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
 /**
  *  Essa classe representa um "Mercado" de latas de tinta, contendo latas de 5, 2 e 0.5 litros.
  *  
+ *  Além do cálculo padrão (calculaLatasDeTinta(double), que escolhe as latas da maior para a menor), um mercado pode ser criado com um
+ *  catálogo próprio de latas (capacidade, preço e estoque de cada lata) e escolhe a combinação de menor custo ou de menor desperdício
+ *  (Criterio). A combinação de cada consumo até o consumo máximo do mercado é calculada uma única vez, na criação do mercado, por
+ *  programação dinâmica sobre o consumo medido em passos (o maior divisor comum das capacidades, em mililitros), e cada consulta apenas
+ *  lê a combinação já calculada.
+ *  
+ *  Para calcular as latas de muitos consumos sem criar um vetor por consumo, os dois cálculos também escrevem as quantidades em um vetor
+ *  fornecido por quem chama: um consumo por vez (reutilizando o mesmo vetor) ou um vetor de consumos por vez, com as quantidades de cada
+ *  consumo lado a lado em um único vetor de inteiros (ou IntBuffer).
+ *  
  *  @author Hugo Vinícius Rodrigues Pereira
  *
  *  @version 0.1
@@ -23,11 +38,147 @@ public class Mercado {
      */
     public static final double LATA_05L = 0.5;
 	
-    /**
+	/**
+	 *  Número de tamanhos de lata do cálculo padrão (a quantidade de posições utilizadas por consumo).
+	 */
+	public static final int TAMANHOS_LATA = 3;
+	
+	/**
+	 *  Representa o estoque de uma lata sem limite de quantidade.
+	 */
+	public static final int ESTOQUE_ILIMITADO = Integer.MAX_VALUE;
+	
+	/**
+	 *  Consumo máximo padrão calculado antecipadamente, em litros.
+	 */
+	public static final double CONSUMO_MAXIMO_PADRAO = 10000.0;
+	
+	/**
+	 *  Número de mililitros em um litro e tolerância utilizada na conversão do consumo em passos (para que, por exemplo, 1.8 / 0.9 não
+	 *  seja arredondado para 3 passos).
+	 */
+	private static final double MILILITROS = 1000.0, TOLERANCIA = 1e-9;
+	
+	/**
+	 *  Maior memória, em bytes, dos vetores do cálculo antecipado: por total de passos, a quantidade de cada lata (quantidades), a
+	 *  combinação de cada consumo (combinacoes) e o custo e o número de latas utilizados somente durante o cálculo. Limita o cálculo a
+	 *  256 MB.
+	 */
+	private static final long MAXIMO_BYTES = 1L << 28;
+	
+	/**
+	 *  Mensagens de erro.
+	 */
+	private static final String CATALOGO_VAZIO = "O catálogo deve possuir pelo menos uma lata!";
+	private static final String LATA_INVALIDA = "Capacidade, preço ou estoque da lata inválido!";
+	private static final String CONSUMO_MAXIMO_INVALIDO = "O consumo máximo deve ser maior ou igual a zero!";
+	private static final String CONSUMO_MAXIMO_EXCESSIVO = "O consumo máximo exige mais de %d MB para a tabela de combinações!";
+	private static final String CONSUMO_INVALIDO = "Consumo de tinta inválido!";
+	private static final String ESTOQUE_INSUFICIENTE = "O estoque de latas não é suficiente para o consumo de %s litros!";
+	
+	/**
+	 *  Critérios de escolha da combinação de latas: menor custo total (com o menor desperdício entre as de mesmo custo) ou menor
+	 *  desperdício de tinta (com o menor custo entre as de mesmo desperdício). Nos dois critérios, entre as combinações equivalentes é
+	 *  escolhida a que possui menos latas.
+	 */
+	public enum Criterio {
+		MENOR_CUSTO, MENOR_DESPERDICIO
+	}
+	
+	/**
+	 *  Catálogo de latas do mercado e o critério de escolha das combinações.
+	 */
+	private final Lata[] latas;
+	private final Criterio criterio;
+	
+	/**
+	 *  Tamanho do passo, em litros, capacidade de cada lata em passos e número de passos do consumo máximo.
+	 */
+	private final double passo;
+	private final int[] passosLata;
+	private final int passosMaximos;
+	
+	/**
+	 *  Combinações calculadas antecipadamente: para cada consumo (em passos, até o consumo máximo), o total de passos da combinação
+	 *  escolhida (ou -1 sem combinação possível); e, para cada total de passos, a quantidade de cada lata da melhor combinação com
+	 *  exatamente esse total (linha a linha, na ordem do catálogo).
+	 */
+	private final int[] combinacoes;
+	private final int[] quantidades;
+	
+	/**
+	 *  Lata utilizada para cobrir o consumo acima do consumo máximo, ou -1 caso nenhuma lata possa ser utilizada (todas possuem estoque
+	 *  limitado).
+	 */
+	private final int lataExcedente;
+	
+	/**
 	 *  Construtor default.
-	 *  Inicializa um objeto recém-criado para que ele represente o Mercado.
+	 *  Inicializa um objeto recém-criado para que ele represente o Mercado, com as latas de 0,5, 2 e 5 litros (nessa ordem), sem limite de
+	 *  estoque e com o preço igual à capacidade, escolhendo as combinações de menor desperdício até CONSUMO_MAXIMO_PADRAO litros.
 	 */
-	public Mercado() {}
+	public Mercado() {
+		this(new Lata[] {new Lata(LATA_05L, LATA_05L, ESTOQUE_ILIMITADO), new Lata(LATA_2L, LATA_2L, ESTOQUE_ILIMITADO),
+				new Lata(LATA_5L, LATA_5L, ESTOQUE_ILIMITADO)}, Criterio.MENOR_DESPERDICIO, CONSUMO_MAXIMO_PADRAO);
+	}
+	
+	/**
+	 *  Inicializa um objeto recém-criado para que ele represente um mercado com o catálogo de latas fornecido, já calculando a combinação
+	 *  de cada consumo até o consumo máximo. O tempo e a memória do cálculo são proporcionais ao consumo máximo dividido pelo passo (o maior
+	 *  divisor comum das capacidades) e ao número de latas.
+	 *  
+	 *  @param latas - o catálogo de latas
+	 *  @param criterio - o critério de escolha das combinações
+	 *  @param consumoMaximo - o maior consumo, em litros, cuja combinação é calculada antecipadamente
+	 *  
+	 *  @throws IllegalArgumentException caso o catálogo esteja vazio, o consumo máximo seja negativo ou o cálculo das combinações até o
+	 *  consumo máximo exija mais de 256 MB (consumo máximo grande demais para o passo e o número das latas)
+	 */
+	public Mercado(Lata[] latas, Criterio criterio, double consumoMaximo) throws IllegalArgumentException {
+		if(latas.length == 0)
+			throw new IllegalArgumentException(CATALOGO_VAZIO);
+		if(!(consumoMaximo >= 0) || Double.isInfinite(consumoMaximo))
+			throw new IllegalArgumentException(CONSUMO_MAXIMO_INVALIDO);
+		
+		this.latas = latas.clone();
+		this.criterio = Objects.requireNonNull(criterio);
+		
+		int passoMililitros = 0;
+		for(Lata lata : this.latas) {
+			passoMililitros = mdc(passoMililitros, lata.mililitros);
+		}
+		
+		passo = passoMililitros / MILILITROS;
+		passosLata = new int[this.latas.length];
+		int maiorLata = 0;
+		for(int i = 0; i < passosLata.length; i++) {
+			passosLata[i] = this.latas[i].mililitros / passoMililitros;
+			maiorLata = Math.max(maiorLata, passosLata[i]);
+		}
+		
+		passosMaximos = passos(consumoMaximo);
+		
+		// Uma combinação mínima (sem nenhuma lata sobrando) cobre o consumo com menos de uma lata a mais
+		int totalMaximo;
+		long bytes;
+		try {
+			totalMaximo = Math.addExact(passosMaximos, maiorLata);
+			// Por total: uma quantidade por lata, a combinação (combinacoes não passa de totalMaximo + 1 posições), o custo e o número
+			// de latas
+			bytes = Math.multiplyExact(totalMaximo + 1L, (long) Integer.BYTES * (this.latas.length + 2) + Double.BYTES);
+		}
+		catch(ArithmeticException e) {
+			throw new IllegalArgumentException(String.format(CONSUMO_MAXIMO_EXCESSIVO, MAXIMO_BYTES >> 20), e);
+		}
+		if(bytes > MAXIMO_BYTES)
+			throw new IllegalArgumentException(String.format(CONSUMO_MAXIMO_EXCESSIVO, MAXIMO_BYTES >> 20));
+		
+		quantidades = new int[(totalMaximo + 1) * this.latas.length];
+		combinacoes = new int[passosMaximos + 1];
+		lataExcedente = lataExcedente();
+		
+		calcularCombinacoes(totalMaximo);
+	} // Mercado(Lata[] latas, Criterio criterio, double consumoMaximo)
     
     /* Métodos Getters (Métodos de Acesso) */
 	
@@ -57,6 +208,33 @@ public class Mercado {
 	public static final double getLata05l() {
 		return LATA_05L;
 	}
+	
+	/**
+	 *  Obtém o catálogo de latas do mercado.
+	 *
+	 *  @return uma cópia do catálogo de latas
+	 */
+	public Lata[] getLatas() {
+		return latas.clone();
+	}
+	
+	/**
+	 *  Obtém o critério de escolha das combinações.
+	 *
+	 *  @return o critério de escolha das combinações
+	 */
+	public Criterio getCriterio() {
+		return criterio;
+	}
+	
+	/**
+	 *  Obtém o maior consumo cuja combinação foi calculada antecipadamente.
+	 *
+	 *  @return o consumo máximo, em litros
+	 */
+	public double getConsumoMaximo() {
+		return passosMaximos * passo;
+	}
 
 	/**
 	 * 	Calcula quantas latas de tinta serão necessárias utilizando o consumo fornecido, em litros, como base.
@@ -67,16 +245,377 @@ public class Mercado {
 	 *          irá conter a quantidade de latas de 0.5L.
 	 */
 	public static int[] calculaLatasDeTinta(double consumo) {
-		int[] latas = {0,0,0};
+		int[] latas = new int[TAMANHOS_LATA];
 		
-		latas[2] = (int) (consumo / LATA_5L);
-		consumo -= latas[2] * LATA_5L;
-
-	    latas[1] = (int) (consumo / LATA_2L);
-	    consumo -= latas[1] * LATA_2L;
-
-	    latas[0] = (int) Math.ceil(consumo / LATA_05L); 
-	    
+		escreverLatas(consumo, latas, 0);
 		return latas;
 	}
-}
+	
+	/**
+	 *  Calcula quantas latas de tinta serão necessárias para o consumo fornecido, como em calculaLatasDeTinta(double), escrevendo as
+	 *  quantidades em um vetor já existente em vez de criar um novo.
+	 *  
+	 *  @param consumo - o consumo de tinta em litros
+	 *  @param latas - o vetor que recebe a quantidade de latas de 0.5L, 2L e 5L (posições 0, 1 e 2)
+	 *  
+	 *  @throws IndexOutOfBoundsException caso o vetor possua menos de TAMANHOS_LATA posições
+	 */
+	public static void calculaLatasDeTinta(double consumo, int[] latas) throws IndexOutOfBoundsException {
+		Objects.checkFromIndexSize(0, TAMANHOS_LATA, latas.length);
+		escreverLatas(consumo, latas, 0);
+	}
+	
+	/**
+	 *  Calcula quantas latas de tinta serão necessárias para cada consumo do vetor fornecido, como em calculaLatasDeTinta(double). As
+	 *  quantidades do consumo i são escritas nas posições 3 * i (0.5L), 3 * i + 1 (2L) e 3 * i + 2 (5L) do destino.
+	 *  
+	 *  @param consumos - os consumos de tinta em litros
+	 *  @param destino - o vetor que recebe as quantidades, com pelo menos TAMANHOS_LATA posições por consumo
+	 *  
+	 *  @throws IndexOutOfBoundsException caso o destino seja menor que o necessário
+	 */
+	public static void calculaLatasDeTinta(double[] consumos, int[] destino) throws IndexOutOfBoundsException {
+		calculaLatasDeTinta(consumos, 0, consumos.length, destino, 0);
+	}
+	
+	/**
+	 *  Calcula quantas latas de tinta serão necessárias para um trecho do vetor de consumos, escrevendo as quantidades de cada consumo
+	 *  lado a lado a partir da posição fornecida do destino.
+	 *  
+	 *  @param consumos - os consumos de tinta em litros
+	 *  @param inicio - a posição do primeiro consumo calculado
+	 *  @param quantidade - o número de consumos calculados
+	 *  @param destino - o vetor que recebe as quantidades
+	 *  @param posicao - a posição do destino que recebe a primeira quantidade
+	 *  
+	 *  @throws IndexOutOfBoundsException caso o trecho esteja fora do vetor de consumos ou do destino
+	 */
+	public static void calculaLatasDeTinta(double[] consumos, int inicio, int quantidade, int[] destino, int posicao)
+			throws IndexOutOfBoundsException {
+		Objects.checkFromIndexSize(inicio, quantidade, consumos.length);
+		Objects.checkFromIndexSize(posicao, Math.multiplyExact(quantidade, TAMANHOS_LATA), destino.length);
+		
+		// Laço sem desvios e sem criação de objetos, com os limites já verificados
+		for(int i = 0; i < quantidade; i++) {
+			escreverLatas(consumos[inicio + i], destino, posicao + i * TAMANHOS_LATA);
+		}
+	}
+	
+	/**
+	 *  Calcula quantas latas de tinta serão necessárias para cada consumo do vetor fornecido, como em calculaLatasDeTinta(double[], int[]),
+	 *  escrevendo as quantidades a partir da posição atual do buffer, que avança TAMANHOS_LATA posições por consumo.
+	 *  
+	 *  @param consumos - os consumos de tinta em litros
+	 *  @param destino - o buffer que recebe as quantidades
+	 *  
+	 *  @throws BufferOverflowException caso o buffer não possua espaço para todas as quantidades (nada é escrito)
+	 */
+	public static void calculaLatasDeTinta(double[] consumos, IntBuffer destino) throws BufferOverflowException {
+		if(destino.remaining() < (long) consumos.length * TAMANHOS_LATA)
+			throw new BufferOverflowException();
+		
+		int posicao = destino.position();
+		
+		if(destino.hasArray()) {
+			calculaLatasDeTinta(consumos, 0, consumos.length, destino.array(), destino.arrayOffset() + posicao);
+		}
+		else {
+			// Buffers sem vetor (diretos ou mapeados) recebem as quantidades por posição absoluta, a partir de um único vetor auxiliar
+			int[] latas = new int[TAMANHOS_LATA];
+			
+			for(int i = 0; i < consumos.length; i++, posicao += TAMANHOS_LATA) {
+				escreverLatas(consumos[i], latas, 0);
+				destino.put(posicao, latas, 0, TAMANHOS_LATA);
+			}
+		}
+		destino.position(destino.position() + consumos.length * TAMANHOS_LATA);
+	} // calculaLatasDeTinta(double[] consumos, IntBuffer destino)
+	
+	/**
+	 *  Função auxiliar que calcula as latas de tinta de um consumo, escolhendo as latas da maior para a menor, e escreve as quantidades de
+	 *  latas de 0.5L, 2L e 5L, nessa ordem, a partir da posição fornecida.
+	 *  
+	 *  @param consumo - o consumo de tinta em litros
+	 *  @param destino - o vetor que recebe as quantidades
+	 *  @param posicao - a posição da quantidade de latas de 0.5L
+	 */
+	private static void escreverLatas(double consumo, int[] destino, int posicao) {
+		int latas5 = (int) (consumo / LATA_5L);
+		consumo -= latas5 * LATA_5L;
+		
+		int latas2 = (int) (consumo / LATA_2L);
+		consumo -= latas2 * LATA_2L;
+		
+		destino[posicao] = (int) Math.ceil(consumo / LATA_05L);
+		destino[posicao + 1] = latas2;
+		destino[posicao + 2] = latas5;
+	}
+	
+	/**
+	 *  Obtém a combinação de latas do catálogo escolhida para o consumo fornecido. Até o consumo máximo, a combinação já está calculada;
+	 *  acima dele, o consumo excedente é coberto pela lata de menor custo por litro (ou, no critério de menor desperdício, pela maior lata)
+	 *  sem limite de estoque, e o restante pela combinação calculada.
+	 *  
+	 *  @param consumo - o consumo de tinta em litros
+	 *  
+	 *  @return a quantidade de cada lata, na ordem do catálogo
+	 *  
+	 *  @throws IllegalArgumentException caso o consumo seja negativo ou inválido, ou o estoque não seja suficiente
+	 */
+	public int[] calcularLatas(double consumo) throws IllegalArgumentException {
+		int[] quantidadesLatas = new int[latas.length];
+		
+		preencherLatas(consumo, quantidadesLatas, 0);
+		return quantidadesLatas;
+	}
+	
+	/**
+	 *  Obtém a combinação de latas do catálogo escolhida para o consumo fornecido, como em calcularLatas(double), escrevendo as
+	 *  quantidades em um vetor já existente em vez de criar um novo.
+	 *  
+	 *  @param consumo - o consumo de tinta em litros
+	 *  @param quantidadesLatas - o vetor que recebe a quantidade de cada lata, na ordem do catálogo
+	 *  
+	 *  @throws IllegalArgumentException caso o consumo seja negativo ou inválido, ou o estoque não seja suficiente
+	 *  @throws IndexOutOfBoundsException caso o vetor possua menos posições que o número de latas do catálogo
+	 */
+	public void calcularLatas(double consumo, int[] quantidadesLatas) throws IllegalArgumentException, IndexOutOfBoundsException {
+		Objects.checkFromIndexSize(0, latas.length, quantidadesLatas.length);
+		preencherLatas(consumo, quantidadesLatas, 0);
+	}
+	
+	/**
+	 *  Obtém a combinação de latas do catálogo escolhida para cada consumo do vetor fornecido. As quantidades do consumo i são escritas a
+	 *  partir da posição i * (número de latas do catálogo) do destino, na ordem do catálogo.
+	 *  
+	 *  @param consumos - os consumos de tinta em litros
+	 *  @param destino - o vetor que recebe as quantidades
+	 *  
+	 *  @throws IllegalArgumentException caso algum consumo seja negativo ou inválido, ou o estoque não seja suficiente (as quantidades
+	 *  dos consumos anteriores já foram escritas)
+	 *  @throws IndexOutOfBoundsException caso o destino seja menor que o necessário
+	 */
+	public void calcularLatas(double[] consumos, int[] destino) throws IllegalArgumentException, IndexOutOfBoundsException {
+		Objects.checkFromIndexSize(0, Math.multiplyExact(consumos.length, latas.length), destino.length);
+		
+		for(int i = 0, posicao = 0; i < consumos.length; i++, posicao += latas.length) {
+			preencherLatas(consumos[i], destino, posicao);
+		}
+	}
+	
+	/**
+	 *  Calcula o custo de uma combinação de latas do catálogo.
+	 *  
+	 *  @param quantidadesLatas - a quantidade de cada lata, na ordem do catálogo
+	 *  
+	 *  @return o custo total da combinação
+	 */
+	public double calcularCusto(int[] quantidadesLatas) {
+		double custo = 0;
+		
+		for(int i = 0; i < latas.length; i++) {
+			custo += quantidadesLatas[i] * latas[i].preco;
+		}
+		return custo;
+	}
+	
+	/**
+	 *  Função auxiliar que escreve a combinação de latas de um consumo em um vetor, a partir da posição fornecida.
+	 *  
+	 *  @param consumo - o consumo de tinta em litros
+	 *  @param destino - o vetor que recebe a quantidade de cada lata
+	 *  @param posicao - a posição da primeira lata no vetor
+	 *  
+	 *  @throws IllegalArgumentException caso o consumo seja negativo ou inválido, ou o estoque não seja suficiente
+	 */
+	private void preencherLatas(double consumo, int[] destino, int posicao) throws IllegalArgumentException {
+		if(!(consumo >= 0) || Double.isInfinite(consumo))
+			throw new IllegalArgumentException(CONSUMO_INVALIDO);
+		
+		int passosConsumo = passos(consumo), excedentes = 0;
+		
+		if(passosConsumo > passosMaximos) {
+			if(lataExcedente < 0)
+				throw new IllegalArgumentException(String.format(ESTOQUE_INSUFICIENTE, consumo));
+			
+			int capacidade = passosLata[lataExcedente];
+			excedentes = (passosConsumo - passosMaximos + capacidade - 1) / capacidade;
+			passosConsumo -= excedentes * capacidade;
+		}
+		
+		int total = combinacoes[passosConsumo];
+		if(total < 0)
+			throw new IllegalArgumentException(String.format(ESTOQUE_INSUFICIENTE, consumo));
+		
+		System.arraycopy(quantidades, total * latas.length, destino, posicao, latas.length);
+		if(excedentes > 0) {
+			destino[posicao + lataExcedente] += excedentes;
+		}
+	} // preencherLatas(double consumo, int[] destino, int posicao)
+	
+	/**
+	 *  Função auxiliar que calcula, por programação dinâmica, a melhor combinação para cada total exato de passos e, a partir delas, a
+	 *  combinação escolhida para cada consumo até o consumo máximo.
+	 *  
+	 *  O estoque de cada lata é dividido em grupos de 1, 2, 4, ... latas (o último grupo com o restante), e cada grupo é utilizado no
+	 *  máximo uma vez, de forma que qualquer quantidade até o estoque possa ser formada com um número logarítmico de grupos.
+	 *  
+	 *  @param totalMaximo - o maior total de passos considerado
+	 */
+	private void calcularCombinacoes(int totalMaximo) {
+		int tipos = latas.length;
+		double[] custos = new double[totalMaximo + 1];
+		int[] numeroLatas = new int[totalMaximo + 1];
+		
+		Arrays.fill(custos, Double.POSITIVE_INFINITY);
+		custos[0] = 0;
+		
+		for(int i = 0; i < tipos; i++) {
+			int restantes = Math.min(latas[i].estoque, totalMaximo / passosLata[i]);
+			
+			for(int grupo = 1; restantes > 0; grupo <<= 1) {
+				int quantidade = Math.min(grupo, restantes), peso = quantidade * passosLata[i];
+				double custoGrupo = quantidade * latas[i].preco;
+				
+				restantes -= quantidade;
+				for(int total = totalMaximo; total >= peso; total--) {
+					int anterior = total - peso;
+					double custo = custos[anterior] + custoGrupo;
+					int numero = numeroLatas[anterior] + quantidade;
+					
+					if(custo < custos[total] || (custo == custos[total] && numero < numeroLatas[total])) {
+						custos[total] = custo;
+						numeroLatas[total] = numero;
+						System.arraycopy(quantidades, anterior * tipos, quantidades, total * tipos, tipos);
+						quantidades[total * tipos + i] += quantidade;
+					}
+				}
+			}
+		}
+		
+		// Percorre os totais do maior para o menor, guardando o melhor total maior ou igual a cada consumo. Um total menor sempre desperdiça
+		// menos, portanto no mesmo custo ele substitui o anterior; o número de latas só desempata combinações com o mesmo total
+		int melhor = -1;
+		for(int total = totalMaximo; total >= 0; total--) {
+			if(custos[total] != Double.POSITIVE_INFINITY && (melhor < 0 || criterio == Criterio.MENOR_DESPERDICIO
+					|| custos[total] <= custos[melhor])) {
+				melhor = total;
+			}
+			if(total < combinacoes.length) {
+				combinacoes[total] = melhor;
+			}
+		}
+	} // calcularCombinacoes(int totalMaximo)
+	
+	/**
+	 *  Função auxiliar que escolhe a lata utilizada para cobrir o consumo acima do consumo máximo: entre as latas sem limite de estoque, a
+	 *  de menor custo por litro (no critério de menor custo) ou a maior (no critério de menor desperdício).
+	 *  
+	 *  @return a posição da lata no catálogo, ou -1 caso todas as latas possuam estoque limitado
+	 */
+	private int lataExcedente() {
+		int escolhida = -1;
+		
+		for(int i = 0; i < latas.length; i++) {
+			if(latas[i].estoque != ESTOQUE_ILIMITADO)
+				continue;
+			
+			if(escolhida < 0 || (criterio == Criterio.MENOR_CUSTO
+					? latas[i].preco / passosLata[i] < latas[escolhida].preco / passosLata[escolhida]
+					: passosLata[i] > passosLata[escolhida])) {
+				escolhida = i;
+			}
+		}
+		return escolhida;
+	} // lataExcedente()
+	
+	/**
+	 *  Função auxiliar que converte um consumo, em litros, no número de passos necessários para cobri-lo.
+	 *  
+	 *  @param consumo - o consumo em litros
+	 *  
+	 *  @return o número de passos
+	 */
+	private int passos(double consumo) {
+		return (int) Math.min(Integer.MAX_VALUE, Math.max(0, Math.ceil(consumo / passo - TOLERANCIA)));
+	}
+	
+	/**
+	 *  Função auxiliar que calcula o maior divisor comum de dois números.
+	 *  
+	 *  @param a - um número
+	 *  @param b - o outro número
+	 *  
+	 *  @return o maior divisor comum
+	 */
+	private static int mdc(int a, int b) {
+		while(b != 0) {
+			int resto = a % b;
+			a = b;
+			b = resto;
+		}
+		return a;
+	}
+	
+	/**
+	 *  Essa classe representa uma lata do catálogo de um mercado: capacidade, preço e estoque.
+	 */
+	public static final class Lata {
+		/**
+		 *  Capacidade da lata, em litros e em mililitros, preço da lata e quantidade disponível.
+		 */
+		private final double capacidade;
+		private final int mililitros;
+		private final double preco;
+		private final int estoque;
+		
+		/**
+		 *  Inicializa um objeto recém-criado para que ele represente uma lata do catálogo.
+		 *  
+		 *  @param capacidade - a capacidade da lata, em litros (arredondada para mililitros)
+		 *  @param preco - o preço da lata
+		 *  @param estoque - a quantidade disponível, ou ESTOQUE_ILIMITADO
+		 *  
+		 *  @throws IllegalArgumentException caso a capacidade seja menor que 1 mililitro, o preço seja negativo ou o estoque seja negativo
+		 */
+		public Lata(double capacidade, double preco, int estoque) throws IllegalArgumentException {
+			if(!(capacidade * MILILITROS >= 1 && capacidade * MILILITROS <= Integer.MAX_VALUE) || !(preco >= 0)
+					|| Double.isInfinite(preco) || estoque < 0)
+				throw new IllegalArgumentException(LATA_INVALIDA);
+			
+			this.capacidade = capacidade;
+			this.mililitros = (int) Math.round(capacidade * MILILITROS);
+			this.preco = preco;
+			this.estoque = estoque;
+		}
+		
+		/* Métodos Getters (Métodos de Acesso) */
+		
+		/**
+		 *  Obtém a capacidade da lata.
+		 *
+		 *  @return a capacidade da lata, em litros
+		 */
+		public double getCapacidade() {
+			return capacidade;
+		}
+		
+		/**
+		 *  Obtém o preço da lata.
+		 *
+		 *  @return o preço da lata
+		 */
+		public double getPreco() {
+			return preco;
+		}
+		
+		/**
+		 *  Obtém a quantidade disponível da lata.
+		 *
+		 *  @return a quantidade disponível, ou ESTOQUE_ILIMITADO
+		 */
+		public int getEstoque() {
+			return estoque;
+		}
+	} // class Lata
+} // class Mercado
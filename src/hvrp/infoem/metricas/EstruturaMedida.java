@@ -0,0 +1,94 @@
+package hvrp.infoem.metricas;
+
+import hvrp.infoem.Estrutura;
+
+/**
+ *  Essa classe mede a latência das operações de outra Estrutura: cada chamada é repassada para a estrutura fornecida e a sua duração é
+ *  registrada no histograma da operação (Estrutura.pesoTotal, Estrutura.volumeTotal, Estrutura.numeroDeLatasDeTinta e
+ *  Estrutura.volumeTotalPeca), caso o registro esteja ativo.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class EstruturaMedida implements Estrutura {
+	/**
+	 *  Nomes das operações no registro.
+	 */
+	private final static String PESO_TOTAL = "Estrutura.pesoTotal", VOLUME_TOTAL = "Estrutura.volumeTotal",
+			LATAS_DE_TINTA = "Estrutura.numeroDeLatasDeTinta", VOLUME_TOTAL_PECA = "Estrutura.volumeTotalPeca";
+
+	/**
+	 *  Estrutura medida e registro das latências.
+	 */
+	private final Estrutura estrutura;
+	private final RegistroMetricas registro;
+
+	/**
+	 *  Inicializa uma medição das operações da estrutura fornecida, registrando as latências no registro global.
+	 *
+	 *  @param estrutura - a estrutura medida
+	 */
+	public EstruturaMedida(Estrutura estrutura) {
+		this(estrutura, RegistroMetricas.global());
+	}
+
+	/**
+	 *  Inicializa uma medição das operações da estrutura fornecida, registrando as latências no registro fornecido.
+	 *
+	 *  @param estrutura - a estrutura medida
+	 *  @param registro - o registro das latências
+	 */
+	public EstruturaMedida(Estrutura estrutura, RegistroMetricas registro) {
+		this.estrutura = estrutura;
+		this.registro = registro;
+	}
+
+	@Override
+	public double pesoTotal() {
+		long inicio = System.nanoTime();
+
+		try {
+			return estrutura.pesoTotal();
+		}
+		finally {
+			registro.registrar(PESO_TOTAL, System.nanoTime() - inicio);
+		}
+	}
+
+	@Override
+	public double volumeTotal() {
+		long inicio = System.nanoTime();
+
+		try {
+			return estrutura.volumeTotal();
+		}
+		finally {
+			registro.registrar(VOLUME_TOTAL, System.nanoTime() - inicio);
+		}
+	}
+
+	@Override
+	public int[] numeroDeLatasDeTinta() {
+		long inicio = System.nanoTime();
+
+		try {
+			return estrutura.numeroDeLatasDeTinta();
+		}
+		finally {
+			registro.registrar(LATAS_DE_TINTA, System.nanoTime() - inicio);
+		}
+	}
+
+	@Override
+	public double volumeTotalPeca(int tipoPeca) throws IllegalArgumentException {
+		long inicio = System.nanoTime();
+
+		try {
+			return estrutura.volumeTotalPeca(tipoPeca);
+		}
+		finally {
+			registro.registrar(VOLUME_TOTAL_PECA, System.nanoTime() - inicio);
+		}
+	}
+} // class EstruturaMedida
@@ -0,0 +1,50 @@
+package hvrp.infoem.metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ *  Evento do JDK Flight Recorder emitido ao final de cada fase medida por MedicaoFase. A duração do evento é a duração da fase, e os
+ *  campos trazem o volume de trabalho da fase (os campos que não se aplicam à fase ficam com zero).
+ *
+ *  O evento só é gravado quando uma gravação está ativa (por exemplo, com -XX:StartFlightRecording); sem gravação, o custo é o de
+ *  criar o objeto do evento.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+@Name("hvrp.infoem.Fase")
+@Label("Fase do programa")
+@Category({"InfoEM", "Fases"})
+@Description("Duração e volume de trabalho de uma fase do programa: importação, cálculo, relatório ou exibição")
+@StackTrace(false)
+final class EventoFase extends Event {
+	@Label("Fase")
+	String fase;
+
+	@Label("Linhas")
+	@Description("Número de linhas (peças distintas) processadas")
+	long linhas;
+
+	@Label("Bytes lidos")
+	@DataAmount
+	long bytesLidos;
+
+	@Label("Peças")
+	@Description("Número total de peças, somando as quantidades")
+	long pecas;
+
+	@Label("Peças por segundo")
+	double pecasPorSegundo;
+
+	@Label("Bytes alocados")
+	@Description("Estimativa dos bytes alocados pela thread que executou a fase (-1 caso a JVM não forneça a medida)")
+	@DataAmount
+	long bytesAlocados;
+} // class EventoFase
@@ -0,0 +1,42 @@
+package hvrp.infoem.metricas;
+
+/**
+ *  Fases do programa medidas por MedicaoFase.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public enum Fase {
+	CATALOGO("Carregamento do catálogo de materiais"),
+	COPIA_BINARIA("Carregamento da cópia binária"),
+	IMPORTACAO("Importação do arquivo .csv"),
+	CALCULO("Cálculo do resumo"),
+	RELATORIO("Montagem do relatório"),
+	EXIBICAO("Exibição do relatório");
+
+	/**
+	 *  Descrição da fase, utilizada no resumo dos tempos e nos eventos.
+	 */
+	private final String descricao;
+
+	/**
+	 *  Inicializa uma fase com a descrição fornecida.
+	 *
+	 *  @param descricao - a descrição da fase
+	 */
+	private Fase(String descricao) {
+		this.descricao = descricao;
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém a descrição da fase.
+	 *
+	 *  @return a descrição da fase
+	 */
+	public String getDescricao() {
+		return descricao;
+	}
+} // enum Fase
@@ -0,0 +1,241 @@
+package hvrp.infoem.metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Essa classe mede uma fase do programa: a duração, o número de linhas, os bytes lidos, o número de peças e uma estimativa dos bytes
+ *  alocados. Ao ser concluída, a medição emite um evento do JDK Flight Recorder (hvrp.infoem.Fase) e, caso o registro de métricas global
+ *  esteja ativo, registra a duração no histograma da fase.
+ *
+ *  A estimativa de alocação conta apenas a thread que iniciou a medição: o trabalho de outras threads (por exemplo, a importação em
+ *  paralelo de um arquivo grande) não é incluído.
+ *
+ *  Cada medição deve ser iniciada e concluída pela mesma thread.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class MedicaoFase {
+	/**
+	 *  Acesso às medidas de alocação das threads, ou null caso a JVM não as forneça.
+	 */
+	private final static com.sun.management.ThreadMXBean THREADS = threads();
+
+	/**
+	 *  Número de bytes em um megabyte, utilizado no resumo dos tempos.
+	 */
+	private final static double MEGABYTE = 1024.0 * 1024.0;
+
+	/**
+	 *  Mensagem de erro.
+	 */
+	private final static String MEDICAO_CONCLUIDA = "A medição da fase já foi concluída!";
+
+	/**
+	 *  Fase medida e o evento emitido ao final.
+	 */
+	private final Fase fase;
+	private final EventoFase evento;
+
+	/**
+	 *  Instante do início da fase e bytes já alocados pela thread no início.
+	 */
+	private final long inicio, alocadosInicio;
+
+	/**
+	 *  Resultados da medição (a duração é -1 enquanto a fase não for concluída).
+	 */
+	private long duracao = -1, linhas, bytesLidos, pecas, bytesAlocados;
+
+	/**
+	 *  Função auxiliar que inicializa a medição e já inicia a contagem do tempo.
+	 *
+	 *  @param fase - a fase medida
+	 */
+	private MedicaoFase(Fase fase) {
+		this.fase = fase;
+		evento = new EventoFase();
+		alocadosInicio = alocados();
+		evento.begin();
+		inicio = System.nanoTime();
+	}
+
+	/**
+	 *  Inicia a medição de uma fase.
+	 *
+	 *  @param fase - a fase medida
+	 *
+	 *  @return a medição iniciada
+	 */
+	public static MedicaoFase iniciar(Fase fase) {
+		return new MedicaoFase(fase);
+	}
+
+	/**
+	 *  Conclui a medição de uma fase sem linhas, bytes ou peças associados.
+	 *
+	 *  @throws IllegalStateException caso a medição já tenha sido concluída
+	 */
+	public void concluir() throws IllegalStateException {
+		concluir(0, 0, 0);
+	}
+
+	/**
+	 *  Conclui a medição de uma fase, emitindo o evento e registrando a duração.
+	 *
+	 *  @param linhas - o número de linhas (peças distintas) processadas
+	 *  @param bytesLidos - o número de bytes lidos
+	 *  @param pecas - o número total de peças, somando as quantidades
+	 *
+	 *  @throws IllegalStateException caso a medição já tenha sido concluída
+	 */
+	public void concluir(long linhas, long bytesLidos, long pecas) throws IllegalStateException {
+		long fim = System.nanoTime();
+
+		if(duracao >= 0)
+			throw new IllegalStateException(MEDICAO_CONCLUIDA);
+
+		evento.end();
+		duracao = fim - inicio;
+		this.linhas = linhas;
+		this.bytesLidos = bytesLidos;
+		this.pecas = pecas;
+		bytesAlocados = alocadosInicio < 0 ? -1 : alocados() - alocadosInicio;
+
+		if(evento.shouldCommit()) {
+			evento.fase = fase.getDescricao();
+			evento.linhas = linhas;
+			evento.bytesLidos = bytesLidos;
+			evento.pecas = pecas;
+			evento.pecasPorSegundo = getPecasPorSegundo();
+			evento.bytesAlocados = bytesAlocados;
+			evento.commit();
+		}
+		RegistroMetricas.global().registrar(fase.getDescricao(), duracao);
+	} // concluir(long linhas, long bytesLidos, long pecas)
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém a fase medida.
+	 *
+	 *  @return a fase medida
+	 */
+	public Fase getFase() {
+		return fase;
+	}
+
+	/**
+	 *  Obtém a duração da fase.
+	 *
+	 *  @return a duração da fase, em nanossegundos, ou -1 caso a fase não tenha sido concluída
+	 */
+	public long getDuracao() {
+		return duracao;
+	}
+
+	/**
+	 *  Obtém o número de linhas (peças distintas) processadas na fase.
+	 *
+	 *  @return o número de linhas
+	 */
+	public long getLinhas() {
+		return linhas;
+	}
+
+	/**
+	 *  Obtém o número de bytes lidos na fase.
+	 *
+	 *  @return o número de bytes lidos
+	 */
+	public long getBytesLidos() {
+		return bytesLidos;
+	}
+
+	/**
+	 *  Obtém o número total de peças da fase, somando as quantidades.
+	 *
+	 *  @return o número de peças
+	 */
+	public long getPecas() {
+		return pecas;
+	}
+
+	/**
+	 *  Obtém o número de peças processadas por segundo na fase.
+	 *
+	 *  @return o número de peças por segundo, ou 0 caso a fase não tenha peças ou não tenha sido concluída
+	 */
+	public double getPecasPorSegundo() {
+		return duracao > 0 ? pecas * (double) TimeUnit.SECONDS.toNanos(1) / duracao : 0;
+	}
+
+	/**
+	 *  Obtém a estimativa dos bytes alocados pela thread que executou a fase.
+	 *
+	 *  @return o número de bytes alocados, ou -1 caso a JVM não forneça a medida
+	 */
+	public long getBytesAlocados() {
+		return bytesAlocados;
+	}
+
+	/**
+	 *  Monta o texto do resumo dos tempos das fases concluídas, na ordem fornecida, com o mesmo recuo do relatório base.
+	 *
+	 *  @param medicoes - as medições das fases
+	 *
+	 *  @return o texto do resumo dos tempos
+	 */
+	public static String textoTempos(List<MedicaoFase> medicoes) {
+		StringBuilder texto = new StringBuilder(String.format("\n%10c- TEMPOS DAS FASES:\n", ' '));
+		long total = 0;
+
+		for(MedicaoFase medicao : medicoes) {
+			if(medicao.duracao < 0)
+				continue;
+
+			total += medicao.duracao;
+			texto.append(String.format("%20c%s: %.3f ms", ' ', medicao.fase.getDescricao(), medicao.duracao / 1e6));
+			if(medicao.linhas > 0) {
+				texto.append(String.format(" | %d linha(s)", medicao.linhas));
+			}
+			if(medicao.bytesLidos > 0) {
+				texto.append(String.format(" | %d bytes lidos", medicao.bytesLidos));
+			}
+			if(medicao.pecas > 0) {
+				texto.append(String.format(" | %.0f peças/s", medicao.getPecasPorSegundo()));
+			}
+			if(medicao.bytesAlocados >= 0) {
+				texto.append(String.format(" | %.2f MB alocados", medicao.bytesAlocados / MEGABYTE));
+			}
+			texto.append('\n');
+		}
+		texto.append(String.format("%20cTotal: %.3f ms\n", ' ', total / 1e6));
+
+		return texto.toString();
+	} // textoTempos(List<MedicaoFase> medicoes)
+
+	/**
+	 *  Função auxiliar que obtém o número de bytes já alocados pela thread atual.
+	 *
+	 *  @return o número de bytes alocados, ou -1 caso a JVM não forneça a medida
+	 */
+	private static long alocados() {
+		return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 *  Função auxiliar que obtém o acesso às medidas de alocação das threads, caso a JVM as forneça e estejam ativadas.
+	 *
+	 *  @return o acesso às medidas de alocação, ou null
+	 */
+	private static com.sun.management.ThreadMXBean threads() {
+		if(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+				&& threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled())
+			return threads;
+		return null;
+	}
+} // class MedicaoFase
@@ -0,0 +1,254 @@
+package hvrp.infoem.metricas;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  Registro em memória das latências das operações do programa (as fases medidas por MedicaoFase e as operações de Estrutura medidas
+ *  por EstruturaMedida), com um histograma por operação.
+ *
+ *  O registro global começa desativado: enquanto estiver desativado, registrar uma latência não faz nada. Os histogramas guardam as
+ *  latências em faixas de potências de 2 nanossegundos, portanto a memória utilizada não depende do número de registros e os percentis
+ *  são aproximados pelo limite superior da faixa (no máximo o dobro do valor real).
+ *
+ *  O registro pode ser utilizado por várias threads ao mesmo tempo.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public final class RegistroMetricas {
+	/**
+	 *  Registro global, utilizado por MedicaoFase e, por padrão, por EstruturaMedida.
+	 */
+	private final static RegistroMetricas GLOBAL = new RegistroMetricas();
+
+	/**
+	 *  Histogramas de cada operação, na ordem do primeiro registro.
+	 */
+	private final Map<String, Histograma> histogramas;
+
+	/**
+	 *  Indica se as latências estão sendo registradas.
+	 */
+	private volatile boolean ativo;
+
+	/**
+	 *  Construtor default.
+	 *  Inicializa um registro vazio e desativado.
+	 */
+	public RegistroMetricas() {
+		histogramas = new LinkedHashMap<>();
+	}
+
+	/**
+	 *  Obtém o registro global.
+	 *
+	 *  @return o registro global
+	 */
+	public static RegistroMetricas global() {
+		return GLOBAL;
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Verifica se as latências estão sendo registradas.
+	 *
+	 *  @return true se o registro estiver ativo
+	 */
+	public boolean isAtivo() {
+		return ativo;
+	}
+
+	/**
+	 *  Passa a registrar as latências das operações.
+	 */
+	public void ativar() {
+		ativo = true;
+	}
+
+	/**
+	 *  Deixa de registrar as latências das operações. Os histogramas já registrados são mantidos.
+	 */
+	public void desativar() {
+		ativo = false;
+	}
+
+	/**
+	 *  Remove todos os histogramas registrados.
+	 */
+	public synchronized void limpar() {
+		histogramas.clear();
+	}
+
+	/**
+	 *  Registra a latência de uma execução da operação fornecida, caso o registro esteja ativo.
+	 *
+	 *  @param operacao - o nome da operação
+	 *  @param nanos - a latência, em nanossegundos
+	 */
+	public void registrar(String operacao, long nanos) {
+		if(ativo) {
+			obterHistograma(operacao).registrar(nanos);
+		}
+	}
+
+	/**
+	 *  Obtém o histograma da operação fornecida, criando um histograma vazio caso a operação ainda não tenha sido registrada.
+	 *
+	 *  @param operacao - o nome da operação
+	 *
+	 *  @return o histograma da operação
+	 */
+	public synchronized Histograma obterHistograma(String operacao) {
+		return histogramas.computeIfAbsent(operacao, nome -> new Histograma());
+	}
+
+	/**
+	 *  Monta o texto com a latência de cada operação registrada: o número de execuções, a média, os percentis 50 e 99 e o máximo.
+	 *
+	 *  @return o texto das latências
+	 */
+	public String textoLatencias() {
+		List<Map.Entry<String, Histograma>> registrados;
+
+		synchronized(this) {
+			registrados = new ArrayList<>(histogramas.entrySet());
+		}
+
+		StringBuilder texto = new StringBuilder(String.format("\n%10c- LATÊNCIA DAS OPERAÇÕES:\n", ' '));
+		for(Map.Entry<String, Histograma> registrado : registrados) {
+			Histograma histograma = registrado.getValue();
+
+			texto.append(String.format("%20c%s: %d execução(ões) | média %.3f ms | p50 até %.3f ms | p99 até %.3f ms | máximo %.3f ms\n",
+					' ', registrado.getKey(), histograma.getContagem(), histograma.getMedia() / 1e6, histograma.percentil(0.5) / 1e6,
+					histograma.percentil(0.99) / 1e6, histograma.getMaximo() / 1e6));
+		}
+		return texto.toString();
+	} // textoLatencias()
+
+	/**
+	 *  Histograma das latências de uma operação, em faixas de potências de 2 nanossegundos: a faixa k guarda as latências com k bits
+	 *  significativos (de 2^(k-1) a 2^k - 1 nanossegundos).
+	 */
+	public static final class Histograma {
+		/**
+		 *  Número de faixas do histograma (uma para cada número de bits de um long não negativo).
+		 */
+		private final static int FAIXAS = Long.SIZE;
+
+		/**
+		 *  Número de latências de cada faixa.
+		 */
+		private final AtomicLongArray faixas;
+
+		/**
+		 *  Número de latências, soma e maior latência registrada.
+		 */
+		private final LongAdder contagem, soma;
+		private final LongAccumulator maximo;
+
+		/**
+		 *  Inicializa um histograma vazio.
+		 */
+		private Histograma() {
+			faixas = new AtomicLongArray(FAIXAS);
+			contagem = new LongAdder();
+			soma = new LongAdder();
+			maximo = new LongAccumulator(Math::max, 0);
+		}
+
+		/**
+		 *  Registra uma latência. Latências negativas são registradas como zero.
+		 *
+		 *  @param nanos - a latência, em nanossegundos
+		 */
+		void registrar(long nanos) {
+			long latencia = Math.max(nanos, 0);
+
+			faixas.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(latencia));
+			contagem.increment();
+			soma.add(latencia);
+			maximo.accumulate(latencia);
+		}
+
+		/* Métodos Getters (Métodos de Acesso) */
+
+		/**
+		 *  Obtém o número de latências registradas.
+		 *
+		 *  @return o número de latências
+		 */
+		public long getContagem() {
+			return contagem.sum();
+		}
+
+		/**
+		 *  Obtém a soma das latências registradas.
+		 *
+		 *  @return a soma das latências, em nanossegundos
+		 */
+		public long getSoma() {
+			return soma.sum();
+		}
+
+		/**
+		 *  Obtém a maior latência registrada.
+		 *
+		 *  @return a maior latência, em nanossegundos
+		 */
+		public long getMaximo() {
+			return maximo.get();
+		}
+
+		/**
+		 *  Obtém a média das latências registradas.
+		 *
+		 *  @return a média das latências, em nanossegundos, ou 0 sem registros
+		 */
+		public double getMedia() {
+			long registradas = contagem.sum();
+
+			return registradas == 0 ? 0 : (double) soma.sum() / registradas;
+		}
+
+		/**
+		 *  Obtém um limite superior do percentil fornecido: o limite da faixa que contém o percentil, sem ultrapassar o máximo.
+		 *
+		 *  @param fracao - o percentil, entre 0 e 1 (por exemplo, 0.99 para o percentil 99)
+		 *
+		 *  @return o limite superior do percentil, em nanossegundos, ou 0 sem registros
+		 *
+		 *  @throws IllegalArgumentException caso a fração esteja fora do intervalo [0, 1]
+		 */
+		public long percentil(double fracao) throws IllegalArgumentException {
+			if(!(fracao >= 0 && fracao <= 1))
+				throw new IllegalArgumentException("O percentil deve estar entre 0 e 1!");
+
+			long total = 0;
+			long[] contagens = new long[FAIXAS];
+			for(int i = 0; i < FAIXAS; i++) {
+				contagens[i] = faixas.get(i);
+				total += contagens[i];
+			}
+			if(total == 0)
+				return 0;
+
+			long posicao = Math.max(1, (long) Math.ceil(fracao * total)), acumulado = 0;
+			int faixa = 0;
+			while(faixa < FAIXAS - 1 && (acumulado += contagens[faixa]) < posicao) {
+				faixa++;
+			}
+
+			// Limite da faixa: 2^faixa - 1 (a faixa 0 guarda apenas latências iguais a zero)
+			long limite = faixa == 0 ? 0 : -1L >>> (Long.SIZE - faixa);
+			return Math.min(limite, getMaximo());
+		} // percentil(double fracao)
+	} // class Histograma
+} // class RegistroMetricas
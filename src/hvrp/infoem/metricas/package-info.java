@@ -0,0 +1,8 @@
+/**
+ *  Armazena as classes responsáveis por medir o tempo das fases do programa (eventos do JDK Flight Recorder e resumo dos tempos) e a
+ *  latência das operações de uma estrutura metálica.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *  @version 0.1
+ */
+package hvrp.infoem.metricas;
@@ -0,0 +1,547 @@
+package hvrp.infoem.servico;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import hvrp.infoem.EstruturaMetalica;
+import hvrp.infoem.ResumoEstrutura;
+import hvrp.infoem.importacao.ImportadorCSV;
+
+import static hvrp.infoem.Estrutura.CILINDRO;
+import static hvrp.infoem.Estrutura.CUBO;
+import static hvrp.infoem.Estrutura.PARALELEPIPEDO;
+
+/**
+ *  Essa classe representa um serviço HTTP local que calcula as informações de estruturas metálicas (as mesmas da interface Estrutura:
+ *  peso total, volume total, latas de tinta e volume por tipo de peça) para outros programas, sem iniciar uma nova JVM a cada cálculo.
+ *
+ *  Rotas do serviço:
+ *  - POST /estruturas: recebe as peças de uma estrutura e responde com as suas informações em JSON, incluindo o identificador da
+ *    estrutura. O corpo é um arquivo .csv (lido à medida que chega, sem ser guardado por inteiro) ou, com o tipo
+ *    application/octet-stream, uma cópia binária gravada por EstruturaMetalica.salvar(Path);
+ *  - GET /estruturas/{id}: responde com as informações de uma estrutura enviada recentemente, sem enviá-la novamente;
+ *  - GET /estatisticas: responde com os contadores do serviço (requisições, erros, bytes recebidos, latência, vazão e acertos do cache).
+ *
+ *  Cada requisição é atendida em uma thread virtual. O corpo das requisições tem um tamanho máximo, e as estruturas enviadas mais
+ *  recentemente são mantidas em um cache (apenas os seus resumos), identificadas pelo código SHA-256 do seu conteúdo: a consulta de uma
+ *  estrutura do cache, ou o envio de uma cópia binária já presente no cache, não cria uma nova estrutura.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *
+ *  @version 0.1
+ */
+public class ServicoCalculo {
+	/**
+	 *  Porta padrão do serviço, tamanho máximo padrão do corpo das requisições (64 MiB) e número padrão de estruturas no cache.
+	 */
+	public final static int PORTA_PADRAO = 8080;
+	public final static long TAMANHO_MAXIMO_PADRAO = 64L << 20;
+	public final static int CAPACIDADE_CACHE_PADRAO = 32;
+
+	/**
+	 *  Rotas do serviço.
+	 */
+	private final static String ROTA_ESTRUTURAS = "/estruturas", ROTA_ESTATISTICAS = "/estatisticas";
+
+	/**
+	 *  Métodos HTTP, cabeçalhos e tipos de conteúdo utilizados.
+	 */
+	private final static String POST = "POST", GET = "GET";
+	private final static String TIPO_CONTEUDO = "Content-Type", TAMANHO_CONTEUDO = "Content-Length", PERMITIDOS = "Allow";
+	private final static String TIPO_BINARIO = "application/octet-stream", TIPO_JSON = "application/json; charset=utf-8";
+
+	/**
+	 *  Códigos de resposta HTTP.
+	 */
+	private final static int OK = 200, CRIADO = 201, REQUISICAO_INVALIDA = 400, NAO_ENCONTRADO = 404, METODO_NAO_PERMITIDO = 405,
+			CONTEUDO_MUITO_GRANDE = 413, ERRO_INTERNO = 500;
+
+	/**
+	 *  Número de bytes do código SHA-256 utilizados no identificador das estruturas.
+	 */
+	private final static int BYTES_IDENTIFICADOR = 8;
+
+	/**
+	 *  Mensagens de erro.
+	 */
+	private final static String TAMANHO_INVALIDO = "O tamanho máximo deve ser maior que zero!";
+	private final static String CAPACIDADE_INVALIDA = "A capacidade do cache deve ser maior que zero!";
+	private final static String CONTEUDO_GRANDE = "O conteúdo excede o tamanho máximo de %d bytes!";
+	private final static String ESTRUTURA_NAO_ENCONTRADA = "Estrutura não encontrada!";
+	private final static String ROTA_DESCONHECIDA = "Rota não encontrada!";
+	private final static String METODO_INVALIDO = "Método não permitido!";
+
+	/**
+	 *  Servidor HTTP e as threads que atendem as requisições.
+	 */
+	private final HttpServer servidor;
+	private final ExecutorService threads;
+
+	/**
+	 *  Tamanho máximo do corpo das requisições, em bytes.
+	 */
+	private final long tamanhoMaximo;
+
+	/**
+	 *  Resumos das estruturas enviadas mais recentemente, indexados pelo identificador e ordenados pelo último acesso. Como o resumo é
+	 *  imutável, ele pode ser enviado por várias requisições ao mesmo tempo, e a estrutura é descartada assim que o resumo é calculado.
+	 */
+	private final Map<String, ResumoEstrutura> cache;
+
+	/**
+	 *  Contadores do serviço: requisições atendidas, requisições com erro, bytes recebidos, tempo total e maior tempo de atendimento (em
+	 *  nanossegundos), acertos e falhas do cache e o instante em que o serviço foi iniciado.
+	 */
+	private final LongAdder requisicoes = new LongAdder(), erros = new LongAdder(), bytesRecebidos = new LongAdder(),
+			tempoTotal = new LongAdder(), acertos = new LongAdder(), falhas = new LongAdder();
+	private final AtomicLong tempoMaximo = new AtomicLong();
+	private volatile long inicio;
+
+	/**
+	 *  Inicializa um serviço na porta fornecida do endereço local (loopback), com o tamanho máximo e a capacidade do cache padrão.
+	 *
+	 *  @param porta - a porta do serviço, ou 0 para utilizar uma porta livre
+	 *
+	 *  @throws IOException caso não seja possível utilizar a porta
+	 */
+	public ServicoCalculo(int porta) throws IOException {
+		this(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), TAMANHO_MAXIMO_PADRAO, CAPACIDADE_CACHE_PADRAO);
+	}
+
+	/**
+	 *  Inicializa um serviço no endereço fornecido.
+	 *
+	 *  @param endereco - o endereço e a porta do serviço
+	 *  @param tamanhoMaximo - o tamanho máximo do corpo das requisições, em bytes
+	 *  @param capacidadeCache - o número de estruturas mantidas no cache
+	 *
+	 *  @throws IOException caso não seja possível utilizar o endereço
+	 *  @throws IllegalArgumentException caso o tamanho máximo ou a capacidade do cache não sejam maiores que zero
+	 */
+	public ServicoCalculo(InetSocketAddress endereco, long tamanhoMaximo, int capacidadeCache) throws IOException, IllegalArgumentException {
+		if(tamanhoMaximo <= 0)
+			throw new IllegalArgumentException(TAMANHO_INVALIDO);
+		if(capacidadeCache <= 0)
+			throw new IllegalArgumentException(CAPACIDADE_INVALIDA);
+
+		this.tamanhoMaximo = tamanhoMaximo;
+		cache = new LinkedHashMap<>(capacidadeCache * 2, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ResumoEstrutura> maisAntiga) {
+				return size() > capacidadeCache;
+			}
+		};
+
+		threads = Executors.newVirtualThreadPerTaskExecutor();
+		servidor = HttpServer.create(endereco, 0);
+		servidor.setExecutor(threads);
+		servidor.createContext(ROTA_ESTRUTURAS, troca -> atender(troca, this::estruturas));
+		servidor.createContext(ROTA_ESTATISTICAS, troca -> atender(troca, this::estatisticas));
+	}
+
+	/* Métodos Getters (Métodos de Acesso) */
+
+	/**
+	 *  Obtém a porta em que o serviço atende as requisições.
+	 *
+	 *  @return a porta do serviço
+	 */
+	public int getPorta() {
+		return servidor.getAddress().getPort();
+	}
+
+	/**
+	 *  Inicia o atendimento das requisições.
+	 */
+	public void iniciar() {
+		inicio = System.nanoTime();
+		servidor.start();
+	}
+
+	/**
+	 *  Encerra o serviço, aguardando até o tempo fornecido para que as requisições em andamento terminem.
+	 *
+	 *  @param segundos - o tempo máximo de espera, em segundos
+	 */
+	public void parar(int segundos) {
+		servidor.stop(segundos);
+		threads.shutdownNow();
+	}
+
+	/**
+	 *  Monta o texto JSON dos contadores do serviço.
+	 *
+	 *  @return os contadores do serviço em JSON
+	 */
+	public String estatisticas() {
+		long atendidas = requisicoes.sum();
+		double segundos = (System.nanoTime() - inicio) / 1e9;
+		int emCache;
+
+		synchronized(cache) {
+			emCache = cache.size();
+		}
+
+		return new StringBuilder("{\"requisicoes\":").append(atendidas).append(",\"erros\":").append(erros.sum())
+			.append(",\"bytesRecebidos\":").append(bytesRecebidos.sum())
+			.append(",\"latenciaMediaMs\":").append(atendidas == 0 ? 0 : tempoTotal.sum() / 1e6 / atendidas)
+			.append(",\"latenciaMaximaMs\":").append(tempoMaximo.get() / 1e6)
+			.append(",\"requisicoesPorSegundo\":").append(segundos > 0 ? atendidas / segundos : 0)
+			.append(",\"acertosCache\":").append(acertos.sum()).append(",\"falhasCache\":").append(falhas.sum())
+			.append(",\"estruturasEmCache\":").append(emCache).append('}').toString();
+	} // estatisticas()
+
+	/**
+	 *  Função auxiliar que atende uma requisição: executa a rota, envia a resposta ou o erro em JSON e atualiza os contadores.
+	 *
+	 *  @param troca - a requisição e a sua resposta
+	 *  @param rota - a rota que trata a requisição
+	 *
+	 *  @throws IOException caso ocorra algum problema no envio da resposta
+	 */
+	private void atender(HttpExchange troca, Rota rota) throws IOException {
+		long comeco = System.nanoTime();
+		int status;
+		String json;
+
+		try(troca) {
+			try {
+				Resposta resposta = rota.tratar(troca);
+
+				status = resposta.status;
+				json = resposta.json;
+			}
+			catch(ErroRequisicao e) {
+				status = e.status;
+				json = erro(e.getMessage());
+				if(status == METODO_NAO_PERMITIDO) {
+					troca.getResponseHeaders().set(PERMITIDOS, e.permitidos);
+				}
+			}
+			catch(IllegalArgumentException e) {
+				// Tipo de peça, material ou valor numérico inválido no conteúdo enviado (NumberFormatException é uma subclasse)
+				status = REQUISICAO_INVALIDA;
+				json = erro(e.getMessage());
+			}
+			catch(IOException e) {
+				// Cópia binária inválida ou corpo interrompido
+				status = REQUISICAO_INVALIDA;
+				json = erro(e.getMessage());
+			}
+			catch(RuntimeException e) {
+				status = ERRO_INTERNO;
+				json = erro(e.toString());
+			}
+
+			if(status >= REQUISICAO_INVALIDA) {
+				erros.increment();
+			}
+
+			byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+			troca.getResponseHeaders().set(TIPO_CONTEUDO, TIPO_JSON);
+			troca.sendResponseHeaders(status, bytes.length);
+			try(OutputStream saida = troca.getResponseBody()) {
+				saida.write(bytes);
+			}
+		}
+		finally {
+			long duracao = System.nanoTime() - comeco;
+
+			requisicoes.increment();
+			tempoTotal.add(duracao);
+			tempoMaximo.accumulateAndGet(duracao, Math::max);
+		}
+	} // atender(HttpExchange troca, Rota rota)
+
+	/**
+	 *  Função auxiliar que trata a rota /estruturas: envio de uma estrutura (POST) ou consulta de uma estrutura do cache (GET).
+	 *
+	 *  @param troca - a requisição
+	 *
+	 *  @return a resposta da requisição
+	 *
+	 *  @throws IOException caso o conteúdo não possa ser lido ou a cópia binária seja inválida
+	 */
+	private Resposta estruturas(HttpExchange troca) throws IOException {
+		String caminho = troca.getRequestURI().getPath(), metodo = troca.getRequestMethod();
+
+		if(caminho.equals(ROTA_ESTRUTURAS) || caminho.equals(ROTA_ESTRUTURAS + '/')) {
+			if(!metodo.equals(POST))
+				throw new ErroRequisicao(METODO_NAO_PERMITIDO, METODO_INVALIDO, POST);
+			return receberEstrutura(troca);
+		}
+
+		String id = caminho.substring(ROTA_ESTRUTURAS.length() + 1);
+
+		if(caminho.charAt(ROTA_ESTRUTURAS.length()) != '/' || id.indexOf('/') >= 0)
+			throw new ErroRequisicao(NAO_ENCONTRADO, ROTA_DESCONHECIDA, null);
+		if(!metodo.equals(GET))
+			throw new ErroRequisicao(METODO_NAO_PERMITIDO, METODO_INVALIDO, GET);
+
+		ResumoEstrutura resumo = procurar(id);
+
+		if(resumo == null)
+			throw new ErroRequisicao(NAO_ENCONTRADO, ESTRUTURA_NAO_ENCONTRADA, null);
+		return new Resposta(OK, json(id, resumo));
+	} // estruturas(HttpExchange troca)
+
+	/**
+	 *  Função auxiliar que trata a rota /estatisticas.
+	 *
+	 *  @param troca - a requisição
+	 *
+	 *  @return a resposta com os contadores do serviço
+	 */
+	private Resposta estatisticas(HttpExchange troca) {
+		if(!troca.getRequestMethod().equals(GET))
+			throw new ErroRequisicao(METODO_NAO_PERMITIDO, METODO_INVALIDO, GET);
+		if(!troca.getRequestURI().getPath().equals(ROTA_ESTATISTICAS))
+			throw new ErroRequisicao(NAO_ENCONTRADO, ROTA_DESCONHECIDA, null);
+		return new Resposta(OK, estatisticas());
+	}
+
+	/**
+	 *  Função auxiliar que lê a estrutura enviada no corpo da requisição, calcula as suas informações e a guarda no cache. Um arquivo .csv
+	 *  é interpretado à medida que o corpo chega; uma cópia binária é recebida por inteiro e carregada de uma só vez.
+	 *
+	 *  @param troca - a requisição
+	 *
+	 *  @return a resposta com as informações da estrutura
+	 *
+	 *  @throws IOException caso o conteúdo não possa ser lido ou a cópia binária seja inválida
+	 */
+	private Resposta receberEstrutura(HttpExchange troca) throws IOException {
+		String tamanhoInformado = troca.getRequestHeaders().getFirst(TAMANHO_CONTEUDO), tipo = troca.getRequestHeaders().getFirst(TIPO_CONTEUDO);
+
+		if(tamanhoInformado != null && Long.parseLong(tamanhoInformado.trim()) > tamanhoMaximo)
+			throw new ErroRequisicao(CONTEUDO_MUITO_GRANDE, String.format(CONTEUDO_GRANDE, tamanhoMaximo), null);
+
+		CorpoLimitado corpo = new CorpoLimitado(troca.getRequestBody(), tamanhoMaximo);
+		MessageDigest sha = sha256();
+		EstruturaMetalica estrutura = new EstruturaMetalica();
+		String id;
+
+		try {
+			if(tipo != null && tipo.startsWith(TIPO_BINARIO)) {
+				byte[] conteudo = corpo.readAllBytes();
+
+				id = identificador(sha.digest(conteudo));
+				ResumoEstrutura existente = procurar(id);
+				if(existente != null)
+					return new Resposta(CRIADO, json(id, existente));
+
+				estrutura.carregar(ByteBuffer.wrap(conteudo));
+			}
+			else {
+				new ImportadorCSV(estrutura).importar(Channels.newChannel(new DigestInputStream(corpo, sha)));
+				id = identificador(sha.digest());
+			}
+		}
+		finally {
+			bytesRecebidos.add(corpo.lidos);
+		}
+
+		ResumoEstrutura resumo = estrutura.obterResumo();
+		synchronized(cache) {
+			cache.put(id, resumo);
+		}
+		return new Resposta(CRIADO, json(id, resumo));
+	} // receberEstrutura(HttpExchange troca)
+
+	/**
+	 *  Função auxiliar que procura o resumo de uma estrutura no cache, atualizando os contadores de acertos e falhas.
+	 *
+	 *  @param id - o identificador da estrutura
+	 *
+	 *  @return o resumo da estrutura, ou null caso ela não esteja no cache
+	 */
+	private ResumoEstrutura procurar(String id) {
+		ResumoEstrutura resumo;
+
+		synchronized(cache) {
+			resumo = cache.get(id);
+		}
+		(resumo == null ? falhas : acertos).increment();
+		return resumo;
+	}
+
+	/**
+	 *  Função auxiliar que monta o texto JSON das informações de uma estrutura, com os nomes dos métodos da interface Estrutura. As latas
+	 *  de tinta seguem a ordem de Estrutura.numeroDeLatasDeTinta() (0,5 litro, 2 litros e 5 litros).
+	 *
+	 *  @param id - o identificador da estrutura
+	 *  @param resumo - o resumo da estrutura
+	 *
+	 *  @return as informações da estrutura em JSON
+	 */
+	private static String json(String id, ResumoEstrutura resumo) {
+		return new StringBuilder("{\"id\":\"").append(id).append("\",\"totalPecas\":").append(resumo.getTotalPecas())
+			.append(",\"pesoTotal\":").append(resumo.getPesoTotal()).append(",\"volumeTotal\":").append(resumo.getVolumeTotal())
+			.append(",\"numeroDeLatasDeTinta\":[").append(resumo.getLatasDeTinta(0)).append(',').append(resumo.getLatasDeTinta(1))
+			.append(',').append(resumo.getLatasDeTinta(2)).append("],\"volumeTotalPeca\":{\"cilindro\":")
+			.append(resumo.getVolumeTotal(CILINDRO)).append(",\"cubo\":").append(resumo.getVolumeTotal(CUBO))
+			.append(",\"paralelepipedo\":").append(resumo.getVolumeTotal(PARALELEPIPEDO)).append("}}").toString();
+	}
+
+	/**
+	 *  Função auxiliar que monta o texto JSON de um erro.
+	 *
+	 *  @param mensagem - a mensagem do erro
+	 *
+	 *  @return o erro em JSON
+	 */
+	private static String erro(String mensagem) {
+		StringBuilder json = new StringBuilder("{\"erro\":\"");
+
+		for(int i = 0; mensagem != null && i < mensagem.length(); i++) {
+			char c = mensagem.charAt(i);
+
+			if(c == '"' || c == '\\')
+				json.append('\\').append(c);
+			else if(c < ' ')
+				json.append(String.format("\\u%04x", (int) c));
+			else
+				json.append(c);
+		}
+		return json.append("\"}").toString();
+	} // erro(String mensagem)
+
+	/**
+	 *  Função auxiliar que cria o calculador do código SHA-256.
+	 *
+	 *  @return o calculador do código SHA-256
+	 */
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch(NoSuchAlgorithmException e) {
+			// Toda implementação da plataforma Java deve oferecer o SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 *  Função auxiliar que obtém o identificador de uma estrutura a partir do código SHA-256 do seu conteúdo.
+	 *
+	 *  @param codigo - o código SHA-256 do conteúdo
+	 *
+	 *  @return o identificador, em hexadecimal
+	 */
+	private static String identificador(byte[] codigo) {
+		return HexFormat.of().formatHex(codigo, 0, BYTES_IDENTIFICADOR);
+	}
+
+	/**
+	 *  Tratamento de uma rota do serviço.
+	 */
+	@FunctionalInterface
+	private interface Rota {
+		/**
+		 *  Trata uma requisição.
+		 *
+		 *  @param troca - a requisição
+		 *
+		 *  @return a resposta da requisição
+		 *
+		 *  @throws IOException caso o conteúdo não possa ser lido ou seja inválido
+		 */
+		Resposta tratar(HttpExchange troca) throws IOException;
+	} // interface Rota
+
+	/**
+	 *  Resposta de uma requisição: o código HTTP e o corpo em JSON.
+	 */
+	private static final class Resposta {
+		private final int status;
+		private final String json;
+
+		Resposta(int status, String json) {
+			this.status = status;
+			this.json = json;
+		}
+	} // class Resposta
+
+	/**
+	 *  Erro de uma requisição, com o código HTTP da resposta e, para métodos não permitidos, o método aceito pela rota.
+	 */
+	private static final class ErroRequisicao extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+
+		private final int status;
+		private final String permitidos;
+
+		ErroRequisicao(int status, String mensagem, String permitidos) {
+			super(mensagem, null, false, false);
+			this.status = status;
+			this.permitidos = permitidos;
+		}
+	} // class ErroRequisicao
+
+	/**
+	 *  Corpo de uma requisição que interrompe a leitura com um ErroRequisicao assim que o tamanho máximo é excedido (por exemplo, em um
+	 *  corpo enviado em partes, sem o tamanho informado), e conta os bytes lidos.
+	 */
+	private static final class CorpoLimitado extends FilterInputStream {
+		private final long limite;
+		private long lidos;
+
+		CorpoLimitado(InputStream corpo, long limite) {
+			super(corpo);
+			this.limite = limite;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+
+			if(b >= 0) {
+				contar(1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] destino, int posicao, int tamanho) throws IOException {
+			int n = super.read(destino, posicao, tamanho);
+
+			if(n > 0) {
+				contar(n);
+			}
+			return n;
+		}
+
+		/**
+		 *  Soma os bytes lidos e interrompe a leitura caso o limite seja excedido.
+		 *
+		 *  @param bytes - os bytes lidos
+		 */
+		private void contar(int bytes) {
+			lidos += bytes;
+			if(lidos > limite)
+				throw new ErroRequisicao(CONTEUDO_MUITO_GRANDE, String.format(CONTEUDO_GRANDE, limite), null);
+		}
+	} // class CorpoLimitado
+} // class ServicoCalculo
@@ -0,0 +1,7 @@
+/**
+ *  Armazena o serviço HTTP local que calcula as informações de estruturas metálicas enviadas por outros programas.
+ *
+ *  @author Hugo Vinícius Rodrigues Pereira
+ *  @version 0.1
+ */
+package hvrp.infoem.servico;